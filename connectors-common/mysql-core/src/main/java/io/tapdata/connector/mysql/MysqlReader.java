@@ -37,6 +37,7 @@ import io.tapdata.kit.EmptyKit;
 import io.tapdata.pdk.apis.consumer.StreamReadConsumer;
 import io.tapdata.pdk.apis.context.TapConnectorContext;
 import io.tapdata.pdk.apis.entity.TapAdvanceFilter;
+import io.tapdata.pdk.apis.entity.TapPartitionFilter;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.kafka.connect.data.Field;
@@ -104,12 +105,29 @@ public class MysqlReader implements Closeable {
 		SqlMaker sqlMaker = new MysqlMaker();
 		String sql = sqlMaker.selectSql(tapConnectorContext, tapTable, mysqlSnapshotOffset);
 		Collection<String> pks = tapTable.primaryKeys(true);
+		readRows(sql, stop, data -> {
+			for (String pk : pks) {
+				if (data.containsKey(pk)) {
+					mysqlSnapshotOffset.getOffset().put(pk, data.get(pk));
+				}
+			}
+			consumer.accept(data, mysqlSnapshotOffset);
+		});
+	}
+
+	public void readWithFilter(TapConnectorContext tapConnectorContext, TapTable tapTable, TapAdvanceFilter tapAdvanceFilter,
+							   Predicate<?> stop, Consumer<Map<String, Object>> consumer) throws Throwable {
+		SqlMaker sqlMaker = new MysqlMaker();
+		String sql = sqlMaker.selectSql(tapConnectorContext, tapTable, tapAdvanceFilter);
 		AtomicLong row = new AtomicLong(0L);
 		try {
 			Set<String> dateTypeSet = dateFields(tapTable);
 			this.mysqlJdbcContext.queryWithStream(sql, rs -> {
 				ResultSetMetaData metaData = rs.getMetaData();
-				while ((null == stop || !stop.test(null)) && rs.next()) {
+				while (rs.next()) {
+					if (null != stop && stop.test(null)) {
+						break;
+					}
 					row.incrementAndGet();
 					Map<String, Object> data = new HashMap<>();
 					for (int i = 0; i < metaData.getColumnCount(); i++) {
@@ -120,20 +138,18 @@ public class MysqlReader implements Closeable {
 							if ("TIME".equalsIgnoreCase(metaData.getColumnTypeName(i + 1))) {
 								value = rs.getString(i + 1);
 							} else {
-								value = rs.getObject(i + 1);
-								if (EmptyKit.isNull(value)) {
+								if (dateTypeSet.contains(columnName)) {
 									value = rs.getString(i + 1);
+								} else {
+									value = rs.getObject(i + 1);
 								}
 							}
 							data.put(columnName, value);
-							if (pks.contains(columnName)) {
-								mysqlSnapshotOffset.getOffset().put(columnName, value);
-							}
 						} catch (Exception e) {
 							throw new Exception("Read column value failed, row: " + row.get() + ", column name: " + columnName + ", data: " + data + "; Error: " + e.getMessage(), e);
 						}
 					}
-					consumer.accept(data, mysqlSnapshotOffset);
+					consumer.accept(data);
 				}
 			});
 		} catch (Throwable e) {
@@ -145,19 +161,24 @@ public class MysqlReader implements Closeable {
 		}
 	}
 
-	public void readWithFilter(TapConnectorContext tapConnectorContext, TapTable tapTable, TapAdvanceFilter tapAdvanceFilter,
-							   Predicate<?> stop, Consumer<Map<String, Object>> consumer) throws Throwable {
+	public void readWithPartition(TapConnectorContext tapConnectorContext, TapTable tapTable, TapPartitionFilter tapPartitionFilter,
+								  Predicate<?> stop, Consumer<Map<String, Object>> consumer) throws Throwable {
+		TapAdvanceFilter tapAdvanceFilter = TapAdvanceFilter.create();
+		tapAdvanceFilter.setMatch(tapPartitionFilter.getMatch());
+		tapAdvanceFilter.setOperators(tapPartitionFilter.operators());
 		SqlMaker sqlMaker = new MysqlMaker();
-		String sql = sqlMaker.selectSql(tapConnectorContext, tapTable, tapAdvanceFilter);
+		readRows(sqlMaker.selectSql(tapConnectorContext, tapTable, tapAdvanceFilter), stop, consumer);
+	}
+
+	/**
+	 * Stream the rows of the snapshot sql until stop, errors after stop are ignored
+	 */
+	private void readRows(String sql, Predicate<?> stop, Consumer<Map<String, Object>> consumer) throws Throwable {
 		AtomicLong row = new AtomicLong(0L);
 		try {
-			Set<String> dateTypeSet = dateFields(tapTable);
 			this.mysqlJdbcContext.queryWithStream(sql, rs -> {
 				ResultSetMetaData metaData = rs.getMetaData();
-				while (rs.next()) {
-					if (null != stop && stop.test(null)) {
-						break;
-					}
+				while ((null == stop || !stop.test(null)) && rs.next()) {
 					row.incrementAndGet();
 					Map<String, Object> data = new HashMap<>();
 					for (int i = 0; i < metaData.getColumnCount(); i++) {
@@ -168,10 +189,9 @@ public class MysqlReader implements Closeable {
 							if ("TIME".equalsIgnoreCase(metaData.getColumnTypeName(i + 1))) {
 								value = rs.getString(i + 1);
 							} else {
-								if (dateTypeSet.contains(columnName)) {
+								value = rs.getObject(i + 1);
+								if (EmptyKit.isNull(value)) {
 									value = rs.getString(i + 1);
-								} else {
-									value = rs.getObject(i + 1);
 								}
 							}
 							data.put(columnName, value);
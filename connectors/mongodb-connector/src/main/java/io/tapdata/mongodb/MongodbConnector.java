@@ -414,6 +414,7 @@ public class MongodbConnector extends ConnectorBase {
 
 		//TO be as a source, need to implement below methods.
 		connectorFunctions.supportBatchRead(this::batchRead);
+		connectorFunctions.supportBatchReadPartition(this::batchReadPartition);
 		connectorFunctions.supportBatchCount(this::batchCount);
 		connectorFunctions.supportCreateIndex(this::createIndex);
 		connectorFunctions.supportStreamRead(this::streamRead);
@@ -731,6 +732,41 @@ public class MongodbConnector extends ConnectorBase {
 		}
 	}
 
+	private void batchReadPartition(TapConnectorContext connectorContext, TapTable table, TapPartitionFilter partitionFilter, int eventBatchSize, Consumer<List<TapEvent>> eventsConsumer) throws Throwable {
+		List<TapEvent> tapEvents = list();
+		MongoCollection<Document> collection = getMongoCollection(table.getId());
+		final int batchSize = eventBatchSize > 0 ? eventBatchSize : 5000;
+		List<Bson> bsonList = new ArrayList<>();
+		DataMap match = partitionFilter.getMatch();
+		if (match != null) {
+			for (Map.Entry<String, Object> entry : match.entrySet()) {
+				bsonList.add(eq(entry.getKey(), entry.getValue()));
+			}
+		}
+		for (QueryOperator op : partitionFilter.operators()) {
+			if (op.getOperator() == QueryOperator.GTE) {
+				bsonList.add(gte(op.getKey(), op.getValue()));
+			} else if (op.getOperator() == QueryOperator.LT) {
+				bsonList.add(lt(op.getKey(), op.getValue()));
+			}
+		}
+		Bson query = bsonList.isEmpty() ? new Document() : and(bsonList.toArray(new Bson[0]));
+
+		try (final MongoCursor<Document> mongoCursor = collection.find(query).batchSize(batchSize).iterator()) {
+			while (mongoCursor.hasNext()) {
+				if (!isAlive()) return;
+				tapEvents.add(insertRecordEvent(mongoCursor.next(), table.getId()));
+				if (tapEvents.size() >= batchSize) {
+					eventsConsumer.accept(tapEvents);
+					tapEvents = list();
+				}
+			}
+		}
+		if (!tapEvents.isEmpty()) {
+			eventsConsumer.accept(tapEvents);
+		}
+	}
+
 	private Object streamOffset(TapConnectorContext connectorContext, Long offsetStartTime) {
 		if (mongodbStreamReader == null) {
 			mongodbStreamReader = createStreamReader();
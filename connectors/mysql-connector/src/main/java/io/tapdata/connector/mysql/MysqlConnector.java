@@ -105,6 +105,7 @@ public class MysqlConnector extends ConnectorBase {
         connectorFunctions.supportClearTable(this::clearTable);
         connectorFunctions.supportBatchCount(this::batchCount);
         connectorFunctions.supportBatchRead(this::batchRead);
+        connectorFunctions.supportBatchReadPartition(this::batchReadPartition);
         connectorFunctions.supportStreamRead(this::streamRead);
         connectorFunctions.supportTimestampToStreamOffset(this::timestampToStreamOffset);
         connectorFunctions.supportQueryByAdvanceFilter(this::query);
@@ -293,6 +294,22 @@ public class MysqlConnector extends ConnectorBase {
         }
     }
 
+    private void batchReadPartition(TapConnectorContext tapConnectorContext, TapTable tapTable, TapPartitionFilter tapPartitionFilter, int batchSize, Consumer<List<TapEvent>> consumer) throws Throwable {
+        List<TapEvent> tempList = new ArrayList<>();
+        this.mysqlReader.readWithPartition(tapConnectorContext, tapTable, tapPartitionFilter, n -> !isAlive(), data -> {
+            TapRecordEvent tapRecordEvent = tapRecordWrapper(tapConnectorContext, null, data, tapTable, "i");
+            tempList.add(tapRecordEvent);
+            if (tempList.size() == batchSize) {
+                consumer.accept(tempList);
+                tempList.clear();
+            }
+        });
+        if (CollectionUtils.isNotEmpty(tempList)) {
+            consumer.accept(tempList);
+            tempList.clear();
+        }
+    }
+
     private void query(TapConnectorContext tapConnectorContext, TapAdvanceFilter tapAdvanceFilter, TapTable tapTable, Consumer<FilterResults> consumer) throws Throwable {
         FilterResults filterResults = new FilterResults();
         filterResults.setFilter(tapAdvanceFilter);
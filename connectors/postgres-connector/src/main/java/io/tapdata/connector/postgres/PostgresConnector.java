@@ -168,6 +168,7 @@ public class PostgresConnector extends ConnectorBase {
         // source
         connectorFunctions.supportBatchCount(this::batchCount);
         connectorFunctions.supportBatchRead(this::batchRead);
+        connectorFunctions.supportBatchReadPartition(this::batchReadPartition);
         connectorFunctions.supportStreamRead(this::streamRead);
         connectorFunctions.supportTimestampToStreamOffset(this::timestampToStreamOffset);
         // query
@@ -488,11 +489,7 @@ public class PostgresConnector extends ConnectorBase {
     }
 
     private void batchRead(TapConnectorContext tapConnectorContext, TapTable tapTable, Object offsetState, int eventBatchSize, BiConsumer<List<TapEvent>, Object> eventsOffsetConsumer) throws Throwable {
-        //test streamRead log plugin
-        if (postgresTest.testLogPlugin().getResult() == TestItem.RESULT_SUCCESSFULLY && EmptyKit.isNull(slotName)) {
-            buildSlot();
-            tapConnectorContext.getStateMap().put("tapdata_pg_slot", slotName);
-        }
+        buildSlotForStreamRead(tapConnectorContext);
         PostgresOffset postgresOffset;
         //beginning
         if (null == offsetState) {
@@ -503,6 +500,41 @@ public class PostgresConnector extends ConnectorBase {
             postgresOffset = (PostgresOffset) offsetState;
         }
         String sql = "SELECT * FROM \"" + postgresConfig.getSchema() + "\".\"" + tapTable.getId() + "\"" + postgresOffset.getSortString() + " OFFSET " + postgresOffset.getOffsetValue();
+        queryInsertEvents(sql, tapTable, eventBatchSize, tapEvents -> {
+            postgresOffset.setOffsetValue(postgresOffset.getOffsetValue() + tapEvents.size());
+            eventsOffsetConsumer.accept(tapEvents, postgresOffset);
+        });
+    }
+
+    private void batchReadPartition(TapConnectorContext tapConnectorContext, TapTable tapTable, TapPartitionFilter partitionFilter, int eventBatchSize, Consumer<List<TapEvent>> eventsConsumer) throws Throwable {
+        buildSlotForStreamRead(tapConnectorContext);
+        TapAdvanceFilter filter = TapAdvanceFilter.create();
+        filter.setMatch(partitionFilter.getMatch());
+        filter.setOperators(partitionFilter.operators());
+        String sql = "SELECT * FROM \"" + postgresConfig.getSchema() + "\".\"" + tapTable.getId() + "\" " + CommonSqlMaker.buildSqlByAdvanceFilter(filter);
+        queryInsertEvents(sql, tapTable, eventBatchSize, eventsConsumer);
+    }
+
+    /**
+     * build the slot before the first snapshot read, so the stream read starts from the snapshot, partitions of one
+     * table may be read concurrently
+     */
+    private void buildSlotForStreamRead(TapConnectorContext tapConnectorContext) throws Throwable {
+        //test streamRead log plugin
+        if (postgresTest.testLogPlugin().getResult() == TestItem.RESULT_SUCCESSFULLY && EmptyKit.isNull(slotName)) {
+            synchronized (this) {
+                if (EmptyKit.isNull(slotName)) {
+                    buildSlot();
+                    tapConnectorContext.getStateMap().put("tapdata_pg_slot", slotName);
+                }
+            }
+        }
+    }
+
+    /**
+     * read the rows of the sql as insert events, handed over by eventBatchSize
+     */
+    private void queryInsertEvents(String sql, TapTable tapTable, int eventBatchSize, Consumer<List<TapEvent>> eventsConsumer) throws Throwable {
         postgresJdbcContext.query(sql, resultSet -> {
             List<TapEvent> tapEvents = list();
             //get all column names
@@ -510,18 +542,15 @@ public class PostgresConnector extends ConnectorBase {
             while (isAlive() && resultSet.next()) {
                 tapEvents.add(insertRecordEvent(DbKit.getRowFromResultSet(resultSet, columnNames), tapTable.getId()));
                 if (tapEvents.size() == eventBatchSize) {
-                    postgresOffset.setOffsetValue(postgresOffset.getOffsetValue() + eventBatchSize);
-                    eventsOffsetConsumer.accept(tapEvents, postgresOffset);
+                    eventsConsumer.accept(tapEvents);
                     tapEvents = list();
                 }
             }
             //last events those less than eventBatchSize
             if (EmptyKit.isNotEmpty(tapEvents)) {
-                postgresOffset.setOffsetValue(postgresOffset.getOffsetValue() + tapEvents.size());
-                eventsOffsetConsumer.accept(tapEvents, postgresOffset);
+                eventsConsumer.accept(tapEvents);
             }
         });
-
     }
 
     private void streamRead(TapConnectorContext nodeContext, List<String> tableList, Object offsetState, int recordSize, StreamReadConsumer consumer) throws Throwable {
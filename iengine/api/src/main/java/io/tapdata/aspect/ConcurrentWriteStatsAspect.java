@@ -0,0 +1,86 @@
+package io.tapdata.aspect;
+
+/**
+ * Stats of the concurrent target writer
+ */
+public class ConcurrentWriteStatsAspect extends DataNodeAspect<ConcurrentWriteStatsAspect> {
+
+	private int hotPartition;
+	public ConcurrentWriteStatsAspect hotPartition(int hotPartition) {
+		this.hotPartition = hotPartition;
+		return this;
+	}
+
+	/**
+	 * Load of the busiest writer thread divided by the average load, null if nothing was written
+	 */
+	private Double skew;
+	public ConcurrentWriteStatsAspect skew(Double skew) {
+		this.skew = skew;
+		return this;
+	}
+
+	/**
+	 * Barriers stopping all writer threads
+	 */
+	private long fullBarriers;
+	public ConcurrentWriteStatsAspect fullBarriers(long fullBarriers) {
+		this.fullBarriers = fullBarriers;
+		return this;
+	}
+
+	/**
+	 * Barriers between two writer threads, for updates moving the key to another thread
+	 */
+	private long partitionBarriers;
+	public ConcurrentWriteStatsAspect partitionBarriers(long partitionBarriers) {
+		this.partitionBarriers = partitionBarriers;
+		return this;
+	}
+
+	private long barrierWaitMs;
+	public ConcurrentWriteStatsAspect barrierWaitMs(long barrierWaitMs) {
+		this.barrierWaitMs = barrierWaitMs;
+		return this;
+	}
+
+	public int getHotPartition() {
+		return hotPartition;
+	}
+
+	public void setHotPartition(int hotPartition) {
+		this.hotPartition = hotPartition;
+	}
+
+	public Double getSkew() {
+		return skew;
+	}
+
+	public void setSkew(Double skew) {
+		this.skew = skew;
+	}
+
+	public long getFullBarriers() {
+		return fullBarriers;
+	}
+
+	public void setFullBarriers(long fullBarriers) {
+		this.fullBarriers = fullBarriers;
+	}
+
+	public long getPartitionBarriers() {
+		return partitionBarriers;
+	}
+
+	public void setPartitionBarriers(long partitionBarriers) {
+		this.partitionBarriers = partitionBarriers;
+	}
+
+	public long getBarrierWaitMs() {
+		return barrierWaitMs;
+	}
+
+	public void setBarrierWaitMs(long barrierWaitMs) {
+		this.barrierWaitMs = barrierWaitMs;
+	}
+}
@@ -0,0 +1,80 @@
+package io.tapdata.aspect;
+
+/**
+ * Stats of the write behind state map of a connector node, fired after every flush
+ */
+public class StateMapStatsAspect extends DataNodeAspect<StateMapStatsAspect> {
+
+	private long hits;
+	public StateMapStatsAspect hits(long hits) {
+		this.hits = hits;
+		return this;
+	}
+
+	private long misses;
+	public StateMapStatsAspect misses(long misses) {
+		this.misses = misses;
+		return this;
+	}
+
+	private long flushes;
+	public StateMapStatsAspect flushes(long flushes) {
+		this.flushes = flushes;
+		return this;
+	}
+
+	/**
+	 * Entries written to the store, updates of one key between two flushes count once
+	 */
+	private long flushedEntries;
+	public StateMapStatsAspect flushedEntries(long flushedEntries) {
+		this.flushedEntries = flushedEntries;
+		return this;
+	}
+
+	private long flushCostMs;
+	public StateMapStatsAspect flushCostMs(long flushCostMs) {
+		this.flushCostMs = flushCostMs;
+		return this;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public void setHits(long hits) {
+		this.hits = hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public void setMisses(long misses) {
+		this.misses = misses;
+	}
+
+	public long getFlushes() {
+		return flushes;
+	}
+
+	public void setFlushes(long flushes) {
+		this.flushes = flushes;
+	}
+
+	public long getFlushedEntries() {
+		return flushedEntries;
+	}
+
+	public void setFlushedEntries(long flushedEntries) {
+		this.flushedEntries = flushedEntries;
+	}
+
+	public long getFlushCostMs() {
+		return flushCostMs;
+	}
+
+	public void setFlushCostMs(long flushCostMs) {
+		this.flushCostMs = flushCostMs;
+	}
+}
@@ -1,6 +1,9 @@
 package io.tapdata;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author samuel
@@ -14,4 +17,18 @@ public interface ConstructIterator<E> extends Iterator<E> {
 	E peek();
 
 	long getSequence();
+
+	/**
+	 * Read the next batch of elements, implementations may wait up to timeout when there is none
+	 *
+	 * @return elements read, empty when timeout
+	 */
+	default List<E> nextBatch(long timeout, TimeUnit unit) throws Exception {
+		List<E> batch = new ArrayList<>();
+		E e = tryNext();
+		if (null != e) {
+			batch.add(e);
+		}
+		return batch;
+	}
 }
@@ -1,6 +1,9 @@
 package io.tapdata;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author samuel
@@ -13,6 +16,17 @@ public interface HazelcastConstruct<T> {
 		throw new UnsupportedOperationException();
 	}
 
+	/**
+	 * Insert in order, implementations may write by batch
+	 */
+	default int insertMany(List<T> data) throws Exception {
+		int count = 0;
+		for (T datum : data) {
+			count += insert(datum);
+		}
+		return count;
+	}
+
 	default int insert(String key, T data) throws Exception {
 		throw new UnsupportedOperationException();
 	}
@@ -25,6 +39,17 @@ public interface HazelcastConstruct<T> {
 		throw new UnsupportedOperationException();
 	}
 
+	/**
+	 * Upsert many entries in one go
+	 */
+	default int upsertAll(Map<String, T> data) throws Exception {
+		int count = 0;
+		for (Map.Entry<String, T> entry : data.entrySet()) {
+			count += upsert(entry.getKey(), entry.getValue());
+		}
+		return count;
+	}
+
 	default int delete(String key) throws Exception {
 		throw new UnsupportedOperationException();
 	}
@@ -44,6 +69,20 @@ public interface HazelcastConstruct<T> {
 		throw new UnsupportedOperationException();
 	}
 
+	/**
+	 * Find values of many keys in one go, keys not found are left out of the result
+	 */
+	default Map<String, T> findAll(Set<String> keys) throws Exception {
+		Map<String, T> result = new HashMap<>();
+		for (String key : keys) {
+			T value = find(key);
+			if (null != value) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * For ringbuffer
 	 *
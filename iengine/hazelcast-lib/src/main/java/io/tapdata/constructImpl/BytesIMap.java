@@ -14,16 +14,31 @@ import io.tapdata.entity.utils.ObjectSerializable;
 public class BytesIMap<T> extends BaseConstruct<T> {
 
     protected IMap<String, Object> iMap;
+    private final boolean compact;
 
     public BytesIMap(HazelcastInstance hazelcastInstance, String name) {
+        this(hazelcastInstance, name, false);
+    }
+
+    /**
+     * @param compact write values by {@link CompactValueCodec}, values written by {@link ObjectSerializable} are still readable
+     */
+    public BytesIMap(HazelcastInstance hazelcastInstance, String name, boolean compact) {
         this.iMap = hazelcastInstance.getMap(name);
+        this.compact = compact;
     }
 
     private byte[] serialized(T data) {
+        if (compact) {
+            return CompactValueCodec.encode(data);
+        }
         return InstanceFactory.instance(ObjectSerializable.class).fromObject(data);
     }
 
     private T deserialized(byte[] data) {
+        if (CompactValueCodec.isCompact(data)) {
+            return (T) CompactValueCodec.decode(data);
+        }
         return (T) InstanceFactory.instance(ObjectSerializable.class).toObject(data);
     }
 
@@ -0,0 +1,379 @@
+package io.tapdata.constructImpl;
+
+import io.tapdata.entity.utils.InstanceFactory;
+import io.tapdata.entity.utils.ObjectSerializable;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact type tagged encoding of construct values, for row maps and the values in them
+ * <p>
+ * Common value types are written by a one byte tag and their raw bytes, strings and byte arrays are read straight out of
+ * the encoded bytes. Other types are written by {@link ObjectSerializable}. Encoding goes through a buffer reused by
+ * the thread, so the only allocation is the result.
+ * <p>
+ * Encoded bytes start with {@link #MAGIC}, which {@link ObjectSerializable} never starts with, so values written before
+ * are still readable by {@link #decode(byte[])}
+ *
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class CompactValueCodec {
+
+	public static final byte MAGIC = (byte) 0xC7;
+	private static final byte VERSION = 1;
+
+	private static final byte NULL = 0;
+	private static final byte STRING = 1;
+	private static final byte INT = 2;
+	private static final byte LONG = 3;
+	private static final byte DOUBLE = 4;
+	private static final byte FLOAT = 5;
+	private static final byte TRUE = 6;
+	private static final byte FALSE = 7;
+	private static final byte SHORT = 8;
+	private static final byte BYTE = 9;
+	private static final byte BIG_DECIMAL = 10;
+	private static final byte BIG_INTEGER = 11;
+	private static final byte DATE = 12;
+	private static final byte BYTES = 13;
+	private static final byte OBJECT_ID = 14;
+	private static final byte MAP = 15;
+	private static final byte DOCUMENT = 16;
+	private static final byte LIST = 17;
+	private static final byte SERIALIZED = 18;
+
+	private static final int MAX_REUSED_BUFFER = 1024 * 1024;
+	private static final ThreadLocal<Output> OUTPUT = ThreadLocal.withInitial(Output::new);
+
+	private CompactValueCodec() {
+	}
+
+	public static byte[] encode(Object value) {
+		Output output = OUTPUT.get();
+		output.reset();
+		output.writeByte(MAGIC);
+		output.writeByte(VERSION);
+		writeValue(output, value);
+		byte[] bytes = output.toByteArray();
+		if (output.buffer.length > MAX_REUSED_BUFFER) {
+			// do not keep a huge buffer for a rare huge value
+			OUTPUT.remove();
+		}
+		return bytes;
+	}
+
+	public static boolean isCompact(byte[] bytes) {
+		return null != bytes && bytes.length >= 2 && bytes[0] == MAGIC;
+	}
+
+	/**
+	 * @return decoded value, bytes not encoded by this codec are read by {@link ObjectSerializable}
+	 */
+	public static Object decode(byte[] bytes) {
+		if (!isCompact(bytes)) {
+			return null == bytes ? null : InstanceFactory.instance(ObjectSerializable.class).toObject(bytes);
+		}
+		if (bytes[1] != VERSION) {
+			throw new IllegalArgumentException("Unsupported compact value version: " + bytes[1]);
+		}
+		Input input = new Input(bytes, 2);
+		return readValue(input);
+	}
+
+	/**
+	 * Stored bytes come back as {@link Binary} from BSON storage
+	 */
+	public static byte[] bytesOf(Object stored) {
+		if (stored instanceof byte[]) {
+			return (byte[]) stored;
+		}
+		if (stored instanceof Binary) {
+			return ((Binary) stored).getData();
+		}
+		return null;
+	}
+
+	private static void writeValue(Output output, Object value) {
+		if (null == value) {
+			output.writeByte(NULL);
+		} else if (value instanceof String) {
+			output.writeByte(STRING);
+			output.writeString((String) value);
+		} else if (value instanceof Integer) {
+			output.writeByte(INT);
+			output.writeInt((Integer) value);
+		} else if (value instanceof Long) {
+			output.writeByte(LONG);
+			output.writeLong((Long) value);
+		} else if (value instanceof Double) {
+			output.writeByte(DOUBLE);
+			output.writeLong(Double.doubleToRawLongBits((Double) value));
+		} else if (value instanceof Float) {
+			output.writeByte(FLOAT);
+			output.writeInt(Float.floatToRawIntBits((Float) value));
+		} else if (value instanceof Boolean) {
+			output.writeByte((Boolean) value ? TRUE : FALSE);
+		} else if (value instanceof Short) {
+			output.writeByte(SHORT);
+			output.writeInt((Short) value);
+		} else if (value instanceof Byte) {
+			output.writeByte(BYTE);
+			output.writeByte((Byte) value);
+		} else if (value instanceof BigDecimal) {
+			output.writeByte(BIG_DECIMAL);
+			output.writeInt(((BigDecimal) value).scale());
+			output.writeBytes(((BigDecimal) value).unscaledValue().toByteArray());
+		} else if (value instanceof BigInteger) {
+			output.writeByte(BIG_INTEGER);
+			output.writeBytes(((BigInteger) value).toByteArray());
+		} else if (value.getClass() == Date.class) {
+			output.writeByte(DATE);
+			output.writeLong(((Date) value).getTime());
+		} else if (value instanceof byte[]) {
+			output.writeByte(BYTES);
+			output.writeBytes((byte[]) value);
+		} else if (value instanceof ObjectId) {
+			output.writeByte(OBJECT_ID);
+			output.writeRaw(((ObjectId) value).toByteArray());
+		} else if (value instanceof Document) {
+			output.writeByte(DOCUMENT);
+			writeEntries(output, (Map<?, ?>) value);
+		} else if ((value.getClass() == HashMap.class || value.getClass() == LinkedHashMap.class) && stringKeys((Map<?, ?>) value)) {
+			// read back as LinkedHashMap, which is a HashMap too
+			output.writeByte(MAP);
+			writeEntries(output, (Map<?, ?>) value);
+		} else if (value instanceof List) {
+			// read back as ArrayList
+			output.writeByte(LIST);
+			List<?> list = (List<?>) value;
+			output.writeVarInt(list.size());
+			for (Object element : list) {
+				writeValue(output, element);
+			}
+		} else {
+			byte[] serialized = InstanceFactory.instance(ObjectSerializable.class).fromObject(value);
+			output.writeByte(SERIALIZED);
+			output.writeBytes(serialized);
+		}
+	}
+
+	private static boolean stringKeys(Map<?, ?> map) {
+		for (Object key : map.keySet()) {
+			if (!(key instanceof String)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void writeEntries(Output output, Map<?, ?> map) {
+		output.writeVarInt(map.size());
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			output.writeString((String) entry.getKey());
+			writeValue(output, entry.getValue());
+		}
+	}
+
+	private static Object readValue(Input input) {
+		byte tag = input.readByte();
+		switch (tag) {
+			case NULL:
+				return null;
+			case STRING:
+				return input.readString();
+			case INT:
+				return input.readInt();
+			case LONG:
+				return input.readLong();
+			case DOUBLE:
+				return Double.longBitsToDouble(input.readLong());
+			case FLOAT:
+				return Float.intBitsToFloat(input.readInt());
+			case TRUE:
+				return Boolean.TRUE;
+			case FALSE:
+				return Boolean.FALSE;
+			case SHORT:
+				return (short) input.readInt();
+			case BYTE:
+				return input.readByte();
+			case BIG_DECIMAL:
+				int scale = input.readInt();
+				return new BigDecimal(new BigInteger(input.readBytes()), scale);
+			case BIG_INTEGER:
+				return new BigInteger(input.readBytes());
+			case DATE:
+				return new Date(input.readLong());
+			case BYTES:
+				return input.readBytes();
+			case OBJECT_ID:
+				return new ObjectId(input.readRaw(12));
+			case DOCUMENT:
+				return readEntries(input, new Document());
+			case MAP:
+				return readEntries(input, new LinkedHashMap<>());
+			case LIST:
+				int size = input.readVarInt();
+				List<Object> list = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					list.add(readValue(input));
+				}
+				return list;
+			case SERIALIZED:
+				return InstanceFactory.instance(ObjectSerializable.class).toObject(input.readBytes());
+			default:
+				throw new IllegalArgumentException("Unknown compact value tag " + tag + " at " + (input.position - 1));
+		}
+	}
+
+	private static <M extends Map<String, Object>> M readEntries(Input input, M map) {
+		int size = input.readVarInt();
+		for (int i = 0; i < size; i++) {
+			String key = input.readString();
+			map.put(key, readValue(input));
+		}
+		return map;
+	}
+
+	private static class Output {
+		private byte[] buffer = new byte[256];
+		private int position;
+
+		private void reset() {
+			position = 0;
+		}
+
+		private void ensure(int length) {
+			if (position + length > buffer.length) {
+				buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + length));
+			}
+		}
+
+		private void writeByte(int value) {
+			ensure(1);
+			buffer[position++] = (byte) value;
+		}
+
+		private void writeInt(int value) {
+			ensure(4);
+			buffer[position++] = (byte) (value >>> 24);
+			buffer[position++] = (byte) (value >>> 16);
+			buffer[position++] = (byte) (value >>> 8);
+			buffer[position++] = (byte) value;
+		}
+
+		private void writeLong(long value) {
+			writeInt((int) (value >>> 32));
+			writeInt((int) value);
+		}
+
+		private void writeVarInt(int value) {
+			while ((value & ~0x7F) != 0) {
+				writeByte((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			writeByte(value);
+		}
+
+		private void writeRaw(byte[] bytes) {
+			ensure(bytes.length);
+			System.arraycopy(bytes, 0, buffer, position, bytes.length);
+			position += bytes.length;
+		}
+
+		private void writeBytes(byte[] bytes) {
+			writeVarInt(bytes.length);
+			writeRaw(bytes);
+		}
+
+		private void writeString(String value) {
+			int length = value.length();
+			// ascii is the common case, written without a temporary byte array, length in chars is the length in bytes
+			ensure(length + 5);
+			int start = position;
+			writeVarInt(length);
+			int lengthBytes = position - start;
+			for (int i = 0; i < length; i++) {
+				char c = value.charAt(i);
+				if (c >= 0x80) {
+					position = start;
+					writeBytes(value.getBytes(StandardCharsets.UTF_8));
+					return;
+				}
+				buffer[start + lengthBytes + i] = (byte) c;
+			}
+			position = start + lengthBytes + length;
+		}
+
+		private byte[] toByteArray() {
+			return Arrays.copyOf(buffer, position);
+		}
+	}
+
+	private static class Input {
+		private final byte[] bytes;
+		private int position;
+
+		private Input(byte[] bytes, int position) {
+			this.bytes = bytes;
+			this.position = position;
+		}
+
+		private byte readByte() {
+			return bytes[position++];
+		}
+
+		private int readInt() {
+			return ((bytes[position++] & 0xFF) << 24)
+					| ((bytes[position++] & 0xFF) << 16)
+					| ((bytes[position++] & 0xFF) << 8)
+					| (bytes[position++] & 0xFF);
+		}
+
+		private long readLong() {
+			return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+		}
+
+		private int readVarInt() {
+			int value = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = bytes[position++];
+				value |= (b & 0x7F) << shift;
+				shift += 7;
+			} while ((b & 0x80) != 0);
+			return value;
+		}
+
+		private byte[] readRaw(int length) {
+			byte[] result = Arrays.copyOfRange(bytes, position, position + length);
+			position += length;
+			return result;
+		}
+
+		private byte[] readBytes() {
+			return readRaw(readVarInt());
+		}
+
+		private String readString() {
+			int length = readVarInt();
+			String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+			position += length;
+			return value;
+		}
+	}
+}
@@ -3,6 +3,10 @@ package io.tapdata.constructImpl;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * @author samuel
  * @Description
@@ -18,7 +22,7 @@ public class ConstructIMap<T> extends BaseConstruct<T> {
 
 	@Override
 	public int insert(String key, T data) throws Exception {
-		iMap.put(key, data);
+		iMap.put(key, toStored(data));
 		return 1;
 	}
 
@@ -32,6 +36,19 @@ public class ConstructIMap<T> extends BaseConstruct<T> {
 		return insert(key, data);
 	}
 
+	@Override
+	public int upsertAll(Map<String, T> data) throws Exception {
+		if (data.isEmpty()) {
+			return 0;
+		}
+		Map<String, Object> stored = new HashMap<>(data.size() << 1);
+		for (Map.Entry<String, T> entry : data.entrySet()) {
+			stored.put(entry.getKey(), toStored(entry.getValue()));
+		}
+		iMap.putAll(stored);
+		return stored.size();
+	}
+
 	@Override
 	public int delete(String key) throws Exception {
 		int delete = 0;
@@ -44,7 +61,38 @@ public class ConstructIMap<T> extends BaseConstruct<T> {
 
 	@Override
 	public T find(String key) throws Exception {
-		return (T) iMap.get(key);
+		return convert(iMap.get(key));
+	}
+
+	@Override
+	public Map<String, T> findAll(Set<String> keys) throws Exception {
+		Map<String, Object> found = iMap.getAll(keys);
+		Map<String, T> result = new HashMap<>(found.size() << 1);
+		for (Map.Entry<String, Object> entry : found.entrySet()) {
+			result.put(entry.getKey(), convert(entry.getValue()));
+		}
+		return result;
+	}
+
+	/**
+	 * Value to write to the map for the given value
+	 */
+	protected Object toStored(T data) {
+		return data;
+	}
+
+	/**
+	 * Stored value to the value returned by find
+	 */
+	protected T convert(Object stored) {
+		return (T) stored;
+	}
+
+	/**
+	 * Keys of all entries, reads the whole key set of the map
+	 */
+	public Set<String> keys() {
+		return iMap.keySet();
 	}
 
 	@Override
@@ -1,12 +1,25 @@
 package io.tapdata.constructImpl;
 
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IFunction;
 import com.hazelcast.persistence.PersistenceStorage;
+import com.hazelcast.ringbuffer.OverflowPolicy;
+import com.hazelcast.ringbuffer.ReadResultSet;
 import com.hazelcast.ringbuffer.Ringbuffer;
 import io.tapdata.ConstructIterator;
 import org.bson.Document;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * @author samuel
@@ -16,34 +29,93 @@ import java.util.Map;
 public class ConstructRingBuffer<T extends Document> extends BaseConstruct<T> {
 
 	public final static String SEQUENCE_KEY = "sequence";
+	/**
+	 * Max count of elements read by one {@link ConstructIterator#nextBatch(long, TimeUnit)}
+	 */
+	public final static String READ_BATCH_SIZE_KEY = "readBatchSize";
+	/**
+	 * Max count of batch reads in flight, reads ahead only happen when the iterator is behind the tail
+	 */
+	public final static String READ_PREFETCH_KEY = "readPrefetch";
+	/**
+	 * Collection of table names, only log documents of these tables are read by
+	 * {@link ConstructIterator#nextBatch(long, TimeUnit)}, see {@link RingBufferTableFilter}
+	 */
+	public final static String TABLE_NAMES_KEY = "tableNames";
+	public final static int DEFAULT_READ_BATCH_SIZE = 1000;
+	public final static int DEFAULT_READ_PREFETCH = 2;
+	/**
+	 * Max count of elements added by one call, limited by hazelcast
+	 */
+	private final static int MAX_ADD_BATCH_SIZE = 1000;
+
+	/**
+	 * Field of elements holding the timestamp, for {@link #findSequence(long)}
+	 */
+	public final static String TIMESTAMP_KEY = "timestamp";
 
 	private Ringbuffer<Document> ringbuffer;
+	private RingBufferTimestampIndex timestampIndex;
 
 	public ConstructRingBuffer(HazelcastInstance hazelcastInstance, String name) {
 		this.ringbuffer = hazelcastInstance.getRingbuffer(name);
+		this.timestampIndex = new RingBufferTimestampIndex(hazelcastInstance, this.ringbuffer, TIMESTAMP_KEY);
 	}
 
 	public ConstructRingBuffer(HazelcastInstance hazelcastInstance, String name, Integer shareCdcTTLDay) {
 		this.ringbuffer = hazelcastInstance.getRingbuffer(name);
+		this.timestampIndex = new RingBufferTimestampIndex(hazelcastInstance, this.ringbuffer, TIMESTAMP_KEY);
 		if (shareCdcTTLDay != null && shareCdcTTLDay > 0) {
 			convertTtlDay2Second(shareCdcTTLDay);
 			PersistenceStorage.getInstance().setRingBufferTTL(this.ringbuffer, this.ttlSecond);
+			PersistenceStorage.getInstance().setRingBufferTTL(this.timestampIndex.getIndex(), this.ttlSecond);
 		}
 	}
 
 	@Override
 	public int insert(T data) throws Exception {
-		this.ringbuffer.add(data);
+		long sequence = this.ringbuffer.add(data);
+		this.timestampIndex.record(sequence, Collections.singletonList(data));
 		return 1;
 	}
 
+	/**
+	 * Add by batches of {@link #MAX_ADD_BATCH_SIZE}, one batch after another to keep the order
+	 */
+	@Override
+	public int insertMany(List<T> data) throws Exception {
+		if (data == null || data.isEmpty()) {
+			return 0;
+		}
+		for (int from = 0; from < data.size(); from += MAX_ADD_BATCH_SIZE) {
+			List<T> batch = data.subList(from, Math.min(data.size(), from + MAX_ADD_BATCH_SIZE));
+			long lastSequence;
+			try {
+				lastSequence = this.ringbuffer.addAllAsync(batch, OverflowPolicy.OVERWRITE).toCompletableFuture().get();
+			} catch (ExecutionException e) {
+				throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+			}
+			this.timestampIndex.record(lastSequence - batch.size() + 1, batch);
+		}
+		return data.size();
+	}
+
 	@Override
 	public void destroy() throws Exception {
 		this.ringbuffer.destroy();
+		this.timestampIndex.destroy();
 	}
 
+	/**
+	 * Look up by the timestamp index, and by persistence storage when the index does not cover the timestamp, like the
+	 * logs written before the index exists
+	 */
 	@Override
 	public long findSequence(long timestamp) throws Exception {
+		long sequence = this.timestampIndex.findSequence(timestamp);
+		if (sequence >= 0) {
+			return sequence;
+		}
 		return PersistenceStorage.getInstance().findSequence(this.ringbuffer, timestamp);
 	}
 
@@ -56,7 +128,20 @@ public class ConstructRingBuffer<T extends Document> extends BaseConstruct<T> {
 		return new RingBufferIterator(ringbuffer, 0);
 	}
 
+	private static int intFilter(Map<String, Object> filter, String key, int defaultValue) throws Exception {
+		if (filter == null || filter.get(key) == null) {
+			return defaultValue;
+		}
+		try {
+			int value = Integer.parseInt(filter.get(key).toString());
+			return value > 0 ? value : defaultValue;
+		} catch (NumberFormatException e) {
+			throw new Exception("Filter is invalid, should be {\"" + key + "\", some-int-value}");
+		}
+	}
+
 	@Override
+	@SuppressWarnings("unchecked")
 	public ConstructIterator<T> find(Map<String, Object> filter) throws Exception {
 		long sequence = this.ringbuffer.headSequence();
 		if (filter != null && filter.containsKey(SEQUENCE_KEY)) {
@@ -66,7 +151,16 @@ public class ConstructRingBuffer<T extends Document> extends BaseConstruct<T> {
 				throw new Exception("Filter is invalid, should be {\"" + SEQUENCE_KEY + "\", some-long-value}");
 			}
 		}
-		return new RingBufferIterator(ringbuffer, sequence);
+		RingBufferTableFilter tableFilter = null;
+		if (filter != null && filter.get(TABLE_NAMES_KEY) != null) {
+			if (!(filter.get(TABLE_NAMES_KEY) instanceof Collection)) {
+				throw new Exception("Filter is invalid, should be {\"" + TABLE_NAMES_KEY + "\", collection-of-table-names}");
+			}
+			tableFilter = new RingBufferTableFilter((Collection<String>) filter.get(TABLE_NAMES_KEY));
+		}
+		return new RingBufferIterator(ringbuffer, sequence,
+				intFilter(filter, READ_BATCH_SIZE_KEY, DEFAULT_READ_BATCH_SIZE),
+				intFilter(filter, READ_PREFETCH_KEY, DEFAULT_READ_PREFETCH), tableFilter);
 	}
 
 	@Override
@@ -91,12 +185,34 @@ public class ConstructRingBuffer<T extends Document> extends BaseConstruct<T> {
 
 		private Ringbuffer<E> ringbuffer;
 		private long sequence;
+		private final int readBatchSize;
+		private final int readPrefetch;
+		private final IFunction<E, Boolean> readFilter;
+		/**
+		 * Batch reads in flight, in sequence order, each one starts where the previous one ends when it is full
+		 */
+		private final Deque<PendingRead<E>> pendingReads = new ArrayDeque<>();
+		/**
+		 * The last batch read was full, so there are more elements behind it to read ahead
+		 */
+		private boolean behindTail;
 
 		public RingBufferIterator(Ringbuffer<E> ringbuffer, long sequence) {
+			this(ringbuffer, sequence, DEFAULT_READ_BATCH_SIZE, DEFAULT_READ_PREFETCH, null);
+		}
+
+		/**
+		 * @param readFilter filter of batch reads, with a filter the count of elements scanned by a read is unknown
+		 *                   ahead, so reads are not prefetched
+		 */
+		public RingBufferIterator(Ringbuffer<E> ringbuffer, long sequence, int readBatchSize, int readPrefetch, IFunction<E, Boolean> readFilter) {
 			assert ringbuffer != null;
 			assert sequence >= 0;
 			this.ringbuffer = ringbuffer;
 			this.sequence = sequence;
+			this.readBatchSize = Math.max(1, readBatchSize);
+			this.readPrefetch = null == readFilter ? Math.max(1, readPrefetch) : 1;
+			this.readFilter = readFilter;
 		}
 
 		@Override
@@ -126,14 +242,85 @@ public class ConstructRingBuffer<T extends Document> extends BaseConstruct<T> {
 
 		@Override
 		public E next() {
+			cancelPendingReads();
 			E e = peek();
 			sequence++;
 			return e;
 		}
 
+		/**
+		 * Read up to {@link #readBatchSize} elements by one round trip, and keep up to {@link #readPrefetch} reads in
+		 * flight while the iterator is behind the tail
+		 */
+		@Override
+		public List<E> nextBatch(long timeout, TimeUnit unit) throws Exception {
+			startPendingReads();
+			PendingRead<E> pendingRead = pendingReads.peekFirst();
+			ReadResultSet<E> resultSet;
+			try {
+				resultSet = pendingRead.future.get(timeout, unit);
+			} catch (TimeoutException e) {
+				return Collections.emptyList();
+			} catch (ExecutionException e) {
+				cancelPendingReads();
+				throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+			}
+			pendingReads.pollFirst();
+			int size = resultSet.size();
+			List<E> batch = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				batch.add(resultSet.get(i));
+			}
+			// the read starts from head sequence when the requested one is overwritten already, and skips filtered ones
+			sequence = Math.max(sequence, resultSet.getNextSequenceToReadFrom());
+			behindTail = resultSet.readCount() >= readBatchSize;
+			PendingRead<E> nextRead = pendingReads.peekFirst();
+			if (null != nextRead && nextRead.startSequence != sequence) {
+				cancelPendingReads();
+			}
+			return batch;
+		}
+
+		private void startPendingReads() {
+			long startSequence = pendingReads.isEmpty() ? sequence : pendingReads.peekLast().startSequence + readBatchSize;
+			// a read can't start after tail + 1, so prefetch only up to the tail seen now
+			long maxPrefetchSequence = -1L;
+			while (pendingReads.isEmpty() || (behindTail && pendingReads.size() < readPrefetch)) {
+				if (!pendingReads.isEmpty()) {
+					if (maxPrefetchSequence < 0L) {
+						maxPrefetchSequence = ringbuffer.tailSequence() + 1;
+					}
+					if (startSequence > maxPrefetchSequence) {
+						break;
+					}
+				}
+				CompletableFuture<ReadResultSet<E>> future = ringbuffer.readManyAsync(startSequence, 1, readBatchSize, readFilter).toCompletableFuture();
+				pendingReads.addLast(new PendingRead<>(startSequence, future));
+				startSequence += readBatchSize;
+			}
+		}
+
+		private void cancelPendingReads() {
+			PendingRead<E> pendingRead;
+			while (null != (pendingRead = pendingReads.pollFirst())) {
+				pendingRead.future.cancel(true);
+			}
+			behindTail = false;
+		}
+
 		@Override
 		public long getSequence() {
 			return sequence;
 		}
 	}
+
+	private static class PendingRead<E> {
+		private final long startSequence;
+		private final CompletableFuture<ReadResultSet<E>> future;
+
+		private PendingRead(long startSequence, CompletableFuture<ReadResultSet<E>> future) {
+			this.startSequence = startSequence;
+			this.future = future;
+		}
+	}
 }
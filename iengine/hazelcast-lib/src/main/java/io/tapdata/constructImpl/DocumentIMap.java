@@ -11,43 +11,45 @@ import org.bson.types.Decimal128;
  **/
 public class DocumentIMap<T> extends ConstructIMap<T> {
 	private static final String DOCUMENT_KEY = DocumentIMap.class.getName().replaceAll("\\.", "-");
+	private static final String COMPACT_KEY = DOCUMENT_KEY + "-compact";
+	private final boolean compact;
 
 	public DocumentIMap(HazelcastInstance hazelcastInstance, String name) {
+		this(hazelcastInstance, name, false);
+	}
+
+	/**
+	 * @param compact write non-Document values by {@link CompactValueCodec} as one binary field, instead of nested BSON
+	 *                documents, values written before are still readable
+	 */
+	public DocumentIMap(HazelcastInstance hazelcastInstance, String name, boolean compact) {
 		super(hazelcastInstance, name);
+		this.compact = compact;
 	}
 
 	@Override
-	public int insert(String key, T data) throws Exception {
-		if (!(data instanceof Document)) {
-			Document document = new Document(DOCUMENT_KEY, data);
-			iMap.put(key, document);
-			return 1;
+	protected Object toStored(T data) {
+		if (compact && !(data instanceof Document)) {
+			return new Document(COMPACT_KEY, CompactValueCodec.encode(data));
+		} else if (!(data instanceof Document)) {
+			return new Document(DOCUMENT_KEY, data);
 		} else {
-			return super.insert(key, data);
+			return super.toStored(data);
 		}
 	}
 
 	@Override
-	public int update(String key, T data) throws Exception {
-		return insert(key, data);
-	}
-
-	@Override
-	public int upsert(String key, T data) throws Exception {
-		return insert(key, data);
-	}
-
-	@Override
-	public T find(String key) throws Exception {
-		Object obj = iMap.get(key);
-		if (obj instanceof Document && ((Document) obj).containsKey(DOCUMENT_KEY)) {
+	protected T convert(Object obj) {
+		if (obj instanceof Document && ((Document) obj).containsKey(COMPACT_KEY)) {
+			return (T) CompactValueCodec.decode(CompactValueCodec.bytesOf(((Document) obj).get(COMPACT_KEY)));
+		} else if (obj instanceof Document && ((Document) obj).containsKey(DOCUMENT_KEY)) {
 			Object data = ((Document) obj).get(DOCUMENT_KEY);
 			if (data instanceof Decimal128) {
 				data = ((Decimal128) data).bigDecimalValue();
 			}
 			return (T) data;
 		} else {
-			return super.find(key);
+			return super.convert(obj);
 		}
 	}
 }
@@ -0,0 +1,43 @@
+package io.tapdata.constructImpl;
+
+import com.hazelcast.core.IFunction;
+import org.bson.Document;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Filter of ring buffer reads, runs on the member that owns the ring buffer, so log documents of other tables are not
+ * sent to the reader. Documents without table name, like heartbeats, always pass
+ *
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class RingBufferTableFilter implements IFunction<Document, Boolean> {
+
+	private static final long serialVersionUID = 2519437081567342210L;
+	public final static String TABLE_FIELD = "fromTable";
+
+	private final HashSet<String> tableNames;
+
+	public RingBufferTableFilter(Collection<String> tableNames) {
+		this.tableNames = new HashSet<>(tableNames);
+	}
+
+	@Override
+	public Boolean apply(Document document) {
+		if (null == document) {
+			return false;
+		}
+		Object tableName = document.get(TABLE_FIELD);
+		if (!(tableName instanceof String) || ((String) tableName).trim().isEmpty()) {
+			return true;
+		}
+		return tableNames.contains(tableName);
+	}
+
+	public Set<String> getTableNames() {
+		return tableNames;
+	}
+}
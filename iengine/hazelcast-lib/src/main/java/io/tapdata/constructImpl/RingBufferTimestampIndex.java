@@ -0,0 +1,170 @@
+package io.tapdata.constructImpl;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.ringbuffer.ReadResultSet;
+import com.hazelcast.ringbuffer.Ringbuffer;
+import org.bson.Document;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Sparse timestamp to sequence index of a ring buffer, stored in another ring buffer next to it
+ * <p>
+ * The writer adds an entry every {@link #INDEX_INTERVAL_EVENTS} elements or {@link #INDEX_INTERVAL_MS} of timestamp.
+ * An entry holds a sequence and the max timestamp of all elements before it, so the entries are ordered by timestamp
+ * even when element timestamps are not, and every element before an entry is older than or as old as its timestamp.
+ * <p>
+ * Lookup is a binary search over the entries, then a scan of at most one interval in the ring buffer
+ *
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class RingBufferTimestampIndex {
+
+	public final static String INDEX_NAME_SUFFIX = "_ts_index";
+	public final static String SEQUENCE_KEY = "sequence";
+	public final static String TIMESTAMP_KEY = "timestamp";
+	public final static int INDEX_INTERVAL_EVENTS = 10000;
+	public final static long INDEX_INTERVAL_MS = 1000L;
+	private final static int SCAN_BATCH_SIZE = 1000;
+
+	private final Ringbuffer<Document> ringbuffer;
+	private final Ringbuffer<Document> index;
+	private final String timestampField;
+
+	/**
+	 * Writer state, the log collector is the only writer of a ring buffer
+	 */
+	private boolean initialized;
+	private long lastIndexedSequence = -1L;
+	private long lastIndexedTimestamp = Long.MIN_VALUE;
+	private long maxTimestamp = Long.MIN_VALUE;
+
+	public RingBufferTimestampIndex(HazelcastInstance hazelcastInstance, Ringbuffer<Document> ringbuffer, String timestampField) {
+		this.ringbuffer = ringbuffer;
+		this.index = hazelcastInstance.getRingbuffer(ringbuffer.getName() + INDEX_NAME_SUFFIX);
+		this.timestampField = timestampField;
+	}
+
+	public Ringbuffer<Document> getIndex() {
+		return index;
+	}
+
+	/**
+	 * Called by the writer after elements are added
+	 *
+	 * @param firstSequence sequence of the first element
+	 * @param documents     elements added, in order
+	 */
+	public void record(long firstSequence, List<? extends Document> documents) throws Exception {
+		if (!initialized) {
+			init(firstSequence);
+			initialized = true;
+		}
+		for (int i = 0; i < documents.size(); i++) {
+			long sequence = firstSequence + i;
+			Long timestamp = timestamp(documents.get(i));
+			if (null == timestamp) {
+				continue;
+			}
+			if (lastIndexedSequence < 0
+					|| sequence - lastIndexedSequence >= INDEX_INTERVAL_EVENTS
+					|| timestamp - lastIndexedTimestamp >= INDEX_INTERVAL_MS) {
+				// entry timestamp covers the elements before the sequence, not the one on it
+				if (maxTimestamp != Long.MIN_VALUE) {
+					index.add(new Document(SEQUENCE_KEY, sequence).append(TIMESTAMP_KEY, maxTimestamp));
+					lastIndexedSequence = sequence;
+					lastIndexedTimestamp = maxTimestamp;
+				}
+			}
+			maxTimestamp = Math.max(maxTimestamp, timestamp);
+		}
+	}
+
+	/**
+	 * Pick up the max timestamp of the elements written since the last entry, or of the last interval when there is no
+	 * entry yet, after a restart of the writer
+	 */
+	private void init(long firstSequence) throws Exception {
+		long scanFrom = Math.max(ringbuffer.headSequence(), firstSequence - INDEX_INTERVAL_EVENTS);
+		if (index.tailSequence() >= index.headSequence()) {
+			Document lastEntry = index.readOne(index.tailSequence());
+			lastIndexedSequence = lastEntry.getLong(SEQUENCE_KEY);
+			lastIndexedTimestamp = lastEntry.getLong(TIMESTAMP_KEY);
+			maxTimestamp = lastIndexedTimestamp;
+			scanFrom = Math.max(scanFrom, lastIndexedSequence);
+		}
+		long sequence = scanFrom;
+		while (sequence < firstSequence) {
+			ReadResultSet<Document> resultSet = readMany(sequence, (int) Math.min(SCAN_BATCH_SIZE, firstSequence - sequence));
+			if (resultSet.readCount() <= 0) {
+				break;
+			}
+			for (int i = 0; i < resultSet.size() && resultSet.getSequence(i) < firstSequence; i++) {
+				Long timestamp = timestamp(resultSet.get(i));
+				if (null != timestamp) {
+					maxTimestamp = Math.max(maxTimestamp, timestamp);
+				}
+			}
+			sequence = resultSet.getNextSequenceToReadFrom();
+		}
+	}
+
+	/**
+	 * @return sequence of the first element whose timestamp is greater than or equal to the given one, tail sequence
+	 * plus one when there is none, -1 when the index does not cover the timestamp
+	 */
+	public long findSequence(long timestamp) throws Exception {
+		long low = index.headSequence();
+		long high = index.tailSequence();
+		long found = -1L;
+		// last entry whose timestamp is less than the given one
+		while (low <= high) {
+			long mid = (low + high) >>> 1;
+			Document entry = index.readOne(mid);
+			if (entry.getLong(TIMESTAMP_KEY) < timestamp) {
+				found = entry.getLong(SEQUENCE_KEY);
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		if (found < 0) {
+			return -1L;
+		}
+		long sequence = Math.max(found, ringbuffer.headSequence());
+		long tailSequence = ringbuffer.tailSequence();
+		while (sequence <= tailSequence) {
+			ReadResultSet<Document> resultSet = readMany(sequence, (int) Math.min(SCAN_BATCH_SIZE, tailSequence - sequence + 1));
+			if (resultSet.readCount() <= 0) {
+				break;
+			}
+			for (int i = 0; i < resultSet.size(); i++) {
+				Long elementTimestamp = timestamp(resultSet.get(i));
+				if (null != elementTimestamp && elementTimestamp >= timestamp) {
+					return resultSet.getSequence(i);
+				}
+			}
+			sequence = resultSet.getNextSequenceToReadFrom();
+		}
+		return tailSequence + 1;
+	}
+
+	public void destroy() {
+		index.destroy();
+	}
+
+	private ReadResultSet<Document> readMany(long sequence, int maxCount) throws Exception {
+		try {
+			return ringbuffer.readManyAsync(sequence, 0, maxCount, null).toCompletableFuture().get();
+		} catch (ExecutionException e) {
+			throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+		}
+	}
+
+	private Long timestamp(Document document) {
+		Object value = null == document ? null : document.get(timestampField);
+		return value instanceof Number ? ((Number) value).longValue() : null;
+	}
+}
@@ -0,0 +1,251 @@
+package io.tapdata.constructImpl;
+
+import com.hazelcast.config.IndexType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rows grouped into buckets, stored row by row, e.g. join cache rows grouped by join key
+ * <p>
+ * Each row is an entry of an IMap keyed by bucket and row key, written by {@link CompactValueCodec}. A second IMap holds
+ * the bucket of each row under the same key, with a hash index on it, so the row keys of a bucket are found by an index
+ * query and adding or removing a row writes one small entry whatever the size of its bucket. A third IMap holds the count
+ * of rows of each bucket, so checking a bucket does not query its rows. All of them are persisted by the external
+ * storage of IMaps. Only reading or deleting a whole bucket goes through all of its rows.
+ * <p>
+ * When the rows exist without any row index, e.g. written by a version keeping it in a MultiMap which is not persisted,
+ * the index is rebuilt from the row ids on construction.
+ * <p>
+ * {@link #find(String)}, {@link #insert(String, Map)} and {@link #delete(String)} work on whole buckets
+ *
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class RowBucketIMap<T> extends BaseConstruct<Map<String, T>> {
+
+	public final static String INDEX_NAME_SUFFIX = "_row_keys";
+	public final static String COUNT_NAME_SUFFIX = "_row_counts";
+	private final static char KEY_DELIMITER = '\u0000';
+	private final static String BUCKET_ATTRIBUTE = "this";
+
+	protected IMap<String, Object> rows;
+	protected IMap<String, String> rowBuckets;
+	protected IMap<String, Integer> rowCounts;
+
+	public RowBucketIMap(HazelcastInstance hazelcastInstance, String name) {
+		this.rows = hazelcastInstance.getMap(name);
+		this.rowBuckets = hazelcastInstance.getMap(name + INDEX_NAME_SUFFIX);
+		this.rowBuckets.addIndex(IndexType.HASH, BUCKET_ATTRIBUTE);
+		this.rowCounts = hazelcastInstance.getMap(name + COUNT_NAME_SUFFIX);
+		if (this.rowBuckets.isEmpty() && !this.rows.isEmpty()) {
+			rebuildRowKeys();
+		}
+	}
+
+	/**
+	 * Rebuild the row index and the row counts from the ids of the rows
+	 *
+	 * @return count of buckets
+	 */
+	public int rebuildRowKeys() {
+		Map<String, String> buckets = new HashMap<>();
+		Map<String, Integer> counts = new HashMap<>();
+		for (String id : rows.keySet()) {
+			int delimiter = id.indexOf(KEY_DELIMITER);
+			if (delimiter < 0) {
+				continue;
+			}
+			String bucket = id.substring(0, delimiter);
+			buckets.put(id, bucket);
+			counts.merge(bucket, 1, Integer::sum);
+		}
+		rowBuckets.putAll(buckets);
+		rowCounts.clear();
+		rowCounts.putAll(counts);
+		return counts.size();
+	}
+
+	private static String rowId(String bucket, String rowKey) {
+		return bucket + KEY_DELIMITER + rowKey;
+	}
+
+	private static Predicate<String, String> inBucket(String bucket) {
+		return Predicates.equal(BUCKET_ATTRIBUTE, bucket);
+	}
+
+	public T findRow(String bucket, String rowKey) throws Exception {
+		return decode(rows.get(rowId(bucket, rowKey)));
+	}
+
+	public int upsertRow(String bucket, String rowKey, T row) throws Exception {
+		String id = rowId(bucket, rowKey);
+		rows.set(id, CompactValueCodec.encode(row));
+		// updating an existing row does not touch the index or the count
+		if (null == rowBuckets.putIfAbsent(id, bucket)) {
+			rowCounts.executeOnKey(bucket, new AddRowCount(1));
+		}
+		return 1;
+	}
+
+	public int deleteRow(String bucket, String rowKey) throws Exception {
+		String id = rowId(bucket, rowKey);
+		rows.delete(id);
+		if (null == rowBuckets.remove(id)) {
+			return 0;
+		}
+		rowCounts.executeOnKey(bucket, new AddRowCount(-1));
+		return 1;
+	}
+
+	public Collection<String> rowKeys(String bucket) {
+		Set<String> ids = rowBuckets.keySet(inBucket(bucket));
+		Set<String> keys = new HashSet<>(ids.size() << 1);
+		int rowKeyStart = bucket.length() + 1;
+		for (String id : ids) {
+			keys.add(id.substring(rowKeyStart));
+		}
+		return keys;
+	}
+
+	/**
+	 * Move the buckets of a {@link BytesIMap} which holds whole buckets by key into this map, and clear it
+	 *
+	 * @return count of buckets moved
+	 */
+	public int migrateFrom(BytesIMap<Map<String, T>> bucketMap) throws Exception {
+		if (bucketMap.isEmpty()) {
+			return 0;
+		}
+		int count = 0;
+		for (String key : bucketMap.iMap.keySet()) {
+			Map<String, T> bucket = bucketMap.find(key);
+			if (null != bucket) {
+				for (Map.Entry<String, T> entry : bucket.entrySet()) {
+					upsertRow(key, entry.getKey(), entry.getValue());
+				}
+				count++;
+			}
+		}
+		bucketMap.clear();
+		return count;
+	}
+
+	@Override
+	public int insert(String key, Map<String, T> data) throws Exception {
+		delete(key);
+		if (null != data) {
+			for (Map.Entry<String, T> entry : data.entrySet()) {
+				upsertRow(key, entry.getKey(), entry.getValue());
+			}
+		}
+		return 1;
+	}
+
+	@Override
+	public int update(String key, Map<String, T> data) throws Exception {
+		return insert(key, data);
+	}
+
+	@Override
+	public int upsert(String key, Map<String, T> data) throws Exception {
+		return insert(key, data);
+	}
+
+	@Override
+	public int delete(String key) throws Exception {
+		rowCounts.delete(key);
+		Set<String> ids = rowBuckets.keySet(inBucket(key));
+		for (String id : ids) {
+			rows.delete(id);
+			rowBuckets.delete(id);
+		}
+		return ids.size();
+	}
+
+	/**
+	 * @return rows of the bucket by row key, empty when there is none
+	 */
+	@Override
+	public Map<String, T> find(String key) throws Exception {
+		if (!rowCounts.containsKey(key)) {
+			return new HashMap<>();
+		}
+		Map<String, Object> found = rows.getAll(rowBuckets.keySet(inBucket(key)));
+		Map<String, T> result = new HashMap<>(found.size() << 1);
+		int rowKeyStart = key.length() + 1;
+		for (Map.Entry<String, Object> entry : found.entrySet()) {
+			result.put(entry.getKey().substring(rowKeyStart), decode(entry.getValue()));
+		}
+		return result;
+	}
+
+	@Override
+	public boolean exists(String key) throws Exception {
+		return rowCounts.containsKey(key);
+	}
+
+	@Override
+	public void clear() throws Exception {
+		rows.clear();
+		rowBuckets.clear();
+		rowCounts.clear();
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		rows.destroy();
+		rowBuckets.destroy();
+		rowCounts.destroy();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		if (null == this.rowCounts) {
+			return true;
+		}
+		return this.rowCounts.isEmpty();
+	}
+
+	@Override
+	public String getName() {
+		return rows.getName();
+	}
+
+	@Override
+	public String getType() {
+		return "IMap";
+	}
+
+	private T decode(Object stored) {
+		byte[] bytes = CompactValueCodec.bytesOf(stored);
+		return null == bytes ? null : (T) CompactValueCodec.decode(bytes);
+	}
+
+	/**
+	 * Add to the count of rows of a bucket, the count is removed when no row is left
+	 */
+	private static class AddRowCount implements EntryProcessor<String, Integer, Integer> {
+		private static final long serialVersionUID = 1L;
+		private final int delta;
+
+		private AddRowCount(int delta) {
+			this.delta = delta;
+		}
+
+		@Override
+		public Integer process(Map.Entry<String, Integer> entry) {
+			int count = (null == entry.getValue() ? 0 : entry.getValue()) + delta;
+			entry.setValue(count > 0 ? count : null);
+			return count;
+		}
+	}
+}
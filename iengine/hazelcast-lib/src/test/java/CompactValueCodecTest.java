@@ -0,0 +1,113 @@
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.tapdata.constant.HazelcastUtil;
+import com.tapdata.entity.hazelcast.HZLoggingType;
+import io.tapdata.constructImpl.CompactValueCodec;
+import io.tapdata.constructImpl.DocumentIMap;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class CompactValueCodecTest {
+
+	@Test
+	public void testRoundTrip() {
+		Map<String, Object> row = new LinkedHashMap<>();
+		row.put("null", null);
+		row.put("string", "abc");
+		row.put("unicode", "中文-ü");
+		row.put("int", 1);
+		row.put("long", Long.MAX_VALUE);
+		row.put("double", 1.5D);
+		row.put("float", 2.5F);
+		row.put("true", true);
+		row.put("false", false);
+		row.put("short", (short) -3);
+		row.put("byte", (byte) 4);
+		row.put("decimal", new BigDecimal("12345678901234567890123456789012345678.0001"));
+		row.put("bigInteger", new BigInteger("-98765432109876543210"));
+		row.put("date", new Date());
+		row.put("objectId", new ObjectId());
+		row.put("document", new Document("a", 1).append("b", Arrays.asList("x", "y")));
+		row.put("list", new ArrayList<>(Arrays.asList(1, "2", 3L)));
+		Map<String, Map<String, Object>> value = new HashMap<>();
+		value.put("pk1", row);
+
+		byte[] bytes = CompactValueCodec.encode(value);
+		Assert.assertTrue(CompactValueCodec.isCompact(bytes));
+		Map<String, Map<String, Object>> decoded = (Map<String, Map<String, Object>>) CompactValueCodec.decode(bytes);
+		Assert.assertEquals(value, decoded);
+		Assert.assertTrue(decoded.get("pk1").get("document") instanceof Document);
+	}
+
+	@Test
+	public void testBytes() {
+		byte[] data = new byte[]{1, 2, 3};
+		byte[] bytes = CompactValueCodec.encode(data);
+		Assert.assertArrayEquals(data, (byte[]) CompactValueCodec.decode(CompactValueCodec.bytesOf(new Binary(bytes))));
+	}
+
+	@Test
+	public void testDocumentIMapTiming() throws Exception {
+		int count = 20000;
+		HazelcastInstance hazelcastInstance = Hazelcast.newHazelcastInstance(
+				HazelcastUtil.getConfig("unit-test-" + System.currentTimeMillis(), HZLoggingType.NONE));
+		try {
+			// values of the aggregation cache
+			List<BigDecimal> values = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				values.add(new BigDecimal(i).multiply(new BigDecimal("1234.5678")));
+			}
+			DocumentIMap<BigDecimal> bson = new DocumentIMap<>(hazelcastInstance, "unit-test-bson", false);
+			DocumentIMap<BigDecimal> compact = new DocumentIMap<>(hazelcastInstance, "unit-test-compact", true);
+			// warm up both paths
+			roundTrip(bson, values.subList(0, 1000));
+			roundTrip(compact, values.subList(0, 1000));
+
+			long bsonNanos = roundTrip(bson, values);
+			long compactNanos = roundTrip(compact, values);
+			System.out.printf("DocumentIMap write and read of %d values: bson %d ms, compact %d ms%n",
+					count, bsonNanos / 1000000L, compactNanos / 1000000L);
+			Assert.assertTrue("compact took " + compactNanos + "ns, bson " + bsonNanos + "ns", compactNanos < bsonNanos * 3);
+		} finally {
+			hazelcastInstance.shutdown();
+		}
+	}
+
+	private static long roundTrip(DocumentIMap<BigDecimal> map, List<BigDecimal> values) throws Exception {
+		long start = System.nanoTime();
+		for (int i = 0; i < values.size(); i++) {
+			map.upsert(String.valueOf(i), values.get(i));
+		}
+		for (int i = 0; i < values.size(); i++) {
+			Assert.assertEquals(0, values.get(i).compareTo(map.find(String.valueOf(i))));
+		}
+		return System.nanoTime() - start;
+	}
+
+	@Test
+	public void testLargeValue() {
+		List<String> list = new ArrayList<>();
+		for (int i = 0; i < 100000; i++) {
+			list.add("value-" + i);
+		}
+		Assert.assertEquals(list, CompactValueCodec.decode(CompactValueCodec.encode(list)));
+		Assert.assertEquals("small", CompactValueCodec.decode(CompactValueCodec.encode("small")));
+	}
+}
@@ -1,11 +1,13 @@
 import com.hazelcast.config.Config;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.ringbuffer.Ringbuffer;
 import com.tapdata.constant.HazelcastUtil;
 import com.tapdata.entity.hazelcast.HZLoggingType;
 import io.tapdata.ConstructIterator;
 import io.tapdata.HazelcastConstruct;
 import io.tapdata.constructImpl.ConstructRingBuffer;
+import io.tapdata.constructImpl.RingBufferTimestampIndex;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.RandomUtils;
 import org.bson.Document;
@@ -15,8 +17,10 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author samuel
@@ -58,6 +62,52 @@ public class ConstructRingBufferTest {
 		Assert.assertEquals(tailSequence - headSequence + 1, num);
 	}
 
+	@Test
+	public void testInsertMany() throws Exception {
+		int num = 2500;
+		List<Document> documents = new ArrayList<>();
+		for (int i = 0; i < num; i++) {
+			documents.add(mockDocument().append("index", i));
+		}
+		Assert.assertEquals(num, hazelcastConstruct.insertMany(documents));
+		Ringbuffer<Document> ringbuffer = ((ConstructRingBuffer<Document>) hazelcastConstruct).getRingbuffer();
+		Assert.assertEquals(num - 1, ringbuffer.tailSequence());
+		for (int i = 0; i < num; i += 499) {
+			Assert.assertEquals(i, ringbuffer.readOne(i).getInteger("index").intValue());
+		}
+	}
+
+	@Test
+	public void testTimestampIndex() throws Exception {
+		int num = 5000;
+		List<Document> documents = new ArrayList<>();
+		for (int i = 0; i < num; i++) {
+			// timestamps go back a little every 7 documents
+			long timestamp = 100000L + i * 10L - (i % 7 == 6 ? 25L : 0L);
+			documents.add(mockDocument().append(ConstructRingBuffer.TIMESTAMP_KEY, timestamp));
+		}
+		hazelcastConstruct.insertMany(documents.subList(0, 3000));
+		for (Document document : documents.subList(3000, num)) {
+			hazelcastConstruct.insert(document);
+		}
+		Ringbuffer<Document> ringbuffer = ((ConstructRingBuffer<Document>) hazelcastConstruct).getRingbuffer();
+		RingBufferTimestampIndex timestampIndex = new RingBufferTimestampIndex(hazelcastInstance, ringbuffer, ConstructRingBuffer.TIMESTAMP_KEY);
+		Assert.assertTrue(timestampIndex.getIndex().size() > 0);
+
+		for (long timestamp : new long[]{100000L + 10L * 1500, 100000L + 10L * 1500 + 3, 100000L + 10L * 2346 - 25L, 100000L + 10L * 4999}) {
+			long expected = -1L;
+			for (int i = 0; i < num; i++) {
+				if (documents.get(i).getLong(ConstructRingBuffer.TIMESTAMP_KEY) >= timestamp) {
+					expected = i;
+					break;
+				}
+			}
+			Assert.assertEquals(expected, timestampIndex.findSequence(timestamp));
+		}
+		Assert.assertEquals(num, timestampIndex.findSequence(100000L + 10L * num));
+		Assert.assertEquals(-1L, timestampIndex.findSequence(100000L));
+	}
+
 	@Test
 	public void testFindNext() throws Exception {
 		int num = 100;
@@ -76,6 +126,92 @@ public class ConstructRingBufferTest {
 		Assert.assertEquals(num, documentConstructIterator.getSequence());
 	}
 
+	@Test
+	public void testNextBatch() throws Exception {
+		int num = 95;
+		for (int i = 0; i < num; i++) {
+			hazelcastConstruct.insert(mockDocument().append("index", i));
+		}
+		ConstructIterator<Document> iterator = hazelcastConstruct.find(new HashMap<String, Object>() {{
+			put(ConstructRingBuffer.SEQUENCE_KEY, 0);
+			put(ConstructRingBuffer.READ_BATCH_SIZE_KEY, 10);
+			put(ConstructRingBuffer.READ_PREFETCH_KEY, 3);
+		}});
+		List<Document> list = new ArrayList<>();
+		while (list.size() < num) {
+			List<Document> batch = iterator.nextBatch(3L, TimeUnit.SECONDS);
+			Assert.assertFalse(batch.isEmpty());
+			Assert.assertTrue(batch.size() <= 10);
+			list.addAll(batch);
+		}
+		for (int i = 0; i < num; i++) {
+			Assert.assertEquals(i, list.get(i).getInteger("index").intValue());
+		}
+		Assert.assertEquals(num, iterator.getSequence());
+		Assert.assertTrue(iterator.nextBatch(100L, TimeUnit.MILLISECONDS).isEmpty());
+
+		hazelcastConstruct.insert(mockDocument().append("index", num));
+		List<Document> batch = iterator.nextBatch(3L, TimeUnit.SECONDS);
+		Assert.assertEquals(1, batch.size());
+		Assert.assertEquals(num, batch.get(0).getInteger("index").intValue());
+		Assert.assertEquals(num + 1, iterator.getSequence());
+	}
+
+	@Test
+	public void testNextBatchCaughtUpAtTail() throws Exception {
+		int batchSize = 10;
+		List<Document> documents = new ArrayList<>();
+		for (int i = 0; i < 3 * batchSize; i++) {
+			documents.add(mockDocument().append("index", i));
+		}
+		hazelcastConstruct.insertMany(documents.subList(0, batchSize));
+		ConstructIterator<Document> iterator = hazelcastConstruct.find(new HashMap<String, Object>() {{
+			put(ConstructRingBuffer.SEQUENCE_KEY, 0);
+			put(ConstructRingBuffer.READ_BATCH_SIZE_KEY, batchSize);
+			put(ConstructRingBuffer.READ_PREFETCH_KEY, 3);
+		}});
+		// a full batch, the reader is exactly at the tail
+		Assert.assertEquals(batchSize, iterator.nextBatch(3L, TimeUnit.SECONDS).size());
+		Assert.assertEquals(batchSize, iterator.getSequence());
+
+		// then full chunks arrive, prefetch must not read after the tail
+		hazelcastConstruct.insertMany(documents.subList(batchSize, 2 * batchSize));
+		List<Document> list = new ArrayList<>(iterator.nextBatch(3L, TimeUnit.SECONDS));
+		hazelcastConstruct.insertMany(documents.subList(2 * batchSize, 3 * batchSize));
+		while (list.size() < 2 * batchSize) {
+			list.addAll(iterator.nextBatch(3L, TimeUnit.SECONDS));
+		}
+		for (int i = 0; i < list.size(); i++) {
+			Assert.assertEquals(batchSize + i, list.get(i).getInteger("index").intValue());
+		}
+		Assert.assertEquals(3 * batchSize, iterator.getSequence());
+		Assert.assertTrue(iterator.nextBatch(100L, TimeUnit.MILLISECONDS).isEmpty());
+	}
+
+	@Test
+	public void testNextBatchWithTableFilter() throws Exception {
+		int num = 100;
+		for (int i = 0; i < num; i++) {
+			hazelcastConstruct.insert(mockDocument().append("index", i).append("fromTable", "table_" + (i % 10)));
+		}
+		hazelcastConstruct.insert(mockDocument().append("index", num));
+		ConstructIterator<Document> iterator = hazelcastConstruct.find(new HashMap<String, Object>() {{
+			put(ConstructRingBuffer.SEQUENCE_KEY, 0);
+			put(ConstructRingBuffer.READ_BATCH_SIZE_KEY, 3);
+			put(ConstructRingBuffer.TABLE_NAMES_KEY, Arrays.asList("table_1", "table_5"));
+		}});
+		List<Document> list = new ArrayList<>();
+		while (iterator.getSequence() < num + 1) {
+			list.addAll(iterator.nextBatch(3L, TimeUnit.SECONDS));
+		}
+		Assert.assertEquals(21, list.size());
+		for (Document document : list.subList(0, 20)) {
+			String tableName = document.getString("fromTable");
+			Assert.assertTrue("table_1".equals(tableName) || "table_5".equals(tableName));
+		}
+		Assert.assertEquals(num, list.get(20).getInteger("index").intValue());
+	}
+
 	@Test
 	public void testFindPeek() throws Exception {
 		int num = 5;
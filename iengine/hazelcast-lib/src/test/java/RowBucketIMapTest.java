@@ -0,0 +1,168 @@
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.tapdata.constant.HazelcastUtil;
+import com.tapdata.entity.hazelcast.HZLoggingType;
+import io.tapdata.constructImpl.BytesIMap;
+import io.tapdata.constructImpl.RowBucketIMap;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class RowBucketIMapTest {
+
+	private HazelcastInstance hazelcastInstance;
+	private RowBucketIMap<Map<String, Object>> rowBucketIMap;
+
+	@Before
+	public void init() {
+		String instanceName = "unit-test-" + System.currentTimeMillis();
+		Config config = HazelcastUtil.getConfig(instanceName, HZLoggingType.NONE);
+		hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+		rowBucketIMap = new RowBucketIMap<>(hazelcastInstance, "unit-test-row-bucket");
+	}
+
+	@After
+	public void after() throws Exception {
+		if (rowBucketIMap != null) {
+			rowBucketIMap.destroy();
+		}
+		if (hazelcastInstance != null) {
+			hazelcastInstance.shutdown();
+		}
+	}
+
+	@Test
+	public void testRows() throws Exception {
+		rowBucketIMap.upsertRow("k1", "1", row(1));
+		rowBucketIMap.upsertRow("k1", "2", row(2));
+		rowBucketIMap.upsertRow("k1", "2", row(3));
+		rowBucketIMap.upsertRow("k2", "1", row(4));
+
+		Assert.assertEquals(row(3), rowBucketIMap.findRow("k1", "2"));
+		Assert.assertNull(rowBucketIMap.findRow("k1", "3"));
+		Map<String, Map<String, Object>> bucket = rowBucketIMap.find("k1");
+		Assert.assertEquals(2, bucket.size());
+		Assert.assertEquals(row(1), bucket.get("1"));
+
+		Assert.assertEquals(1, rowBucketIMap.deleteRow("k1", "1"));
+		Assert.assertEquals(1, rowBucketIMap.deleteRow("k1", "2"));
+		Assert.assertFalse(rowBucketIMap.exists("k1"));
+		Assert.assertTrue(rowBucketIMap.find("k1").isEmpty());
+		Assert.assertTrue(rowBucketIMap.exists("k2"));
+	}
+
+	@Test
+	public void testHotBucketRowUpdates() throws Exception {
+		int hotRows = 5000;
+		for (int i = 0; i < hotRows; i++) {
+			rowBucketIMap.upsertRow("hot", String.valueOf(i), row(i));
+			rowBucketIMap.upsertRow("cold-" + i, "0", row(i));
+		}
+		// updates of a row in the hot bucket only rewrite that row
+		for (int i = 0; i < hotRows; i += 10) {
+			rowBucketIMap.upsertRow("hot", String.valueOf(i), row(-i));
+		}
+		Map<String, Map<String, Object>> hot = rowBucketIMap.find("hot");
+		Assert.assertEquals(hotRows, hot.size());
+		Assert.assertEquals(row(-10), hot.get("10"));
+		Assert.assertEquals(row(11), hot.get("11"));
+		Assert.assertEquals(1, rowBucketIMap.find("cold-11").size());
+		Assert.assertEquals(hotRows, rowBucketIMap.delete("hot"));
+		Assert.assertNull(rowBucketIMap.findRow("hot", "11"));
+	}
+
+	@Test
+	public void testSkewedBucketBenchmark() throws Exception {
+		int rounds = 1000;
+		int hotRows = 20000;
+		timeUpserts("warm-up", 0, rounds);
+		// new rows into a small bucket, then the same into a bucket which already holds many rows
+		long coldNanos = timeUpserts("cold", 0, rounds);
+		for (int i = 0; i < hotRows; i++) {
+			rowBucketIMap.upsertRow("hot", String.valueOf(i), row(i));
+		}
+		long hotNanos = timeUpserts("hot", hotRows, rounds);
+		long hotUpdateNanos = timeUpserts("hot", 0, rounds);
+		System.out.printf("RowBucketIMap upsert of %d rows: small bucket %d ms, new rows of a %d rows bucket %d ms, updates in it %d ms%n",
+				rounds, coldNanos / 1000000L, hotRows, hotNanos / 1000000L, hotUpdateNanos / 1000000L);
+
+		// the cost of a row does not grow with the size of its bucket
+		Assert.assertTrue("new rows of a hot bucket took " + hotNanos + "ns, " + coldNanos + "ns in a small one", hotNanos < coldNanos * 5);
+		Assert.assertTrue("updates of a hot bucket took " + hotUpdateNanos + "ns, " + coldNanos + "ns in a small one", hotUpdateNanos < coldNanos * 5);
+		Assert.assertEquals(hotRows + rounds, rowBucketIMap.find("hot").size());
+		Assert.assertEquals(rounds, rowBucketIMap.find("cold").size());
+	}
+
+	@Test
+	public void testReopenOverSameMaps() throws Exception {
+		rowBucketIMap.upsertRow("k1", "1", row(1));
+		rowBucketIMap.upsertRow("k1", "2", row(2));
+		rowBucketIMap.upsertRow("k2", "1", row(3));
+
+		// the row index is an IMap entry per row, persisted like the rows
+		IMap<String, String> rowBuckets = hazelcastInstance.getMap("unit-test-row-bucket" + RowBucketIMap.INDEX_NAME_SUFFIX);
+		Assert.assertEquals(3, rowBuckets.size());
+		Assert.assertEquals(new HashSet<>(Arrays.asList("1", "2")), rowBucketIMap.rowKeys("k1"));
+
+		RowBucketIMap<Map<String, Object>> reopened = new RowBucketIMap<>(hazelcastInstance, "unit-test-row-bucket");
+		Assert.assertEquals(2, reopened.find("k1").size());
+		Assert.assertTrue(reopened.exists("k2"));
+		Assert.assertEquals(1, reopened.deleteRow("k2", "1"));
+		Assert.assertFalse(reopened.exists("k2"));
+	}
+
+	@Test
+	public void testRebuildRowKeys() throws Exception {
+		rowBucketIMap.upsertRow("k1", "1", row(1));
+		rowBucketIMap.upsertRow("k1", "2", row(2));
+		rowBucketIMap.upsertRow("k2", "1", row(3));
+		// rows without row key sets, as left by a version keeping them in memory only
+		hazelcastInstance.getMap("unit-test-row-bucket" + RowBucketIMap.INDEX_NAME_SUFFIX).clear();
+
+		RowBucketIMap<Map<String, Object>> reopened = new RowBucketIMap<>(hazelcastInstance, "unit-test-row-bucket");
+		Map<String, Map<String, Object>> bucket = reopened.find("k1");
+		Assert.assertEquals(2, bucket.size());
+		Assert.assertEquals(row(2), bucket.get("2"));
+		Assert.assertTrue(reopened.exists("k2"));
+	}
+
+	@Test
+	public void testMigrateFrom() throws Exception {
+		BytesIMap<Map<String, Map<String, Object>>> bucketMap = new BytesIMap<>(hazelcastInstance, "unit-test-bucket");
+		Map<String, Map<String, Object>> bucket = new HashMap<>();
+		bucket.put("1", row(1));
+		bucket.put("2", row(2));
+		bucketMap.insert("k1", bucket);
+
+		Assert.assertEquals(1, rowBucketIMap.migrateFrom(bucketMap));
+		Assert.assertTrue(bucketMap.isEmpty());
+		Assert.assertEquals(bucket, rowBucketIMap.find("k1"));
+	}
+
+	private long timeUpserts(String bucket, int from, int count) throws Exception {
+		long start = System.nanoTime();
+		for (int i = from; i < from + count; i++) {
+			rowBucketIMap.upsertRow(bucket, String.valueOf(i), row(i));
+		}
+		return System.nanoTime() - start;
+	}
+
+	private static Map<String, Object> row(int id) {
+		Map<String, Object> row = new HashMap<>();
+		row.put("id", id);
+		row.put("name", "name-" + id);
+		return row;
+	}
+}
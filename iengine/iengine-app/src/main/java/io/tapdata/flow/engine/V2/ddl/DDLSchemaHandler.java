@@ -1,5 +1,6 @@
 package io.tapdata.flow.engine.V2.ddl;
 
+import io.tapdata.entity.codec.filter.TapCodecPlan;
 import io.tapdata.entity.event.ddl.TapDDLEvent;
 import io.tapdata.entity.event.ddl.entity.ValueChange;
 import io.tapdata.entity.event.ddl.table.TapAlterFieldAttributesEvent;
@@ -47,6 +48,8 @@ public class DDLSchemaHandler {
 			throw new RuntimeException("Tap table field map is null");
 		}
 		biClassHandlers.handle(tapDDLEvent, tapTable);
+		// codec plans of the former fields are stale
+		TapCodecPlan.schemaChanged();
 	}
 
 	private Void handleNewFieldEvent(TapDDLEvent tapDDLEvent, TapTable tapTable) {
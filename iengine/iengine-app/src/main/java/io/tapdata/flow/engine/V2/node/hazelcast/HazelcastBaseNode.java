@@ -309,6 +309,21 @@ public abstract class HazelcastBaseNode extends AbstractProcessor {
 		}
 	}
 
+	/**
+	 * Whether this node changes the events it receives. Events of a fan out are shared by the downstream branches, so
+	 * nodes are read only by default. A node which changes them returns true and calls
+	 * {@link #ownInputEvent(TapdataEvent)} before handling them
+	 */
+	protected boolean mutateInputEvent() {
+		return false;
+	}
+
+	protected void ownInputEvent(TapdataEvent tapdataEvent) {
+		if (null != tapdataEvent && mutateInputEvent()) {
+			tapdataEvent.ownTapEvent();
+		}
+	}
+
 	private int bucketIndex = 0;
 
 	protected boolean offer(TapdataEvent dataEvent) {
@@ -322,7 +337,7 @@ public abstract class HazelcastBaseNode extends AbstractProcessor {
 				final int bucketCount = outbox.bucketCount();
 				if (bucketCount > 1) {
 					for (bucketIndex = Math.min(bucketIndex, bucketCount); bucketIndex < bucketCount; bucketIndex++) {
-						final TapdataEvent cloneEvent = (TapdataEvent) dataEvent.clone();
+						final TapdataEvent cloneEvent = dataEvent.shareClone(bucketCount);
 						if (!tryEmit(bucketIndex, cloneEvent)) {
 							return false;
 						}
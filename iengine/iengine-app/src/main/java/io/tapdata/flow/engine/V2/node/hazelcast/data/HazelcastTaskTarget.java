@@ -80,6 +80,14 @@ public class HazelcastTaskTarget extends HazelcastBaseNode {
 		retryTime = (int) dataProcessorContext.getConfigurationCenter().getConfig(ConfigurationCenter.RETRY_TIME);
 	}
 
+	/**
+	 * Messages of the input events are converted and changed in place before they are written
+	 */
+	@Override
+	protected boolean mutateInputEvent() {
+		return true;
+	}
+
 	public void setMergeTableNode(MergeTableNode mergeTableNode) {
 		this.mergeTableNode = mergeTableNode;
 	}
@@ -163,6 +171,7 @@ public class HazelcastTaskTarget extends HazelcastBaseNode {
 
 						MessageEntity messageEntity;
 						for (TapdataEvent tapdataEvent : tapdataEvents) {
+							ownInputEvent(tapdataEvent);
 							if (tapdataEvent.getMessageEntity() != null) {
 								messageEntity = tapdataEvent.getMessageEntity();
 							} else {
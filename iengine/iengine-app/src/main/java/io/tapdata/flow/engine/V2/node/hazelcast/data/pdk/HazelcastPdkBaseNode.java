@@ -2,7 +2,6 @@ package io.tapdata.flow.engine.V2.node.hazelcast.data.pdk;
 
 import com.hazelcast.core.HazelcastInstance;
 import com.tapdata.constant.Log4jUtil;
-import com.tapdata.entity.DatabaseTypeEnum;
 import com.tapdata.entity.dataflow.SyncProgress;
 import com.tapdata.entity.task.context.DataProcessorContext;
 import com.tapdata.tm.commons.dag.DmlPolicy;
@@ -12,6 +11,7 @@ import com.tapdata.tm.commons.dag.nodes.DatabaseNode;
 import com.tapdata.tm.commons.dag.nodes.TableNode;
 import com.tapdata.tm.commons.task.dto.TaskDto;
 import io.tapdata.aspect.PDKNodeInitAspect;
+import io.tapdata.aspect.StateMapStatsAspect;
 import io.tapdata.aspect.utils.AspectUtils;
 import io.tapdata.entity.codec.filter.TapCodecsFilterManager;
 import io.tapdata.entity.event.TapEvent;
@@ -40,6 +40,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -51,11 +52,16 @@ public abstract class HazelcastPdkBaseNode extends HazelcastDataBaseNode {
 	private final Logger logger = LogManager.getLogger(HazelcastPdkBaseNode.class);
 	private static final String TAG = HazelcastPdkBaseNode.class.getSimpleName();
 	protected static final String COMPLETED_INITIAL_SYNC_KEY_PREFIX = "COMPLETED-INITIAL-SYNC-";
+	/**
+	 * Flush interval of the write behind cache of the node state map, 0 writes through
+	 */
+	private static final String STATE_MAP_WRITE_BEHIND_MS_KEY = "STATE_MAP_WRITE_BEHIND_MS";
 	protected MonitorManager monitorManager;
 	protected SyncProgress syncProgress;
 	protected String associateId;
+	protected PdkStateMap pdkStateMap;
 	protected TapLogger.LogListener logListener;
-	private List<PDKMethodInvoker> pdkMethodInvokerList = new ArrayList<>();
+	private final List<PDKMethodInvoker> pdkMethodInvokerList = new CopyOnWriteArrayList<>();
 
 	public HazelcastPdkBaseNode(DataProcessorContext dataProcessorContext) {
 		super(dataProcessorContext);
@@ -120,12 +126,28 @@ public abstract class HazelcastPdkBaseNode extends HazelcastDataBaseNode {
 	}
 
 	protected void createPdkConnectorNode(DataProcessorContext dataProcessorContext, HazelcastInstance hazelcastInstance) {
+		pdkStateMap = new PdkStateMap(dataProcessorContext.getNode().getId(), hazelcastInstance, PdkStateMap.StateMapMode.HTTP_TM)
+				.writeBehind(dataProcessorContext.getTaskDto().getId().toHexString(), CommonUtils.getPropertyLong(STATE_MAP_WRITE_BEHIND_MS_KEY, 0L), stateMap ->
+						AspectUtils.executeAspect(StateMapStatsAspect.class, () -> new StateMapStatsAspect()
+								.hits(stateMap.getHits())
+								.misses(stateMap.getMisses())
+								.flushes(stateMap.getFlushes())
+								.flushedEntries(stateMap.getFlushedEntries())
+								.flushCostMs(stateMap.getLastFlushCostMs())
+								.dataProcessorContext(dataProcessorContext)));
+		this.associateId = ConnectorNodeService.getInstance().putConnectorNode(
+				createConnectorNode(dataProcessorContext, this.getClass().getSimpleName() + "-" + dataProcessorContext.getNode().getId()));
+		logger.info(String.format("Create PDK connector on node %s[%s] complete | Associate id: %s", getNode().getName(), getNode().getId(), associateId));
+		processorBaseContext.setPdkAssociateId(this.associateId);
+		AspectUtils.executeAspect(PDKNodeInitAspect.class, () -> new PDKNodeInitAspect().dataProcessorContext((DataProcessorContext) processorBaseContext));
+	}
+
+	/**
+	 * Create a connector node of the connection of this node, it shares the state map of the node. The caller inits it
+	 * and releases its associate id
+	 */
+	protected ConnectorNode createConnectorNode(DataProcessorContext dataProcessorContext, String associateId) {
 		TaskDto taskDto = dataProcessorContext.getTaskDto();
-		Map<String, Object> connectionConfig = dataProcessorContext.getConnectionConfig();
-		DatabaseTypeEnum.DatabaseType databaseType = dataProcessorContext.getDatabaseType();
-		PdkTableMap pdkTableMap = new PdkTableMap(dataProcessorContext.getTapTableMap());
-		PdkStateMap pdkStateMap = new PdkStateMap(dataProcessorContext.getNode().getId(), hazelcastInstance, PdkStateMap.StateMapMode.HTTP_TM);
-		PdkStateMap globalStateMap = PdkStateMap.globalStateMap(hazelcastInstance);
 		Node<?> node = dataProcessorContext.getNode();
 		ConnectorCapabilities connectorCapabilities = ConnectorCapabilities.create();
 		initDmlPolicy(node, connectorCapabilities);
@@ -133,23 +155,18 @@ public abstract class HazelcastPdkBaseNode extends HazelcastDataBaseNode {
 		if (node instanceof TableNode) {
 			nodeConfig = ((TableNode) node).getNodeConfig();
 		}
-		this.associateId = ConnectorNodeService.getInstance().putConnectorNode(
-				PdkUtil.createNode(taskDto.getId().toHexString(),
-						databaseType,
-						clientMongoOperator,
-						this.getClass().getSimpleName() + "-" + dataProcessorContext.getNode().getId(),
-						connectionConfig,
-						nodeConfig,
-						pdkTableMap,
-						pdkStateMap,
-						globalStateMap,
-						connectorCapabilities,
-						() -> Log4jUtil.setThreadContext(taskDto)
-				)
+		return PdkUtil.createNode(taskDto.getId().toHexString(),
+				dataProcessorContext.getDatabaseType(),
+				clientMongoOperator,
+				associateId,
+				dataProcessorContext.getConnectionConfig(),
+				nodeConfig,
+				new PdkTableMap(dataProcessorContext.getTapTableMap()),
+				pdkStateMap,
+				globalMap(),
+				connectorCapabilities,
+				() -> Log4jUtil.setThreadContext(taskDto)
 		);
-		logger.info(String.format("Create PDK connector on node %s[%s] complete | Associate id: %s", getNode().getName(), getNode().getId(), associateId));
-		processorBaseContext.setPdkAssociateId(this.associateId);
-		AspectUtils.executeAspect(PDKNodeInitAspect.class, () -> new PDKNodeInitAspect().dataProcessorContext((DataProcessorContext) processorBaseContext));
 	}
 
 	private void initDmlPolicy(Node<?> node, ConnectorCapabilities connectorCapabilities) {
@@ -223,6 +240,14 @@ public abstract class HazelcastPdkBaseNode extends HazelcastDataBaseNode {
 				logger.warn(String.format("Stop PDK connector node failed: %s | Associate id: %s", err.getMessage(), associateId));
 				obsLogger.warn(String.format("Stop PDK connector node failed: %s | Associate id: %s", err.getMessage(), associateId));
 			});
+			CommonUtils.handleAnyError(() -> {
+				if (null != pdkStateMap) {
+					pdkStateMap.close();
+				}
+			}, err -> {
+				logger.warn("Flush state map failed: " + err.getMessage());
+				obsLogger.warn("Flush state map failed: " + err.getMessage());
+			});
 			CommonUtils.handleAnyError(() -> {
 				Optional.ofNullable(getConnectorNode()).ifPresent(node -> PDKIntegration.releaseAssociateId(associateId));
 				ConnectorNodeService.getInstance().removeConnectorNode(associateId);
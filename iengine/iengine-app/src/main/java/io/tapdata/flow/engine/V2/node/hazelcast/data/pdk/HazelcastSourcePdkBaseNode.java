@@ -40,6 +40,7 @@ import io.tapdata.flow.engine.V2.ddl.DDLSchemaHandler;
 import io.tapdata.flow.engine.V2.exception.node.NodeException;
 import io.tapdata.flow.engine.V2.monitor.MonitorManager;
 import io.tapdata.flow.engine.V2.monitor.impl.TableMonitor;
+import io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.queue.EventRingBuffer;
 import io.tapdata.flow.engine.V2.progress.SnapshotProgressManager;
 import io.tapdata.flow.engine.V2.util.PdkUtil;
 import io.tapdata.milestone.MilestoneContext;
@@ -64,6 +65,7 @@ import java.text.MessageFormat;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
@@ -76,6 +78,15 @@ import java.util.stream.Collectors;
 public abstract class HazelcastSourcePdkBaseNode extends HazelcastPdkBaseNode {
 	private static final String TAG = HazelcastTargetPdkDataNode.class.getSimpleName();
 	public static final long PERIOD_SECOND_HANDLE_TABLE_MONITOR_RESULT = 10L;
+	public static final String SOURCE_EVENT_QUEUE_CAPACITY_KEY = "SOURCE_EVENT_QUEUE_CAPACITY";
+	/**
+	 * Was 10 events before the ring buffer, raised so a whole read batch fits in one hand over; it holds up to 1024
+	 * events in memory per source node, set {@link #SOURCE_EVENT_QUEUE_CAPACITY_KEY} lower for tables of very large rows
+	 */
+	public static final int DEFAULT_SOURCE_EVENT_QUEUE_CAPACITY = 1024;
+	public static final String SOURCE_EVENT_QUEUE_WAIT_STRATEGY_KEY = "SOURCE_EVENT_QUEUE_WAIT_STRATEGY";
+	private static final int MAX_DRAIN_EVENTS = 512;
+	public static final String EVENT_ID_INFO_KEY = "eventId";
 	private final Logger logger = LogManager.getLogger(HazelcastSourcePdkBaseNode.class);
 	protected SyncProgress syncProgress;
 	protected ExecutorService sourceRunner;
@@ -86,7 +97,13 @@ public abstract class HazelcastSourcePdkBaseNode extends HazelcastPdkBaseNode {
 	 * This is added as an async control center because pdk and jet have two different thread model. pdk thread is
 	 * blocked when reading data from data source while jet using async when passing the event to next node.
 	 */
-	protected LinkedBlockingQueue<TapdataEvent> eventQueue = new LinkedBlockingQueue<>(10);
+	protected final EventRingBuffer<TapdataEvent> eventQueue = new EventRingBuffer<>(
+			CommonUtils.getPropertyInt(SOURCE_EVENT_QUEUE_CAPACITY_KEY, DEFAULT_SOURCE_EVENT_QUEUE_CAPACITY),
+			EventRingBuffer.WaitStrategy.fromString(CommonUtils.getProperty(SOURCE_EVENT_QUEUE_WAIT_STRATEGY_KEY, EventRingBuffer.WaitStrategy.PARK.name())));
+	/**
+	 * Events drained from {@link #eventQueue} but not emitted yet, only used in {@link #complete()}
+	 */
+	private final Deque<TapdataEvent> drainedEvents = new ArrayDeque<>();
 	protected StreamReadFuncAspect streamReadFuncAspect;
 	private TapdataEvent pendingEvent;
 	protected SourceMode sourceMode = SourceMode.NORMAL;
@@ -104,9 +121,12 @@ public abstract class HazelcastSourcePdkBaseNode extends HazelcastPdkBaseNode {
 	// on cdc step if TableMap not exists heartbeat table, add heartbeat table to cdc whitelist and filter heartbeat records
 	protected ICdcDelay cdcDelayCalculation;
 	private final Object waitObj = new Object();
+	private final String eventIdPrefix;
+	private final AtomicLong eventSerial = new AtomicLong();
 
 	public HazelcastSourcePdkBaseNode(DataProcessorContext dataProcessorContext) {
 		super(dataProcessorContext);
+		this.eventIdPrefix = dataProcessorContext.getNode().getId() + "-" + Long.toString(System.currentTimeMillis(), 36) + "-";
 		this.cdcDelayCalculation = new CdcDelayDisable();
 		if (!StringUtils.equalsAnyIgnoreCase(dataProcessorContext.getTaskDto().getSyncType(),
 				TaskDto.SYNC_TYPE_DEDUCE_SCHEMA, TaskDto.SYNC_TYPE_TEST_RUN)) {
@@ -322,28 +342,33 @@ public abstract class HazelcastSourcePdkBaseNode extends HazelcastPdkBaseNode {
 			TaskDto taskDto = dataProcessorContext.getTaskDto();
 			Log4jUtil.setThreadContext(taskDto);
 			Thread.currentThread().setName(String.format("Source-Complete-%s[%s]", getNode().getName(), getNode().getId()));
-			TapdataEvent dataEvent = null;
 			if (!isRunning()) {
 				return true;
 			}
 			if (pendingEvent != null) {
-				dataEvent = pendingEvent;
+				TapdataEvent dataEvent = pendingEvent;
 				pendingEvent = null;
-			} else {
+				if (!offer(dataEvent)) {
+					pendingEvent = dataEvent;
+					return false;
+				}
+			}
+			if (drainedEvents.isEmpty() && eventQueue.drainTo(drainedEvents, MAX_DRAIN_EVENTS) == 0) {
 				try {
-					dataEvent = eventQueue.poll(1, TimeUnit.SECONDS);
+					TapdataEvent dataEvent = eventQueue.poll(1, TimeUnit.SECONDS);
+					if (null != dataEvent) {
+						drainedEvents.add(dataEvent);
+					}
 				} catch (InterruptedException ignored) {
 				}
-				if (null != dataEvent) {
-					// covert to tap value before enqueue the event. when the event is enqueued into the eventQueue,
-					// the event is considered been output to the next node.
-					TapCodecsFilterManager codecsFilterManager = getConnectorNode().getCodecsFilterManager();
-					TapEvent tapEvent = dataEvent.getTapEvent();
-					tapRecordToTapValue(tapEvent, codecsFilterManager);
-				}
 			}
-
-			if (dataEvent != null) {
+			TapCodecsFilterManager codecsFilterManager = getConnectorNode().getCodecsFilterManager();
+			TapdataEvent dataEvent;
+			while (null != (dataEvent = drainedEvents.poll())) {
+				// covert to tap value before enqueue the event. when the event is enqueued into the eventQueue,
+				// the event is considered been output to the next node.
+				TapEvent tapEvent = dataEvent.getTapEvent();
+				tapRecordToTapValue(tapEvent, codecsFilterManager);
 				if (!offer(dataEvent)) {
 					pendingEvent = dataEvent;
 					return false;
@@ -354,7 +379,7 @@ public abstract class HazelcastSourcePdkBaseNode extends HazelcastPdkBaseNode {
 			}
 
 			if (sourceRunnerFuture != null && sourceRunnerFuture.isDone() && sourceRunnerFirstTime.get()
-					&& null == pendingEvent && eventQueue.isEmpty()) {
+					&& null == pendingEvent && drainedEvents.isEmpty() && eventQueue.isEmpty()) {
 				if (TaskDto.TYPE_INITIAL_SYNC.equals(taskDto.getType())) {
 					Object completedInitial = getGlobalMap(getCompletedInitialKey());
 					if (completedInitial instanceof Boolean && (Boolean) completedInitial) {
@@ -524,12 +549,20 @@ public abstract class HazelcastSourcePdkBaseNode extends HazelcastPdkBaseNode {
 
 	@NotNull
 	protected List<TapdataEvent> wrapTapdataEvent(List<TapEvent> events, SyncStage syncStage, Object offsetObj) {
+		return wrapTapdataEvent(events, syncStage, offsetObj, reserveEventSerials(events.size()));
+	}
+
+	/**
+	 * @param firstEventSerial event serial of the first event, from {@link #reserveEventSerials(List)}
+	 */
+	@NotNull
+	protected List<TapdataEvent> wrapTapdataEvent(List<TapEvent> events, SyncStage syncStage, Object offsetObj, long firstEventSerial) {
 		List<TapdataEvent> tapdataEvents = new ArrayList<>(events.size() + 1);
 		for (int i = 0; i < events.size(); i++) {
 			TapEvent tapEvent = events.get(i);
 			boolean isLast = i == (events.size() - 1);
 			TapdataEvent tapdataEvent;
-			tapdataEvent = wrapTapdataEvent(tapEvent, syncStage, offsetObj, isLast);
+			tapdataEvent = wrapTapdataEvent(tapEvent, syncStage, offsetObj, isLast, firstEventSerial + i);
 			if (null == tapdataEvent) {
 				continue;
 			}
@@ -538,9 +571,37 @@ public abstract class HazelcastSourcePdkBaseNode extends HazelcastPdkBaseNode {
 		return tapdataEvents;
 	}
 
+	/**
+	 * Reserve serials for a batch of events. Loggers read the event id from {@link TapdataEvent#getEventId()}, the id
+	 * string is only put into the event info for the debug logs of the read events, which are not wrapped yet
+	 *
+	 * @return serial of the first event
+	 */
+	protected long reserveEventSerials(List<TapEvent> events) {
+		long firstEventSerial = reserveEventSerials(events.size());
+		if (obsLogger.isDebugEnabled()) {
+			for (int i = 0; i < events.size(); i++) {
+				events.get(i).addInfo(EVENT_ID_INFO_KEY, TapdataEvent.eventId(eventIdPrefix, firstEventSerial + i));
+			}
+		}
+		return firstEventSerial;
+	}
+
+	private long reserveEventSerials(int count) {
+		return eventSerial.getAndAdd(count) + 1;
+	}
+
 	protected TapdataEvent wrapTapdataEvent(TapEvent tapEvent, SyncStage syncStage, Object offsetObj, boolean isLast) {
+		return wrapTapdataEvent(tapEvent, syncStage, offsetObj, isLast, reserveEventSerials(1));
+	}
+
+	private TapdataEvent wrapTapdataEvent(TapEvent tapEvent, SyncStage syncStage, Object offsetObj, boolean isLast, long eventSerial) {
 		try {
-			return wrapSingleTapdataEvent(tapEvent, syncStage, offsetObj, isLast);
+			TapdataEvent tapdataEvent = wrapSingleTapdataEvent(tapEvent, syncStage, offsetObj, isLast);
+			if (null != tapdataEvent) {
+				tapdataEvent.setEventId(eventIdPrefix, eventSerial);
+			}
+			return tapdataEvent;
 		} catch (Throwable throwable) {
 			throw new NodeException("Error wrap TapEvent, event: " + tapEvent + ", error: " + throwable
 					.getMessage(), throwable)
@@ -714,6 +775,33 @@ public abstract class HazelcastSourcePdkBaseNode extends HazelcastPdkBaseNode {
 		}
 	}
 
+	/**
+	 * Hand over a batch of events to the emitter at once
+	 */
+	protected void enqueue(List<TapdataEvent> tapdataEvents) {
+		List<TapdataEvent> events = tapdataEvents;
+		if (CollectionUtils.isNotEmpty(removeTables)) {
+			events = new ArrayList<>(tapdataEvents.size());
+			for (TapdataEvent tapdataEvent : tapdataEvents) {
+				if (tapdataEvent.getTapEvent() instanceof TapRecordEvent
+						&& removeTables.contains(((TapRecordEvent) tapdataEvent.getTapEvent()).getTableId())) {
+					continue;
+				}
+				events.add(tapdataEvent);
+			}
+		}
+		int put = 0;
+		try {
+			while (isRunning() && put < events.size()) {
+				put += eventQueue.offer(events, put, 3, TimeUnit.SECONDS);
+			}
+		} catch (InterruptedException ignore) {
+			logger.warn("TapdataEvent enqueue thread interrupted");
+		} catch (Throwable throwable) {
+			throw new NodeException(throwable).context(getDataProcessorContext());
+		}
+	}
+
 	@Override
 	protected boolean need2CDC() {
 		if (null != offsetFromTimeError) {
@@ -744,7 +832,7 @@ public abstract class HazelcastSourcePdkBaseNode extends HazelcastPdkBaseNode {
 		}
 	}
 
-	public LinkedBlockingQueue<TapdataEvent> getEventQueue() {
+	public EventRingBuffer<TapdataEvent> getEventQueue() {
 		return eventQueue;
 	}
 
@@ -11,11 +11,16 @@ import com.tapdata.entity.TapdataStartCdcEvent;
 import com.tapdata.entity.dataflow.SyncProgress;
 import com.tapdata.entity.task.context.DataProcessorContext;
 import com.tapdata.tm.commons.dag.Node;
+import com.tapdata.tm.commons.dag.nodes.DataParentNode;
 import com.tapdata.tm.commons.task.dto.TaskDto;
 import io.tapdata.aspect.*;
 import io.tapdata.aspect.utils.AspectUtils;
+import io.tapdata.entity.event.TapEvent;
 import io.tapdata.entity.schema.TapTable;
 import io.tapdata.flow.engine.V2.exception.node.NodeException;
+import io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.batch.AdaptiveBatchSizeController;
+import io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.partition.ReadPartition;
+import io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.partition.ReadPartitionSplitter;
 import io.tapdata.flow.engine.V2.progress.SnapshotProgressManager;
 import io.tapdata.flow.engine.V2.sharecdc.ReaderType;
 import io.tapdata.flow.engine.V2.sharecdc.ShareCdcReader;
@@ -29,6 +34,7 @@ import io.tapdata.pdk.apis.consumer.StreamReadConsumer;
 import io.tapdata.pdk.apis.functions.PDKMethod;
 import io.tapdata.pdk.apis.functions.connector.source.*;
 import io.tapdata.pdk.core.api.ConnectorNode;
+import io.tapdata.pdk.core.api.PDKIntegration;
 import io.tapdata.pdk.core.entity.params.PDKMethodInvoker;
 import io.tapdata.pdk.core.monitor.PDKInvocationMonitor;
 import io.tapdata.pdk.core.utils.CommonUtils;
@@ -42,7 +48,10 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * @author jackin
@@ -53,16 +62,56 @@ public class HazelcastSourcePdkDataNode extends HazelcastSourcePdkBaseNode {
 	private final Logger logger = LogManager.getLogger(HazelcastSourcePdkDataNode.class);
 
 	private static final int ASYNCLY_COUNT_SNAPSHOT_ROW_SIZE_TABLE_THRESHOLD = 100;
+	public static final int DEFAULT_INITIAL_CONCURRENT_READ_NUM = 4;
+	public static final long DEFAULT_INITIAL_PARTITION_READ_SIZE = 1000000L;
+	public static final int DEFAULT_INITIAL_PARTITION_READ_NUM = 4;
+	public static final int DEFAULT_SNAPSHOT_BATCH_SIZE = 100;
 
 	private ShareCdcReader shareCdcReader;
 
 	private final SourceStateAspect sourceStateAspect;
 	private Map<String, Long> snapshotRowSizeMap;
 	private ExecutorService snapshotRowSizeThreadPool;
+	private int initialConcurrentReadNum = 1;
+	/**
+	 * Rows of one key range when a big table is split, 0 means split read is disabled
+	 */
+	private long initialPartitionReadSize;
+	private int initialPartitionReadNum = DEFAULT_INITIAL_PARTITION_READ_NUM;
+	/**
+	 * Only the snapshot read adapts its batch size, per read call: a table not split into key ranges is read with the
+	 * size taken when its read started. A stream read takes its batch size once for the whole run
+	 */
+	private final AdaptiveBatchSizeController snapshotBatchSizeController;
+	private final int streamBatchSize;
+	/**
+	 * Connector node of the current snapshot reader thread, null out of the reader threads
+	 */
+	private final ThreadLocal<ConnectorNode> readerConnectorNode = new ThreadLocal<>();
+	private final AtomicInteger readerConnectorNodeNo = new AtomicInteger();
 
 	public HazelcastSourcePdkDataNode(DataProcessorContext dataProcessorContext) {
 		super(dataProcessorContext);
 		sourceStateAspect = new SourceStateAspect().dataProcessorContext(dataProcessorContext);
+		int eventQueueCapacity = eventQueue.capacity();
+		this.snapshotBatchSizeController = new AdaptiveBatchSizeController(DEFAULT_SNAPSHOT_BATCH_SIZE, eventQueueCapacity);
+		Integer readBatchSize = dataProcessorContext.getTaskDto().getReadBatchSize();
+		this.streamBatchSize = null != readBatchSize && readBatchSize > 0 ? readBatchSize : DEFAULT_SNAPSHOT_BATCH_SIZE;
+		Node<?> node = dataProcessorContext.getNode();
+		if (node instanceof DataParentNode) {
+			Boolean initialConcurrentRead = ((DataParentNode<?>) node).getInitialConcurrentRead();
+			if (null != initialConcurrentRead && initialConcurrentRead) {
+				Integer readNum = ((DataParentNode<?>) node).getInitialConcurrentReadNum();
+				this.initialConcurrentReadNum = null != readNum && readNum > 0 ? readNum : DEFAULT_INITIAL_CONCURRENT_READ_NUM;
+			}
+			Boolean initialPartitionRead = ((DataParentNode<?>) node).getInitialPartitionRead();
+			if (null != initialPartitionRead && initialPartitionRead) {
+				Long readSize = ((DataParentNode<?>) node).getInitialPartitionReadSize();
+				this.initialPartitionReadSize = null != readSize && readSize > 0 ? readSize : DEFAULT_INITIAL_PARTITION_READ_SIZE;
+				Integer readNum = ((DataParentNode<?>) node).getInitialPartitionReadNum();
+				this.initialPartitionReadNum = null != readNum && readNum > 0 ? readNum : DEFAULT_INITIAL_PARTITION_READ_NUM;
+			}
+		}
 	}
 
 	@Override
@@ -140,90 +189,40 @@ public class HazelcastSourcePdkDataNode extends HazelcastSourcePdkBaseNode {
 			MilestoneUtil.updateMilestone(milestoneService, MilestoneStage.READ_SNAPSHOT, MilestoneStatus.RUNNING);
 			try {
 				while (isRunning()) {
-					for (String tableName : tableList) {
-						// wait until we count the table
-						while (isRunning() && (null == snapshotRowSizeMap || !snapshotRowSizeMap.containsKey(tableName))) {
+					if (initialConcurrentReadNum > 1 && tableList.size() > 1) {
+						doConcurrentSnapshot(tableList);
+					} else {
+						for (String tableName : tableList) {
+							// wait until we count the table
+							waitTableCounted(tableName);
 							try {
-								TimeUnit.MILLISECONDS.sleep(500);
-							} catch (InterruptedException ignored) {
-							}
-						}
-						try {
-							while (isRunning()) {
-								try {
-									if (sourceRunnerLock.tryLock(1L, TimeUnit.SECONDS)) {
+								while (isRunning()) {
+									try {
+										if (sourceRunnerLock.tryLock(1L, TimeUnit.SECONDS)) {
+											break;
+										}
+									} catch (InterruptedException e) {
 										break;
 									}
-								} catch (InterruptedException e) {
+								}
+								if (!isRunning()) {
 									break;
 								}
-							}
-							if (!isRunning()) {
-								break;
-							}
-							if (this.removeTables != null && this.removeTables.contains(tableName)) {
-								logger.info("Table " + tableName + " is detected that it has been removed, the snapshot read will be skipped");
-								obsLogger.info("Table " + tableName + " is detected that it has been removed, the snapshot read will be skipped");
-								this.removeTables.remove(tableName);
-								continue;
-							}
-							TapTable tapTable = dataProcessorContext.getTapTableMap().get(tableName);
-							Object tableOffset = ((Map<String, Object>) syncProgress.getBatchOffsetObj()).get(tapTable.getId());
-							logger.info("Starting batch read, table name: " + tapTable.getId() + ", offset: " + tableOffset);
-							obsLogger.info("Starting batch read, table name: " + tapTable.getId() + ", offset: " + tableOffset);
-							int eventBatchSize = 100;
-
-							executeDataFuncAspect(
-									BatchReadFuncAspect.class, () -> new BatchReadFuncAspect()
-											.eventBatchSize(eventBatchSize)
-											.connectorContext(getConnectorNode().getConnectorContext())
-											.offsetState(tableOffset)
-											.dataProcessorContext(this.getDataProcessorContext())
-											.start()
-											.table(tapTable),
-									batchReadFuncAspect -> PDKInvocationMonitor.invoke(
-											getConnectorNode(), PDKMethod.SOURCE_BATCH_READ,
-											createPdkMethodInvoker().runnable(() -> batchReadFunction.batchRead(getConnectorNode().getConnectorContext(), tapTable, tableOffset, eventBatchSize, (events, offsetObject) -> {
-														if (events != null && !events.isEmpty()) {
-															events.forEach(event -> {
-																if (null == event.getTime()) {
-																	throw new NodeException("Invalid TapEvent, `TapEvent.time` should be NonNUll").context(getProcessorBaseContext()).event(event);
-																}
-																event.addInfo("eventId", UUID.randomUUID().toString());
-															});
-
-															if (batchReadFuncAspect != null)
-																AspectUtils.accept(batchReadFuncAspect.state(BatchReadFuncAspect.STATE_READ_COMPLETE).getReadCompleteConsumers(), events);
-
-															if (logger.isDebugEnabled()) {
-																logger.debug("Batch read {} of events, {}", events.size(), LoggerUtils.sourceNodeMessage(getConnectorNode()));
-															}
-															((Map<String, Object>) syncProgress.getBatchOffsetObj()).put(tapTable.getId(), offsetObject);
-															List<TapdataEvent> tapdataEvents = wrapTapdataEvent(events);
-
-															if (batchReadFuncAspect != null)
-																AspectUtils.accept(batchReadFuncAspect.state(BatchReadFuncAspect.STATE_PROCESS_COMPLETE).getProcessCompleteConsumers(), tapdataEvents);
-
-															if (CollectionUtil.isNotEmpty(tapdataEvents)) {
-																tapdataEvents.forEach(this::enqueue);
-
-																if (batchReadFuncAspect != null)
-																	AspectUtils.accept(batchReadFuncAspect.state(BatchReadFuncAspect.STATE_ENQUEUED).getEnqueuedConsumers(), tapdataEvents);
-															}
-														}
-													})
-											)
-									));
-						} catch (Throwable throwable) {
-							Throwable throwableWrapper = throwable;
-							if (!(throwableWrapper instanceof NodeException)) {
-								throwableWrapper = new NodeException(throwableWrapper).context(getProcessorBaseContext());
-							}
-							throw throwableWrapper;
-						} finally {
-							try {
-								sourceRunnerLock.unlock();
-							} catch (Exception ignored) {
+								if (skipRemovedTable(tableName)) {
+									continue;
+								}
+								doSnapshotTable(tableName, false);
+							} catch (Throwable throwable) {
+								Throwable throwableWrapper = throwable;
+								if (!(throwableWrapper instanceof NodeException)) {
+									throwableWrapper = new NodeException(throwableWrapper).context(getProcessorBaseContext());
+								}
+								throw throwableWrapper;
+							} finally {
+								try {
+									sourceRunnerLock.unlock();
+								} catch (Exception ignored) {
+								}
 							}
 						}
 					}
@@ -268,6 +267,373 @@ public class HazelcastSourcePdkDataNode extends HazelcastSourcePdkBaseNode {
 		}
 	}
 
+	/**
+	 * Read several tables at the same time, each table is read by one thread through {@link BatchReadFunction#batchRead}.
+	 * The batches of all readers are merged into the event queue under {@link #sourceRunnerLock}, which is fair, so every
+	 * reader gets its turn and the batch offset map is only touched by one thread at a time
+	 */
+	private void doConcurrentSnapshot(List<String> tableList) throws Throwable {
+		int threadNum = Math.min(initialConcurrentReadNum, tableList.size());
+		logger.info("Starting concurrent batch read, table count: {}, concurrent read number: {}", tableList.size(), threadNum);
+		obsLogger.info("Starting concurrent batch read, table count: {}, concurrent read number: {}", tableList.size(), threadNum);
+		List<CommonUtils.AnyError> readers = new ArrayList<>(tableList.size());
+		for (String tableName : tableList) {
+			readers.add(() -> {
+				waitTableCounted(tableName);
+				if (!lockWhileRunning(sourceRunnerLock)) {
+					return;
+				}
+				try {
+					if (skipRemovedTable(tableName)) {
+						return;
+					}
+				} finally {
+					sourceRunnerLock.unlock();
+				}
+				doSnapshotTable(tableName, true);
+			});
+		}
+		runConcurrently("Snapshot-Concurrent-Reader", threadNum, readers);
+	}
+
+	/**
+	 * Run the readers on a temporary thread pool and wait until all of them finished, fail fast when one of them failed
+	 * <p>
+	 * A connector is not required to support concurrent calls on one connector context, so with more than one thread
+	 * every thread reads through its own connector node, released when the readers finished. A single thread reads
+	 * through the connector node of the caller
+	 */
+	private void runConcurrently(String threadName, int threadNum, List<CommonUtils.AnyError> readers) throws Throwable {
+		ConnectorNode callerConnectorNode = readerConnectorNode.get();
+		List<ConnectorNode> readerConnectorNodes = new CopyOnWriteArrayList<>();
+		AtomicInteger threadNo = new AtomicInteger();
+		ExecutorService readThreadPool = new ThreadPoolExecutor(threadNum, threadNum, 0L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+				r -> {
+					Thread thread = new Thread(r);
+					thread.setName(String.format("%s-%s[%s]-%s", threadName, getNode().getName(), getNode().getId(), threadNo.incrementAndGet()));
+					return thread;
+				});
+		try {
+			List<CompletableFuture<Void>> futures = new ArrayList<>(readers.size());
+			for (CommonUtils.AnyError reader : readers) {
+				futures.add(CompletableFuture.runAsync(() -> {
+					Log4jUtil.setThreadContext(dataProcessorContext.getTaskDto());
+					if (!isRunning()) {
+						return;
+					}
+					try {
+						if (null == readerConnectorNode.get()) {
+							readerConnectorNode.set(threadNum > 1 ? createReaderConnectorNode(readerConnectorNodes) : callerConnectorNode);
+						}
+						reader.run();
+					} catch (Throwable throwable) {
+						throw new CompletionException(throwable);
+					}
+				}, readThreadPool));
+			}
+			CompletableFuture<Void> allFuture = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+			while (isRunning()) {
+				try {
+					allFuture.get(1L, TimeUnit.SECONDS);
+					break;
+				} catch (TimeoutException ignored) {
+					for (CompletableFuture<Void> future : futures) {
+						if (future.isCompletedExceptionally()) {
+							future.get();
+						}
+					}
+				}
+			}
+		} catch (ExecutionException e) {
+			Throwable throwable = e.getCause() instanceof CompletionException && null != e.getCause().getCause() ? e.getCause().getCause() : e.getCause();
+			if (!(throwable instanceof NodeException)) {
+				throwable = new NodeException(throwable).context(getProcessorBaseContext());
+			}
+			throw throwable;
+		} finally {
+			readThreadPool.shutdownNow();
+			readerConnectorNodes.forEach(this::releaseReaderConnectorNode);
+		}
+	}
+
+	private ConnectorNode createReaderConnectorNode(List<ConnectorNode> readerConnectorNodes) {
+		ConnectorNode connectorNode = createConnectorNode(dataProcessorContext, associateId + "-reader-" + readerConnectorNodeNo.incrementAndGet());
+		readerConnectorNodes.add(connectorNode);
+		PDKInvocationMonitor.invoke(connectorNode, PDKMethod.INIT, connectorNode::connectorInit, TAG);
+		return connectorNode;
+	}
+
+	private void releaseReaderConnectorNode(ConnectorNode connectorNode) {
+		CommonUtils.handleAnyError(() -> {
+			PDKInvocationMonitor.stop(connectorNode);
+			PDKInvocationMonitor.invoke(connectorNode, PDKMethod.STOP, connectorNode::connectorStop, TAG);
+		}, err -> {
+			logger.warn(String.format("Stop PDK reader connector node failed: %s | Associate id: %s", err.getMessage(), connectorNode.getAssociateId()));
+			obsLogger.warn(String.format("Stop PDK reader connector node failed: %s | Associate id: %s", err.getMessage(), connectorNode.getAssociateId()));
+		});
+		PDKIntegration.releaseAssociateId(connectorNode.getAssociateId());
+	}
+
+	/**
+	 * @return connector node to read the snapshot with on the current thread
+	 */
+	private ConnectorNode readConnectorNode() {
+		ConnectorNode connectorNode = readerConnectorNode.get();
+		return null != connectorNode ? connectorNode : getConnectorNode();
+	}
+
+	/**
+	 * @return false if the node stopped before the lock acquired
+	 */
+	private boolean lockWhileRunning(Lock lock) {
+		while (isRunning()) {
+			try {
+				if (lock.tryLock(1L, TimeUnit.SECONDS)) {
+					return true;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Lock to hand a read batch over. The connector goes on reading after its consumer returns, so when the node stopped
+	 * before the lock is acquired the read is stopped by an error instead of dropping the batch
+	 */
+	private void lockOrStopRead(Lock lock) {
+		if (!lockWhileRunning(lock)) {
+			throw new NodeException("Node stopped before a read batch was handed over, stop reading").context(getProcessorBaseContext());
+		}
+	}
+
+	private void waitTableCounted(String tableName) {
+		while (isRunning() && (null == snapshotRowSizeMap || !snapshotRowSizeMap.containsKey(tableName))) {
+			try {
+				TimeUnit.MILLISECONDS.sleep(500);
+			} catch (InterruptedException ignored) {
+			}
+		}
+	}
+
+	private boolean skipRemovedTable(String tableName) {
+		if (this.removeTables != null && this.removeTables.contains(tableName)) {
+			logger.info("Table " + tableName + " is detected that it has been removed, the snapshot read will be skipped");
+			obsLogger.info("Table " + tableName + " is detected that it has been removed, the snapshot read will be skipped");
+			this.removeTables.remove(tableName);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @param lockPerBatch true when tables are read concurrently, every batch is then handled under {@link #sourceRunnerLock}
+	 *                     instead of the whole table
+	 */
+	private void doSnapshotTable(String tableName, boolean lockPerBatch) throws Throwable {
+		TapTable tapTable = dataProcessorContext.getTapTableMap().get(tableName);
+		Object batchOffset;
+		if (lockPerBatch) {
+			sourceRunnerLock.lock();
+			try {
+				batchOffset = ((Map<String, Object>) syncProgress.getBatchOffsetObj()).get(tapTable.getId());
+			} finally {
+				sourceRunnerLock.unlock();
+			}
+		} else {
+			batchOffset = ((Map<String, Object>) syncProgress.getBatchOffsetObj()).get(tapTable.getId());
+		}
+		List<ReadPartition> readPartitions = splitReadPartitions(tapTable, batchOffset);
+		if (null != readPartitions) {
+			doPartitionSnapshotTable(tapTable, readPartitions, lockPerBatch);
+			return;
+		}
+		// the table was split before but can not be split now, read it from the beginning
+		Object tableOffset = ReadPartition.isPartitionOffset(batchOffset) ? null : batchOffset;
+		ConnectorNode connectorNode = readConnectorNode();
+		BatchReadFunction batchReadFunction = connectorNode.getConnectorFunctions().getBatchReadFunction();
+		int eventBatchSize = snapshotBatchSizeController.getBatchSize();
+		logger.info("Starting batch read, table name: " + tapTable.getId() + ", offset: " + tableOffset + ", batch size: " + eventBatchSize);
+		obsLogger.info("Starting batch read, table name: " + tapTable.getId() + ", offset: " + tableOffset + ", batch size: " + eventBatchSize);
+
+		executeDataFuncAspect(
+				BatchReadFuncAspect.class, () -> new BatchReadFuncAspect()
+						.eventBatchSize(eventBatchSize)
+						.connectorContext(connectorNode.getConnectorContext())
+						.offsetState(tableOffset)
+						.dataProcessorContext(this.getDataProcessorContext())
+						.start()
+						.table(tapTable),
+				batchReadFuncAspect -> PDKInvocationMonitor.invoke(
+						connectorNode, PDKMethod.SOURCE_BATCH_READ,
+						createPdkMethodInvoker().runnable(() -> batchReadFunction.batchRead(connectorNode.getConnectorContext(), tapTable, tableOffset, eventBatchSize, (events, offsetObject) -> {
+									if (events != null && !events.isEmpty()) {
+										if (!lockPerBatch) {
+											handleBatchReadEvents(tapTable, events, offsetObject, batchReadFuncAspect);
+											return;
+										}
+										lockOrStopRead(sourceRunnerLock);
+										try {
+											handleBatchReadEvents(tapTable, events, offsetObject, batchReadFuncAspect);
+										} finally {
+											sourceRunnerLock.unlock();
+										}
+									}
+								})
+						)
+				));
+	}
+
+	/**
+	 * @return key ranges of the table, null if the table should be read by {@link BatchReadFunction}
+	 */
+	private List<ReadPartition> splitReadPartitions(TapTable tapTable, Object batchOffset) {
+		if (initialPartitionReadSize <= 0 || null == readConnectorNode().getConnectorFunctions().getBatchReadPartitionFunction()) {
+			return null;
+		}
+		List<ReadPartition> readPartitions = ReadPartition.fromOffset(batchOffset);
+		if (null != readPartitions || null != batchOffset) {
+			// resume the unfinished ranges, or the table was read by batch read before
+			return readPartitions;
+		}
+		Long rowCount = null == snapshotRowSizeMap ? null : snapshotRowSizeMap.get(tapTable.getId());
+		if (null == rowCount || rowCount < initialPartitionReadSize * 2) {
+			return null;
+		}
+		Collection<String> primaryKeys = tapTable.primaryKeys(true);
+		if (CollectionUtils.isEmpty(primaryKeys)) {
+			return null;
+		}
+		try {
+			readPartitions = new ReadPartitionSplitter(readConnectorNode(), this::createPdkMethodInvoker)
+					.split(tapTable, primaryKeys.iterator().next(), rowCount, initialPartitionReadSize);
+		} catch (Throwable throwable) {
+			logger.warn("Split table {} failed, it will be read without split: {}", tapTable.getId(), throwable.getMessage(), throwable);
+			obsLogger.warn("Split table {} failed, it will be read without split: {}", tapTable.getId(), throwable.getMessage());
+			return null;
+		}
+		return readPartitions.size() > 1 ? readPartitions : null;
+	}
+
+	/**
+	 * Read the unfinished key ranges of the table concurrently, the batch offset of the table holds the state of all ranges
+	 */
+	private void doPartitionSnapshotTable(TapTable tapTable, List<ReadPartition> readPartitions, boolean lockPerBatch) throws Throwable {
+		// the source runner already holds sourceRunnerLock when tables are read one by one
+		Lock batchLock = lockPerBatch ? sourceRunnerLock : new ReentrantLock(true);
+		List<ReadPartition> unfinishedPartitions = new ArrayList<>();
+		for (ReadPartition readPartition : readPartitions) {
+			if (!readPartition.isDone()) {
+				unfinishedPartitions.add(readPartition);
+			}
+		}
+		int threadNum = Math.max(1, Math.min(initialPartitionReadNum, unfinishedPartitions.size()));
+		logger.info("Starting split batch read, table name: {}, partition count: {}, unfinished: {}, concurrent read number: {}",
+				tapTable.getId(), readPartitions.size(), unfinishedPartitions.size(), threadNum);
+		obsLogger.info("Starting split batch read, table name: {}, partition count: {}, unfinished: {}, concurrent read number: {}",
+				tapTable.getId(), readPartitions.size(), unfinishedPartitions.size(), threadNum);
+		if (!lockWhileRunning(batchLock)) {
+			return;
+		}
+		try {
+			((Map<String, Object>) syncProgress.getBatchOffsetObj()).put(tapTable.getId(), ReadPartition.toOffset(readPartitions));
+		} finally {
+			batchLock.unlock();
+		}
+		int eventBatchSize = snapshotBatchSizeController.getBatchSize();
+
+		executeDataFuncAspect(
+				BatchReadFuncAspect.class, () -> new BatchReadFuncAspect()
+						.eventBatchSize(eventBatchSize)
+						.connectorContext(readConnectorNode().getConnectorContext())
+						.offsetState(ReadPartition.toOffset(readPartitions))
+						.dataProcessorContext(this.getDataProcessorContext())
+						.start()
+						.table(tapTable),
+				batchReadFuncAspect -> {
+					List<CommonUtils.AnyError> readers = new ArrayList<>(unfinishedPartitions.size());
+					for (ReadPartition readPartition : unfinishedPartitions) {
+						readers.add(() -> doReadPartition(tapTable, readPartitions, readPartition, batchLock, batchReadFuncAspect));
+					}
+					runConcurrently("Snapshot-Partition-Reader", threadNum, readers);
+				});
+	}
+
+	private void doReadPartition(TapTable tapTable, List<ReadPartition> readPartitions, ReadPartition readPartition,
+								 Lock batchLock, BatchReadFuncAspect batchReadFuncAspect) {
+		ConnectorNode connectorNode = readConnectorNode();
+		BatchReadPartitionFunction batchReadPartitionFunction = connectorNode.getConnectorFunctions().getBatchReadPartitionFunction();
+		int eventBatchSize = snapshotBatchSizeController.getBatchSize();
+		// the last batch of the range is held back, it is handled after the range is marked as done
+		AtomicReference<List<TapEvent>> pendingEvents = new AtomicReference<>();
+		PDKInvocationMonitor.invoke(connectorNode, PDKMethod.SOURCE_BATCH_READ_PARTITION,
+				createPdkMethodInvoker().runnable(() -> batchReadPartitionFunction.batchReadPartition(connectorNode.getConnectorContext(), tapTable,
+						readPartition.toFilter(), eventBatchSize, events -> {
+							if (null == events || events.isEmpty()) {
+								return;
+							}
+							List<TapEvent> lastEvents = pendingEvents.getAndSet(new ArrayList<>(events));
+							if (null != lastEvents) {
+								handlePartitionEvents(tapTable, readPartitions, readPartition, lastEvents, false, batchLock, batchReadFuncAspect);
+							}
+						})
+				));
+		if (isRunning()) {
+			handlePartitionEvents(tapTable, readPartitions, readPartition, pendingEvents.get(), true, batchLock, batchReadFuncAspect);
+		}
+	}
+
+	private void handlePartitionEvents(TapTable tapTable, List<ReadPartition> readPartitions, ReadPartition readPartition, List<TapEvent> events,
+									   boolean partitionDone, Lock batchLock, BatchReadFuncAspect batchReadFuncAspect) {
+		lockOrStopRead(batchLock);
+		try {
+			if (partitionDone) {
+				readPartition.setDone(true);
+			}
+			Map<String, Object> tableOffset = ReadPartition.toOffset(readPartitions);
+			if (CollectionUtils.isEmpty(events)) {
+				((Map<String, Object>) syncProgress.getBatchOffsetObj()).put(tapTable.getId(), tableOffset);
+			} else {
+				handleBatchReadEvents(tapTable, events, tableOffset, batchReadFuncAspect);
+			}
+		} finally {
+			batchLock.unlock();
+		}
+	}
+
+	private void handleBatchReadEvents(TapTable tapTable, List<TapEvent> events, Object offsetObject, BatchReadFuncAspect batchReadFuncAspect) {
+		int queueSize = eventQueue.size();
+		long handleStartAt = System.currentTimeMillis();
+		for (TapEvent event : events) {
+			if (null == event.getTime()) {
+				throw new NodeException("Invalid TapEvent, `TapEvent.time` should be NonNUll").context(getProcessorBaseContext()).event(event);
+			}
+		}
+		long firstEventSerial = reserveEventSerials(events);
+
+		if (batchReadFuncAspect != null)
+			AspectUtils.accept(batchReadFuncAspect.state(BatchReadFuncAspect.STATE_READ_COMPLETE).getReadCompleteConsumers(), events);
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("Batch read {} of events, {}", events.size(), LoggerUtils.sourceNodeMessage(getConnectorNode()));
+		}
+		((Map<String, Object>) syncProgress.getBatchOffsetObj()).put(tapTable.getId(), offsetObject);
+		List<TapdataEvent> tapdataEvents = wrapTapdataEvent(events, SyncStage.INITIAL_SYNC, null, firstEventSerial);
+
+		if (batchReadFuncAspect != null)
+			AspectUtils.accept(batchReadFuncAspect.state(BatchReadFuncAspect.STATE_PROCESS_COMPLETE).getProcessCompleteConsumers(), tapdataEvents);
+
+		if (CollectionUtil.isNotEmpty(tapdataEvents)) {
+			enqueue(tapdataEvents);
+
+			if (batchReadFuncAspect != null)
+				AspectUtils.accept(batchReadFuncAspect.state(BatchReadFuncAspect.STATE_ENQUEUED).getEnqueuedConsumers(), tapdataEvents);
+		}
+		snapshotBatchSizeController.observe(events, queueSize, System.currentTimeMillis() - handleStartAt);
+	}
+
 	@SneakyThrows
 	private void doCount(List<String> tableList) {
 		BatchCountFunction batchCountFunction = getConnectorNode().getConnectorFunctions().getBatchCountFunction();
@@ -409,7 +775,7 @@ public class HazelcastSourcePdkDataNode extends HazelcastSourcePdkBaseNode {
 			logger.info("Starting stream read, table list: " + tapTableMap.keySet() + ", offset: " + syncProgress.getStreamOffsetObj());
 			List<String> tables = new ArrayList<>(tapTableMap.keySet());
 			cdcDelayCalculation.addHeartbeatTable(tables);
-			int batchSize = dataProcessorContext.getTaskDto().getReadBatchSize();
+			int batchSize = streamBatchSize;
 			String streamReadFunctionName = null;
 			if (rawDataCallbackFilterFunctionV2 != null)
 				streamReadFunctionName = rawDataCallbackFilterFunctionV2.getClass().getSimpleName();
@@ -443,18 +809,18 @@ public class HazelcastSourcePdkDataNode extends HazelcastSourcePdkBaseNode {
 													}
 												}
 												if (events != null && !events.isEmpty()) {
-													events.forEach(event -> {
+													for (TapEvent event : events) {
 														if (null == event.getTime()) {
 															throw new NodeException("Invalid TapEvent, `TapEvent.time` should be NonNUll").context(getProcessorBaseContext()).event(event);
 														}
-														event.addInfo("eventId", UUID.randomUUID().toString());
-													});
+													}
+													long firstEventSerial = reserveEventSerials(events);
 
 													if (streamReadFuncAspect != null) {
 														AspectUtils.accept(streamReadFuncAspect.state(StreamReadFuncAspect.STATE_STREAMING_READ_COMPLETED).getStreamingReadCompleteConsumers(), events);
 													}
 
-													List<TapdataEvent> tapdataEvents = wrapTapdataEvent(events, SyncStage.CDC, offsetObj);
+													List<TapdataEvent> tapdataEvents = wrapTapdataEvent(events, SyncStage.CDC, offsetObj, firstEventSerial);
 													if (logger.isDebugEnabled()) {
 														logger.debug("Stream read {} of events, {}", events.size(), LoggerUtils.sourceNodeMessage(getConnectorNode()));
 													}
@@ -463,7 +829,7 @@ public class HazelcastSourcePdkDataNode extends HazelcastSourcePdkBaseNode {
 														AspectUtils.accept(streamReadFuncAspect.state(StreamReadFuncAspect.STATE_STREAMING_PROCESS_COMPLETED).getStreamingProcessCompleteConsumers(), tapdataEvents);
 
 													if (CollectionUtils.isNotEmpty(tapdataEvents)) {
-														tapdataEvents.forEach(this::enqueue);
+														enqueue(tapdataEvents);
 														syncProgress.setStreamOffsetObj(offsetObj);
 														if (streamReadFuncAspect != null)
 															AspectUtils.accept(streamReadFuncAspect.state(StreamReadFuncAspect.STATE_STREAMING_ENQUEUED).getStreamingEnqueuedConsumers(), tapdataEvents);
@@ -17,7 +17,9 @@ import com.tapdata.tm.commons.schema.MetadataInstancesDto;
 import com.tapdata.tm.commons.schema.TransformerWsMessageResult;
 import com.tapdata.tm.commons.task.dto.MergeTableProperties;
 import com.tapdata.tm.commons.task.dto.TaskDto;
+import io.tapdata.aspect.ConcurrentWriteStatsAspect;
 import io.tapdata.aspect.TaskMilestoneFuncAspect;
+import io.tapdata.aspect.utils.AspectUtils;
 import io.tapdata.entity.event.TapEvent;
 import io.tapdata.entity.event.ddl.TapDDLEvent;
 import io.tapdata.entity.event.ddl.table.TapCreateTableEvent;
@@ -26,9 +28,10 @@ import io.tapdata.entity.event.dml.TapInsertRecordEvent;
 import io.tapdata.entity.event.dml.TapRecordEvent;
 import io.tapdata.entity.schema.TapTable;
 import io.tapdata.entity.schema.value.TapMapValue;
+import io.tapdata.flow.engine.V2.entity.PdkStateMap;
 import io.tapdata.flow.engine.V2.exception.node.NodeException;
 import io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.concurrent.PartitionConcurrentProcessor;
-import io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.concurrent.partitioner.KeysPartitioner;
+import io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.concurrent.partitioner.Murmur3KeysPartitioner;
 import io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.concurrent.selector.TapEventPartitionKeySelector;
 import io.tapdata.flow.engine.V2.util.PdkUtil;
 import io.tapdata.flow.engine.V2.util.TapEventUtil;
@@ -59,6 +62,8 @@ public abstract class HazelcastTargetPdkBaseNode extends HazelcastPdkBaseNode {
 	private static final String TAG = HazelcastTargetPdkDataNode.class.getSimpleName();
 	public static final int DEFAULT_TARGET_BATCH_INTERVAL_MS = 1000;
 	public static final int DEFAULT_TARGET_BATCH = 500;
+	private static final long CONCURRENT_WRITE_REPORT_INTERVAL_MS = 5000L;
+	private static final double WRITE_SKEW_WARN_THRESHOLD = 2D;
 	private final Logger logger = LogManager.getLogger(HazelcastTargetPdkBaseNode.class);
 	protected Map<String, SyncProgress> syncProgressMap = new ConcurrentHashMap<>();
 	protected String tableName;
@@ -86,6 +91,7 @@ public abstract class HazelcastTargetPdkBaseNode extends HazelcastPdkBaseNode {
 	private boolean inCdc = false;
 	private int targetBatch;
 	private long targetBatchIntervalMs;
+	private long lastConcurrentWriteReportTime;
 
 	public HazelcastTargetPdkBaseNode(DataProcessorContext dataProcessorContext) {
 		super(dataProcessorContext);
@@ -95,6 +101,14 @@ public abstract class HazelcastTargetPdkBaseNode extends HazelcastPdkBaseNode {
 		MilestoneUtil.updateMilestone(milestoneService, MilestoneStage.INIT_TRANSFORMER, MilestoneStatus.RUNNING);
 	}
 
+	/**
+	 * Input events are converted in place to the target table before they are written
+	 */
+	@Override
+	protected boolean mutateInputEvent() {
+		return true;
+	}
+
 	@Override
 	protected void doInit(@NotNull Context context) throws Exception {
 		super.doInit(context);
@@ -133,7 +147,7 @@ public abstract class HazelcastTargetPdkBaseNode extends HazelcastPdkBaseNode {
 				this.initialConcurrent = initialConcurrent;
 				this.initialConcurrentWriteNum = dataParentNode.getInitialConcurrentWriteNum() != null ? dataParentNode.getInitialConcurrentWriteNum() : 8;
 				if (initialConcurrent) {
-					this.initialPartitionConcurrentProcessor = initConcurrentProcessor(initialConcurrentWriteNum);
+					this.initialPartitionConcurrentProcessor = initConcurrentProcessor(initialConcurrentWriteNum, true);
 					this.initialPartitionConcurrentProcessor.start();
 				}
 			}
@@ -142,7 +156,7 @@ public abstract class HazelcastTargetPdkBaseNode extends HazelcastPdkBaseNode {
 				this.cdcConcurrent = cdcConcurrent;
 				this.cdcConcurrentWriteNum = dataParentNode.getCdcConcurrentWriteNum() != null ? dataParentNode.getCdcConcurrentWriteNum() : 4;
 				if (cdcConcurrent) {
-					this.cdcPartitionConcurrentProcessor = initConcurrentProcessor(cdcConcurrentWriteNum);
+					this.cdcPartitionConcurrentProcessor = initConcurrentProcessor(cdcConcurrentWriteNum, false);
 					this.cdcPartitionConcurrentProcessor.start();
 				}
 			}
@@ -166,6 +180,7 @@ public abstract class HazelcastTargetPdkBaseNode extends HazelcastPdkBaseNode {
 				final int count = inbox.drainTo(tapdataEvents, targetBatch);
 				if (count > 0) {
 					for (TapdataEvent tapdataEvent : tapdataEvents) {
+						ownInputEvent(tapdataEvent);
 						while (isRunning()) {
 							try {
 								if (tapEventQueue.offer(tapdataEvent, 1L, TimeUnit.SECONDS)) {
@@ -272,6 +287,7 @@ public abstract class HazelcastTargetPdkBaseNode extends HazelcastPdkBaseNode {
 		if (CollectionUtils.isNotEmpty(initialEvents)) {
 			if (initialConcurrent) {
 				this.initialPartitionConcurrentProcessor.process(initialEvents, async);
+				reportConcurrentWriteStats(this.initialPartitionConcurrentProcessor);
 			} else {
 				this.handleTapdataEvents(initialEvents);
 			}
@@ -283,6 +299,7 @@ public abstract class HazelcastTargetPdkBaseNode extends HazelcastPdkBaseNode {
 		if (CollectionUtils.isNotEmpty(cdcEvents)) {
 			if (cdcConcurrent) {
 				this.cdcPartitionConcurrentProcessor.process(cdcEvents, true);
+				reportConcurrentWriteStats(this.cdcPartitionConcurrentProcessor);
 			} else {
 				this.handleTapdataEvents(cdcEvents);
 			}
@@ -527,7 +544,9 @@ public abstract class HazelcastTargetPdkBaseNode extends HazelcastPdkBaseNode {
 					throw new RuntimeException("Convert offset to json failed, errors: " + e.getMessage(), e);
 				}
 			}
+			// state written by the connectors of the task, sources included, goes before the offsets referring to it
 			TaskDto taskDto = dataProcessorContext.getTaskDto();
+			PdkStateMap.flushTask(taskDto.getId().toHexString());
 			String collection = ConnectorConstant.TASK_COLLECTION + "/syncProgress/" + taskDto.getId();
 			try {
 				clientMongoOperator.insertOne(syncProgressJsonMap, collection);
@@ -613,13 +632,50 @@ public abstract class HazelcastTargetPdkBaseNode extends HazelcastPdkBaseNode {
 		return true;
 	}
 
+	private void reportConcurrentWriteStats(PartitionConcurrentProcessor partitionConcurrentProcessor) {
+		final long now = System.currentTimeMillis();
+		if (now - lastConcurrentWriteReportTime < CONCURRENT_WRITE_REPORT_INTERVAL_MS) {
+			return;
+		}
+		lastConcurrentWriteReportTime = now;
+		final PartitionConcurrentProcessor.PartitionSkew partitionSkew = partitionConcurrentProcessor.partitionSkew();
+		if (null != partitionSkew && partitionSkew.getSkew() >= WRITE_SKEW_WARN_THRESHOLD && logger.isDebugEnabled()) {
+			logger.debug("Concurrent write is skewed to thread {}, skew {}", partitionSkew.getHotPartition(), partitionSkew.getSkew());
+		}
+		// initial and cdc writers are used one after another, report the totals of both
+		long fullBarriers = 0L;
+		long partitionBarriers = 0L;
+		long barrierWaitMs = 0L;
+		for (PartitionConcurrentProcessor processor : Arrays.asList(initialPartitionConcurrentProcessor, cdcPartitionConcurrentProcessor)) {
+			if (null != processor) {
+				fullBarriers += processor.getFullBarriers();
+				partitionBarriers += processor.getPartitionBarriers();
+				barrierWaitMs += processor.getBarrierWaitMs();
+			}
+		}
+		final long finalFullBarriers = fullBarriers;
+		final long finalPartitionBarriers = partitionBarriers;
+		final long finalBarrierWaitMs = barrierWaitMs;
+		AspectUtils.executeAspect(ConcurrentWriteStatsAspect.class, () -> new ConcurrentWriteStatsAspect()
+				.hotPartition(null == partitionSkew ? 0 : partitionSkew.getHotPartition())
+				.skew(null == partitionSkew ? null : partitionSkew.getSkew())
+				.fullBarriers(finalFullBarriers)
+				.partitionBarriers(finalPartitionBarriers)
+				.barrierWaitMs(finalBarrierWaitMs)
+				.dataProcessorContext(dataProcessorContext));
+	}
+
+	/**
+	 * @param initial initial sync inserts are spread round-robin when nothing upstream can also write updates or deletes
+	 *                of their keys, see {@link #initialSyncInsertOnly(Node)}
+	 */
 	@NotNull
-	private PartitionConcurrentProcessor initConcurrentProcessor(int cdcConcurrentWriteNum) {
+	private PartitionConcurrentProcessor initConcurrentProcessor(int cdcConcurrentWriteNum, boolean initial) {
 		int batchSize = Math.max(this.targetBatch / cdcConcurrentWriteNum, DEFAULT_TARGET_BATCH) * 2;
 		return new PartitionConcurrentProcessor(
 				cdcConcurrentWriteNum,
 				batchSize,
-				new KeysPartitioner(),
+				new Murmur3KeysPartitioner(initial && initialSyncInsertOnly(getNode())),
 				new TapEventPartitionKeySelector(tapEvent -> {
 					final String tgtTableName = getTgtTableNameFromTapEvent(tapEvent);
 					TapTable tapTable = dataProcessorContext.getTapTableMap().get(tgtTableName);
@@ -634,6 +690,20 @@ public abstract class HazelcastTargetPdkBaseNode extends HazelcastPdkBaseNode {
 		);
 	}
 
+	/**
+	 * Initial sync events of the target are inserts only when it is fed directly by one source data node: a processor
+	 * (e.g. merge table or script) or a second source writing the same table can emit updates and deletes of the keys
+	 * during the initial sync, which must stay in order with the inserts of the same key
+	 */
+	static boolean initialSyncInsertOnly(Node<?> node) {
+		List<? extends Node<?>> predecessors = node.predecessors();
+		if (null == predecessors || predecessors.size() != 1) {
+			return false;
+		}
+		Node<?> predecessor = predecessors.get(0);
+		return predecessor instanceof TableNode || predecessor instanceof DatabaseNode;
+	}
+
 	@Override
 	public void doClose() throws Exception {
 		try {
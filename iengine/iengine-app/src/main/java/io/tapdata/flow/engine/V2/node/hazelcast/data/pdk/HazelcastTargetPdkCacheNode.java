@@ -22,8 +22,11 @@ import org.jetbrains.annotations.NotNull;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
 
@@ -35,6 +38,13 @@ public class HazelcastTargetPdkCacheNode extends HazelcastPdkBaseNode {
 
 	private DataFlowCacheConfig dataFlowCacheConfig;
 
+	/**
+	 * Fields of the cache key and of the primary key, split once from the config
+	 */
+	private List<String> cacheKeyFields;
+
+	private List<String> primaryKeyFields;
+
 	private ICacheService cacheService;
 
 	public HazelcastTargetPdkCacheNode(DataProcessorContext dataProcessorContext) {
@@ -47,11 +57,21 @@ public class HazelcastTargetPdkCacheNode extends HazelcastPdkBaseNode {
 		}
 	}
 
+	/**
+	 * Values of the input events are converted in place before they are cached
+	 */
+	@Override
+	protected boolean mutateInputEvent() {
+		return true;
+	}
+
 	@Override
 	protected void doInit(@NotNull Context context) throws Exception {
 		super.doInit(context);
 		this.cacheService = this.dataProcessorContext.getCacheService();
 		this.dataFlowCacheConfig = cacheService.getConfig(cacheName);
+		this.cacheKeyFields = Arrays.asList(dataFlowCacheConfig.getCacheKeys().split(","));
+		this.primaryKeyFields = dataFlowCacheConfig.getPrimaryKeys();
 	}
 
 	@Override
@@ -64,7 +84,7 @@ public class HazelcastTargetPdkCacheNode extends HazelcastPdkBaseNode {
 					if (count > 0) {
 						List<TapEvent> tapEvents = new ArrayList<>();
 						for (TapdataEvent tapdataEvent : tapdataEvents) {
-
+							ownInputEvent(tapdataEvent);
 							if (tapdataEvent.isDML()) {
 								TapRecordEvent tapRecordEvent = (TapRecordEvent) tapdataEvent.getTapEvent();
 								fromTapValue(TapEventUtil.getBefore(tapRecordEvent), codecsFilterManager);
@@ -92,7 +112,15 @@ public class HazelcastTargetPdkCacheNode extends HazelcastPdkBaseNode {
 		}
 	}
 
+	/**
+	 * Apply the events of a batch to the cache, the last event of a row wins within the batch. Updated rows are written
+	 * by one {@link ICacheService#cacheRows} call, then deleted rows are removed by one {@link ICacheService#removeByKeys} call.
+	 */
 	void processEvents(List<TapEvent> tapEvents) {
+		// cache key -> primary key -> row
+		Map<String, Map<String, Map<String, Object>>> upserts = new LinkedHashMap<>();
+		// cache key -> primary keys
+		Map<String, Set<String>> deletes = new LinkedHashMap<>();
 		for (TapEvent tapEvent : tapEvents) {
 
 			Map<String, Object> row = TapEventUtil.getAfter(tapEvent);
@@ -102,21 +130,27 @@ public class HazelcastTargetPdkCacheNode extends HazelcastPdkBaseNode {
 				continue;
 			}
 
-			final String cacheKeys = dataFlowCacheConfig.getCacheKeys();
-			final Object[] cacheKeyValues = CacheUtil.getKeyValues(Arrays.asList(cacheKeys.split(",")), row);
-			if (null == cacheKeyValues) throw new RuntimeException("Cache key not in row data: " + cacheKeys);
+			final Object[] cacheKeyValues = CacheUtil.getKeyValues(cacheKeyFields, row);
+			if (null == cacheKeyValues) throw new RuntimeException("Cache key not in row data: " + dataFlowCacheConfig.getCacheKeys());
 
 			String cacheKey = CacheUtil.cacheKey(cacheKeyValues);
+			final Object[] pkKeyValues = CacheUtil.getKeyValues(primaryKeyFields, row);
 			if (tapEvent instanceof TapUpdateRecordEvent) {
-				List<Map<String, Object>> rows = new ArrayList<>(1);
-				rows.add(row);
-				cacheService.cacheRow(cacheName, cacheKey, rows);
+				String pkKey = CacheUtil.cacheKey(pkKeyValues);
+				Set<String> deletePkKeys = deletes.get(cacheKey);
+				if (null != deletePkKeys) {
+					deletePkKeys.remove(pkKey);
+				}
+				upserts.computeIfAbsent(cacheKey, k -> new LinkedHashMap<>()).put(pkKey, row);
 			} else if (tapEvent instanceof TapDeleteRecordEvent) {
-				final Object[] pkKeyValues = CacheUtil.getKeyValues(dataFlowCacheConfig.getPrimaryKeys(), row);
 				if (null == pkKeyValues)
-					throw new RuntimeException("Cache primary key not in row data: " + dataFlowCacheConfig.getPrimaryKeys());
+					throw new RuntimeException("Cache primary key not in row data: " + primaryKeyFields);
 				String pkKey = CacheUtil.cacheKey(pkKeyValues);
-				cacheService.removeByKey(cacheName, cacheKey, pkKey);
+				Map<String, Map<String, Object>> upsertRows = upserts.get(cacheKey);
+				if (null != upsertRows) {
+					upsertRows.remove(pkKey);
+				}
+				deletes.computeIfAbsent(cacheKey, k -> new LinkedHashSet<>()).add(pkKey);
 
 			} else {
 				if (logger.isDebugEnabled()) {
@@ -125,6 +159,20 @@ public class HazelcastTargetPdkCacheNode extends HazelcastPdkBaseNode {
 			}
 
 		}
+
+		Map<String, List<Map<String, Object>>> rowsByKey = new LinkedHashMap<>(upserts.size() << 1);
+		for (Map.Entry<String, Map<String, Map<String, Object>>> entry : upserts.entrySet()) {
+			if (!entry.getValue().isEmpty()) {
+				rowsByKey.put(entry.getKey(), new ArrayList<>(entry.getValue().values()));
+			}
+		}
+		if (!rowsByKey.isEmpty()) {
+			cacheService.cacheRows(cacheName, rowsByKey);
+		}
+		deletes.values().removeIf(Set::isEmpty);
+		if (!deletes.isEmpty()) {
+			cacheService.removeByKeys(cacheName, deletes);
+		}
 	}
 
 }
@@ -32,6 +32,7 @@ import io.tapdata.pdk.apis.functions.connector.target.*;
 import io.tapdata.pdk.core.api.ConnectorNode;
 import io.tapdata.pdk.core.entity.params.PDKMethodInvoker;
 import io.tapdata.pdk.core.monitor.PDKInvocationMonitor;
+import io.tapdata.pdk.core.utils.CommonUtils;
 import io.tapdata.pdk.core.utils.LoggerUtils;
 import io.tapdata.schema.TapTableMap;
 import org.apache.commons.collections.CollectionUtils;
@@ -56,8 +57,13 @@ import static io.tapdata.entity.simplify.TapSimplify.*;
 public class HazelcastTargetPdkDataNode extends HazelcastTargetPdkBaseNode {
 	private static final String TAG = HazelcastTargetPdkDataNode.class.getSimpleName();
 	public static final int MAX_INDEX_FIELDS_COUNT = 10;
+	/**
+	 * Regroup the record events of a batch by target table before writing, true by default
+	 */
+	public static final String TARGET_WRITE_REGROUP_BY_TABLE = "TARGET_WRITE_REGROUP_BY_TABLE";
 	private final Logger logger = LogManager.getLogger(HazelcastTargetPdkDataNode.class);
 	private ClassHandlers ddlEventHandlers;
+	private boolean regroupByTable;
 
 	public HazelcastTargetPdkDataNode(DataProcessorContext dataProcessorContext) {
 		super(dataProcessorContext);
@@ -74,6 +80,7 @@ public class HazelcastTargetPdkDataNode extends HazelcastTargetPdkBaseNode {
 				writeStrategy = ((TableNode) node).getWriteStrategy();
 			}
 			initTargetDB();
+			regroupByTable = CommonUtils.getPropertyBool(TARGET_WRITE_REGROUP_BY_TABLE, true);
 			// MILESTONE-INIT_TRANSFORMER-FINISH
 			TaskMilestoneFuncAspect.execute(dataProcessorContext, MilestoneStage.INIT_TRANSFORMER, MilestoneStatus.FINISH);
 			MilestoneUtil.updateMilestone(milestoneService, MilestoneStage.INIT_TRANSFORMER, MilestoneStatus.FINISH);
@@ -294,7 +301,7 @@ public class HazelcastTargetPdkDataNode extends HazelcastTargetPdkBaseNode {
 
 	@Override
 	void processEvents(List<TapEvent> tapEvents) {
-		dispatchTapRecordEvents(tapEvents,
+		dispatchTapRecordEvents(regroupByTable ? regroupByTable(tapEvents) : tapEvents,
 				dispatchEntity -> {
 					if (dispatchEntity.getCurrentTapEvent() instanceof TapRecordEvent && dispatchEntity.getLastTapEvent() instanceof TapRecordEvent) {
 						return !((TapRecordEvent) dispatchEntity.getLastTapEvent()).getTableId().equals(((TapRecordEvent) dispatchEntity.getCurrentTapEvent()).getTableId());
@@ -553,6 +560,44 @@ public class HazelcastTargetPdkDataNode extends HazelcastTargetPdkBaseNode {
 		}
 	}
 
+	/**
+	 * Put the record events of the same target table next to each other, so interleaved CDC events of many tables are
+	 * written by one write record call per table instead of one call per run of events.
+	 * <p>
+	 * Events of different tables do not depend on each other. The order of the events of one table is kept, and a DDL
+	 * event is a boundary: record events are never moved across it.
+	 */
+	private List<TapEvent> regroupByTable(List<TapEvent> tapEvents) {
+		Map<String, List<TapEvent>> buckets = new LinkedHashMap<>();
+		List<TapEvent> regrouped = new ArrayList<>(tapEvents.size());
+		boolean moved = false;
+		String lastTable = null;
+		for (TapEvent tapEvent : tapEvents) {
+			if (tapEvent instanceof TapRecordEvent) {
+				String table = getTgtTableNameFromTapEvent(tapEvent);
+				List<TapEvent> bucket = buckets.get(table);
+				if (null == bucket) {
+					bucket = new ArrayList<>();
+					buckets.put(table, bucket);
+				} else if (!Objects.equals(table, lastTable)) {
+					moved = true;
+				}
+				bucket.add(tapEvent);
+				lastTable = table;
+			} else {
+				buckets.values().forEach(regrouped::addAll);
+				buckets.clear();
+				regrouped.add(tapEvent);
+				lastTable = null;
+			}
+		}
+		if (!moved) {
+			return tapEvents;
+		}
+		buckets.values().forEach(regrouped::addAll);
+		return regrouped;
+	}
+
 	private void dispatchTapRecordEvents(List<TapEvent> tapEvents, Predicate<DispatchEntity> dispatchClause, Consumer<List<TapEvent>> consumer) {
 		DispatchEntity dispatchEntity = new DispatchEntity();
 		List<TapEvent> tempList = new ArrayList<>();
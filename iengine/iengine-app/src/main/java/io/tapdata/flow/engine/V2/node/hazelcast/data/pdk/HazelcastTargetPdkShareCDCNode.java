@@ -1,7 +1,6 @@
 package io.tapdata.flow.engine.V2.node.hazelcast.data.pdk;
 
 import com.hazelcast.core.HazelcastInstance;
-import com.tapdata.constant.MapUtil;
 import com.tapdata.entity.TapdataShareLogEvent;
 import com.tapdata.entity.hazelcast.PersistenceStorageConfig;
 import com.tapdata.entity.sharecdc.LogContent;
@@ -27,6 +26,7 @@ import org.bson.Document;
 import org.jetbrains.annotations.NotNull;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -39,6 +39,12 @@ public class HazelcastTargetPdkShareCDCNode extends HazelcastTargetPdkBaseNode {
 
 	private final Logger logger = LogManager.getLogger(HazelcastTargetPdkShareCDCNode.class);
 	private HazelcastConstruct<Document> hazelcastConstruct;
+	/**
+	 * Consecutive events mostly share one offset object, it is encoded once per batch. Not kept across batches, the
+	 * connector may update the offset object in place
+	 */
+	private Object lastStreamOffset;
+	private String lastOffsetStr;
 
 	public HazelcastTargetPdkShareCDCNode(DataProcessorContext dataProcessorContext) {
 		super(dataProcessorContext);
@@ -76,6 +82,9 @@ public class HazelcastTargetPdkShareCDCNode extends HazelcastTargetPdkBaseNode {
 	@SneakyThrows
 	void processShareLog(List<TapdataShareLogEvent> tapdataShareLogEvents) {
 		if (CollectionUtils.isEmpty(tapdataShareLogEvents)) return;
+		List<Document> documents = new ArrayList<>(tapdataShareLogEvents.size());
+		lastStreamOffset = null;
+		lastOffsetStr = null;
 		for (TapdataShareLogEvent tapdataShareLogEvent : tapdataShareLogEvents) {
 			TapEvent tapEvent = tapdataShareLogEvent.getTapEvent();
 			if (!(tapEvent instanceof TapRecordEvent)) {
@@ -89,10 +98,7 @@ public class HazelcastTargetPdkShareCDCNode extends HazelcastTargetPdkBaseNode {
 			Map<String, Object> after = TapEventUtil.getAfter(tapEvent);
 			handleData(after);
 			Object streamOffset = tapdataShareLogEvent.getStreamOffset();
-			String offsetStr = "";
-			if (null != streamOffset) {
-				offsetStr = PdkUtil.encodeOffset(streamOffset);
-			}
+			String offsetStr = encodeOffset(streamOffset);
 			verify(tableId, op, before, after, timestamp, offsetStr);
 			LogContent logContent = new LogContent(
 					tableId,
@@ -102,18 +108,24 @@ public class HazelcastTargetPdkShareCDCNode extends HazelcastTargetPdkBaseNode {
 					op,
 					offsetStr
 			);
-			Document document;
-			try {
-				document = MapUtil.obj2Document(logContent);
-			} catch (Exception e) {
-				throw new RuntimeException("Convert map to document failed; Map data: " + logContent + ". Error: " + e.getMessage(), e);
-			}
-			try {
-				this.hazelcastConstruct.insert(document);
-			} catch (Exception e) {
-				throw new RuntimeException("Insert document into ringbuffer failed; Document data: " + document + ". Error: " + e.getMessage(), e);
-			}
+			documents.add(logContent.toDocument());
+		}
+		try {
+			this.hazelcastConstruct.insertMany(documents);
+		} catch (Exception e) {
+			throw new RuntimeException("Insert " + documents.size() + " documents into ringbuffer failed; First document data: " + documents.get(0) + ". Error: " + e.getMessage(), e);
+		}
+	}
+
+	private String encodeOffset(Object streamOffset) {
+		if (null == streamOffset) {
+			return "";
+		}
+		if (streamOffset != lastStreamOffset) {
+			lastOffsetStr = PdkUtil.encodeOffset(streamOffset);
+			lastStreamOffset = streamOffset;
 		}
+		return lastOffsetStr;
 	}
 
 	private void handleData(Map<String, Object> data) {
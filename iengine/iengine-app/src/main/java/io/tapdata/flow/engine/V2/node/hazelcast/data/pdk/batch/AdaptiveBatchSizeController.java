@@ -0,0 +1,120 @@
+package io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.batch;
+
+import io.tapdata.entity.event.TapEvent;
+import io.tapdata.entity.event.dml.TapDeleteRecordEvent;
+import io.tapdata.entity.event.dml.TapInsertRecordEvent;
+import io.tapdata.entity.event.dml.TapUpdateRecordEvent;
+import org.apache.lucene.util.RamUsageEstimator;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Choose the event batch size of source reads from what is observed on the handled batches:
+ * <ul>
+ *     <li>bytes per event, the batch size never exceeds {@link #targetBatchBytes}</li>
+ *     <li>fill level of the event queue when a batch arrives, an empty queue means the downstream nodes are waiting for
+ *     events, a full one means they can not keep up</li>
+ *     <li>cost of handing a batch over to the event queue, which blocks when the downstream nodes are slow</li>
+ * </ul>
+ * Batch size is doubled while the downstream nodes are waiting for events, halved when the hand over is slower than
+ * {@link #targetLatencyMs}, and kept while the queue is backed up but still fast enough.
+ * <p>
+ * Connectors take the batch size once per read call, so a new size takes effect on the next batch read (next table or
+ * key range). A table read by one call keeps the size it started with until its end, only tables split into key ranges
+ * by the partition read adapt while they are read. Only used for snapshot reads, a stream read runs for the whole task
+ * with the batch size it started with
+ *
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class AdaptiveBatchSizeController {
+	public static final int DEFAULT_MIN_BATCH_SIZE = 10;
+	public static final int DEFAULT_MAX_BATCH_SIZE = 5000;
+	public static final long DEFAULT_TARGET_BATCH_BYTES = 4 * 1024 * 1024L;
+	public static final long DEFAULT_TARGET_LATENCY_MS = 500L;
+	private static final double LOW_QUEUE_FILL = 0.2D;
+	private static final double BYTES_WEIGHT = 0.2D;
+
+	private final int minBatchSize;
+	private final int maxBatchSize;
+	private final long targetBatchBytes;
+	private final long targetLatencyMs;
+	private final int queueCapacity;
+
+	private int batchSize;
+	private double avgEventBytes;
+
+	public AdaptiveBatchSizeController(int initialBatchSize, int queueCapacity) {
+		this(initialBatchSize, DEFAULT_MIN_BATCH_SIZE, Math.max(initialBatchSize, DEFAULT_MAX_BATCH_SIZE), DEFAULT_TARGET_BATCH_BYTES,
+				DEFAULT_TARGET_LATENCY_MS, queueCapacity);
+	}
+
+	public AdaptiveBatchSizeController(int initialBatchSize, int minBatchSize, int maxBatchSize, long targetBatchBytes,
+									   long targetLatencyMs, int queueCapacity) {
+		this.minBatchSize = Math.max(1, minBatchSize);
+		this.maxBatchSize = Math.max(this.minBatchSize, maxBatchSize);
+		this.targetBatchBytes = targetBatchBytes;
+		this.targetLatencyMs = targetLatencyMs;
+		this.queueCapacity = Math.max(1, queueCapacity);
+		this.batchSize = bound(initialBatchSize);
+	}
+
+	/**
+	 * @return batch size for the next read call
+	 */
+	public synchronized int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * @param events       events of the batch read by connector
+	 * @param queueSize    size of the event queue when the batch arrived
+	 * @param handleCostMs time spent handing the batch over to the event queue
+	 */
+	public synchronized void observe(List<TapEvent> events, int queueSize, long handleCostMs) {
+		if (null == events || events.isEmpty()) {
+			return;
+		}
+		// the size of the first event stands for the batch, estimating every event is too expensive
+		long eventBytes = estimateBytes(events.get(0));
+		if (eventBytes > 0) {
+			avgEventBytes = avgEventBytes <= 0 ? eventBytes : avgEventBytes * (1 - BYTES_WEIGHT) + eventBytes * BYTES_WEIGHT;
+		}
+		double queueFill = (double) queueSize / queueCapacity;
+		int next = batchSize;
+		if (handleCostMs > targetLatencyMs) {
+			next = batchSize / 2;
+		} else if (queueFill <= LOW_QUEUE_FILL && handleCostMs <= targetLatencyMs / 2 && events.size() >= batchSize) {
+			// only grow when the connector really filled the batch
+			next = batchSize * 2;
+		}
+		if (avgEventBytes > 0) {
+			next = (int) Math.min(next, Math.max(1L, (long) (targetBatchBytes / avgEventBytes)));
+		}
+		batchSize = bound(next);
+	}
+
+	private int bound(int size) {
+		return Math.max(minBatchSize, Math.min(maxBatchSize, size));
+	}
+
+	private static long estimateBytes(TapEvent tapEvent) {
+		Map<String, Object> data = null;
+		if (tapEvent instanceof TapInsertRecordEvent) {
+			data = ((TapInsertRecordEvent) tapEvent).getAfter();
+		} else if (tapEvent instanceof TapUpdateRecordEvent) {
+			data = ((TapUpdateRecordEvent) tapEvent).getAfter();
+		} else if (tapEvent instanceof TapDeleteRecordEvent) {
+			data = ((TapDeleteRecordEvent) tapEvent).getBefore();
+		}
+		if (null == data) {
+			return 0L;
+		}
+		try {
+			return RamUsageEstimator.sizeOfMap(data);
+		} catch (Throwable ignored) {
+			return 0L;
+		}
+	}
+}
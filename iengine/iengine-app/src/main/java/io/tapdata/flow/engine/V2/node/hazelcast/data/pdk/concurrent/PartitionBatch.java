@@ -0,0 +1,45 @@
+package io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.concurrent;
+
+import com.tapdata.entity.TapdataEvent;
+
+import java.util.List;
+
+/**
+ * Events handed over to one partition thread at a time
+ *
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class PartitionBatch {
+
+	/**
+	 * Sequence of the batch in its partition, starts from 1
+	 */
+	private final long seq;
+
+	private final List<TapdataEvent> events;
+
+	/**
+	 * Sequences the partitions should have processed before this batch, 0 for the partitions it does not wait for, null
+	 * if there is no barrier before it
+	 */
+	private final long[] barrier;
+
+	public PartitionBatch(long seq, List<TapdataEvent> events, long[] barrier) {
+		this.seq = seq;
+		this.events = events;
+		this.barrier = barrier;
+	}
+
+	public long getSeq() {
+		return seq;
+	}
+
+	public List<TapdataEvent> getEvents() {
+		return events;
+	}
+
+	public long[] getBarrier() {
+		return barrier;
+	}
+}
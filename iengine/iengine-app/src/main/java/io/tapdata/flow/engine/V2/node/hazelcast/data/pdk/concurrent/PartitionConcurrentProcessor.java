@@ -1,17 +1,18 @@
 package io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.concurrent;
 
-import com.google.common.collect.Queues;
 import com.tapdata.constant.ExecutorUtil;
 import com.tapdata.constant.Log4jUtil;
 import com.tapdata.entity.TapdataEvent;
 import com.tapdata.tm.commons.task.dto.TaskDto;
 import io.tapdata.entity.event.TapEvent;
+import io.tapdata.entity.event.ddl.TapDDLEvent;
 import io.tapdata.entity.event.dml.TapDeleteRecordEvent;
 import io.tapdata.entity.event.dml.TapInsertRecordEvent;
 import io.tapdata.entity.event.dml.TapUpdateRecordEvent;
 import io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.concurrent.partitioner.PartitionResult;
 import io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.concurrent.partitioner.Partitioner;
 import io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.concurrent.selector.PartitionKeySelector;
+import io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.queue.EventRingBuffer;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.logging.log4j.LogManager;
@@ -23,19 +24,34 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
+ * Events are appended to per partition buffers by the caller thread, full buffers are handed over to the partition
+ * threads as {@link PartitionBatch} through single producer queues.
+ * <p>
+ * Every partition thread publishes the sequence of the last batch it processed. Barriers and watermarks are snapshots
+ * of the handed over sequences, they are reached when the partitions have processed up to the snapshot:
+ * <ul>
+ *     <li>barrier: attached to the next batch of a partition, which waits until the barrier is reached. A DDL waits for
+ *     all partitions and all partitions wait for it, other control events only wait for all partitions. An update which
+ *     moves the key to another partition only orders the two partitions: it waits for the events handed over to the
+ *     new key's partition, and the later events of that partition wait for it</li>
+ *     <li>watermark: the offset of the last event of a {@link #process(List, boolean)} call is flushed when reached</li>
+ * </ul>
+ * {@link #process(List, boolean)} and {@link #stop()} must be called from the same thread
+ *
  * @author jackin
  * @date 2022/7/25 16:42
  **/
@@ -46,12 +62,18 @@ public class PartitionConcurrentProcessor {
 	private final static String LOG_PREFIX = "[partition concurrent] ";
 
 	private final static int DEFAULT_PARTITION = 0;
+	/**
+	 * Batches which can be handed over to a partition thread before the caller waits
+	 */
+	private final static int PARTITION_QUEUE_CAPACITY = 16;
+	private final static long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+	private final static long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
 
 	private Logger logger = LogManager.getLogger(PartitionConcurrentProcessor.class);
 
 	protected final ExecutorService executorService;
 
-	protected final List<LinkedBlockingQueue<PartitionEvent<TapdataEvent>>> partitionsQueue;
+	protected final List<EventRingBuffer<PartitionBatch>> partitionsQueue;
 
 	private int partitionSize;
 	private int batchSize;
@@ -64,9 +86,39 @@ public class PartitionConcurrentProcessor {
 
 	private PartitionKeySelector<TapEvent, Object, Map<String, Object>> keySelector;
 
-	private AtomicLong eventSeq = new AtomicLong(0L);
-
-	private LinkedBlockingQueue<WatermarkEvent> watermarkQueue;
+	/**
+	 * Events not handed over yet, only used by the caller thread
+	 */
+	private final List<List<TapdataEvent>> partitionBuffers;
+	/**
+	 * Sequence of the last batch handed over, only used by the caller thread
+	 */
+	private final long[] handedOverSeqs;
+	/**
+	 * Barrier to attach to the next batch, only used by the caller thread
+	 */
+	private final long[][] pendingBarriers;
+	/**
+	 * Sequence of the last batch processed, written by the partition threads
+	 */
+	private final AtomicLongArray processedSeqs;
+	/**
+	 * Events handed over and processed of every partition, for skew detection
+	 */
+	private final AtomicLongArray handedOverEvents;
+	private final AtomicLongArray processedEvents;
+	/**
+	 * Processed events of every partition at the last {@link #partitionSkew()}, only used by the caller thread
+	 */
+	private final long[] lastProcessedEvents;
+	/**
+	 * Barriers waiting for all partitions and barriers between two partitions, only used by the caller thread
+	 */
+	private long fullBarriers;
+	private long partitionBarriers;
+	private final AtomicLong barrierWaitNanos = new AtomicLong();
+
+	private EventRingBuffer<WatermarkEvent> watermarkQueue;
 
 	private Consumer<TapdataEvent> flushOffset;
 	private final ErrorHandler<Throwable, String> errorHandler;
@@ -103,10 +155,20 @@ public class PartitionConcurrentProcessor {
 		this.partitionsQueue = IntStream
 				.range(0, partitionSize)
 				.mapToObj(
-						i -> new LinkedBlockingQueue<PartitionEvent<TapdataEvent>>(batchSize * 2)
+						i -> new EventRingBuffer<PartitionBatch>(PARTITION_QUEUE_CAPACITY, EventRingBuffer.WaitStrategy.PARK, true)
 				).collect(Collectors.toList());
+		this.partitionBuffers = IntStream
+				.range(0, partitionSize)
+				.mapToObj(i -> (List<TapdataEvent>) new ArrayList<TapdataEvent>(batchSize))
+				.collect(Collectors.toList());
+		this.handedOverSeqs = new long[partitionSize];
+		this.pendingBarriers = new long[partitionSize][];
+		this.processedSeqs = new AtomicLongArray(partitionSize);
+		this.handedOverEvents = new AtomicLongArray(partitionSize);
+		this.processedEvents = new AtomicLongArray(partitionSize);
+		this.lastProcessedEvents = new long[partitionSize];
 
-		watermarkQueue = new LinkedBlockingQueue<>(batchSize);
+		watermarkQueue = new EventRingBuffer<>(batchSize, EventRingBuffer.WaitStrategy.PARK, true);
 
 		this.eventProcessor = eventProcessor;
 
@@ -129,9 +191,8 @@ public class PartitionConcurrentProcessor {
 				try {
 					final WatermarkEvent watermarkEvent = watermarkQueue.poll(3, TimeUnit.SECONDS);
 					if (watermarkEvent != null) {
-						final CountDownLatch countDownLatch = watermarkEvent.getCountDownLatch();
 						final TapdataEvent event = watermarkEvent.getEvent();
-						while (!countDownLatch.await(3, TimeUnit.SECONDS)) {
+						while (!awaitProcessed(watermarkEvent.getPartitionSeqs(), 3, TimeUnit.SECONDS)) {
 							if (!isRunning()) return; // when task stop, do not need flush offset
 
 							if (logger.isInfoEnabled()) {
@@ -155,50 +216,31 @@ public class PartitionConcurrentProcessor {
 
 	public void start() {
 		for (int partition = 0; partition < partitionSize; partition++) {
-			final LinkedBlockingQueue<PartitionEvent<TapdataEvent>> linkedBlockingQueue = partitionsQueue.get(partition);
+			final EventRingBuffer<PartitionBatch> queue = partitionsQueue.get(partition);
 			int finalPartition = partition;
 			executorService.submit(() -> {
 				try {
 					Log4jUtil.setThreadContext(taskDto);
 					Thread.currentThread().setName(concurrentProcessThreadNamePrefix + finalPartition);
+					List<PartitionBatch> batches = new ArrayList<>(PARTITION_QUEUE_CAPACITY);
 					List<TapdataEvent> processEvents = new ArrayList<>();
 					while (isRunning()) {
 						try {
-							List<PartitionEvent<TapdataEvent>> events = new ArrayList<>();
-							Queues.drain(linkedBlockingQueue, events, batchSize, 3, TimeUnit.SECONDS);
-							if (CollectionUtils.isNotEmpty(events)) {
-								for (PartitionEvent partitionEvent : events) {
-									if (partitionEvent instanceof NormalEvent) {
-										final NormalEvent<?> normalEvent = (NormalEvent<?>) partitionEvent;
-										final TapdataEvent event = (TapdataEvent) normalEvent.getEvent();
-										processEvents.add(event);
-									} else if (partitionEvent instanceof WatermarkEvent) {
-										final CountDownLatch countDownLatch = ((WatermarkEvent) partitionEvent).getCountDownLatch();
-										countDownLatch.countDown();
-									} else {
-										if (CollectionUtils.isNotEmpty(processEvents)) {
-											eventProcessor.accept(processEvents);
-											processEvents.clear();
-										}
-										final CountDownLatch countDownLatch = ((BarrierEvent) partitionEvent).getCountDownLatch();
-										countDownLatch.countDown();
-										while (isRunning() && !countDownLatch.await(3L, TimeUnit.SECONDS)) {
-											if (logger.isDebugEnabled()) {
-												logger.debug(LOG_PREFIX + "thread-{} process completed, waiting other thread completed.", finalPartition);
-											}
-										}
-									}
-								}
-								if (CollectionUtils.isNotEmpty(processEvents)) {
-									eventProcessor.accept(processEvents);
-									processEvents.clear();
-								}
+							final PartitionBatch first = queue.poll(3, TimeUnit.SECONDS);
+							if (first == null) {
+								continue;
 							}
+							batches.add(first);
+							queue.drainTo(batches, PARTITION_QUEUE_CAPACITY - 1);
+							processBatches(finalPartition, batches, processEvents);
 						} catch (InterruptedException e) {
 							break;
 						} catch (Throwable throwable) {
 							currentRunning.compareAndSet(true, false);
 							errorHandler.accept(throwable, "target write record(s) failed");
+						} finally {
+							batches.clear();
+							processEvents.clear();
 						}
 					}
 				} finally {
@@ -208,6 +250,47 @@ public class PartitionConcurrentProcessor {
 		}
 	}
 
+	private void processBatches(int partition, List<PartitionBatch> batches, List<TapdataEvent> processEvents) throws InterruptedException {
+		long seq = 0L;
+		for (PartitionBatch batch : batches) {
+			final long[] barrier = batch.getBarrier();
+			if (null != barrier) {
+				// events before the barrier must be processed and published before waiting for the other partitions
+				processEvents(partition, processEvents, seq);
+				final long waitStart = System.nanoTime();
+				try {
+					while (!awaitProcessed(barrier, 3L, TimeUnit.SECONDS)) {
+						if (!isRunning()) {
+							return;
+						}
+						if (logger.isDebugEnabled()) {
+							logger.debug(LOG_PREFIX + "thread-{} process completed, waiting other thread completed.", partition);
+						}
+					}
+				} finally {
+					barrierWaitNanos.addAndGet(System.nanoTime() - waitStart);
+				}
+			}
+			processEvents.addAll(batch.getEvents());
+			seq = batch.getSeq();
+			if (processEvents.size() >= batchSize) {
+				processEvents(partition, processEvents, seq);
+			}
+		}
+		processEvents(partition, processEvents, seq);
+	}
+
+	private void processEvents(int partition, List<TapdataEvent> processEvents, long seq) {
+		if (CollectionUtils.isNotEmpty(processEvents)) {
+			eventProcessor.accept(processEvents);
+			processedEvents.addAndGet(partition, processEvents.size());
+			processEvents.clear();
+		}
+		if (seq > 0L) {
+			processedSeqs.set(partition, seq);
+		}
+	}
+
 	public void process(List<TapdataEvent> tapdataEvents, boolean async) {
 		if (CollectionUtils.isNotEmpty(tapdataEvents)) {
 			for (TapdataEvent tapdataEvent : tapdataEvents) {
@@ -215,39 +298,44 @@ public class PartitionConcurrentProcessor {
 					break;
 				}
 				if (tapdataEvent.isDML()) {
-					Map<String, Object> row = null;
 					final TapEvent tapEvent = tapdataEvent.getTapEvent();
-					if (tapEvent instanceof TapInsertRecordEvent) {
-						row = ((TapInsertRecordEvent) tapEvent).getAfter();
-					} else if (tapEvent instanceof TapDeleteRecordEvent) {
-						row = ((TapDeleteRecordEvent) tapEvent).getBefore();
-					} else if (tapEvent instanceof TapUpdateRecordEvent) {
-						// if update partition value, will generate barrier event
-						if (updatePartitionValueEvent(tapEvent)) {
-							generateBarrierEvent();
-							row = ((TapUpdateRecordEvent) tapEvent).getBefore();
-						} else {
-							row = ((TapUpdateRecordEvent) tapEvent).getAfter();
+					if (tapEvent instanceof TapUpdateRecordEvent) {
+						final TapUpdateRecordEvent updateRecordEvent = (TapUpdateRecordEvent) tapEvent;
+						final int afterPartition = partition(tapdataEvent, updateRecordEvent.getAfter());
+						final int beforePartition = MapUtils.isNotEmpty(updateRecordEvent.getBefore()) ?
+								partition(tapdataEvent, updateRecordEvent.getBefore()) : afterPartition;
+						if (beforePartition == afterPartition) {
+							if (!appendPartitionEvent(afterPartition, tapdataEvent)) {
+								break;
+							}
+						} else if (!appendKeyMovingEvent(beforePartition, afterPartition, tapdataEvent)) {
+							break;
+						}
+					} else {
+						final Map<String, Object> row = tapEvent instanceof TapDeleteRecordEvent ?
+								((TapDeleteRecordEvent) tapEvent).getBefore() : ((TapInsertRecordEvent) tapEvent).getAfter();
+						if (!appendPartitionEvent(partition(tapdataEvent, row), tapdataEvent)) {
+							break;
 						}
 					}
-					final List<Object> partitionValue = keySelector.select(tapEvent, row);
-					final List<Object> partitionOriginalValues = keySelector.convert2OriginValue(partitionValue);
-					final PartitionResult<TapdataEvent> partitionResult = partitioner.partition(partitionSize, tapdataEvent, partitionOriginalValues);
-					final int partition = partitionResult.getPartition() < 0 ? DEFAULT_PARTITION : partitionResult.getPartition();
- 					final LinkedBlockingQueue<PartitionEvent<TapdataEvent>> queue = partitionsQueue.get(partition);
-					final NormalEvent<TapdataEvent> normalEvent = new NormalEvent<>(eventSeq.incrementAndGet(), tapdataEvent);
-					if (!enqueuePartitionEvent(partition, queue, normalEvent)) {
+				} else if (tapdataEvent.getTapEvent() instanceof TapDDLEvent) {
+					if (!appendDDLEvent(tapdataEvent)) {
 						break;
 					}
 				} else {
-					generateBarrierEvent();
-					final NormalEvent<TapdataEvent> normalEvent = new NormalEvent<>(eventSeq.incrementAndGet(), tapdataEvent);
-					if (!enqueuePartitionEvent(DEFAULT_PARTITION, partitionsQueue.get(DEFAULT_PARTITION), normalEvent)) {
+					// control events only need the events before them to be processed
+					if (!handOverAll()) {
+						break;
+					}
+					addBarrier(DEFAULT_PARTITION, handedOverSeqs);
+					if (!appendPartitionEvent(DEFAULT_PARTITION, tapdataEvent)) {
 						break;
 					}
 				}
 			}
-			generateWatermarkEvent(tapdataEvents.get(tapdataEvents.size() - 1));
+			if (handOverAll()) {
+				generateWatermarkEvent(tapdataEvents.get(tapdataEvents.size() - 1));
+			}
 
 			if (!async) {
 				waitingForProcessToCurrent();
@@ -256,10 +344,12 @@ public class PartitionConcurrentProcessor {
 	}
 
 	private void waitingForProcessToCurrent() {
-		final BarrierEvent barrierEvent = generateBarrierEvent();
-		final CountDownLatch countDownLatch = barrierEvent.getCountDownLatch();
+		if (!handOverAll()) {
+			return;
+		}
+		final long[] seqs = handedOverSeqs.clone();
 		try {
-			while (isRunning() && !countDownLatch.await(3, TimeUnit.SECONDS)) {
+			while (isRunning() && !awaitProcessed(seqs, 3, TimeUnit.SECONDS)) {
 				if (logger.isTraceEnabled()) {
 					logger.trace(LOG_PREFIX + "waiting all events processed for thread");
 				}
@@ -269,70 +359,211 @@ public class PartitionConcurrentProcessor {
 		}
 	}
 
-	private boolean enqueuePartitionEvent(int partition, LinkedBlockingQueue<PartitionEvent<TapdataEvent>> queue, NormalEvent<TapdataEvent> normalEvent) {
+	private int partition(TapdataEvent tapdataEvent, Map<String, Object> row) {
+		final List<Object> partitionValue = keySelector.select(tapdataEvent.getTapEvent(), row);
+		final List<Object> partitionOriginalValues = keySelector.convert2OriginValue(partitionValue);
+		final PartitionResult<TapdataEvent> partitionResult = partitioner.partition(partitionSize, tapdataEvent, partitionOriginalValues);
+		return partitionResult.getPartition() < 0 ? DEFAULT_PARTITION : partitionResult.getPartition();
+	}
+
+	/**
+	 * The update goes to the partition of the old key, after the events of the new key handed over so far, and the
+	 * later events of the new key wait for it. Other partitions are not stopped
+	 */
+	private boolean appendKeyMovingEvent(int beforePartition, int afterPartition, TapdataEvent tapdataEvent) {
+		if (!handOver(afterPartition) || !handOver(beforePartition)) {
+			return false;
+		}
+		partitionBarriers++;
+		addBarrier(beforePartition, afterPartition, handedOverSeqs[afterPartition]);
+		partitionBuffers.get(beforePartition).add(tapdataEvent);
+		if (!handOver(beforePartition)) {
+			return false;
+		}
+		addBarrier(afterPartition, beforePartition, handedOverSeqs[beforePartition]);
+		return true;
+	}
+
+	/**
+	 * A DDL waits for all the events before it and all the events after it wait for the DDL
+	 */
+	private boolean appendDDLEvent(TapdataEvent tapdataEvent) {
+		if (!handOverAll()) {
+			return false;
+		}
+		fullBarriers++;
+		addBarrier(DEFAULT_PARTITION, handedOverSeqs);
+		partitionBuffers.get(DEFAULT_PARTITION).add(tapdataEvent);
+		if (!handOver(DEFAULT_PARTITION)) {
+			return false;
+		}
+		for (int partition = 0; partition < partitionSize; partition++) {
+			if (partition != DEFAULT_PARTITION) {
+				addBarrier(partition, DEFAULT_PARTITION, handedOverSeqs[DEFAULT_PARTITION]);
+			}
+		}
+		return true;
+	}
+
+	private void addBarrier(int partition, long[] seqs) {
+		final long[] barrier = null == pendingBarriers[partition] ? new long[partitionSize] : pendingBarriers[partition];
+		for (int i = 0; i < partitionSize; i++) {
+			barrier[i] = Math.max(barrier[i], seqs[i]);
+		}
+		pendingBarriers[partition] = barrier;
+	}
+
+	private void addBarrier(int partition, int waitPartition, long waitSeq) {
+		final long[] barrier = null == pendingBarriers[partition] ? new long[partitionSize] : pendingBarriers[partition];
+		barrier[waitPartition] = Math.max(barrier[waitPartition], waitSeq);
+		pendingBarriers[partition] = barrier;
+	}
+
+	private boolean appendPartitionEvent(int partition, TapdataEvent tapdataEvent) {
+		final List<TapdataEvent> buffer = partitionBuffers.get(partition);
+		buffer.add(tapdataEvent);
+		return buffer.size() < batchSize || handOver(partition);
+	}
+
+	private boolean handOverAll() {
+		for (int partition = 0; partition < partitionSize; partition++) {
+			if (!handOver(partition)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean handOver(int partition) {
+		final List<TapdataEvent> events = partitionBuffers.get(partition);
+		if (events.isEmpty()) {
+			return true;
+		}
+		final EventRingBuffer<PartitionBatch> queue = partitionsQueue.get(partition);
+		final PartitionBatch batch = new PartitionBatch(handedOverSeqs[partition] + 1, events, pendingBarriers[partition]);
 		try {
-			while (isRunning() && !queue.offer(normalEvent, 3, TimeUnit.SECONDS)) {
+			while (isRunning()) {
+				if (queue.offer(batch, 3, TimeUnit.SECONDS)) {
+					handedOverSeqs[partition] = batch.getSeq();
+					handedOverEvents.addAndGet(partition, events.size());
+					pendingBarriers[partition] = null;
+					partitionBuffers.set(partition, new ArrayList<>(batchSize));
+					return true;
+				}
 				if (logger.isTraceEnabled()) {
 					logger.trace(LOG_PREFIX + "thread-{} process queue if full, waiting for enqueue.", partition);
 				}
 			}
 		} catch (InterruptedException e) {
 			// nothing to do
-			return false;
 		}
-		return true;
+		return false;
 	}
 
 	private void generateWatermarkEvent(TapdataEvent tapdataEvent) {
-		if (CollectionUtils.isNotEmpty(partitionsQueue)) {
-			final WatermarkEvent watermarkEvent = new WatermarkEvent(partitionSize, tapdataEvent);
-			for (int i = 0; i < partitionsQueue.size(); i++) {
-				final LinkedBlockingQueue<PartitionEvent<TapdataEvent>> queue = partitionsQueue.get(i);
-				try {
-					while (isRunning() && !queue.offer(watermarkEvent, 3, TimeUnit.SECONDS)) {
-						if (logger.isTraceEnabled()) {
-							logger.trace(LOG_PREFIX + "thread {} queue is full when generate barrier event to queue.", i);
-						}
-					}
-				} catch (InterruptedException e) {
-					// nothing to do
-					break;
+		final WatermarkEvent watermarkEvent = new WatermarkEvent(handedOverSeqs.clone(), tapdataEvent);
+		try {
+			while (isRunning() && !watermarkQueue.offer(watermarkEvent, 3, TimeUnit.SECONDS)) {
+				if (logger.isTraceEnabled()) {
+					logger.trace(LOG_PREFIX + "watermark queue is full when generate watermark event to queue.");
 				}
 			}
+		} catch (InterruptedException e) {
+			// nothing to do
+		}
+	}
 
-			try {
-				while (isRunning() && !watermarkQueue.offer(watermarkEvent, 3, TimeUnit.SECONDS)) {
-					if (logger.isTraceEnabled()) {
-						logger.trace(LOG_PREFIX + "watermark queue is full when generate watermark event to queue.");
-					}
-				}
-			} catch (InterruptedException e) {
-				// nothing to do
+	/**
+	 * @return true if every partition has processed up to the sequences before timeout
+	 */
+	private boolean awaitProcessed(long[] seqs, long timeout, TimeUnit unit) throws InterruptedException {
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		long parkNanos = MIN_PARK_NANOS;
+		int partition = 0;
+		while (partition < seqs.length) {
+			if (processedSeqs.get(partition) >= seqs[partition]) {
+				partition++;
+				continue;
+			}
+			if (System.nanoTime() - deadline >= 0) {
+				return false;
+			}
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
 			}
+			LockSupport.parkNanos(parkNanos);
+			parkNanos = Math.min(MAX_PARK_NANOS, parkNanos << 1);
 		}
+		return true;
 	}
 
-	private BarrierEvent generateBarrierEvent(){
-		if (CollectionUtils.isNotEmpty(partitionsQueue)) {
-			final BarrierEvent barrierEvent = new BarrierEvent(partitionSize);
-			for (int i = 0; i < partitionsQueue.size(); i++) {
-				final LinkedBlockingQueue<PartitionEvent<TapdataEvent>> queue = partitionsQueue.get(i);
-				try {
-					while (isRunning() && !queue.offer(barrierEvent, 3, TimeUnit.SECONDS)){
-						if (logger.isTraceEnabled()) {
-							logger.trace(LOG_PREFIX + "thread {} queue is full when generate barrier event to queue.", i);
-						}
-					}
-				} catch (InterruptedException e) {
-					// nothing to do
-					break;
-				}
+	/**
+	 * Load of a partition is the events it processed since the last call plus the events waiting in its queue. Skew is
+	 * the load of the busiest partition divided by the average load, 1 means evenly spread, {@code partitionSize} means
+	 * only one partition is working.
+	 * <p>
+	 * Must be called from the thread calling {@link #process(List, boolean)}
+	 *
+	 * @return skew since the last call, null if nothing was handed over
+	 */
+	public PartitionSkew partitionSkew() {
+		long total = 0L;
+		long maxLoad = 0L;
+		int hotPartition = 0;
+		for (int partition = 0; partition < partitionSize; partition++) {
+			final long processed = processedEvents.get(partition);
+			final long queued = handedOverEvents.get(partition) - processed;
+			final long load = processed - lastProcessedEvents[partition] + queued;
+			lastProcessedEvents[partition] = processed;
+			total += load;
+			if (load > maxLoad) {
+				maxLoad = load;
+				hotPartition = partition;
 			}
+		}
+		if (total <= 0L) {
+			return null;
+		}
+		return new PartitionSkew(hotPartition, (double) maxLoad * partitionSize / total);
+	}
+
+	/**
+	 * Must be called from the thread calling {@link #process(List, boolean)}
+	 */
+	public long getFullBarriers() {
+		return fullBarriers;
+	}
+
+	/**
+	 * Must be called from the thread calling {@link #process(List, boolean)}
+	 */
+	public long getPartitionBarriers() {
+		return partitionBarriers;
+	}
+
+	/**
+	 * @return time the partition threads spent waiting for barriers, summed over threads
+	 */
+	public long getBarrierWaitMs() {
+		return TimeUnit.NANOSECONDS.toMillis(barrierWaitNanos.get());
+	}
+
+	public static class PartitionSkew {
+		private final int hotPartition;
+		private final double skew;
+
+		public PartitionSkew(int hotPartition, double skew) {
+			this.hotPartition = hotPartition;
+			this.skew = skew;
+		}
 
-			return barrierEvent;
+		public int getHotPartition() {
+			return hotPartition;
 		}
 
-		return null;
+		public double getSkew() {
+			return skew;
+		}
 	}
 
 	private boolean isRunning() {
@@ -351,26 +582,6 @@ public class PartitionConcurrentProcessor {
 		this.executorService.shutdownNow();
 	}
 
-	private boolean updatePartitionValueEvent(TapEvent tapEvent) {
-		if (tapEvent instanceof TapUpdateRecordEvent) {
-			List<Object> beforeValue = null;
-			final Map<String, Object> before = ((TapUpdateRecordEvent) tapEvent).getBefore();
-			if (MapUtils.isNotEmpty(before)) {
-				beforeValue = keySelector.select(tapEvent, before);
-			}
-			List<Object> afterValue = null;
-			final Map<String, Object> after = ((TapUpdateRecordEvent) tapEvent).getAfter();
-			if (MapUtils.isNotEmpty(before)) {
-				afterValue = keySelector.select(tapEvent, after);
-			}
-			if (beforeValue != null && afterValue != null) {
-				return Objects.hash(beforeValue) != Objects.hash(afterValue);
-			}
-		}
-
-		return false;
-	}
-
 	@FunctionalInterface
 	public interface ErrorHandler<T, M> {
 
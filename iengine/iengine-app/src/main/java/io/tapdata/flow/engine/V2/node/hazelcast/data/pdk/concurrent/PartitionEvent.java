@@ -1,4 +0,0 @@
-package io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.concurrent;
-
-public interface PartitionEvent<T> {
-}
@@ -2,25 +2,26 @@ package io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.concurrent;
 
 import com.tapdata.entity.TapdataEvent;
 
-import java.util.concurrent.CountDownLatch;
-
 /**
  * @author jackin
  * @date 2022/7/26 21:42
  **/
-public class WatermarkEvent implements PartitionEvent<TapdataEvent> {
+public class WatermarkEvent {
 
-	private CountDownLatch countDownLatch;
+	/**
+	 * Batch sequence of every partition when the watermark was generated
+	 */
+	private final long[] partitionSeqs;
 
-	private TapdataEvent event;
+	private final TapdataEvent event;
 
-	public WatermarkEvent(int partitionSize, TapdataEvent event) {
-		this.countDownLatch = new CountDownLatch(partitionSize);
+	public WatermarkEvent(long[] partitionSeqs, TapdataEvent event) {
+		this.partitionSeqs = partitionSeqs;
 		this.event = event;
 	}
 
-	public CountDownLatch getCountDownLatch() {
-		return countDownLatch;
+	public long[] getPartitionSeqs() {
+		return partitionSeqs;
 	}
 
 	public TapdataEvent getEvent() {
@@ -0,0 +1,83 @@
+package io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.concurrent.partitioner;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.tapdata.entity.SyncStage;
+import com.tapdata.entity.TapdataEvent;
+import io.tapdata.entity.event.dml.TapInsertRecordEvent;
+import org.apache.commons.collections.CollectionUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Partition by murmur3 hash of the key values. Integral numbers hash the same whatever their boxed type is, so the
+ * before and after values of one key always end up in the same partition.
+ * <p>
+ * When the initial sync of the target is known to be inserts only, its inserts have no ordering constraint between each
+ * other, they can be spread round-robin instead, so a hot key range does not pin the whole snapshot to one thread.
+ * Otherwise an update or delete of the initial sync must follow the insert of its key, all of them are hashed.
+ *
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class Murmur3KeysPartitioner implements Partitioner<TapdataEvent, List<Object>> {
+
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_32();
+
+	private final boolean roundRobinInitialInserts;
+	private int roundRobinIndex;
+
+	public Murmur3KeysPartitioner() {
+		this(false);
+	}
+
+	public Murmur3KeysPartitioner(boolean roundRobinInitialInserts) {
+		this.roundRobinInitialInserts = roundRobinInitialInserts;
+	}
+
+	@Override
+	public PartitionResult<TapdataEvent> partition(int partitionSize, TapdataEvent tapdataEvent, List<Object> partitionValue) {
+
+		if (tapdataEvent == null) {
+			return null;
+		}
+
+		int partition = 0;
+		if (roundRobinInitialInserts && SyncStage.INITIAL_SYNC == tapdataEvent.getSyncStage()
+				&& tapdataEvent.getTapEvent() instanceof TapInsertRecordEvent) {
+			partition = roundRobinIndex;
+			roundRobinIndex = (roundRobinIndex + 1) % partitionSize;
+		} else if (CollectionUtils.isNotEmpty(partitionValue)) {
+			partition = Math.floorMod(hash(partitionValue), partitionSize);
+		}
+		return new PartitionResult<>(partition, tapdataEvent);
+	}
+
+	static int hash(List<Object> values) {
+		Hasher hasher = HASH_FUNCTION.newHasher();
+		for (Object value : values) {
+			if (null == value) {
+				hasher.putByte((byte) 0);
+			} else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+				hasher.putLong(((Number) value).longValue());
+			} else if (value instanceof Double || value instanceof Float) {
+				hasher.putDouble(((Number) value).doubleValue());
+			} else if (value instanceof BigDecimal) {
+				hasher.putString(((BigDecimal) value).stripTrailingZeros().toPlainString(), StandardCharsets.UTF_8);
+			} else if (value instanceof byte[]) {
+				hasher.putBytes((byte[]) value);
+			} else if (value instanceof Date) {
+				hasher.putLong(((Date) value).getTime());
+			} else {
+				hasher.putString(value.toString(), StandardCharsets.UTF_8);
+			}
+			// separator, so ("ab", "c") and ("a", "bc") hash differently
+			hasher.putByte((byte) 1);
+		}
+		return hasher.hash().asInt();
+	}
+}
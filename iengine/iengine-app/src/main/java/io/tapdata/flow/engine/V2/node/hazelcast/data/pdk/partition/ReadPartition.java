@@ -0,0 +1,127 @@
+package io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.partition;
+
+import io.tapdata.pdk.apis.entity.QueryOperator;
+import io.tapdata.pdk.apis.entity.TapPartitionFilter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One key range of a table in split snapshot read, [left, right)
+ * <p>
+ * The ranges of a table are kept in the batch offset of the table as plain maps, so the offset can be encoded like
+ * any other connector offset and a restarted task only reads the ranges which are not done
+ *
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class ReadPartition {
+	public static final String PARTITIONS_OFFSET_KEY = "tapdata_read_partitions";
+	private static final String KEY = "key";
+	private static final String LEFT = "left";
+	private static final String RIGHT = "right";
+	private static final String DONE = "done";
+
+	private final String key;
+	private final Object left;
+	private final Object right;
+	private volatile boolean done;
+
+	public ReadPartition(String key, Object left, Object right) {
+		this.key = key;
+		this.left = left;
+		this.right = right;
+	}
+
+	public TapPartitionFilter toFilter() {
+		TapPartitionFilter partitionFilter = TapPartitionFilter.create();
+		if (null != left) {
+			partitionFilter.leftBoundary(QueryOperator.gte(key, left));
+		}
+		if (null != right) {
+			partitionFilter.rightBoundary(QueryOperator.lt(key, right));
+		}
+		return partitionFilter;
+	}
+
+	public Map<String, Object> toMap() {
+		Map<String, Object> map = new HashMap<>();
+		map.put(KEY, key);
+		map.put(LEFT, left);
+		map.put(RIGHT, right);
+		map.put(DONE, done);
+		return map;
+	}
+
+	public static ReadPartition fromMap(Map<?, ?> map) {
+		ReadPartition readPartition = new ReadPartition((String) map.get(KEY), map.get(LEFT), map.get(RIGHT));
+		readPartition.setDone(Boolean.TRUE.equals(map.get(DONE)));
+		return readPartition;
+	}
+
+	/**
+	 * @return table batch offset which holds the state of all ranges
+	 */
+	public static Map<String, Object> toOffset(List<ReadPartition> readPartitions) {
+		List<Map<String, Object>> partitions = new ArrayList<>(readPartitions.size());
+		for (ReadPartition readPartition : readPartitions) {
+			partitions.add(readPartition.toMap());
+		}
+		Map<String, Object> offset = new HashMap<>();
+		offset.put(PARTITIONS_OFFSET_KEY, partitions);
+		return offset;
+	}
+
+	/**
+	 * @return ranges in the table batch offset, null if the offset is not a split read offset
+	 */
+	public static List<ReadPartition> fromOffset(Object tableOffset) {
+		if (!isPartitionOffset(tableOffset)) {
+			return null;
+		}
+		List<?> partitions = (List<?>) ((Map<?, ?>) tableOffset).get(PARTITIONS_OFFSET_KEY);
+		List<ReadPartition> readPartitions = new ArrayList<>(partitions.size());
+		for (Object partition : partitions) {
+			if (partition instanceof Map) {
+				readPartitions.add(fromMap((Map<?, ?>) partition));
+			}
+		}
+		return readPartitions;
+	}
+
+	public static boolean isPartitionOffset(Object tableOffset) {
+		return tableOffset instanceof Map && ((Map<?, ?>) tableOffset).get(PARTITIONS_OFFSET_KEY) instanceof List;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public Object getLeft() {
+		return left;
+	}
+
+	public Object getRight() {
+		return right;
+	}
+
+	public boolean isDone() {
+		return done;
+	}
+
+	public void setDone(boolean done) {
+		this.done = done;
+	}
+
+	@Override
+	public String toString() {
+		return "ReadPartition{" +
+				"key='" + key + '\'' +
+				", left=" + left +
+				", right=" + right +
+				", done=" + done +
+				'}';
+	}
+}
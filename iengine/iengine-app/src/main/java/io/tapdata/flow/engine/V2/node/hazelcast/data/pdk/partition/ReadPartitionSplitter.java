@@ -0,0 +1,165 @@
+package io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.partition;
+
+import io.tapdata.entity.schema.TapTable;
+import io.tapdata.pdk.apis.entity.Projection;
+import io.tapdata.pdk.apis.entity.QueryOperator;
+import io.tapdata.pdk.apis.entity.SortOn;
+import io.tapdata.pdk.apis.entity.TapAdvanceFilter;
+import io.tapdata.pdk.apis.functions.PDKMethod;
+import io.tapdata.pdk.apis.functions.connector.target.QueryByAdvanceFilterFunction;
+import io.tapdata.pdk.core.api.ConnectorNode;
+import io.tapdata.pdk.core.entity.params.PDKMethodInvoker;
+import io.tapdata.pdk.core.monitor.PDKInvocationMonitor;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Cut a table into key ranges by the first primary key field
+ * <p>
+ * Min and max of the key are queried through {@link QueryByAdvanceFilterFunction}. Integral keys are cut evenly between
+ * min and max, other keys are cut by sampling the key every n rows after the previous boundary (sorted by key), so the
+ * rows are skipped once in all, but it is still one skip query per boundary, so the range count of them is limited by
+ * {@link #MAX_SAMPLE_PARTITION_COUNT}
+ *
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class ReadPartitionSplitter {
+	public static final int MAX_PARTITION_COUNT = 1000;
+	public static final int MAX_SAMPLE_PARTITION_COUNT = 64;
+
+	private final ConnectorNode connectorNode;
+	private final QueryByAdvanceFilterFunction queryByAdvanceFilterFunction;
+	private final Supplier<PDKMethodInvoker> pdkMethodInvokerSupplier;
+
+	public ReadPartitionSplitter(ConnectorNode connectorNode, Supplier<PDKMethodInvoker> pdkMethodInvokerSupplier) {
+		this.connectorNode = connectorNode;
+		this.queryByAdvanceFilterFunction = connectorNode.getConnectorFunctions().getQueryByAdvanceFilterFunction();
+		this.pdkMethodInvokerSupplier = pdkMethodInvokerSupplier;
+	}
+
+	/**
+	 * @param rowCount      row count of the table, from batch count function
+	 * @param partitionSize expected row count of one range
+	 * @return ranges which cover the whole key space, empty if the table does not need to or can not be cut
+	 */
+	public List<ReadPartition> split(TapTable tapTable, String key, long rowCount, long partitionSize) {
+		List<ReadPartition> readPartitions = new ArrayList<>();
+		if (null == queryByAdvanceFilterFunction || null == key || partitionSize <= 0) {
+			return readPartitions;
+		}
+		int partitionCount = (int) Math.min(MAX_PARTITION_COUNT, (rowCount + partitionSize - 1) / partitionSize);
+		if (partitionCount <= 1) {
+			return readPartitions;
+		}
+		Object min = queryKey(tapTable, key, SortOn.ascending(key), null, 0);
+		Object max = queryKey(tapTable, key, SortOn.descending(key), null, 0);
+		if (null == min || null == max) {
+			return readPartitions;
+		}
+
+		List<Object> boundaries;
+		if (isIntegral(min) && isIntegral(max)) {
+			boundaries = integralBoundaries(((Number) min).longValue(), ((Number) max).longValue(), partitionCount);
+		} else {
+			boundaries = sampleBoundaries(tapTable, key, rowCount, Math.min(partitionCount, MAX_SAMPLE_PARTITION_COUNT));
+		}
+		if (boundaries.isEmpty()) {
+			return readPartitions;
+		}
+
+		// first and last range are open, rows out of [min, max] which are inserted during the read are still covered
+		Object left = null;
+		for (Object boundary : boundaries) {
+			readPartitions.add(new ReadPartition(key, left, boundary));
+			left = boundary;
+		}
+		readPartitions.add(new ReadPartition(key, left, null));
+		return readPartitions;
+	}
+
+	private List<Object> integralBoundaries(long min, long max, int partitionCount) {
+		List<Object> boundaries = new ArrayList<>();
+		BigInteger bigMin = BigInteger.valueOf(min);
+		BigInteger span = BigInteger.valueOf(max).subtract(bigMin);
+		BigInteger step = span.divide(BigInteger.valueOf(partitionCount));
+		if (step.signum() <= 0) {
+			step = BigInteger.ONE;
+		}
+		for (int i = 1; i < partitionCount; i++) {
+			BigInteger boundary = bigMin.add(step.multiply(BigInteger.valueOf(i)));
+			if (boundary.compareTo(BigInteger.valueOf(max)) > 0) {
+				break;
+			}
+			boundaries.add(boundary.longValue());
+		}
+		return boundaries;
+	}
+
+	private List<Object> sampleBoundaries(TapTable tapTable, String key, long rowCount, int partitionCount) {
+		List<Object> boundaries = new ArrayList<>();
+		long step = rowCount / partitionCount;
+		if (step <= 0) {
+			return boundaries;
+		}
+		Object boundary = null;
+		for (int i = 1; i < partitionCount; i++) {
+			// keys after the previous boundary only, so a key value can not be the boundary of two ranges
+			long remaining = step;
+			while (remaining > 0) {
+				int skip = (int) Math.min(remaining, Integer.MAX_VALUE);
+				boundary = queryKey(tapTable, key, SortOn.ascending(key), boundary, skip - 1);
+				if (null == boundary) {
+					return boundaries;
+				}
+				remaining -= skip;
+			}
+			boundaries.add(boundary);
+		}
+		return boundaries;
+	}
+
+	/**
+	 * @param after key value the rows are after, null for all rows
+	 */
+	private Object queryKey(TapTable tapTable, String key, SortOn sortOn, Object after, int skip) {
+		TapAdvanceFilter tapAdvanceFilter = TapAdvanceFilter.create()
+				.projection(Projection.create().include(key))
+				.sort(sortOn)
+				.limit(1);
+		if (null != after) {
+			tapAdvanceFilter.op(QueryOperator.gt(key, after));
+		}
+		if (skip > 0) {
+			tapAdvanceFilter.skip(skip);
+		}
+		AtomicReference<Object> value = new AtomicReference<>();
+		AtomicReference<Throwable> error = new AtomicReference<>();
+		PDKInvocationMonitor.invoke(connectorNode, PDKMethod.SOURCE_QUERY_BY_ADVANCE_FILTER,
+				pdkMethodInvokerSupplier.get().runnable(
+						() -> queryByAdvanceFilterFunction.query(connectorNode.getConnectorContext(), tapAdvanceFilter, tapTable, filterResults -> {
+							if (null != filterResults.getError()) {
+								error.set(filterResults.getError());
+								return;
+							}
+							List<Map<String, Object>> results = filterResults.getResults();
+							if (null != results && !results.isEmpty() && null == value.get()) {
+								value.set(results.get(0).get(key));
+							}
+						})
+				));
+		if (null != error.get()) {
+			throw new RuntimeException("Query " + sortOn + " of table " + tapTable.getId() + " failed: " + error.get().getMessage(), error.get());
+		}
+		return value.get();
+	}
+
+	private static boolean isIntegral(Object value) {
+		return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+	}
+}
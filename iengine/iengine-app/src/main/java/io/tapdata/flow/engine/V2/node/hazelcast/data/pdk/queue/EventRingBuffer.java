@@ -0,0 +1,259 @@
+package io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.queue;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded ring buffer between the source reader and the source emitter, events are handed over in batches
+ * <p>
+ * There is one consumer, the emitter. Readers are mostly one thread at a time, but concurrent snapshot readers
+ * and the source runner may take turns, so the producer side is guarded by a lock which is taken once per batch and
+ * is nearly always uncontended. Both sides only publish their position once per batch. When there is only one
+ * producer thread, the lock is left out and the buffer is a plain lock-free SPSC queue.
+ * <p>
+ * When the buffer is full (producer) or empty (consumer), the waiting side backs off by {@link WaitStrategy}
+ *
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class EventRingBuffer<E> {
+	private static final int SPIN_TRIES = 100;
+	private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+	/**
+	 * Longest park of an idle side, it is the latency of the first event after a long idle
+	 */
+	private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private final Object[] buffer;
+	private final int capacity;
+	private final int mask;
+	private final WaitStrategy waitStrategy;
+	/**
+	 * Null for single producer
+	 */
+	private final ReentrantLock producerLock;
+	/**
+	 * Next position to read, only written by consumer
+	 */
+	private final AtomicLong head = new AtomicLong();
+	/**
+	 * Next position to write, only written by producer
+	 */
+	private final AtomicLong tail = new AtomicLong();
+
+	public EventRingBuffer(int capacity, WaitStrategy waitStrategy) {
+		this(capacity, waitStrategy, false);
+	}
+
+	/**
+	 * @param singleProducer only one thread puts into the buffer, the caller must make sure of it
+	 */
+	public EventRingBuffer(int capacity, WaitStrategy waitStrategy, boolean singleProducer) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Ring buffer capacity must be positive: " + capacity);
+		}
+		int size = 1;
+		while (size < capacity) {
+			size <<= 1;
+		}
+		this.buffer = new Object[size];
+		this.capacity = size;
+		this.mask = size - 1;
+		this.waitStrategy = null == waitStrategy ? WaitStrategy.PARK : waitStrategy;
+		this.producerLock = singleProducer ? null : new ReentrantLock();
+	}
+
+	public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+		if (null == e) {
+			throw new NullPointerException();
+		}
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		if (!lockProducer(timeout, unit)) {
+			return false;
+		}
+		try {
+			long t = tail.get();
+			int idle = 0;
+			while (t - head.get() >= capacity) {
+				if (System.nanoTime() - deadline >= 0) {
+					return false;
+				}
+				idle = backoff(idle, deadline);
+			}
+			buffer[(int) (t & mask)] = e;
+			tail.lazySet(t + 1);
+			return true;
+		} finally {
+			unlockProducer();
+		}
+	}
+
+	/**
+	 * Put events from position {@code from} as many as possible before timeout
+	 *
+	 * @return count of events put, the caller should offer the rest again
+	 */
+	public int offer(List<? extends E> events, int from, long timeout, TimeUnit unit) throws InterruptedException {
+		int total = events.size() - from;
+		if (total <= 0) {
+			return 0;
+		}
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		if (!lockProducer(timeout, unit)) {
+			return 0;
+		}
+		try {
+			int put = 0;
+			int idle = 0;
+			long t = tail.get();
+			while (put < total) {
+				int free = (int) (capacity - (t - head.get()));
+				if (free <= 0) {
+					if (System.nanoTime() - deadline >= 0) {
+						break;
+					}
+					idle = backoff(idle, deadline);
+					continue;
+				}
+				idle = 0;
+				int n = Math.min(free, total - put);
+				for (int i = 0; i < n; i++) {
+					E e = events.get(from + put + i);
+					if (null == e) {
+						throw new NullPointerException();
+					}
+					buffer[(int) ((t + i) & mask)] = e;
+				}
+				t += n;
+				put += n;
+				tail.lazySet(t);
+			}
+			return put;
+		} finally {
+			unlockProducer();
+		}
+	}
+
+	private boolean lockProducer(long timeout, TimeUnit unit) throws InterruptedException {
+		return null == producerLock || producerLock.tryLock(timeout, unit);
+	}
+
+	private void unlockProducer() {
+		if (null != producerLock) {
+			producerLock.unlock();
+		}
+	}
+
+	/**
+	 * Only called by the consumer thread
+	 */
+	@SuppressWarnings("unchecked")
+	public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		long h = head.get();
+		int idle = 0;
+		while (h >= tail.get()) {
+			if (System.nanoTime() - deadline >= 0) {
+				return null;
+			}
+			idle = backoff(idle, deadline);
+		}
+		int index = (int) (h & mask);
+		E e = (E) buffer[index];
+		buffer[index] = null;
+		head.lazySet(h + 1);
+		return e;
+	}
+
+	/**
+	 * Move at most maxElements of events to the collection without waiting, only called by the consumer thread
+	 *
+	 * @return count of events moved
+	 */
+	@SuppressWarnings("unchecked")
+	public int drainTo(Collection<? super E> c, int maxElements) {
+		long h = head.get();
+		int n = (int) Math.min(maxElements, tail.get() - h);
+		for (int i = 0; i < n; i++) {
+			int index = (int) ((h + i) & mask);
+			c.add((E) buffer[index]);
+			buffer[index] = null;
+		}
+		if (n > 0) {
+			head.lazySet(h + n);
+		}
+		return Math.max(n, 0);
+	}
+
+	public int size() {
+		// read head first, tail only grows, so the result is never negative
+		long h = head.get();
+		return (int) Math.min(capacity, Math.max(0L, tail.get() - h));
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	public int remainingCapacity() {
+		return capacity - size();
+	}
+
+	/**
+	 * @param deadline nano time the wait ends, a park never passes it
+	 */
+	private int backoff(int idle, long deadline) throws InterruptedException {
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+		switch (waitStrategy) {
+			case BUSY_SPIN:
+				break;
+			case YIELD:
+				if (idle >= SPIN_TRIES) {
+					Thread.yield();
+				}
+				break;
+			case PARK:
+			default:
+				if (idle >= SPIN_TRIES) {
+					long parkNanos = Math.min(MAX_PARK_NANOS, MIN_PARK_NANOS << Math.min(30, idle - SPIN_TRIES));
+					LockSupport.parkNanos(Math.min(parkNanos, deadline - System.nanoTime()));
+				}
+				break;
+		}
+		return idle + 1;
+	}
+
+	public enum WaitStrategy {
+		/**
+		 * Keep spinning, lowest latency but takes a core while waiting
+		 */
+		BUSY_SPIN,
+		/**
+		 * Spin for a while, then yield
+		 */
+		YIELD,
+		/**
+		 * Spin for a while, then park with exponential backoff up to 10ms
+		 */
+		PARK;
+
+		public static WaitStrategy fromString(String name) {
+			for (WaitStrategy waitStrategy : values()) {
+				if (waitStrategy.name().equalsIgnoreCase(name)) {
+					return waitStrategy;
+				}
+			}
+			return PARK;
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package io.tapdata.flow.engine.V2.node.hazelcast.processor;
 
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.jet.core.Inbox;
 import com.tapdata.constant.*;
 import com.tapdata.entity.*;
 import com.tapdata.entity.task.context.DataProcessorContext;
@@ -12,11 +13,14 @@ import io.tapdata.constructImpl.ConstructIMap;
 import io.tapdata.entity.event.TapEvent;
 import io.tapdata.entity.event.dml.TapRecordEvent;
 import io.tapdata.entity.schema.TapTable;
+import io.tapdata.entity.schema.value.TapArrayValue;
+import io.tapdata.entity.schema.value.TapMapValue;
 import io.tapdata.exception.HazelcastNotExistsException;
 import io.tapdata.flow.engine.V2.util.GraphUtil;
 import io.tapdata.flow.engine.V2.util.TapEventUtil;
 import io.tapdata.pdk.apis.entity.merge.MergeInfo;
 import io.tapdata.pdk.apis.entity.merge.MergeLookupResult;
+import io.tapdata.pdk.core.utils.CommonUtils;
 import io.tapdata.schema.SchemaList;
 import io.tapdata.schema.TapTableMap;
 import org.apache.commons.collections.CollectionUtils;
@@ -24,6 +28,7 @@ import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
 import org.bson.Document;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.BeanUtils;
@@ -32,6 +37,11 @@ import org.springframework.data.mongodb.core.query.Query;
 
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
@@ -46,8 +56,21 @@ public class HazelcastMergeNode extends HazelcastProcessorBaseNode {
 
 	private Logger logger = LogManager.getLogger(HazelcastMergeNode.class);
 
+	/**
+	 * Fetch the cache values needed by a batch of events by one getAll per child table cache before processing it
+	 */
+	public static final String MERGE_NODE_BATCH_LOOKUP = "MERGE_NODE_BATCH_LOOKUP";
+	/**
+	 * Max count of join values of each child table cache kept in memory across batches, 0 means no near-cache
+	 */
+	public static final String MERGE_NODE_NEAR_CACHE_SIZE = "MERGE_NODE_NEAR_CACHE_SIZE";
+	/**
+	 * Count of threads processing events partitioned by join value, 1 means events are processed by the processor thread
+	 */
+	public static final String MERGE_NODE_PARALLELISM = "MERGE_NODE_PARALLELISM";
+
 	// 缓存表信息{"前置节点id": "Hazelcast缓存资源{"join value string": {"pk value string": "after data"}}"}
-	private Map<String, ConstructIMap<Document>> mergeCacheMap;
+	private Map<String, MergeNodeCache> mergeCacheMap;
 	// 合并配置信息{"前置节点id": "合并配置"}
 	private Map<String, MergeTableProperties> mergeTablePropertiesMap;
 	// 反查信息{"前置节点id": "需要反查的子表配置"}
@@ -60,6 +83,13 @@ public class HazelcastMergeNode extends HazelcastProcessorBaseNode {
 	private Map<String, List<String>> sourcePkOrUniqueFieldMap;
 	// 存储所有需要反查的节点id，提高判断事件是否需要缓存的效率
 	private List<String> needCacheIdList;
+	private boolean batchLookup;
+	private int parallelism = 1;
+	// 分区字段{"前置节点id": "决定分区的字段"}，同一关联值的缓存和反查都落在同一分区
+	private Map<String, List<String>> partitionFieldsMap;
+	// 按分区并行处理，每个分区有自己的缓存视图
+	private MergeNodePartitioner partitioner;
+	private ExecutorService partitionExecutor;
 
 	public HazelcastMergeNode(DataProcessorContext dataProcessorContext) {
 		super(dataProcessorContext);
@@ -70,6 +100,7 @@ public class HazelcastMergeNode extends HazelcastProcessorBaseNode {
 		super.doInit(context);
 		initMergeTableProperties(null);
 		initLookupMergeProperties();
+		initPartition();
 		initMergeCache();
 		initSourceNodeMap(null);
 		initSourceConnectionMap(null);
@@ -81,12 +112,307 @@ public class HazelcastMergeNode extends HazelcastProcessorBaseNode {
 		super.updateNodeConfig();
 		initMergeTableProperties(null);
 		initLookupMergeProperties();
+		initPartition();
 		initMergeCache();
 		initSourceNodeMap(null);
 		initSourceConnectionMap(null);
 		initSourcePkOrUniqueFieldMap(null);
 	}
 
+	@Override
+	public void process(int ordinal, @NotNull Inbox inbox) {
+		if (parallelism > 1) {
+			if (!inbox.isEmpty()) {
+				processParallel(inbox);
+			}
+			return;
+		}
+		if (batchLookup && !inbox.isEmpty()) {
+			try {
+				prefetch(inbox, this.mergeCacheMap);
+			} catch (Exception e) {
+				// events will be looked up one by one
+				logger.warn("Merge table node prefetch cache failed, error message: {}", e.getMessage(), e);
+			}
+		}
+		try {
+			super.process(ordinal, inbox);
+		} finally {
+			if (inbox.isEmpty()) {
+				this.mergeCacheMap.values().forEach(MergeNodeCache::endBatch);
+			}
+		}
+	}
+
+	/**
+	 * Fetch the join values to be cached or looked up by the events in inbox, level by level of the merge tree, by one
+	 * getAll per child table cache on each level
+	 * <p>
+	 * Only a hint, values of events which fail here are found one by one when processed
+	 */
+	private void prefetch(Iterable<?> items, Map<String, MergeNodeCache> mergeCaches) throws Exception {
+		Map<String, Set<String>> keysByNodeId = new HashMap<>();
+		List<LookupRow> lookupRows = new ArrayList<>();
+		for (Object item : items) {
+			if (!(item instanceof TapdataEvent)) continue;
+			TapdataEvent tapdataEvent = (TapdataEvent) item;
+			if (!tapdataEvent.isDML() || !(tapdataEvent.getTapEvent() instanceof TapRecordEvent)
+					|| CollectionUtils.isEmpty(tapdataEvent.getNodeIds())) {
+				continue;
+			}
+			try {
+				String preNodeId = getPreNodeId(tapdataEvent);
+				MergeTableProperties mergeProperty = this.mergeTablePropertiesMap.get(preNodeId);
+				if (null == mergeProperty) continue;
+				if (needCache(tapdataEvent)) {
+					Map<String, Object> data = OperationType.DELETE.getOp().equals(getOp(tapdataEvent)) ? getBefore(tapdataEvent) : getAfter(tapdataEvent);
+					List<String> joinKeys = getJoinKeys(mergeProperty.getJoinKeys(), JoinConditionType.SOURCE);
+					String joinValueKey = getJoinValueKeyBySource(fromTapValue(data, joinKeys), mergeProperty);
+					keysByNodeId.computeIfAbsent(preNodeId, k -> new HashSet<>()).add(joinValueKey);
+				}
+				if (needLookup(tapdataEvent) && CollectionUtils.isNotEmpty(mergeProperty.getChildren())) {
+					List<String> joinKeys = new ArrayList<>();
+					for (MergeTableProperties child : mergeProperty.getChildren()) {
+						for (String joinKey : getJoinKeys(child.getJoinKeys(), JoinConditionType.TARGET)) {
+							joinKeys.add(StringUtils.isNotBlank(mergeProperty.getTargetPath()) ? StringUtils.removeStart(joinKey, mergeProperty.getTargetPath() + ".") : joinKey);
+						}
+					}
+					lookupRows.add(new LookupRow(mergeProperty, fromTapValue(getAfter(tapdataEvent), joinKeys)));
+				}
+			} catch (Exception ignored) {
+			}
+		}
+		prefetchByLevel(keysByNodeId, lookupRows, mergeCaches);
+	}
+
+	/**
+	 * Fetch the given keys, then the children of the lookup rows, then the children of the rows found for them, and so on,
+	 * one getAll per child table cache per level
+	 *
+	 * @param keysByNodeId keys to fetch on the first level, by node id of the child table cache
+	 * @param lookupRows   rows whose children are looked up
+	 */
+	static void prefetchByLevel(Map<String, Set<String>> keysByNodeId, List<LookupRow> lookupRows, Map<String, MergeNodeCache> mergeCaches) throws Exception {
+		while (!keysByNodeId.isEmpty() || !lookupRows.isEmpty()) {
+			Map<LookupRow, List<String>> lookupKeys = new HashMap<>();
+			for (LookupRow lookupRow : lookupRows) {
+				List<String> keys = new ArrayList<>();
+				for (MergeTableProperties child : lookupRow.mergeProperty.getChildren()) {
+					String joinValueKey = null;
+					try {
+						joinValueKey = getJoinValueKeyByTarget(lookupRow.data, child, lookupRow.mergeProperty);
+						keysByNodeId.computeIfAbsent(child.getId(), k -> new HashSet<>()).add(joinValueKey);
+					} catch (Exception ignored) {
+					}
+					keys.add(joinValueKey);
+				}
+				lookupKeys.put(lookupRow, keys);
+			}
+			for (Map.Entry<String, Set<String>> entry : keysByNodeId.entrySet()) {
+				MergeNodeCache mergeCache = mergeCaches.get(entry.getKey());
+				if (null != mergeCache) {
+					mergeCache.prefetch(entry.getValue());
+				}
+			}
+			keysByNodeId.clear();
+			// next level, rows found on this level look up their own children
+			List<LookupRow> nextLookupRows = new ArrayList<>();
+			for (Map.Entry<LookupRow, List<String>> entry : lookupKeys.entrySet()) {
+				List<MergeTableProperties> children = entry.getKey().mergeProperty.getChildren();
+				for (int i = 0; i < children.size(); i++) {
+					MergeTableProperties child = children.get(i);
+					String joinValueKey = entry.getValue().get(i);
+					MergeNodeCache mergeCache = mergeCaches.get(child.getId());
+					if (null == joinValueKey || null == mergeCache || CollectionUtils.isEmpty(child.getChildren())) continue;
+					Document found = mergeCache.find(joinValueKey);
+					if (MapUtils.isEmpty(found)) continue;
+					Collection<Object> rows = MergeTableProperties.MergeType.updateWrite == child.getMergeType()
+							? Collections.singletonList(found.values().iterator().next()) : found.values();
+					for (Object row : rows) {
+						if (row instanceof Map) {
+							nextLookupRows.add(new LookupRow(child, (Map<String, Object>) row));
+						}
+					}
+				}
+			}
+			lookupRows = nextLookupRows;
+		}
+	}
+
+	/**
+	 * Process the events of inbox by partition in parallel, events of a partition are processed in order, and all results
+	 * are offered in the order of inbox. Other events than DML are processed by the processor thread, after the DML
+	 * events before them are done
+	 */
+	private void processParallel(Inbox inbox) {
+		List<TapdataEvent> events = new ArrayList<>(inbox.size());
+		inbox.drainTo(events);
+		try {
+			Log4jUtil.setThreadContext(processorBaseContext.getTaskDto());
+			if (!isJetJobRunning()) {
+				return;
+			}
+			partitioner.process(events, this::partitionOf, new MergeNodePartitioner.Handler() {
+				@Override
+				public void beginPartition(List<TapdataEvent> partitionEvents, Map<String, MergeNodeCache> mergeCaches) {
+					Log4jUtil.setThreadContext(processorBaseContext.getTaskDto());
+					if (batchLookup) {
+						try {
+							prefetch(partitionEvents, mergeCaches);
+						} catch (Exception e) {
+							logger.warn("Merge table node prefetch cache failed, error message: {}", e.getMessage(), e);
+						}
+					}
+				}
+
+				@Override
+				public List<TapdataEvent> process(TapdataEvent event) {
+					return processEvent(event);
+				}
+
+				@Override
+				public void endPartition() {
+					ThreadContext.clearAll();
+				}
+			}, this::offerProcessed);
+		} finally {
+			ThreadContext.clearAll();
+		}
+	}
+
+	/**
+	 * Events of the same join value always go to the same partition, see {@link #initPartition()}
+	 */
+	private int partitionOf(TapdataEvent tapdataEvent) {
+		if (!(tapdataEvent.getTapEvent() instanceof TapRecordEvent) || CollectionUtils.isEmpty(tapdataEvent.getNodeIds())) {
+			return 0;
+		}
+		List<String> fields = partitionFieldsMap.get(getPreNodeId(tapdataEvent));
+		if (null == fields) {
+			return 0;
+		}
+		Map<String, Object> data = getAfter(tapdataEvent);
+		if (MapUtils.isEmpty(data)) {
+			data = getBefore(tapdataEvent);
+		}
+		Map<String, Object> values = fromTapValue(data, fields);
+		int hash = 0;
+		for (String field : fields) {
+			// same string form as the join value key, the types of both sides may differ
+			hash = 31 * hash + String.valueOf(values.get(field)).hashCode();
+		}
+		return Math.floorMod(hash, parallelism);
+	}
+
+	/**
+	 * Events are processed in parallel only when every child table joins its parent by the same fields of the parent, and
+	 * has no children itself. Then the cache writes of a child table and the lookups of the parent for the same join value
+	 * are all done by the same partition, in order
+	 */
+	private void initPartition() {
+		this.parallelism = 1;
+		this.partitionFieldsMap = null;
+		int parallelism = CommonUtils.getPropertyInt(MERGE_NODE_PARALLELISM, 1);
+		if (parallelism <= 1) {
+			return;
+		}
+		Map<String, List<String>> partitionFieldsMap = new HashMap<>();
+		String reason = initPartitionFields(((MergeTableNode) processorBaseContext.getNode()).getMergeProperties(), partitionFieldsMap);
+		if (null != reason) {
+			logger.info("Merge table node events will be processed in one thread, {}", reason);
+			obsLogger.info("Merge table node events will be processed in one thread, {}", reason);
+			return;
+		}
+		this.partitionFieldsMap = partitionFieldsMap;
+		this.parallelism = parallelism;
+		if (null == this.partitionExecutor) {
+			AtomicInteger threadNo = new AtomicInteger();
+			this.partitionExecutor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+					r -> {
+						Thread thread = new Thread(r);
+						thread.setName(String.format("merge-partition-%s[%s]-%s", getNode().getName(), getNode().getId(), threadNo.incrementAndGet()));
+						return thread;
+					});
+		}
+		logger.info("Merge table node events will be processed in {} partitions by join value", parallelism);
+		obsLogger.info("Merge table node events will be processed in {} partitions by join value", parallelism);
+	}
+
+	/**
+	 * @return why events can not be partitioned, null when they can
+	 */
+	private String initPartitionFields(List<MergeTableProperties> mergeProperties, Map<String, List<String>> partitionFieldsMap) {
+		if (CollectionUtils.isEmpty(mergeProperties)) {
+			return null;
+		}
+		for (MergeTableProperties mergeProperty : mergeProperties) {
+			List<MergeTableProperties> children = mergeProperty.getChildren();
+			if (CollectionUtils.isEmpty(children)) {
+				continue;
+			}
+			List<String> parentFields = null;
+			for (MergeTableProperties child : children) {
+				if (CollectionUtils.isNotEmpty(child.getChildren())) {
+					return "table " + child.getTableName() + " has child tables";
+				}
+				Map<String, String> sourceByTarget = new LinkedHashMap<>();
+				for (Map<String, String> joinKey : child.getJoinKeys()) {
+					String target = joinKey.get(JoinConditionType.TARGET.getType());
+					String source = joinKey.get(JoinConditionType.SOURCE.getType());
+					if (StringUtils.isNotBlank(mergeProperty.getTargetPath())) {
+						target = StringUtils.removeStart(target, mergeProperty.getTargetPath() + ".");
+					}
+					if (StringUtils.isAnyBlank(target, source) || target.contains(".") || source.contains(".")) {
+						return "table " + child.getTableName() + " joins by nested fields";
+					}
+					sourceByTarget.put(target, source);
+				}
+				if (sourceByTarget.isEmpty()) {
+					return "table " + child.getTableName() + " has no join key";
+				}
+				if (null == parentFields) {
+					parentFields = new ArrayList<>(sourceByTarget.keySet());
+				} else if (!new HashSet<>(parentFields).equals(sourceByTarget.keySet())) {
+					return "child tables of " + mergeProperty.getTableName() + " join by different fields";
+				}
+				// same order as the parent fields
+				partitionFieldsMap.put(child.getId(), parentFields.stream().map(sourceByTarget::get).collect(Collectors.toList()));
+			}
+			partitionFieldsMap.put(mergeProperty.getId(), parentFields);
+		}
+		return null;
+	}
+
+	/**
+	 * Values of the given fields of data, from TapValue as the event will be when processed
+	 */
+	private Map<String, Object> fromTapValue(Map<String, Object> data, List<String> fields) {
+		Map<String, Object> result = new HashMap<>();
+		if (MapUtils.isEmpty(data)) {
+			return result;
+		}
+		for (String field : fields) {
+			Object value = data.get(field);
+			// nested values are left out, converting them would modify the event
+			if (data.containsKey(field) && !(value instanceof TapMapValue) && !(value instanceof TapArrayValue)
+					&& !(value instanceof Map) && !(value instanceof Collection)) {
+				result.put(field, value);
+			}
+		}
+		codecsFilterManager.transformFromTapValueMap(result);
+		return result;
+	}
+
+	static class LookupRow {
+		private final MergeTableProperties mergeProperty;
+		private final Map<String, Object> data;
+
+		LookupRow(MergeTableProperties mergeProperty, Map<String, Object> data) {
+			this.mergeProperty = mergeProperty;
+			this.data = data;
+		}
+	}
+
 	@Override
 	protected void tryProcess(TapdataEvent tapdataEvent, BiConsumer<TapdataEvent, ProcessResult> consumer) {
 		TapEvent tapEvent = tapdataEvent.getTapEvent();
@@ -140,9 +466,24 @@ public class HazelcastMergeNode extends HazelcastProcessorBaseNode {
 	}
 
 	private void initMergeCache() {
-		this.mergeCacheMap = new HashMap<>();
+		this.batchLookup = CommonUtils.getPropertyBool(MERGE_NODE_BATCH_LOOKUP, true);
+		int nearCacheSize = CommonUtils.getPropertyInt(MERGE_NODE_NEAR_CACHE_SIZE, 0);
+		this.mergeCacheMap = createMergeCaches(nearCacheSize, true);
+		this.partitioner = null;
+		if (parallelism > 1) {
+			// a join value is only written and read by one partition, so near-caches of partitions do not overlap
+			List<Map<String, MergeNodeCache>> partitionCaches = new ArrayList<>(parallelism);
+			for (int i = 0; i < parallelism; i++) {
+				partitionCaches.add(createMergeCaches(nearCacheSize, false));
+			}
+			this.partitioner = new MergeNodePartitioner(partitionCaches, partitionExecutor);
+		}
+	}
+
+	private Map<String, MergeNodeCache> createMergeCaches(int nearCacheSize, boolean log) {
+		Map<String, MergeNodeCache> mergeCaches = new HashMap<>();
 		if (MapUtils.isEmpty(this.lookupMap)) {
-			return;
+			return mergeCaches;
 		}
 		for (List<MergeTableProperties> lookupList : this.lookupMap.values()) {
 			for (MergeTableProperties mergeProperty : lookupList) {
@@ -151,10 +492,13 @@ public class HazelcastMergeNode extends HazelcastProcessorBaseNode {
 					break;
 				}
 				ConstructIMap<Document> hazelcastConstruct = new ConstructIMap<>(jetContext.hazelcastInstance(), cacheName);
-				this.mergeCacheMap.put(mergeProperty.getId(), hazelcastConstruct);
-				logger.info("Init hazelcast cache, name: " + cacheName + "(" + mergeProperty.getId() + ")");
+				mergeCaches.put(mergeProperty.getId(), new MergeNodeCache(hazelcastConstruct, nearCacheSize));
+				if (log) {
+					logger.info("Init hazelcast cache, name: " + cacheName + "(" + mergeProperty.getId() + ")");
+				}
 			}
 		}
+		return mergeCaches;
 	}
 
 	private void initLookupMergeProperties() {
@@ -290,12 +634,13 @@ public class HazelcastMergeNode extends HazelcastProcessorBaseNode {
 		return mergeProperty.getMergeType();
 	}
 
-	private ConstructIMap<Document> getHazelcastConstruct(String sourceNodeId) {
-		ConstructIMap<Document> hazelcastConstruct = this.mergeCacheMap.getOrDefault(sourceNodeId, null);
-		if (null == hazelcastConstruct) {
+	private MergeNodeCache getMergeCache(String sourceNodeId) {
+		Map<String, MergeNodeCache> mergeCaches = null == partitioner ? null : partitioner.currentCaches();
+		MergeNodeCache mergeCache = (null == mergeCaches ? this.mergeCacheMap : mergeCaches).getOrDefault(sourceNodeId, null);
+		if (null == mergeCache) {
 			throw new HazelcastNotExistsException("Cannot found hazelcast cache by node id: " + sourceNodeId);
 		}
-		return hazelcastConstruct;
+		return mergeCache;
 	}
 
 	private String getPreNodeId(TapdataEvent tapdataEvent) {
@@ -346,20 +691,20 @@ public class HazelcastMergeNode extends HazelcastProcessorBaseNode {
 	private void cache(TapdataEvent tapdataEvent) {
 		String op = getOp(tapdataEvent);
 		OperationType operationType = OperationType.fromOp(op);
-		ConstructIMap<Document> hazelcastConstruct = getHazelcastConstruct(getPreNodeId(tapdataEvent));
+		MergeNodeCache mergeCache = getMergeCache(getPreNodeId(tapdataEvent));
 		MergeTableProperties mergeProperty = getMergeProperty(tapdataEvent);
 		switch (operationType) {
 			case INSERT:
 			case UPDATE:
 				try {
-					upsertCache(tapdataEvent, mergeProperty, hazelcastConstruct);
+					upsertCache(tapdataEvent, mergeProperty, mergeCache);
 				} catch (Exception e) {
 					throw new RuntimeException(e.getMessage() + ";\nError: " + e.getMessage() + "\n" + Log4jUtil.getStackString(e), e);
 				}
 				break;
 			case DELETE:
 				try {
-					deleteCache(tapdataEvent, mergeProperty, hazelcastConstruct);
+					deleteCache(tapdataEvent, mergeProperty, mergeCache);
 				} catch (Exception e) {
 					throw new RuntimeException(e.getMessage() + ";\nError: " + e.getMessage() + "\n" + Log4jUtil.getStackString(e));
 				}
@@ -369,48 +714,18 @@ public class HazelcastMergeNode extends HazelcastProcessorBaseNode {
 		}
 	}
 
-	private void upsertCache(TapdataEvent tapdataEvent, MergeTableProperties mergeTableProperty, ConstructIMap<Document> hazelcastConstruct) throws Exception {
+	private void upsertCache(TapdataEvent tapdataEvent, MergeTableProperties mergeTableProperty, MergeNodeCache mergeCache) throws Exception {
 		Map<String, Object> after = getAfter(tapdataEvent);
 		String joinValueKey = getJoinValueKeyBySource(after, mergeTableProperty);
 		String pkOrUniqueKey = getPkOrUniqueValueKey(after, mergeTableProperty);
-		Document groupByJoinKeyValues;
-		try {
-			groupByJoinKeyValues = hazelcastConstruct.find(joinValueKey);
-		} catch (Exception e) {
-			throw new Exception("Find value by join key value string(" + joinValueKey + ") error", e);
-		}
-		if (null == groupByJoinKeyValues) {
-			groupByJoinKeyValues = new Document();
-		}
-		groupByJoinKeyValues.put(pkOrUniqueKey, after);
-		try {
-			hazelcastConstruct.upsert(joinValueKey, groupByJoinKeyValues);
-		} catch (Exception e) {
-			throw new Exception("Upsert value error, join value key: " + joinValueKey + ", data: " + groupByJoinKeyValues, e);
-		}
+		mergeCache.upsertRow(joinValueKey, pkOrUniqueKey, after);
 	}
 
-	private void deleteCache(TapdataEvent tapdataEvent, MergeTableProperties mergeTableProperty, ConstructIMap<Document> hazelcastConstruct) throws Exception {
+	private void deleteCache(TapdataEvent tapdataEvent, MergeTableProperties mergeTableProperty, MergeNodeCache mergeCache) throws Exception {
 		Map<String, Object> before = getBefore(tapdataEvent);
 		String joinValueKey = getJoinValueKeyBySource(before, mergeTableProperty);
 		String pkOrUniqueValueKey = getPkOrUniqueValueKey(before, mergeTableProperty);
-		Document groupByJoinKeyValues;
-		try {
-			groupByJoinKeyValues = hazelcastConstruct.find(joinValueKey);
-		} catch (Exception e) {
-			throw new Exception("Find value by join key value string(" + joinValueKey + ") error", e);
-		}
-		if (null == groupByJoinKeyValues) {
-			return;
-		}
-		groupByJoinKeyValues.remove(pkOrUniqueValueKey);
-		if (MapUtils.isEmpty(groupByJoinKeyValues)) {
-			try {
-				hazelcastConstruct.delete(joinValueKey);
-			} catch (Exception e) {
-				throw new Exception("Remove value error, join value key: " + joinValueKey, e);
-			}
-		}
+		mergeCache.deleteRow(joinValueKey, pkOrUniqueValueKey);
 	}
 
 	private Map<String, Object> getAfter(TapdataEvent tapdataEvent) {
@@ -454,7 +769,7 @@ public class HazelcastMergeNode extends HazelcastProcessorBaseNode {
 		return Base64.getEncoder().encodeToString(String.join("_", values).getBytes(StandardCharsets.UTF_8));
 	}
 
-	private String getJoinValueKeyByTarget(Map<String, Object> data, MergeTableProperties mergeProperty, MergeTableProperties lastMergeProperty) {
+	private static String getJoinValueKeyByTarget(Map<String, Object> data, MergeTableProperties mergeProperty, MergeTableProperties lastMergeProperty) {
 		List<Map<String, String>> joinKeys = mergeProperty.getJoinKeys();
 		List<String> joinKeyList;
 		try {
@@ -479,7 +794,7 @@ public class HazelcastMergeNode extends HazelcastProcessorBaseNode {
 		return Base64.getEncoder().encodeToString(String.join("_", values).getBytes(StandardCharsets.UTF_8));
 	}
 
-	private List<String> getJoinKeys(List<Map<String, String>> joinKeys, JoinConditionType joinConditionType) {
+	private static List<String> getJoinKeys(List<Map<String, String>> joinKeys, JoinConditionType joinConditionType) {
 		List<String> result;
 		result = joinKeys.stream().map(j -> j.get(joinConditionType.getType())).collect(Collectors.toList());
 		if (CollectionUtils.isEmpty(result)) throw new RuntimeException("Join key is empty");
@@ -566,11 +881,11 @@ public class HazelcastMergeNode extends HazelcastProcessorBaseNode {
 		List<MergeLookupResult> mergeLookupResults = new ArrayList<>();
 		for (MergeTableProperties childMergeProperty : children) {
 			MergeTableProperties.MergeType mergeType = childMergeProperty.getMergeType();
-			ConstructIMap<Document> hazelcastConstruct = getHazelcastConstruct(childMergeProperty.getId());
+			MergeNodeCache mergeCache = getMergeCache(childMergeProperty.getId());
 			String joinValueKey = getJoinValueKeyByTarget(data, childMergeProperty, mergeTableProperties);
 			Document findData;
 			try {
-				findData = hazelcastConstruct.find(joinValueKey);
+				findData = mergeCache.find(joinValueKey);
 			} catch (Exception e) {
 				throw new RuntimeException("Merge table node lookup in cache failed, join values key" + joinValueKey + ", data: " + data);
 			}
@@ -630,6 +945,19 @@ public class HazelcastMergeNode extends HazelcastProcessorBaseNode {
 		return pdkMergeTableProperties;
 	}
 
+	@Override
+	protected void doClose() throws Exception {
+		try {
+			CommonUtils.ignoreAnyError(() -> {
+				if (null != partitionExecutor) {
+					partitionExecutor.shutdownNow();
+				}
+			}, "HazelcastMergeNode-close");
+		} finally {
+			super.doClose();
+		}
+	}
+
 	public static void clearCache(Node<?> node) {
 		if (!(node instanceof MergeTableNode)) return;
 		recursiveClearCache(((MergeTableNode) node).getMergeProperties(), HazelcastUtil.getInstance());
@@ -37,6 +37,14 @@ public abstract class HazelcastProcessorBaseNode extends HazelcastBaseNode {
 		super(processorBaseContext);
 	}
 
+	/**
+	 * Values of the input events are converted from TapValue in place before they are processed, see {@link #processEvent(TapdataEvent)}
+	 */
+	@Override
+	protected boolean mutateInputEvent() {
+		return true;
+	}
+
 	@Override
 	protected final boolean tryProcess(int ordinal, @NotNull Object item) throws Exception {
 		try {
@@ -44,69 +52,86 @@ public abstract class HazelcastProcessorBaseNode extends HazelcastBaseNode {
 			if (!isJetJobRunning()) {
 				return true;
 			}
-			TapdataEvent tapdataEvent = (TapdataEvent) item;
-			List<TapdataEvent> processedEventList = new ArrayList<>();
-			try {
-				AspectUtils.executeProcessorFuncAspect(ProcessorNodeProcessAspect.class, () -> new ProcessorNodeProcessAspect()
-						.processorBaseContext(getProcessorBaseContext())
-						.inputEvent(tapdataEvent)
-						.start(), (processorNodeProcessAspect) -> {
-					if (null == tapdataEvent.getTapEvent() || ignore) {
-						// control tapdata event, skip the process consider process is done
-						processedEventList.add(tapdataEvent);
-						if (null != processorNodeProcessAspect) {
-							AspectUtils.accept(processorNodeProcessAspect.state(ProcessorNodeProcessAspect.STATE_PROCESSING).getConsumers(), tapdataEvent);
-						}
+			offerProcessed(processEvent((TapdataEvent) item));
+		} finally {
+			ThreadContext.clearAll();
+		}
+		return true;
+	}
+
+	/**
+	 * Process one input event, without offering the results. Safe to call from other threads than the processor
+	 * thread, as long as the node processes events of different threads independently, see {@link HazelcastMergeNode}
+	 *
+	 * @return events to offer, in order
+	 */
+	protected final List<TapdataEvent> processEvent(TapdataEvent tapdataEvent) {
+		List<TapdataEvent> processedEventList = new ArrayList<>();
+		try {
+			AspectUtils.executeProcessorFuncAspect(ProcessorNodeProcessAspect.class, () -> new ProcessorNodeProcessAspect()
+					.processorBaseContext(getProcessorBaseContext())
+					.inputEvent(tapdataEvent)
+					.start(), (processorNodeProcessAspect) -> {
+				if (null == tapdataEvent.getTapEvent() || ignore) {
+					// control tapdata event, skip the process consider process is done
+					processedEventList.add(tapdataEvent);
+					if (null != processorNodeProcessAspect) {
+						AspectUtils.accept(processorNodeProcessAspect.state(ProcessorNodeProcessAspect.STATE_PROCESSING).getConsumers(), tapdataEvent);
+					}
+					return;
+				}
+				// passed through events above are not changed, only the processed ones are copied when shared
+				ownInputEvent(tapdataEvent);
+				// Update memory from ddl event info map
+				updateMemoryFromDDLInfoMap(tapdataEvent, getTgtTableNameFromTapEvent(tapdataEvent.getTapEvent()));
+				AtomicReference<TapValueTransform> tapValueTransform = new AtomicReference<>();
+				if (tapdataEvent.isDML()) {
+					tapValueTransform.set(transformFromTapValue(tapdataEvent));
+				}
+				tryProcess(tapdataEvent, (event, processResult) -> {
+					if (null == event) {
 						return;
 					}
-					// Update memory from ddl event info map
-					updateMemoryFromDDLInfoMap(tapdataEvent, getTgtTableNameFromTapEvent(tapdataEvent.getTapEvent()));
-					AtomicReference<TapValueTransform> tapValueTransform = new AtomicReference<>();
 					if (tapdataEvent.isDML()) {
-						tapValueTransform.set(transformFromTapValue(tapdataEvent));
-					}
-					tryProcess(tapdataEvent, (event, processResult) -> {
-						if (null == event) {
-							return;
-						}
-						if (tapdataEvent.isDML()) {
-							if (null != processResult && null != processResult.getTableId()) {
-								transformToTapValue(event, processorBaseContext.getTapTableMap(), processResult.getTableId(), tapValueTransform.get());
-							} else {
-								transformToTapValue(event, processorBaseContext.getTapTableMap(), getNode().getId(), tapValueTransform.get());
-							}
+						if (null != processResult && null != processResult.getTableId()) {
+							transformToTapValue(event, processorBaseContext.getTapTableMap(), processResult.getTableId(), tapValueTransform.get());
+						} else {
+							transformToTapValue(event, processorBaseContext.getTapTableMap(), getNode().getId(), tapValueTransform.get());
 						}
+					}
 
-						// consider process is done
-						processedEventList.add(event);
-						if (null != processorNodeProcessAspect) {
-							AspectUtils.accept(processorNodeProcessAspect.state(ProcessorNodeProcessAspect.STATE_PROCESSING).getConsumers(), event);
-						}
+					// consider process is done
+					processedEventList.add(event);
+					if (null != processorNodeProcessAspect) {
+						AspectUtils.accept(processorNodeProcessAspect.state(ProcessorNodeProcessAspect.STATE_PROCESSING).getConsumers(), event);
+					}
 
-					});
 				});
-			} catch (Throwable throwable) {
-				NodeException nodeException = new NodeException("Error occurred when process events in processor", throwable)
-						.context(getProcessorBaseContext())
-						.event(tapdataEvent.getTapEvent());
-				logger.error(nodeException.getMessage(), nodeException);
-				obsLogger.error(nodeException);
-				throw nodeException;
-			}
+			});
+		} catch (Throwable throwable) {
+			NodeException nodeException = new NodeException("Error occurred when process events in processor", throwable)
+					.context(getProcessorBaseContext())
+					.event(tapdataEvent.getTapEvent());
+			logger.error(nodeException.getMessage(), nodeException);
+			obsLogger.error(nodeException);
+			throw nodeException;
+		}
+		return processedEventList;
+	}
 
-			if (CollectionUtils.isNotEmpty(processedEventList)) {
-				for (TapdataEvent event : processedEventList) {
-					while (isRunning()) {
-						if (offer(event)) {
-							break;
-						}
+	/**
+	 * Offer processed events, only called by the processor thread
+	 */
+	protected final void offerProcessed(List<TapdataEvent> processedEventList) {
+		if (CollectionUtils.isNotEmpty(processedEventList)) {
+			for (TapdataEvent event : processedEventList) {
+				while (isRunning()) {
+					if (offer(event)) {
+						break;
 					}
 				}
 			}
-		} finally {
-			ThreadContext.clearAll();
 		}
-		return true;
 	}
 
 	protected ProcessResult getProcessResult(String tableName) {
@@ -0,0 +1,188 @@
+package io.tapdata.flow.engine.V2.node.hazelcast.processor;
+
+import io.tapdata.constructImpl.CompactValueCodec;
+import io.tapdata.constructImpl.ConstructIMap;
+import org.bson.Document;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Local view of one child table cache of the merge node
+ * <p>
+ * Values of the keys needed by a batch of events are fetched by one getAll before the batch is processed, and kept
+ * until the batch is done. Optionally, the most recently used values are kept across batches in a bounded near-cache.
+ * The merge node is the only writer of its caches and every write goes through here, so both stay in sync with the
+ * IMap by updating them on write.
+ * <p>
+ * Values are kept encoded by {@link CompactValueCodec}, every find returns a new document which the caller is free to
+ * modify. Only used by the processor thread.
+ *
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class MergeNodeCache {
+	/**
+	 * Key known to be absent in this batch
+	 */
+	private static final byte[] ABSENT = new byte[0];
+
+	private final ConstructIMap<Document> construct;
+	private final Map<String, byte[]> batchCache = new HashMap<>();
+	private final Map<String, byte[]> nearCache;
+
+	public MergeNodeCache(ConstructIMap<Document> construct, int nearCacheSize) {
+		this.construct = construct;
+		if (nearCacheSize > 0) {
+			this.nearCache = new LinkedHashMap<String, byte[]>(16, 0.75F, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+					return size() > nearCacheSize;
+				}
+			};
+		} else {
+			this.nearCache = null;
+		}
+	}
+
+	public ConstructIMap<Document> getConstruct() {
+		return construct;
+	}
+
+	/**
+	 * Fetch the keys not cached yet in one call, for the current batch
+	 */
+	public void prefetch(Collection<String> keys) throws Exception {
+		Set<String> missing = new HashSet<>();
+		for (String key : keys) {
+			if (!batchCache.containsKey(key) && (null == nearCache || !nearCache.containsKey(key))) {
+				missing.add(key);
+			}
+		}
+		if (missing.isEmpty()) {
+			return;
+		}
+		Map<String, Document> found = construct.findAll(missing);
+		for (String key : missing) {
+			Document document = found.get(key);
+			if (null == document) {
+				batchCache.put(key, ABSENT);
+			} else {
+				byte[] bytes = CompactValueCodec.encode(document);
+				batchCache.put(key, bytes);
+				putNearCache(key, bytes);
+			}
+		}
+	}
+
+	public Document find(String key) throws Exception {
+		byte[] bytes = batchCache.get(key);
+		if (null == bytes && null != nearCache) {
+			bytes = nearCache.get(key);
+		}
+		if (ABSENT == bytes) {
+			return null;
+		}
+		if (null != bytes) {
+			return (Document) CompactValueCodec.decode(bytes);
+		}
+		Document document = construct.find(key);
+		if (null != document) {
+			putNearCache(key, CompactValueCodec.encode(document));
+		}
+		return document;
+	}
+
+	public void upsert(String key, Document document) throws Exception {
+		construct.upsert(key, document);
+		byte[] bytes = CompactValueCodec.encode(document);
+		if (batchCache.containsKey(key)) {
+			batchCache.put(key, bytes);
+		}
+		putNearCache(key, bytes);
+	}
+
+	/**
+	 * Put the row into the document of the join value, which groups the rows by pk or unique value
+	 */
+	public void upsertRow(String joinValueKey, String rowKey, Map<String, Object> row) throws Exception {
+		Document groupByJoinKeyValues;
+		try {
+			groupByJoinKeyValues = find(joinValueKey);
+		} catch (Exception e) {
+			throw new Exception("Find value by join key value string(" + joinValueKey + ") error", e);
+		}
+		if (null == groupByJoinKeyValues) {
+			groupByJoinKeyValues = new Document();
+		}
+		groupByJoinKeyValues.put(rowKey, row);
+		try {
+			upsert(joinValueKey, groupByJoinKeyValues);
+		} catch (Exception e) {
+			throw new Exception("Upsert value error, join value key: " + joinValueKey + ", data: " + groupByJoinKeyValues, e);
+		}
+	}
+
+	/**
+	 * Remove the row from the document of the join value, the document is written back with the rest rows, or deleted
+	 * when no row is left
+	 */
+	public void deleteRow(String joinValueKey, String rowKey) throws Exception {
+		Document groupByJoinKeyValues;
+		try {
+			groupByJoinKeyValues = find(joinValueKey);
+		} catch (Exception e) {
+			throw new Exception("Find value by join key value string(" + joinValueKey + ") error", e);
+		}
+		if (null == groupByJoinKeyValues || null == groupByJoinKeyValues.remove(rowKey)) {
+			return;
+		}
+		if (groupByJoinKeyValues.isEmpty()) {
+			try {
+				delete(joinValueKey);
+			} catch (Exception e) {
+				throw new Exception("Remove value error, join value key: " + joinValueKey, e);
+			}
+		} else {
+			try {
+				upsert(joinValueKey, groupByJoinKeyValues);
+			} catch (Exception e) {
+				throw new Exception("Upsert value error, join value key: " + joinValueKey + ", data: " + groupByJoinKeyValues, e);
+			}
+		}
+	}
+
+	public void delete(String key) throws Exception {
+		construct.delete(key);
+		if (batchCache.containsKey(key)) {
+			batchCache.put(key, ABSENT);
+		}
+		if (null != nearCache) {
+			nearCache.remove(key);
+		}
+	}
+
+	/**
+	 * Values fetched for the batch are dropped, the near-cache is kept
+	 */
+	public void endBatch() {
+		batchCache.clear();
+	}
+
+	public void clearLocal() {
+		batchCache.clear();
+		if (null != nearCache) {
+			nearCache.clear();
+		}
+	}
+
+	private void putNearCache(String key, byte[] bytes) {
+		if (null != nearCache) {
+			nearCache.put(key, bytes);
+		}
+	}
+}
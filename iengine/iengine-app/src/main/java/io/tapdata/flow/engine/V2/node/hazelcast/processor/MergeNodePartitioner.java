@@ -0,0 +1,141 @@
+package io.tapdata.flow.engine.V2.node.hazelcast.processor;
+
+import com.tapdata.entity.TapdataEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Processes the events of a batch of {@link HazelcastMergeNode} in partitions on worker threads
+ * <p>
+ * DML events are split by partition, each partition is processed in order by one worker, with its own merge caches as
+ * {@link #currentCaches()} of the worker. Other events are barriers: they are processed on the calling thread after the
+ * DML events before them are done. All results are offered on the calling thread in the order of the batch.
+ *
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+class MergeNodePartitioner {
+	private final List<Map<String, MergeNodeCache>> partitionCaches;
+	private final ExecutorService executor;
+	private final ThreadLocal<Map<String, MergeNodeCache>> currentCaches = new ThreadLocal<>();
+
+	/**
+	 * @param partitionCaches merge caches of each partition, the size is the count of partitions
+	 */
+	MergeNodePartitioner(List<Map<String, MergeNodeCache>> partitionCaches, ExecutorService executor) {
+		this.partitionCaches = partitionCaches;
+		this.executor = executor;
+	}
+
+	/**
+	 * @return merge caches of the partition processed by the current thread, null out of a partition
+	 */
+	Map<String, MergeNodeCache> currentCaches() {
+		return currentCaches.get();
+	}
+
+	/**
+	 * @param partitionOf partition of a DML event, from 0 to the count of partitions
+	 */
+	void process(List<TapdataEvent> events, ToIntFunction<TapdataEvent> partitionOf, Handler handler, Consumer<List<TapdataEvent>> offer) {
+		int from = 0;
+		for (int i = 0; i <= events.size(); i++) {
+			if (i < events.size() && events.get(i).isDML()) {
+				continue;
+			}
+			processPartitioned(events.subList(from, i), partitionOf, handler, offer);
+			if (i < events.size()) {
+				offer.accept(handler.process(events.get(i)));
+			}
+			from = i + 1;
+		}
+	}
+
+	private void processPartitioned(List<TapdataEvent> events, ToIntFunction<TapdataEvent> partitionOf, Handler handler, Consumer<List<TapdataEvent>> offer) {
+		if (events.isEmpty()) {
+			return;
+		}
+		int parallelism = partitionCaches.size();
+		List<List<TapdataEvent>> partitions = new ArrayList<>(parallelism);
+		List<List<Integer>> partitionIndexes = new ArrayList<>(parallelism);
+		for (int i = 0; i < parallelism; i++) {
+			partitions.add(new ArrayList<>());
+			partitionIndexes.add(new ArrayList<>());
+		}
+		for (int i = 0; i < events.size(); i++) {
+			int partition = partitionOf.applyAsInt(events.get(i));
+			partitions.get(partition).add(events.get(i));
+			partitionIndexes.get(partition).add(i);
+		}
+		List<TapdataEvent>[] results = new List[events.size()];
+		List<Future<?>> futures = new ArrayList<>(parallelism);
+		for (int i = 0; i < parallelism; i++) {
+			List<TapdataEvent> partitionEvents = partitions.get(i);
+			if (partitionEvents.isEmpty()) {
+				continue;
+			}
+			List<Integer> indexes = partitionIndexes.get(i);
+			Map<String, MergeNodeCache> mergeCaches = partitionCaches.get(i);
+			futures.add(executor.submit(() -> {
+				currentCaches.set(mergeCaches);
+				try {
+					handler.beginPartition(partitionEvents, mergeCaches);
+					for (int j = 0; j < partitionEvents.size(); j++) {
+						results[indexes.get(j)] = handler.process(partitionEvents.get(j));
+					}
+				} finally {
+					mergeCaches.values().forEach(MergeNodeCache::endBatch);
+					currentCaches.remove();
+					handler.endPartition();
+				}
+			}));
+		}
+		// wait for all partitions, so no result is offered after an error
+		Throwable error = null;
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				futures.forEach(f -> f.cancel(true));
+				throw new RuntimeException("Merge table node interrupted while waiting partitions", e);
+			} catch (ExecutionException e) {
+				if (null == error) {
+					error = e.getCause();
+				}
+			}
+		}
+		if (error instanceof RuntimeException) {
+			throw (RuntimeException) error;
+		} else if (null != error) {
+			throw new RuntimeException(error);
+		}
+		for (List<TapdataEvent> result : results) {
+			offer.accept(result);
+		}
+	}
+
+	interface Handler {
+		/**
+		 * Called by the worker before the events of its partition, e.g. to prefetch them into the merge caches
+		 */
+		void beginPartition(List<TapdataEvent> events, Map<String, MergeNodeCache> mergeCaches);
+
+		/**
+		 * @return events to offer for the event
+		 */
+		List<TapdataEvent> process(TapdataEvent event);
+
+		/**
+		 * Called by the worker after the events of its partition, even when one failed
+		 */
+		void endPartition();
+	}
+}
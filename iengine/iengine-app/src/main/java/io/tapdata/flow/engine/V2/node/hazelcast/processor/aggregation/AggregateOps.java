@@ -12,9 +12,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -46,8 +44,6 @@ public class AggregateOps {
 
     private final static int roundingMode = BigDecimal.ROUND_HALF_UP;
 
-    private final static int MAX_LENGTH = 1000;
-
     public static boolean count(String aggregatorName, ConstructIMap<BigDecimal> cache,
                                 WrapItem wrappedItem, boolean isMessageEntity) throws Exception {
         if (isMessageEntity) {
@@ -79,21 +75,21 @@ public class AggregateOps {
 
     }
 
-    public static boolean max(String aggregatorField, ConstructIMap<BigDecimal> cache, ConstructIMap<List<BigDecimal>> cacheList,
+    public static boolean max(String aggregatorField, ConstructIMap<BigDecimal> cache, SortedValueCounts valueCounts,
                               WrapItem wrappedItem, boolean isMessageEntity) throws Exception {
         if (isMessageEntity) {
-            return maxMessageEntity(aggregatorField, cache, cacheList, wrappedItem);
+            return maxMessageEntity(aggregatorField, cache, valueCounts, wrappedItem);
         } else {
-            return maxTapRecordEvent(aggregatorField, cache, cacheList, wrappedItem);
+            return maxTapRecordEvent(aggregatorField, cache, valueCounts, wrappedItem);
         }
     }
 
-    public static boolean min(String aggregatorField, ConstructIMap<BigDecimal> cache, ConstructIMap<List<BigDecimal>> cacheList,
+    public static boolean min(String aggregatorField, ConstructIMap<BigDecimal> cache, SortedValueCounts valueCounts,
                               WrapItem wrappedItem, boolean isMessageEntity) throws Exception {
         if (isMessageEntity) {
-            return minMessageEntity(aggregatorField, cache, cacheList, wrappedItem);
+            return minMessageEntity(aggregatorField, cache, valueCounts, wrappedItem);
         } else {
-            return minTapRecordEvent(aggregatorField, cache, cacheList, wrappedItem);
+            return minTapRecordEvent(aggregatorField, cache, valueCounts, wrappedItem);
         }
     }
 
@@ -566,302 +562,153 @@ public class AggregateOps {
         return true;
     }
 
-    private static boolean maxMessageEntity(String aggregatorField, ConstructIMap<BigDecimal> cache, ConstructIMap<List<BigDecimal>> cacheList,
+    private static boolean maxMessageEntity(String aggregatorField, ConstructIMap<BigDecimal> cache, SortedValueCounts valueCounts,
                                             WrapItem wrappedItem) throws Exception {
-        String cacheKey = wrappedItem.getCachedGroupByKey();
         MessageEntity messageEntity = (MessageEntity) wrappedItem.getMessage();
-        final OperationType operationType = OperationType.fromOp(messageEntity.getOp());
-
-        BigDecimal fieldValue = preProcessField(messageEntity, aggregatorField);
-        BigDecimal changedCount = wrappedItem.getChangedCount();
-        // 累计的行数
-        BigDecimal groupedRecordCount = updateCounter(cache, cacheKey, messageEntity, changedCount);
-
-        if (cacheList.exists(cacheKey)) {
-            List<BigDecimal> groupedMaxList = cacheList.find(cacheKey);
-            if (groupedMaxList.contains(fieldValue)) {
-                if (operationType == OperationType.DELETE) {
-                    groupedMaxList.remove(fieldValue);
-                } else if (operationType == OperationType.INSERT || operationType == OperationType.UPDATE) {
-                    logger.debug("cacheList already contains this value:" + fieldValue + " do not need to insert");
-                } else {
-                    throw new RuntimeException("unimplement code");
-                }
-            } else {
-                if (operationType == OperationType.DELETE) {
-                    logger.debug("cacheList didn't contains this value:" + fieldValue + " can not delete");
-                } else if (operationType == OperationType.INSERT) {
-                    groupedMaxList = doInsertAndCut(groupedMaxList, fieldValue, new MaxComparator(), changedCount);
-                } else {
-                    if (changedCount == null || changedCount.compareTo(BigDecimal.ZERO) <= 0) {
-                        throw new RuntimeException("unimplement code");
-                    } else {
-                        groupedMaxList = doInsertAndCut(groupedMaxList, fieldValue, new MaxComparator(), changedCount);
-                    }
-                }
-            }
-            if (groupedMaxList.size() > 0) {
-                cacheList.update(cacheKey, groupedMaxList);
-            } else {
-                cacheList.delete(cacheKey);
-            }
-            postProcessMax(messageEntity, groupedMaxList);
-        } else {
-            if (operationType == OperationType.INSERT) {
-                ArrayList<BigDecimal> groupedMaxList = new ArrayList<>(1);
-                groupedMaxList.add(fieldValue);
-                cacheList.insert(cacheKey, groupedMaxList);
-                postProcessMax(messageEntity, groupedMaxList);
-            } else {
-                throw new RuntimeException("unexpect logic");
-            }
-        }
+        BigDecimal groupedRecordCount = updateValueCounts(aggregatorField, cache, valueCounts, messageEntity, wrappedItem);
+        postProcessMax(messageEntity, valueCounts.max(wrappedItem.getCachedGroupByKey()));
 
         wrappedItem.setCachedRollingAggregateCounter(groupedRecordCount);
         wrappedItem.setCachedGroupByKey(null);
         return true;
-
     }
 
-    private static boolean maxTapRecordEvent(String aggregatorField, ConstructIMap<BigDecimal> cache, ConstructIMap<List<BigDecimal>> cacheList, WrapItem wrappedItem) throws Exception {
-        String cacheKey = wrappedItem.getCachedGroupByKey();
+    private static boolean maxTapRecordEvent(String aggregatorField, ConstructIMap<BigDecimal> cache, SortedValueCounts valueCounts, WrapItem wrappedItem) throws Exception {
         TapRecordEvent tapRecordEvent = (TapRecordEvent) wrappedItem.getMessage();
-
-        BigDecimal fieldValue = preProcessField(tapRecordEvent, aggregatorField);
-
-        // 累计的行数
-        BigDecimal groupedRecordCount = updateCounter(cache, cacheKey, tapRecordEvent, wrappedItem.getChangedCount());
-        BigDecimal changedCount = wrappedItem.getChangedCount();
-        if (cacheList.exists(cacheKey)) {
-            List<BigDecimal> groupedMaxList = cacheList.find(cacheKey);
-            groupedMaxList.sort(new MaxComparator());
-            if (groupedMaxList.contains(fieldValue)) {
-                if (tapRecordEvent instanceof TapDeleteRecordEvent) {
-                    groupedMaxList.remove(fieldValue);
-                } else if (tapRecordEvent instanceof TapInsertRecordEvent) {
-                    logger.debug("cacheList already contains this value:" + fieldValue + " do not need to insert");
-                } else {
-                    if (changedCount.compareTo(BigDecimal.ZERO) < 0) {
-                        groupedMaxList.remove(fieldValue);
-                    } else if (changedCount.compareTo(BigDecimal.ZERO) > 0) {
-                        logger.debug("cacheList already contains this value:" + fieldValue + " do not need to insert");
-                    } else {
-                        throw new RuntimeException("unimplement code");
-                    }
-                }
-            } else {
-                if (tapRecordEvent instanceof TapDeleteRecordEvent) {
-                    logger.debug("cacheList didn't contains this value:" + fieldValue + " can not delete");
-                } else if (tapRecordEvent instanceof TapInsertRecordEvent) {
-                    groupedMaxList = doInsertAndCut(groupedMaxList, fieldValue, new MaxComparator(), changedCount);
-                } else {
-                    if (changedCount == null || changedCount.compareTo(BigDecimal.ZERO) <= 0) {
-                        throw new RuntimeException("unimplement code");
-                    } else {
-                        groupedMaxList = doInsertAndCut(groupedMaxList, fieldValue, new MaxComparator(), changedCount);
-                    }
-                }
-            }
-            if (groupedMaxList.size() > 0) {
-                cacheList.update(cacheKey, groupedMaxList);
-            } else {
-                cacheList.delete(cacheKey);
-            }
-            postProcessMax(tapRecordEvent, groupedMaxList);
-        } else {
-            if (tapRecordEvent instanceof TapInsertRecordEvent) {
-                ArrayList<BigDecimal> groupedMaxList = new ArrayList<>(1);
-                groupedMaxList.add(fieldValue);
-                cacheList.insert(cacheKey, groupedMaxList);
-                postProcessMax(tapRecordEvent, groupedMaxList);
-            } else {
-                throw new RuntimeException("unexpect logic");
-            }
-        }
+        BigDecimal groupedRecordCount = updateValueCounts(aggregatorField, cache, valueCounts, tapRecordEvent, wrappedItem);
+        postProcessMax(tapRecordEvent, valueCounts.max(wrappedItem.getCachedGroupByKey()));
 
         wrappedItem.setCachedRollingAggregateCounter(groupedRecordCount);
         wrappedItem.setCachedGroupByKey(null);
         return true;
     }
 
-    private static void postProcessMax(MessageEntity messageEntity, List<BigDecimal> groupedMaxList) {
-        if (messageEntity != null) {
-            if (messageEntity.getBefore() != null && groupedMaxList.size() > 0) {
-                messageEntity.getBefore().put(MAX, groupedMaxList.get(0));
-            }
-            if (messageEntity.getAfter() != null && groupedMaxList.size() > 0) {
-                messageEntity.getAfter().put(MAX, groupedMaxList.get(0));
-            }
-        }
-    }
+    private static boolean minMessageEntity(String aggregatorField, ConstructIMap<BigDecimal> cache, SortedValueCounts valueCounts,
+                                            WrapItem wrappedItem) throws Exception {
+        MessageEntity messageEntity = (MessageEntity) wrappedItem.getMessage();
+        BigDecimal groupedRecordCount = updateValueCounts(aggregatorField, cache, valueCounts, messageEntity, wrappedItem);
+        postProcessMin(messageEntity, valueCounts.min(wrappedItem.getCachedGroupByKey()));
 
-    private static void postProcessMax(TapRecordEvent tapRecordEvent, List<BigDecimal> groupedMaxList) {
-        if (tapRecordEvent != null) {
-            final String maxStr = groupedMaxList.size() > 0 ? groupedMaxList.get(0).toPlainString() : null;
-            Map<String, Object> before = TapEventUtil.getBefore(tapRecordEvent);
-            if (before != null && groupedMaxList.size() > 0) {
-                before.put(MAX, maxStr);
-            }
-            Map<String, Object> after = TapEventUtil.getAfter(tapRecordEvent);
-            if (after != null && groupedMaxList.size() > 0) {
-                after.put(MAX, maxStr);
-            }
-        }
+        wrappedItem.setCachedRollingAggregateCounter(groupedRecordCount);
+        wrappedItem.setCachedGroupByKey(null);
+        return true;
     }
 
-    private static List<BigDecimal> doInsertAndCut(List<BigDecimal> groupedMaxList, BigDecimal fieldValue, Comparator comparator, BigDecimal changedCount) {
-        if (changedCount != null) {
-            groupedMaxList.add(fieldValue);
-        }
-        groupedMaxList.sort(comparator);
-        if (groupedMaxList.size() > MAX_LENGTH) {
-            return new ArrayList(groupedMaxList.subList(0, MAX_LENGTH));
-        } else {
-            return groupedMaxList;
-        }
+    private static boolean minTapRecordEvent(String aggregatorField, ConstructIMap<BigDecimal> cache, SortedValueCounts valueCounts, WrapItem wrappedItem) throws Exception {
+        TapRecordEvent tapRecordEvent = (TapRecordEvent) wrappedItem.getMessage();
+        BigDecimal groupedRecordCount = updateValueCounts(aggregatorField, cache, valueCounts, tapRecordEvent, wrappedItem);
+        postProcessMin(tapRecordEvent, valueCounts.min(wrappedItem.getCachedGroupByKey()));
+
+        wrappedItem.setCachedRollingAggregateCounter(groupedRecordCount);
+        wrappedItem.setCachedGroupByKey(null);
+        return true;
     }
 
-    private static boolean minMessageEntity(String aggregatorField, ConstructIMap<BigDecimal> cache, ConstructIMap<List<BigDecimal>> cacheList,
-                                            WrapItem wrappedItem) throws Exception {
+    /**
+     * 更新分组的值计数，MAX和MIN共用
+     * 从source传过来的update都是插入到已有分组的值，所以按insert处理
+     *
+     * @return 累计的行数
+     */
+    private static BigDecimal updateValueCounts(String aggregatorField, ConstructIMap<BigDecimal> cache, SortedValueCounts valueCounts,
+                                                MessageEntity messageEntity, WrapItem wrappedItem) throws Exception {
         String cacheKey = wrappedItem.getCachedGroupByKey();
-        MessageEntity messageEntity = (MessageEntity) wrappedItem.getMessage();
         final OperationType operationType = OperationType.fromOp(messageEntity.getOp());
-
         BigDecimal fieldValue = preProcessField(messageEntity, aggregatorField);
-
-        // 累计的行数
-        BigDecimal groupedRecordCount = updateCounter(cache, cacheKey, messageEntity, wrappedItem.getChangedCount());
         BigDecimal changedCount = wrappedItem.getChangedCount();
-        if (cacheList.exists(cacheKey)) {
-            List<BigDecimal> groupedMinList = cacheList.find(cacheKey);
-            if (groupedMinList.contains(fieldValue)) {
-                if (operationType == OperationType.DELETE) {
-                    groupedMinList.remove(fieldValue);
-                } else if (operationType == OperationType.INSERT) {
-                    logger.debug("cacheList already contains this value:" + fieldValue + " do not need to insert");
-                } else {
-                    if (changedCount.compareTo(BigDecimal.ZERO) < 0) {
-                        groupedMinList.remove(fieldValue);
-                    } else {
-                        throw new RuntimeException("unimplement code");
-                    }
-                }
-            } else {
-                if (operationType == OperationType.DELETE) {
-                    logger.debug("cacheList didn't contains this value:" + fieldValue + " can not delete");
-                } else if (operationType == OperationType.INSERT) {
-                    groupedMinList = doInsertAndCut(groupedMinList, fieldValue, new MinComparator(), changedCount);
-                } else {
-                    if (changedCount == null || changedCount.compareTo(BigDecimal.ZERO) <= 0) {
-                        throw new RuntimeException("unimplement code");
-                    } else {
-                        groupedMinList = doInsertAndCut(groupedMinList, fieldValue, new MinComparator(), changedCount);
-                    }
-                }
-            }
-            if (groupedMinList.size() > 0) {
-                cacheList.update(cacheKey, groupedMinList);
+        BigDecimal groupedRecordCount = updateCounter(cache, cacheKey, messageEntity, changedCount);
+
+        if (operationType == OperationType.DELETE) {
+            retractValue(valueCounts, cacheKey, fieldValue);
+        } else if (operationType == OperationType.INSERT) {
+            valueCounts.add(cacheKey, fieldValue);
+        } else if (operationType == OperationType.UPDATE) {
+            if (changedCount != null && changedCount.compareTo(BigDecimal.ZERO) < 0) {
+                retractValue(valueCounts, cacheKey, fieldValue);
             } else {
-                cacheList.delete(cacheKey);
+                valueCounts.add(cacheKey, fieldValue);
             }
-            postProcessMin(messageEntity, groupedMinList);
         } else {
-            if (operationType == OperationType.INSERT) {
-                ArrayList<BigDecimal> groupedMinList = new ArrayList<>(1);
-                groupedMinList.add(fieldValue);
-                cacheList.insert(cacheKey, groupedMinList);
-                postProcessMin(messageEntity, groupedMinList);
-            } else {
-                throw new RuntimeException("unexpect logic");
-            }
+            throw new RuntimeException("unimplement code");
         }
-
-        wrappedItem.setCachedRollingAggregateCounter(groupedRecordCount);
-        wrappedItem.setCachedGroupByKey(null);
-        return true;
+        return groupedRecordCount;
     }
 
-    private static boolean minTapRecordEvent(String aggregatorField, ConstructIMap<BigDecimal> cache, ConstructIMap<List<BigDecimal>> cacheList, WrapItem wrappedItem) throws Exception {
+    /**
+     * 更新分组的值计数，MAX和MIN共用
+     * 值的增减和行数的增减一致，见{@link #preProcessCount(OperationType, BigDecimal)}
+     *
+     * @return 累计的行数
+     */
+    private static BigDecimal updateValueCounts(String aggregatorField, ConstructIMap<BigDecimal> cache, SortedValueCounts valueCounts,
+                                                TapRecordEvent tapRecordEvent, WrapItem wrappedItem) throws Exception {
         String cacheKey = wrappedItem.getCachedGroupByKey();
-        TapRecordEvent tapRecordEvent = (TapRecordEvent) wrappedItem.getMessage();
-
         BigDecimal fieldValue = preProcessField(tapRecordEvent, aggregatorField);
-
-        // 累计的行数
-        BigDecimal groupedRecordCount = updateCounter(cache, cacheKey, tapRecordEvent, wrappedItem.getChangedCount());
         BigDecimal changedCount = wrappedItem.getChangedCount();
-        if (cacheList.exists(cacheKey)) {
-            List<BigDecimal> groupedMinList = cacheList.find(cacheKey);
-            groupedMinList.sort(new MinComparator());
-            if (groupedMinList.contains(fieldValue)) {
-                if (tapRecordEvent instanceof TapDeleteRecordEvent) {
-                    groupedMinList.remove(fieldValue);
-                } else if (tapRecordEvent instanceof TapInsertRecordEvent) {
-                    logger.debug("cacheList already contains this value:" + fieldValue + " do not need to insert");
-                } else {
-                    if (changedCount.compareTo(BigDecimal.ZERO) < 0) {
-                        groupedMinList.remove(fieldValue);
-                    } else if (changedCount.compareTo(BigDecimal.ZERO) > 0) {
-                        logger.debug("cacheList already contains this value:" + fieldValue + " do not need to insert");
-                    } else {
-                        throw new RuntimeException("unimplement code");
-                    }
-                }
-            } else {
-                if (tapRecordEvent instanceof TapDeleteRecordEvent) {
-                    logger.debug("cacheList didn't contains this value:" + fieldValue + " can not delete");
-                } else if (tapRecordEvent instanceof TapInsertRecordEvent) {
-                    groupedMinList = doInsertAndCut(groupedMinList, fieldValue, new MinComparator(), changedCount);
-                } else {
-                    if (changedCount == null || changedCount.compareTo(BigDecimal.ZERO) <= 0) {
-                        throw new RuntimeException("unimplement code");
-                    } else {
-                        groupedMinList = doInsertAndCut(groupedMinList, fieldValue, new MinComparator(), changedCount);
-                    }
-                }
-            }
-            if (groupedMinList.size() > 0) {
-                cacheList.update(cacheKey, groupedMinList);
-            } else {
-                cacheList.delete(cacheKey);
+        BigDecimal groupedRecordCount = updateCounter(cache, cacheKey, tapRecordEvent, changedCount);
+
+        int change = preProcessCount(OperationType.fromOp(TapEventUtil.getOp(tapRecordEvent)), changedCount).signum();
+        if (change > 0) {
+            valueCounts.add(cacheKey, fieldValue);
+        } else if (change < 0) {
+            retractValue(valueCounts, cacheKey, fieldValue);
+        } else if (tapRecordEvent instanceof TapUpdateRecordEvent && changedCount != null) {
+            throw new RuntimeException("unimplement code");
+        }
+        return groupedRecordCount;
+    }
+
+    private static void retractValue(SortedValueCounts valueCounts, String cacheKey, BigDecimal fieldValue) throws Exception {
+        if (!valueCounts.remove(cacheKey, fieldValue) && fieldValue != null) {
+            logger.debug("value counts didn't contains this value:" + fieldValue + " can not delete");
+        }
+    }
+
+    private static void postProcessMax(MessageEntity messageEntity, BigDecimal max) {
+        if (messageEntity != null && max != null) {
+            if (messageEntity.getBefore() != null) {
+                messageEntity.getBefore().put(MAX, max);
             }
-            postProcessMin(tapRecordEvent, groupedMinList);
-        } else {
-            if (tapRecordEvent instanceof TapInsertRecordEvent) {
-                ArrayList<BigDecimal> groupedMinList = new ArrayList<>(1);
-                groupedMinList.add(fieldValue);
-                cacheList.insert(cacheKey, groupedMinList);
-                postProcessMin(tapRecordEvent, groupedMinList);
-            } else {
-                throw new RuntimeException("unexpect logic");
+            if (messageEntity.getAfter() != null) {
+                messageEntity.getAfter().put(MAX, max);
             }
         }
+    }
 
-        wrappedItem.setCachedRollingAggregateCounter(groupedRecordCount);
-        wrappedItem.setCachedGroupByKey(null);
-        return true;
+    private static void postProcessMax(TapRecordEvent tapRecordEvent, BigDecimal max) {
+        if (tapRecordEvent != null && max != null) {
+            final String maxStr = max.toPlainString();
+            Map<String, Object> before = TapEventUtil.getBefore(tapRecordEvent);
+            if (before != null) {
+                before.put(MAX, maxStr);
+            }
+            Map<String, Object> after = TapEventUtil.getAfter(tapRecordEvent);
+            if (after != null) {
+                after.put(MAX, maxStr);
+            }
+        }
     }
 
-    private static void postProcessMin(MessageEntity messageEntity, List<BigDecimal> groupedMinList) {
-        if (messageEntity != null) {
-            if (messageEntity.getBefore() != null && groupedMinList.size() > 0) {
-                messageEntity.getBefore().put(MIN, groupedMinList.get(0));
+    private static void postProcessMin(MessageEntity messageEntity, BigDecimal min) {
+        if (messageEntity != null && min != null) {
+            if (messageEntity.getBefore() != null) {
+                messageEntity.getBefore().put(MIN, min);
             }
-            if (messageEntity.getAfter() != null && groupedMinList.size() > 0) {
-                messageEntity.getAfter().put(MIN, groupedMinList.get(0));
+            if (messageEntity.getAfter() != null) {
+                messageEntity.getAfter().put(MIN, min);
             }
         }
     }
 
-    private static void postProcessMin(TapRecordEvent tapRecordEvent, List<BigDecimal> groupedMinList) {
-        if (tapRecordEvent != null) {
+    private static void postProcessMin(TapRecordEvent tapRecordEvent, BigDecimal min) {
+        if (tapRecordEvent != null && min != null) {
+            final String minStr = min.toPlainString();
             Map<String, Object> before = TapEventUtil.getBefore(tapRecordEvent);
-            final String minStr = groupedMinList.size() > 0 ? groupedMinList.get(0).toPlainString() : null;
-            if (before != null && groupedMinList.size() > 0) {
+            if (before != null) {
                 before.put(MIN, minStr);
             }
             Map<String, Object> after = TapEventUtil.getAfter(tapRecordEvent);
-            if (after != null && groupedMinList.size() > 0) {
+            if (after != null) {
                 after.put(MIN, minStr);
             }
         }
@@ -2,6 +2,7 @@ package io.tapdata.flow.engine.V2.node.hazelcast.processor.aggregation;
 
 import com.google.common.collect.Lists;
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.jet.core.Inbox;
 import com.tapdata.constant.MapUtil;
 import com.tapdata.entity.MessageEntity;
 import com.tapdata.entity.OperationType;
@@ -13,6 +14,7 @@ import com.tapdata.tm.commons.dag.process.AggregationProcessorNode;
 import com.tapdata.tm.commons.task.dto.Aggregation;
 import io.tapdata.constructImpl.ConstructIMap;
 import io.tapdata.constructImpl.DocumentIMap;
+import io.tapdata.constructImpl.RowBucketIMap;
 import io.tapdata.entity.event.dml.TapDeleteRecordEvent;
 import io.tapdata.entity.event.dml.TapInsertRecordEvent;
 import io.tapdata.entity.event.dml.TapRecordEvent;
@@ -22,6 +24,7 @@ import io.tapdata.entity.utils.InstanceFactory;
 import io.tapdata.entity.utils.TapUtils;
 import io.tapdata.flow.engine.V2.node.hazelcast.HazelcastBaseNode;
 import io.tapdata.flow.engine.V2.util.TapEventUtil;
+import io.tapdata.pdk.core.utils.CommonUtils;
 import io.tapdata.schema.TapTableMap;
 import lombok.Getter;
 import lombok.Setter;
@@ -43,6 +46,28 @@ public class HazelcastMultiAggregatorProcessor extends HazelcastBaseNode {
 
     private final Logger logger = LogManager.getLogger(HazelcastMultiAggregatorProcessor.class);
 
+    /**
+     * Write aggregation cache values by {@link io.tapdata.constructImpl.CompactValueCodec}, values written before are
+     * readable either way. Opt-in, versions before the codec can not read the values written compact, so a task run
+     * with it can not be rolled back without clearing its cache.
+     */
+    private static final String AGGREGATOR_CACHE_COMPACT = "AGGREGATOR_CACHE_COMPACT";
+
+    /**
+     * Count of groups whose MAX/MIN values are kept sorted in memory
+     */
+    private static final String AGGREGATOR_VALUE_GROUP_CACHE_SIZE = "AGGREGATOR_VALUE_GROUP_CACHE_SIZE";
+
+    /**
+     * Count of the lowest and of the highest values of a cached group kept in memory, see {@link SortedValueCounts}
+     */
+    private static final String AGGREGATOR_VALUE_WINDOW_SIZE = "AGGREGATOR_VALUE_WINDOW_SIZE";
+
+    /**
+     * Aggregate the record events of an inbox batch by group before updating the cache, see {@link PreAggregateBuffer}
+     */
+    private static final String AGGREGATOR_PRE_AGGREGATE = "AGGREGATOR_PRE_AGGREGATE";
+
     private final List<Aggregator> aggregators = new ArrayList<>();
 
     private final Queue<Object> eventQueue = new LinkedList<>();
@@ -53,7 +78,7 @@ public class HazelcastMultiAggregatorProcessor extends HazelcastBaseNode {
 
     private volatile ConstructIMap<BigDecimal> cacheNumbers;
 
-    private volatile ConstructIMap<List<BigDecimal>> cacheList;
+    private volatile SortedValueCounts valueCounts;
 
     private final List<String> targetFieldsName = new ArrayList<>();
 
@@ -61,6 +86,8 @@ public class HazelcastMultiAggregatorProcessor extends HazelcastBaseNode {
 
     private TapValueTransform tapValueTransform;
 
+    private PreAggregateBuffer preAggregateBuffer;
+
     public HazelcastMultiAggregatorProcessor(ProcessorBaseContext processorBaseContext) {
         super(processorBaseContext);
         Node<?> node = processorBaseContext.getNode();
@@ -73,16 +100,38 @@ public class HazelcastMultiAggregatorProcessor extends HazelcastBaseNode {
         rules = aggNode.getAggregations();
     }
 
+    /**
+     * Values of the input events are converted from TapValue in place before they are aggregated
+     */
+    @Override
+    protected boolean mutateInputEvent() {
+        return true;
+    }
+
     private void initCache(String nodeId, HazelcastInstance hazelcastInstance) {
+        boolean compact = CommonUtils.getPropertyBool(AGGREGATOR_CACHE_COMPACT, false);
         cacheNumbers = new DocumentIMap<>(hazelcastInstance,
-                nodeId + "-" + "AggregatorCache");
-        cacheList = new DocumentIMap<>(hazelcastInstance,
-                nodeId + "-" + "AggregatorCacheList");
+                nodeId + "-" + "AggregatorCache", compact);
+        valueCounts = new SortedValueCounts(new RowBucketIMap<>(hazelcastInstance, nodeId + "-" + "AggregatorValueCounts"),
+                CommonUtils.getPropertyInt(AGGREGATOR_VALUE_GROUP_CACHE_SIZE, 1000),
+                CommonUtils.getPropertyInt(AGGREGATOR_VALUE_WINDOW_SIZE, SortedValueCounts.DEFAULT_WINDOW_SIZE));
+        // MAX/MIN values were kept as capped lists before
+        ConstructIMap<List<BigDecimal>> cacheList = new DocumentIMap<>(hazelcastInstance,
+                nodeId + "-" + "AggregatorCacheList", compact);
+        try {
+            int migrated = valueCounts.migrateFrom(cacheList);
+            if (migrated > 0) {
+                logger.info("migrated {} groups of aggregate cache list to value counts, nodeId: {}", migrated, nodeId);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Migrate aggregate cache list failed, name: " + cacheList.getName() + ", error: " + e.getMessage(), e);
+        }
     }
 
     public static void clearCache(String nodeId, HazelcastInstance hazelcastInstance) {
         ConstructIMap<BigDecimal> cacheNumbers = new ConstructIMap<>(hazelcastInstance, nodeId + "-" + "AggregatorCache");
         ConstructIMap<ArrayList<BigDecimal>> cacheList = new ConstructIMap<>(hazelcastInstance, nodeId + "-" + "AggregatorCacheList");
+        RowBucketIMap<Long> valueCounts = new RowBucketIMap<>(hazelcastInstance, nodeId + "-" + "AggregatorValueCounts");
 
         try {
             cacheNumbers.clear();
@@ -94,6 +143,11 @@ public class HazelcastMultiAggregatorProcessor extends HazelcastBaseNode {
         } catch (Exception e) {
             throw new RuntimeException("Clear aggregate cache list failed, name: " + cacheList.getName() + "(" + cacheList.getType() + "), error: " + e.getMessage(), e);
         }
+        try {
+            valueCounts.clear();
+        } catch (Exception e) {
+            throw new RuntimeException("Clear aggregate value counts failed, name: " + valueCounts.getName() + "(" + valueCounts.getType() + "), error: " + e.getMessage(), e);
+        }
     }
 
     /***
@@ -139,6 +193,7 @@ public class HazelcastMultiAggregatorProcessor extends HazelcastBaseNode {
             for (Aggregator aggregator : aggregators) {
                 aggregator.init();
             }
+            initPreAggregate();
         } else {
             logger.warn("Aggregation DAG config error.");
         }
@@ -152,6 +207,85 @@ public class HazelcastMultiAggregatorProcessor extends HazelcastBaseNode {
         logger.info("close aggregator, nodeId: {}", nodeId);
     }
 
+    /**
+     * Only a single SUM, COUNT or AVG aggregation is pre-aggregated, its results do not depend on the order of events
+     * in a batch
+     */
+    private void initPreAggregate() {
+        if (!CommonUtils.getPropertyBool(AGGREGATOR_PRE_AGGREGATE, true) || aggregators.size() != 1) {
+            return;
+        }
+        Aggregator aggregator = aggregators.get(0);
+        Aggregation rule = aggregator.getRule();
+        if (!PreAggregateBuffer.supports(rule.getAggFunction()) || null == aggregator.getGroupbyList()) {
+            return;
+        }
+        preAggregateBuffer = new PreAggregateBuffer(rule.getAggFunction(), rule.getAggExpression(), aggregator.getGroupbyList(),
+                data -> aggregator.concatGroupByKeys(data, aggregator.getGroupbyList()), cacheNumbers);
+        logger.info("pre-aggregate inbox batches of aggregator processor, nodeId: {}", nodeId);
+    }
+
+    @Override
+    public void process(int ordinal, @NotNull Inbox inbox) {
+        if (null == preAggregateBuffer || inbox.isEmpty()) {
+            super.process(ordinal, inbox);
+            return;
+        }
+        List<Object> items = new ArrayList<>(inbox.size());
+        inbox.drainTo(items);
+        // an event transformed from TapValue but not folded, aggregated by itself next
+        Map<Object, TapValueTransform> unfolded = new IdentityHashMap<>();
+        PreAggregateBuffer.foldBatch(items, item -> {
+            if (!(item instanceof TapdataEvent) || !((TapdataEvent) item).isDML()) {
+                return false;
+            }
+            TapdataEvent tapdataEvent = (TapdataEvent) item;
+            ownInputEvent(tapdataEvent);
+            TapValueTransform transform = transformFromTapValue(tapdataEvent);
+            if (preAggregateBuffer.fold(tapdataEvent, transform)) {
+                return true;
+            }
+            unfolded.put(item, transform);
+            return false;
+        }, this::flushPreAggregate, item -> {
+            TapValueTransform transform = unfolded.remove(item);
+            if (null == transform) {
+                tryProcess(ordinal, item);
+            } else {
+                tapValueTransform = transform;
+                aggregate((TapdataEvent) item);
+            }
+        });
+    }
+
+    private void flushPreAggregate() {
+        if (preAggregateBuffer.isEmpty()) {
+            return;
+        }
+        List<PreAggregateBuffer.Result> results;
+        try {
+            results = preAggregateBuffer.flush();
+        } catch (Exception e) {
+            throw new RuntimeException("Apply pre-aggregated changes to aggregate cache failed, name: " + cacheNumbers.getName() + ", error: " + e.getMessage(), e);
+        }
+        for (PreAggregateBuffer.Result result : results) {
+            TapdataEvent event = result.getTapdataEvent();
+            TapRecordEvent tapRecordEvent = (TapRecordEvent) event.getTapEvent();
+            filterTargetFields(TapEventUtil.getBefore(tapRecordEvent));
+            filterTargetFields(TapEventUtil.getAfter(tapRecordEvent));
+            transformToTapValue(event, processorBaseContext.getTapTableMap(), processorBaseContext.getNode().getId(), result.getTapValueTransform());
+            while (isRunning()) {
+                if (offer(event)) break;
+            }
+        }
+    }
+
+    private void filterTargetFields(Map<String, Object> data) {
+        if (data != null) {
+            data.keySet().removeIf(key -> !targetFieldsName.contains(key));
+        }
+    }
+
     @Override
     protected boolean tryProcess(int ordinal, @NotNull Object item) {
         logger.info("try process aggregator, nodeId: {}", nodeId);
@@ -168,6 +302,7 @@ public class HazelcastMultiAggregatorProcessor extends HazelcastBaseNode {
         TapdataEvent tapdataEvent;
         if (item instanceof TapdataEvent) {
             tapdataEvent = (TapdataEvent) item;
+            ownInputEvent(tapdataEvent);
         } else {
             return true;
         }
@@ -178,6 +313,11 @@ public class HazelcastMultiAggregatorProcessor extends HazelcastBaseNode {
             return true;
         }
         tapValueTransform = transformFromTapValue(tapdataEvent);
+        aggregate(tapdataEvent);
+        return true;
+    }
+
+    private void aggregate(TapdataEvent tapdataEvent) {
         if (tapdataEvent.getTapEvent() instanceof TapRecordEvent) {
             originalTapRecordEvent = (TapRecordEvent) tapdataEvent.getTapEvent();
         }
@@ -198,7 +338,6 @@ public class HazelcastMultiAggregatorProcessor extends HazelcastBaseNode {
                 }
             }
         }
-        return true;
     }
 
     public abstract static class AggregatorProcessorBase {
@@ -867,14 +1006,14 @@ public class HazelcastMultiAggregatorProcessor extends HazelcastBaseNode {
                                 }
                             case "MAX":
                                 if (wrappedItem.isEvent()) {
-                                    boolean rs = AggregateOps.max(aggregatorField, cacheNumbers, cacheList, wrappedItem, wrappedItem.isMessageEntity());
+                                    boolean rs = AggregateOps.max(aggregatorField, cacheNumbers, valueCounts, wrappedItem, wrappedItem.isMessageEntity());
                                     return rs ? Lists.newArrayList(wrappedItem) : Collections.emptyList();
                                 } else {
                                     throw new RuntimeException("Unimplemented type: " + event.getClass().getSimpleName());
                                 }
                             case "MIN":
                                 if (wrappedItem.isEvent()) {
-                                    boolean rs = AggregateOps.min(aggregatorField, cacheNumbers, cacheList, wrappedItem, wrappedItem.isMessageEntity());
+                                    boolean rs = AggregateOps.min(aggregatorField, cacheNumbers, valueCounts, wrappedItem, wrappedItem.isMessageEntity());
                                     return rs ? Lists.newArrayList(wrappedItem) : Collections.emptyList();
                                 } else {
                                     throw new RuntimeException("Unimplemented type");
@@ -1058,7 +1197,7 @@ public class HazelcastMultiAggregatorProcessor extends HazelcastBaseNode {
             if ("COUNT".equalsIgnoreCase(aggregatorOp) || "SUM".equalsIgnoreCase(aggregatorOp) || "AVG".equalsIgnoreCase(aggregatorOp)) {
                 return cacheNumbers.exists(cacheKey);
             } else {
-                return cacheList.exists(cacheKey);
+                return valueCounts.exists(cacheKey);
             }
         }
 
@@ -1088,8 +1227,10 @@ public class HazelcastMultiAggregatorProcessor extends HazelcastBaseNode {
             if (!checkCacheKeyIfExist(cacheKey, ops)) {
                 return null;
             }
-            if ("MAX".equalsIgnoreCase(ops) || "MIN".equalsIgnoreCase(ops)) {
-                return cacheList.find(cacheKey).get(0);
+            if ("MAX".equalsIgnoreCase(ops)) {
+                return valueCounts.max(cacheKey);
+            } else if ("MIN".equalsIgnoreCase(ops)) {
+                return valueCounts.min(cacheKey);
             } else {
                 return cacheNumbers.find(cacheKey);
             }
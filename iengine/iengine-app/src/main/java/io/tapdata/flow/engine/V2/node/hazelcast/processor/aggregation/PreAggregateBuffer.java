@@ -0,0 +1,329 @@
+package io.tapdata.flow.engine.V2.node.hazelcast.processor.aggregation;
+
+import com.tapdata.entity.TapdataEvent;
+import io.tapdata.constructImpl.ConstructIMap;
+import io.tapdata.entity.event.dml.TapDeleteRecordEvent;
+import io.tapdata.entity.event.dml.TapInsertRecordEvent;
+import io.tapdata.entity.event.dml.TapRecordEvent;
+import io.tapdata.entity.event.dml.TapUpdateRecordEvent;
+import io.tapdata.flow.engine.V2.node.hazelcast.HazelcastBaseNode.TapValueTransform;
+import io.tapdata.flow.engine.V2.util.TapEventUtil;
+import org.apache.commons.collections4.MapUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Folds the record events of a batch into one change per group for a SUM, COUNT or AVG aggregation, then applies the
+ * changes to the aggregation cache by one getAll and one putAll, instead of a few reads and writes per event
+ * <p>
+ * Counts and integral sums are accumulated as long, other sums as BigDecimal. The cache layout is the one of
+ * {@link AggregateOps}: the value by group key, and for SUM and AVG the row count by group key + "#counter".
+ * <p>
+ * Each group emits one result carried by the input event of its last change, and results are emitted in order of those
+ * last changes. The last result is then carried by the last event of the batch, so the offset stored by the target
+ * after the batch is the one of its last event, as when events are aggregated one by one. Only used by the processor
+ * thread.
+ *
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class PreAggregateBuffer {
+
+    private final static String SUM = "SUM";
+
+    private final static String AVG = "AVG";
+
+    private final static String COUNT = "COUNT";
+
+    private final static String COUNTER_SUFFIX = "#counter";
+
+    private final static int scale = 4;
+
+    private final static int roundingMode = BigDecimal.ROUND_HALF_UP;
+
+    private final String aggregatorOp;
+
+    private final String aggregatorField;
+
+    private final List<String> groupByFields;
+
+    private final Function<Map<String, Object>, String> groupKeyFunction;
+
+    private final ConstructIMap<BigDecimal> cache;
+
+    /**
+     * Changes of the batch by group key
+     */
+    private final Map<String, GroupDelta> deltas = new LinkedHashMap<>();
+
+    /**
+     * Position of the last folded event in the batch
+     */
+    private long position;
+
+    public PreAggregateBuffer(String aggregatorOp, String aggregatorField, List<String> groupByFields,
+                              Function<Map<String, Object>, String> groupKeyFunction, ConstructIMap<BigDecimal> cache) {
+        this.aggregatorOp = aggregatorOp.toUpperCase();
+        this.aggregatorField = aggregatorField;
+        this.groupByFields = groupByFields;
+        this.groupKeyFunction = groupKeyFunction;
+        this.cache = cache;
+    }
+
+    public static boolean supports(String aggregatorOp) {
+        return COUNT.equalsIgnoreCase(aggregatorOp) || SUM.equalsIgnoreCase(aggregatorOp) || AVG.equalsIgnoreCase(aggregatorOp);
+    }
+
+    public boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+
+    /**
+     * Fold the items of an inbox batch in order. An item which can not be folded is handed to {@code single} after the
+     * changes folded before it are flushed, so the output keeps the order of the input.
+     *
+     * @param fold   folds an item, false when it can not be folded
+     * @param flush  flushes the folded changes and emits their results
+     * @param single aggregates an item by itself
+     */
+    public static void foldBatch(List<Object> items, Predicate<Object> fold, Runnable flush, Consumer<Object> single) {
+        for (Object item : items) {
+            if (!fold.test(item)) {
+                flush.run();
+                single.accept(item);
+            }
+        }
+        flush.run();
+    }
+
+    /**
+     * Fold a record event whose values are already transformed from TapValue
+     *
+     * @return false when the event can not be folded and has to be aggregated by itself, the batch is not changed then
+     */
+    public boolean fold(TapdataEvent tapdataEvent, TapValueTransform tapValueTransform) {
+        TapRecordEvent tapRecordEvent = (TapRecordEvent) tapdataEvent.getTapEvent();
+        Map<String, Object> before = TapEventUtil.getBefore(tapRecordEvent);
+        Map<String, Object> after = TapEventUtil.getAfter(tapRecordEvent);
+        if (tapRecordEvent instanceof TapInsertRecordEvent) {
+            if (!foldable(after)) {
+                return false;
+            }
+            add(after, 1, tapdataEvent, tapValueTransform);
+        } else if (tapRecordEvent instanceof TapDeleteRecordEvent) {
+            if (!foldable(before)) {
+                return false;
+            }
+            add(before, -1, tapdataEvent, tapValueTransform);
+        } else if (tapRecordEvent instanceof TapUpdateRecordEvent) {
+            if (!foldable(before) || !foldable(after)) {
+                return false;
+            }
+            add(before, -1, tapdataEvent, tapValueTransform);
+            add(after, 1, tapdataEvent, tapValueTransform);
+        } else {
+            return false;
+        }
+        position++;
+        return true;
+    }
+
+    /**
+     * Apply the changes of the batch to the cache and clear it
+     *
+     * @return one result event per changed group, in order of the last change of each group
+     */
+    public List<Result> flush() throws Exception {
+        if (deltas.isEmpty()) {
+            return new ArrayList<>();
+        }
+        boolean withCounter = !COUNT.equals(aggregatorOp);
+        Set<String> keys = new HashSet<>(deltas.size() << 2);
+        for (String cacheKey : deltas.keySet()) {
+            keys.add(cacheKey);
+            if (withCounter) {
+                keys.add(cacheKey + COUNTER_SUFFIX);
+            }
+        }
+        Map<String, BigDecimal> found = cache.findAll(keys);
+        Map<String, BigDecimal> upserts = new HashMap<>(keys.size() << 1);
+        List<String> deletes = new ArrayList<>();
+        List<Result> results = new ArrayList<>(deltas.size());
+        Set<TapdataEvent> usedEvents = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<GroupDelta> ordered = new ArrayList<>(deltas.values());
+        ordered.sort(Comparator.comparingLong(delta -> delta.lastPosition));
+        for (GroupDelta delta : ordered) {
+            String cacheKey = delta.cacheKey;
+            BigDecimal oldCount = withCounter ? found.get(cacheKey + COUNTER_SUFFIX) : found.get(cacheKey);
+            boolean existed = null != oldCount && oldCount.signum() != 0;
+            BigDecimal count = (null == oldCount ? BigDecimal.ZERO : oldCount).add(BigDecimal.valueOf(delta.count));
+            Object value = null;
+            if (count.signum() == 0) {
+                deletes.add(cacheKey);
+                if (withCounter) {
+                    deletes.add(cacheKey + COUNTER_SUFFIX);
+                }
+            } else if (withCounter) {
+                BigDecimal oldSum = found.get(cacheKey);
+                BigDecimal sum = (null == oldSum ? BigDecimal.ZERO : oldSum).add(delta.sum());
+                upserts.put(cacheKey, sum);
+                upserts.put(cacheKey + COUNTER_SUFFIX, count);
+                value = SUM.equals(aggregatorOp) ? sum.toPlainString() : sum.divide(count, scale, roundingMode).toPlainString();
+            } else {
+                upserts.put(cacheKey, count);
+                value = count;
+            }
+            // a group which nets to zero is deleted even when it did not exist before the batch, as aggregating its
+            // events one by one ends with a delete too, and its last event still carries an offset
+            TapRecordEvent resultEvent;
+            Map<String, Object> row = new HashMap<>(delta.row);
+            if (count.signum() == 0) {
+                TapDeleteRecordEvent deleteEvent = new TapDeleteRecordEvent();
+                delta.lastRecordEvent.clone(deleteEvent);
+                deleteEvent.setBefore(row);
+                resultEvent = deleteEvent;
+            } else {
+                row.put(aggregatorOp, value);
+                if (existed) {
+                    TapUpdateRecordEvent updateEvent = new TapUpdateRecordEvent();
+                    delta.lastRecordEvent.clone(updateEvent);
+                    updateEvent.setBefore(null);
+                    updateEvent.setAfter(row);
+                    resultEvent = updateEvent;
+                } else {
+                    TapInsertRecordEvent insertEvent = new TapInsertRecordEvent();
+                    delta.lastRecordEvent.clone(insertEvent);
+                    insertEvent.setAfter(row);
+                    resultEvent = insertEvent;
+                }
+            }
+            // the input event carries the offsets, it is reused by the first group it was the last change of
+            TapdataEvent resultTapdataEvent = usedEvents.add(delta.lastEvent) ? delta.lastEvent : (TapdataEvent) delta.lastEvent.clone();
+            resultTapdataEvent.setTapEvent(resultEvent);
+            results.add(new Result(resultTapdataEvent, delta.tapValueTransform));
+        }
+        cache.upsertAll(upserts);
+        for (String key : deletes) {
+            cache.delete(key);
+        }
+        clear();
+        return results;
+    }
+
+    public void clear() {
+        deltas.clear();
+        position = 0;
+    }
+
+    /**
+     * Group values have to be set as the group key requires them, the aggregated value has to be set as events without
+     * it are skipped by {@link AggregateOps}
+     */
+    private boolean foldable(Map<String, Object> data) {
+        if (MapUtils.isEmpty(data)) {
+            return false;
+        }
+        for (String field : groupByFields) {
+            if (null != field && null == data.get(field)) {
+                return false;
+            }
+        }
+        return COUNT.equals(aggregatorOp) || null != data.get(aggregatorField);
+    }
+
+    private void add(Map<String, Object> data, int sign, TapdataEvent tapdataEvent, TapValueTransform tapValueTransform) {
+        String cacheKey = groupKeyFunction.apply(data);
+        GroupDelta delta = deltas.get(cacheKey);
+        if (null == delta) {
+            delta = new GroupDelta(cacheKey);
+            deltas.put(cacheKey, delta);
+        }
+        delta.count += sign;
+        if (!COUNT.equals(aggregatorOp)) {
+            delta.addValue(data.get(aggregatorField), sign);
+        }
+        delta.row.clear();
+        for (String field : groupByFields) {
+            if (null != field) {
+                delta.row.put(field, data.get(field));
+            }
+        }
+        delta.lastEvent = tapdataEvent;
+        delta.lastPosition = position;
+        delta.lastRecordEvent = (TapRecordEvent) tapdataEvent.getTapEvent();
+        delta.tapValueTransform = tapValueTransform;
+    }
+
+    private static class GroupDelta {
+        private final String cacheKey;
+        private final Map<String, Object> row = new HashMap<>();
+        private long count;
+        private long longSum;
+        private BigDecimal decimalSum;
+        private TapdataEvent lastEvent;
+        private long lastPosition;
+        private TapRecordEvent lastRecordEvent;
+        private TapValueTransform tapValueTransform;
+
+        private GroupDelta(String cacheKey) {
+            this.cacheKey = cacheKey;
+        }
+
+        private void addValue(Object value, int sign) {
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                long number = ((Number) value).longValue();
+                try {
+                    longSum = Math.addExact(longSum, sign < 0 ? Math.negateExact(number) : number);
+                    return;
+                } catch (ArithmeticException ignore) {
+                    // overflow, added as BigDecimal
+                }
+            }
+            BigDecimal number;
+            try {
+                number = AggregatorUtils.getBigDecimal(value);
+            } catch (Exception ignore) {
+                // same as AggregateOps, a value which is not a number counts as zero
+                return;
+            }
+            number = sign < 0 ? number.negate() : number;
+            decimalSum = null == decimalSum ? number : decimalSum.add(number);
+        }
+
+        private BigDecimal sum() {
+            BigDecimal sum = BigDecimal.valueOf(longSum);
+            return null == decimalSum ? sum : sum.add(decimalSum);
+        }
+    }
+
+    public static class Result {
+        private final TapdataEvent tapdataEvent;
+        private final TapValueTransform tapValueTransform;
+
+        private Result(TapdataEvent tapdataEvent, TapValueTransform tapValueTransform) {
+            this.tapdataEvent = tapdataEvent;
+            this.tapValueTransform = tapValueTransform;
+        }
+
+        public TapdataEvent getTapdataEvent() {
+            return tapdataEvent;
+        }
+
+        public TapValueTransform getTapValueTransform() {
+            return tapValueTransform;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package io.tapdata.flow.engine.V2.node.hazelcast.processor.aggregation;
+
+import io.tapdata.constructImpl.ConstructIMap;
+import io.tapdata.constructImpl.RowBucketIMap;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Counted sorted multiset of the values of each group, the state of MAX and MIN
+ * <p>
+ * Each distinct value of a group is one row of a {@link RowBucketIMap} holding its count, so adding or retracting a
+ * value writes its own row, plus an index entry when the value is new or gone, whatever the size of the group.
+ * <p>
+ * The recently used groups also keep a window of their values sorted in memory, max and min are read from there: the
+ * lowest and the highest values of the group, at most {@code 2 * windowSize} of each side. Values between both sides
+ * are only in the store, their counts are read by row. A group is read from the store when it is not cached, or when
+ * retractions empty one side of its window.
+ * <p>
+ * The aggregator is the only writer of its state, only used by the processor thread.
+ *
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class SortedValueCounts {
+
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+
+    private final RowBucketIMap<Long> store;
+
+    private final int windowSize;
+
+    private final Map<String, Window> groups;
+
+    public SortedValueCounts(RowBucketIMap<Long> store, int groupCacheSize) {
+        this(store, groupCacheSize, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param windowSize count of the lowest and of the highest values of a group kept in memory after reading it
+     */
+    public SortedValueCounts(RowBucketIMap<Long> store, int groupCacheSize, int windowSize) {
+        this.store = store;
+        this.windowSize = Math.max(windowSize, 1);
+        this.groups = new LinkedHashMap<String, Window>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+                return size() > groupCacheSize;
+            }
+        };
+    }
+
+    public RowBucketIMap<Long> getStore() {
+        return store;
+    }
+
+    public void add(String group, BigDecimal value) throws Exception {
+        if (value == null) {
+            return;
+        }
+        BigDecimal key = normalize(value);
+        Window window = load(group);
+        long count = count(group, window, key) + 1;
+        store.upsertRow(group, key.toPlainString(), count);
+        window.put(key, count, windowSize);
+    }
+
+    /**
+     * @return false when the value is not in the group
+     */
+    public boolean remove(String group, BigDecimal value) throws Exception {
+        if (value == null) {
+            return false;
+        }
+        BigDecimal key = normalize(value);
+        Window window = load(group);
+        long count = count(group, window, key);
+        if (count == 0) {
+            return false;
+        }
+        if (count > 1) {
+            store.upsertRow(group, key.toPlainString(), count - 1);
+            window.put(key, count - 1, windowSize);
+        } else {
+            store.deleteRow(group, key.toPlainString());
+            if (window.remove(key)) {
+                // read again on next use, values between both sides become the new side
+                groups.remove(group);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return null when the group is empty
+     */
+    public BigDecimal max(String group) throws Exception {
+        Window window = load(group);
+        return window.values.isEmpty() ? null : window.values.lastKey();
+    }
+
+    /**
+     * @return null when the group is empty
+     */
+    public BigDecimal min(String group) throws Exception {
+        Window window = load(group);
+        return window.values.isEmpty() ? null : window.values.firstKey();
+    }
+
+    public boolean exists(String group) throws Exception {
+        Window window = groups.get(group);
+        if (window != null) {
+            return !window.values.isEmpty();
+        }
+        return store.exists(group);
+    }
+
+    /**
+     * Move the value lists kept by the former MAX/MIN state into this one, and clear them. Those lists hold each value
+     * once and at most 1000 values per group, so every value is counted once.
+     *
+     * @return count of groups moved
+     */
+    public int migrateFrom(ConstructIMap<List<BigDecimal>> lists) throws Exception {
+        if (lists.isEmpty()) {
+            return 0;
+        }
+        int count = 0;
+        for (String group : lists.keys()) {
+            List<BigDecimal> values = lists.find(group);
+            if (values != null) {
+                for (BigDecimal value : values) {
+                    add(group, value);
+                }
+                count++;
+            }
+        }
+        lists.clear();
+        groups.clear();
+        return count;
+    }
+
+    public void clearLocal() {
+        groups.clear();
+    }
+
+    private Window load(String group) throws Exception {
+        Window window = groups.get(group);
+        if (window == null) {
+            window = new Window();
+            for (Map.Entry<String, Long> entry : store.find(group).entrySet()) {
+                window.values.put(new BigDecimal(entry.getKey()), entry.getValue());
+            }
+            window.split(windowSize);
+            groups.put(group, window);
+        }
+        return window;
+    }
+
+    private long count(String group, Window window, BigDecimal key) throws Exception {
+        if (window.covers(key)) {
+            return window.values.getOrDefault(key, 0L);
+        }
+        Long count = store.findRow(group, key.toPlainString());
+        return count == null ? 0L : count;
+    }
+
+    /**
+     * Values equal by compareTo share one row, e.g. 1.0 and 1
+     */
+    private static BigDecimal normalize(BigDecimal value) {
+        return value.signum() == 0 ? BigDecimal.ZERO : value.stripTrailingZeros();
+    }
+
+    /**
+     * Values of a group in memory. Without bounds, all of them; with bounds, all values up to headEnd and from
+     * tailStart, the ones between are only in the store.
+     */
+    private static class Window {
+        private final TreeMap<BigDecimal, Long> values = new TreeMap<>();
+        private BigDecimal headEnd;
+        private BigDecimal tailStart;
+
+        private boolean covers(BigDecimal key) {
+            return headEnd == null || key.compareTo(headEnd) <= 0 || key.compareTo(tailStart) >= 0;
+        }
+
+        private void put(BigDecimal key, long count, int size) {
+            if (!covers(key)) {
+                return;
+            }
+            values.put(key, count);
+            if (headEnd == null) {
+                split(size);
+            } else if (key.compareTo(headEnd) <= 0) {
+                NavigableMap<BigDecimal, Long> head = values.headMap(headEnd, true);
+                if (head.size() > 2 * size) {
+                    while (head.size() > size) {
+                        head.pollLastEntry();
+                    }
+                    headEnd = head.lastKey();
+                }
+            } else {
+                NavigableMap<BigDecimal, Long> tail = values.tailMap(tailStart, true);
+                if (tail.size() > 2 * size) {
+                    while (tail.size() > size) {
+                        tail.pollFirstEntry();
+                    }
+                    tailStart = tail.firstKey();
+                }
+            }
+        }
+
+        /**
+         * @return true when the head or the tail has no value left
+         */
+        private boolean remove(BigDecimal key) {
+            if (!covers(key)) {
+                return false;
+            }
+            values.remove(key);
+            return headEnd != null && (values.floorKey(headEnd) == null || values.ceilingKey(tailStart) == null);
+        }
+
+        /**
+         * Keep the lowest and the highest size values only, when there are more than 2 * size
+         */
+        private void split(int size) {
+            if (headEnd != null || values.size() <= 2 * size) {
+                return;
+            }
+            BigDecimal head = values.firstKey();
+            BigDecimal tail = values.lastKey();
+            for (int i = 1; i < size; i++) {
+                head = values.higherKey(head);
+                tail = values.lowerKey(tail);
+            }
+            values.subMap(head, false, tail, false).clear();
+            headEnd = head;
+            tailStart = tail;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.tapdata.entity.task.context.ProcessorBaseContext;
 import com.tapdata.tm.commons.dag.Node;
 import com.tapdata.tm.commons.dag.process.JoinProcessorNode;
 import io.tapdata.constructImpl.BytesIMap;
+import io.tapdata.constructImpl.RowBucketIMap;
 import io.tapdata.entity.event.dml.TapDeleteRecordEvent;
 import io.tapdata.entity.event.dml.TapInsertRecordEvent;
 import io.tapdata.entity.event.dml.TapRecordEvent;
@@ -48,8 +49,11 @@ public class HazelcastJoinProcessor extends HazelcastProcessorBaseNode {
 
 	private final static String IMAP_NAME_DELIMITER = "-";
 
-	private BytesIMap<Map<String, Map<String, Object>>> leftJoinCache;
-	private BytesIMap<Map<String, Map<String, Object>>> rightJoinCache;
+	/**
+	 * Rows by join key and primary key
+	 */
+	private RowBucketIMap<Map<String, Object>> leftJoinCache;
+	private RowBucketIMap<Map<String, Object>> rightJoinCache;
 
 //  private List<String> keyFields;
 
@@ -98,24 +102,20 @@ public class HazelcastJoinProcessor extends HazelcastProcessorBaseNode {
 		String rightNodeId = ((JoinProcessorNode) node).getRightNodeId();
 		HazelcastInstance hazelcastInstance = HazelcastUtil.getInstance();
 		String leftJoinCacheMapName = joinCacheMapName(leftNodeId, "leftJoinCache");
-		BytesIMap<Map<String, Map<String, Object>>> leftJoinCache = new BytesIMap<>(
-				hazelcastInstance,
-				leftJoinCacheMapName
-		);
+		String leftJoinRowsMapName = joinCacheMapName(leftNodeId, "leftJoinRows");
 		try {
-			leftJoinCache.clear();
+			new BytesIMap<>(hazelcastInstance, leftJoinCacheMapName).clear();
+			new RowBucketIMap<>(hazelcastInstance, leftJoinRowsMapName).clear();
 		} catch (Exception e) {
-			throw new RuntimeException(String.format("Clear left join cache map occur an error: %s\n map name: %s", e.getMessage(), leftJoinCacheMapName), e);
+			throw new RuntimeException(String.format("Clear left join cache map occur an error: %s\n map name: %s", e.getMessage(), leftJoinRowsMapName), e);
 		}
 		String rightJoinCacheMapName = joinCacheMapName(rightNodeId, "rightCache");
-		BytesIMap<Map<String, Map<String, Object>>> rightJoinCache = new BytesIMap<>(
-				hazelcastInstance,
-				rightJoinCacheMapName
-		);
+		String rightJoinRowsMapName = joinCacheMapName(rightNodeId, "rightJoinRows");
 		try {
-			rightJoinCache.clear();
+			new BytesIMap<>(hazelcastInstance, rightJoinCacheMapName).clear();
+			new RowBucketIMap<>(hazelcastInstance, rightJoinRowsMapName).clear();
 		} catch (Exception e) {
-			throw new RuntimeException(String.format("Clear right join cache map occur an error: %s\n map name: %s", e.getMessage(), rightJoinCacheMapName), e);
+			throw new RuntimeException(String.format("Clear right join cache map occur an error: %s\n map name: %s", e.getMessage(), rightJoinRowsMapName), e);
 		}
 	}
 
@@ -146,17 +146,34 @@ public class HazelcastJoinProcessor extends HazelcastProcessorBaseNode {
 		this.leftPrimaryKeys = joinNode.getLeftPrimaryKeys();
 		this.rightPrimaryKeys = joinNode.getRightPrimaryKeys();
 		pkChecker();
-		this.leftJoinCache = new BytesIMap<>(
+		this.leftJoinCache = new RowBucketIMap<>(
+				context.hazelcastInstance(),
+				joinCacheMapName(leftNodeId, "leftJoinRows")
+		);
+		this.rightJoinCache = new RowBucketIMap<>(
+				context.hazelcastInstance(),
+				joinCacheMapName(rightNodeId, "rightJoinRows")
+		);
+		BytesIMap<Map<String, Map<String, Object>>> oldLeftJoinCache = new BytesIMap<>(
 				context.hazelcastInstance(),
 				joinCacheMapName(leftNodeId, "leftJoinCache")
 		);
-		this.rightJoinCache = new BytesIMap<>(
+		BytesIMap<Map<String, Map<String, Object>>> oldRightJoinCache = new BytesIMap<>(
 				context.hazelcastInstance(),
 				joinCacheMapName(rightNodeId, "rightCache")
 		);
 		if (!taskHasBeenRun()) {
 			leftJoinCache.clear();
 			rightJoinCache.clear();
+			oldLeftJoinCache.clear();
+			oldRightJoinCache.clear();
+		} else {
+			// join cache used to be kept as whole buckets by join key
+			int leftBuckets = leftJoinCache.migrateFrom(oldLeftJoinCache);
+			int rightBuckets = rightJoinCache.migrateFrom(oldRightJoinCache);
+			if (leftBuckets > 0 || rightBuckets > 0) {
+				logger.info("Migrated join cache to row storage, left join keys: {}, right join keys: {}", leftBuckets, rightBuckets);
+			}
 		}
 	}
 
@@ -375,41 +392,23 @@ public class HazelcastJoinProcessor extends HazelcastProcessorBaseNode {
 				return null;
 		}
 
-		if (!OperationType.DELETE.getOp().equals(opType) && !leftJoinCache.exists(afterJoinKey)) {
-			Map<String, Map<String, Object>> leftKeyCache = new HashMap<>();
-			leftKeyCache.put(afterLeftKey, afterLeftRow);
-			leftJoinCache.insert(afterJoinKey, leftKeyCache);
+		if (OperationType.DELETE.getOp().equals(opType)) {
+			leftJoinCache.deleteRow(beforeJoinKey, beforeLeftKey);
 		} else {
-			String joinKey = afterJoinKey;
-			String key = afterLeftKey;
-			if (OperationType.DELETE.getOp().equals(opType)) {
-				deleteRowFromCache(beforeJoinKey, beforeLeftKey, leftJoinCache);
-			} else {
-				final Map<String, Map<String, Object>> leftKeyCache = leftJoinCache.find(joinKey);
-				if (MapUtils.isNotEmpty(beforeLeftRow) && leftKeyCache.containsKey(key)) {
-					beforeLeftRow = leftKeyCache.get(key);
+			if (MapUtils.isNotEmpty(beforeLeftRow)) {
+				final Map<String, Object> cachedLeftRow = leftJoinCache.findRow(afterJoinKey, afterLeftKey);
+				if (null != cachedLeftRow) {
+					beforeLeftRow = cachedLeftRow;
 					beforeLeftKey = project(beforeLeftRow, leftPrimaryKeys);
 					beforeJoinKey = project(beforeLeftRow, leftJoinKeyFields);
 				}
-				leftKeyCache.put(afterLeftKey, afterLeftRow);
-				leftJoinCache.insert(afterJoinKey, leftKeyCache);
 			}
+			leftJoinCache.upsertRow(afterJoinKey, afterLeftKey, afterLeftRow);
 		}
 
 		return leftJoinLeftRow(afterJoinKey, afterLeftKey, afterLeftRow, beforeJoinKey, beforeLeftKey, beforeLeftRow, opType);
 	}
 
-	private void deleteRowFromCache(String joinKey, String key, BytesIMap<Map<String, Map<String, Object>>> joinCache) throws Exception {
-		final Map<String, Map<String, Object>> keyCache = joinCache.find(joinKey);
-		String finalBeforeKey = key;
-		Optional.ofNullable(keyCache).ifPresent(m -> m.remove(finalBeforeKey));
-		if (MapUtils.isEmpty(keyCache)) {
-			joinCache.delete(joinKey);
-		} else {
-			joinCache.update(joinKey, keyCache);
-		}
-	}
-
 	@SneakyThrows
 	private List<JoinResult> leftJoinRightProcess(
 			Map<String, Object> before,
@@ -447,23 +446,18 @@ public class HazelcastJoinProcessor extends HazelcastProcessorBaseNode {
 				return null;
 		}
 
-		if (!OperationType.DELETE.getOp().equals(opType) && !rightJoinCache.exists(afterJoinKey)) {
-			Map<String, Map<String, Object>> rightKeyCache = new HashMap<>();
-			rightKeyCache.put(afterRightKey, afterRightRow);
-			rightJoinCache.insert(afterJoinKey, rightKeyCache);
+		if (OperationType.DELETE.getOp().equals(opType)) {
+			rightJoinCache.deleteRow(beforeJoinKey, beforeRightKey);
 		} else {
-			if (OperationType.DELETE.getOp().equals(opType)) {
-				deleteRowFromCache(beforeJoinKey, beforeRightKey, rightJoinCache);
-			} else {
-				final Map<String, Map<String, Object>> rightKeyCache = rightJoinCache.find(afterJoinKey);
-				if (MapUtils.isEmpty(beforeRightRow) && rightKeyCache.containsKey(beforeRightKey)) {
-					beforeRightRow = rightKeyCache.get(beforeRightKey);
+			if (MapUtils.isEmpty(beforeRightRow) && null != beforeRightKey) {
+				final Map<String, Object> cachedRightRow = rightJoinCache.findRow(afterJoinKey, beforeRightKey);
+				if (null != cachedRightRow) {
+					beforeRightRow = cachedRightRow;
 					beforeRightKey = project(beforeRightRow, rightPrimaryKeys);
 					beforeJoinKey = project(beforeRightRow, rightJoinKeyFields);
 				}
-				rightKeyCache.put(afterRightKey, afterRightRow);
-				rightJoinCache.insert(afterJoinKey, rightKeyCache);
 			}
+			rightJoinCache.upsertRow(afterJoinKey, afterRightKey, afterRightRow);
 		}
 
 		return leftJoinRightRow(afterJoinKey, afterRightKey, afterRightRow, beforeJoinKey, beforeRightKey, beforeRightRow, joinOperation, opType);
@@ -547,8 +541,8 @@ public class HazelcastJoinProcessor extends HazelcastProcessorBaseNode {
 		List<JoinResult> joinResults = null;
 		String joinKey = StringUtils.isNotBlank(afterJoinKey) ? afterJoinKey : beforeJoinKey;
 
-		if (leftJoinCache.exists(joinKey)) {
-			final Map<String, Map<String, Object>> leftKeyCache = leftJoinCache.find(joinKey);
+		final Map<String, Map<String, Object>> leftKeyCache = leftJoinCache.find(joinKey);
+		if (MapUtils.isNotEmpty(leftKeyCache)) {
 			joinResults = new ArrayList<>(leftKeyCache.size());
 			for (Map<String, Object> beforeLeftRow : leftKeyCache.values()) {
 
@@ -603,8 +597,7 @@ public class HazelcastJoinProcessor extends HazelcastProcessorBaseNode {
 	) throws Exception {
 		if (OperationType.DELETE.getOp().equals(opType)) {
 
-			final Map<String, Map<String, Object>> rightKeyCache = rightJoinCache.find(joinKey);
-			if (MapUtils.isNotEmpty(rightKeyCache)) {
+			if (rightJoinCache.exists(joinKey)) {
 				return OperationType.DELETE.getOp();
 			} else {
 				return OperationType.UPDATE.getOp();
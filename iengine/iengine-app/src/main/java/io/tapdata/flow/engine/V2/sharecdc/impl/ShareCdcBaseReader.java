@@ -19,8 +19,10 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
@@ -32,6 +34,9 @@ import java.util.function.BiConsumer;
  **/
 public class ShareCdcBaseReader implements ShareCdcReader {
 
+	/**
+	 * Count of events the queue holds
+	 */
 	protected static final int DEFAULT_QUEUE_SIZE = 10;
 	protected static final Logger logger = LogManager.getLogger(ShareCdcBaseReader.class);
 	private static final String LOG_PREFIX = "[Share CDC Base Reader] - ";
@@ -39,7 +44,16 @@ public class ShareCdcBaseReader implements ShareCdcReader {
 	protected ShareCdcContext shareCdcContext;
 	protected ClientMongoOperator clientMongoOperator;
 	protected AtomicBoolean running;
-	protected LinkedBlockingQueue<ShareCDCReaderEvent> queue;
+	/**
+	 * Batches of events, the reader hands over a whole batch read from log storage at a time. Bounded in events by
+	 * {@link #queuePermits}
+	 */
+	protected LinkedBlockingQueue<List<ShareCDCReaderEvent>> queue;
+	/**
+	 * One permit per queued event, a batch larger than {@link #DEFAULT_QUEUE_SIZE} takes all permits, so it waits for
+	 * the queue to be empty
+	 */
+	protected Semaphore queuePermits;
 	protected Throwable throwable;
 
 	protected ShareCdcBaseReader() {
@@ -49,7 +63,8 @@ public class ShareCdcBaseReader implements ShareCdcReader {
 	public void init(ShareCdcContext shareCdcContext) throws ShareCdcUnsupportedException {
 		this.shareCdcContext = shareCdcContext;
 		this.clientMongoOperator = ClientOperatorUtil.buildHttpClientMongoOperator(shareCdcContext.getConfigurationCenter());
-		this.queue = new LinkedBlockingQueue<>(DEFAULT_QUEUE_SIZE);
+		this.queue = new LinkedBlockingQueue<>();
+		this.queuePermits = new Semaphore(DEFAULT_QUEUE_SIZE);
 		this.running = new AtomicBoolean(true);
 
 		// Check global share cdc setting
@@ -90,9 +105,18 @@ public class ShareCdcBaseReader implements ShareCdcReader {
 		if (shareCDCReaderEvent == null) {
 			return;
 		}
+		enqueue(Collections.singletonList(shareCDCReaderEvent));
+	}
+
+	protected void enqueue(List<ShareCDCReaderEvent> shareCDCReaderEvents) {
+		if (CollectionUtils.isEmpty(shareCDCReaderEvents)) {
+			return;
+		}
+		int permits = queuePermits(shareCDCReaderEvents);
 		while (running.get()) {
 			try {
-				if (this.queue.offer(shareCDCReaderEvent, 3L, TimeUnit.SECONDS)) {
+				if (this.queuePermits.tryAcquire(permits, 3L, TimeUnit.SECONDS)) {
+					this.queue.add(shareCDCReaderEvents);
 					break;
 				}
 			} catch (InterruptedException e) {
@@ -101,31 +125,41 @@ public class ShareCdcBaseReader implements ShareCdcReader {
 		}
 	}
 
+	private static int queuePermits(List<ShareCDCReaderEvent> shareCDCReaderEvents) {
+		return Math.min(shareCDCReaderEvents.size(), DEFAULT_QUEUE_SIZE);
+	}
+
 	protected void poll(BiConsumer<TapEvent, Object> logContentConsumer) throws Exception {
 		AtomicBoolean firstEvent = new AtomicBoolean(false);
 		while (running.get()) {
-			ShareCDCReaderEvent shareCDCReaderEvent;
+			List<ShareCDCReaderEvent> shareCDCReaderEvents;
 			if (this.throwable != null) {
 				throw new Exception(throwable.getMessage(), throwable);
 			}
 			try {
-				shareCDCReaderEvent = queue.poll(3, TimeUnit.SECONDS);
+				shareCDCReaderEvents = queue.poll(3, TimeUnit.SECONDS);
 			} catch (InterruptedException e) {
 				break;
 			}
-			if (shareCDCReaderEvent == null) {
+			if (shareCDCReaderEvents == null) {
 				continue;
 			}
-			if (firstEvent.compareAndSet(false, true)) {
-				TapEvent tapEvent = shareCDCReaderEvent.getTapEvent();
-				logger.info("Received first log\n - op: " + TapEventUtil.getOp(tapEvent)
-						+ "\n - timestamp: " + TapEventUtil.getTimestamp(tapEvent)
-						+ "\n - time string: " + Instant.ofEpochMilli(TapEventUtil.getTimestamp(tapEvent))
-						+ "\n - offset: " + shareCDCReaderEvent.getOffsetObj()
-						+ "\n - before: " + TapEventUtil.getBefore(tapEvent)
-						+ "\n - after: " + TapEventUtil.getAfter(tapEvent));
+			queuePermits.release(queuePermits(shareCDCReaderEvents));
+			for (ShareCDCReaderEvent shareCDCReaderEvent : shareCDCReaderEvents) {
+				if (!running.get()) {
+					break;
+				}
+				if (firstEvent.compareAndSet(false, true)) {
+					TapEvent tapEvent = shareCDCReaderEvent.getTapEvent();
+					logger.info("Received first log\n - op: " + TapEventUtil.getOp(tapEvent)
+							+ "\n - timestamp: " + TapEventUtil.getTimestamp(tapEvent)
+							+ "\n - time string: " + Instant.ofEpochMilli(TapEventUtil.getTimestamp(tapEvent))
+							+ "\n - offset: " + shareCDCReaderEvent.getOffsetObj()
+							+ "\n - before: " + TapEventUtil.getBefore(tapEvent)
+							+ "\n - after: " + TapEventUtil.getAfter(tapEvent));
+				}
+				logContentConsumer.accept(shareCDCReaderEvent.getTapEvent(), shareCDCReaderEvent.getOffsetObj());
 			}
-			logContentConsumer.accept(shareCDCReaderEvent.getTapEvent(), shareCDCReaderEvent.getOffsetObj());
 		}
 	}
 
@@ -37,9 +37,12 @@ import org.springframework.data.mongodb.core.query.Query;
 import java.io.IOException;
 import java.io.Serializable;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -58,6 +61,8 @@ public class ShareCdcPDKTaskReader extends ShareCdcHZReader implements Serializa
 	private static final String THREAD_NAME_PREFIX = "Share-CDC-Task-Reader-";
 	private static final String LOG_PREFIX = "[Share CDC Task HZ Reader] - ";
 	private static final long WAIT_FOR_AT_LEAST_ONE_LOG_INTERVAL_MS = 3000L;
+	private static final String READ_BATCH_SIZE_PROP_KEY = "SHARE_CDC_READ_BATCH_SIZE";
+	private static final String READ_PREFETCH_PROP_KEY = "SHARE_CDC_READ_PREFETCH";
 	public static final String TAG = ShareCdcPDKTaskReader.class.getSimpleName();
 
 	private ExecutorService readThreadPool;
@@ -66,7 +71,7 @@ public class ShareCdcPDKTaskReader extends ShareCdcHZReader implements Serializa
 	private HazelcastInstance hazelcastInstance;
 	private HazelcastConstruct<Document> hazelcastConstruct;
 	private AtomicLong headSequence = new AtomicLong();
-	private List<String> tableNames;
+	private Set<String> tableNames;
 
 	ShareCdcPDKTaskReader() {
 		super();
@@ -84,7 +89,7 @@ public class ShareCdcPDKTaskReader extends ShareCdcHZReader implements Serializa
 			this.hazelcastInstance = HazelcastUtil.getInstance(this.shareCdcContext.getConfigurationCenter());
 			step = canShareCdc(step);
 			initThreadPool();
-			this.tableNames = NodeUtil.getTableNames(((ShareCdcTaskContext) shareCdcContext).getNode());
+			this.tableNames = new HashSet<>(NodeUtil.getTableNames(((ShareCdcTaskContext) shareCdcContext).getNode()));
 			logger.info(logWrapper(++step, "Init read thread pool completed"));
 		} catch (IllegalArgumentException | ShareCdcUnsupportedException e) {
 			throw e;
@@ -213,6 +218,10 @@ public class ShareCdcPDKTaskReader extends ShareCdcHZReader implements Serializa
 		// Find hazelcast construct iterator
 		Map<String, Object> filter = new HashMap<>();
 		filter.put(ConstructRingBuffer.SEQUENCE_KEY, this.headSequence);
+		filter.put(ConstructRingBuffer.READ_BATCH_SIZE_KEY, CommonUtils.getPropertyInt(READ_BATCH_SIZE_PROP_KEY, ConstructRingBuffer.DEFAULT_READ_BATCH_SIZE));
+		filter.put(ConstructRingBuffer.READ_PREFETCH_KEY, CommonUtils.getPropertyInt(READ_PREFETCH_PROP_KEY, ConstructRingBuffer.DEFAULT_READ_PREFETCH));
+		// documents of other tables are dropped by the member owning the ring buffer, before sent to this reader
+		filter.put(ConstructRingBuffer.TABLE_NAMES_KEY, this.tableNames);
 		ConstructIterator<Document> iterator;
 		try {
 			iterator = this.hazelcastConstruct.find(filter);
@@ -230,10 +239,11 @@ public class ShareCdcPDKTaskReader extends ShareCdcHZReader implements Serializa
 		Document document = null;
 		AtomicBoolean firstDocument = new AtomicBoolean(true);
 
-		// Loop iterator, produce message entity and put in queue
+		// Loop iterator, produce message entities and put in queue by batch
 		while (running.get()) {
+			List<Document> documents;
 			try {
-				document = iterator.next();
+				documents = iterator.nextBatch(WAIT_FOR_AT_LEAST_ONE_LOG_INTERVAL_MS, TimeUnit.MILLISECONDS);
 			} catch (DistributedObjectDestroyedException e) {
 				break;
 			} catch (Exception e) {
@@ -241,18 +251,29 @@ public class ShareCdcPDKTaskReader extends ShareCdcHZReader implements Serializa
 				handleFailed(err, e);
 				break;
 			}
-			if (logger.isDebugEnabled()) {
-				logger.debug("Received log document: " + document);
-			}
-			if (document == null) {
+			if (documents.isEmpty()) {
 				continue;
 			}
-			String tableName = document.getString("fromTable");
-			if (StringUtils.isNotBlank(tableName) && !tableNames.contains(tableName)) {
-				continue;
+			List<ShareCDCReaderEvent> shareCDCReaderEvents = new ArrayList<>(documents.size());
+			for (Document logDocument : documents) {
+				document = logDocument;
+				if (logger.isDebugEnabled()) {
+					logger.debug("Received log document: " + document);
+				}
+				if (document == null) {
+					continue;
+				}
+				String tableName = document.getString("fromTable");
+				if (StringUtils.isNotBlank(tableName) && !tableNames.contains(tableName)) {
+					continue;
+				}
+				ShareCDCReaderEvent shareCDCReaderEvent = tapEventWrapper(document);
+				if (null != shareCDCReaderEvent) {
+					shareCDCReaderEvents.add(shareCDCReaderEvent);
+				}
 			}
-			enqueue(tapEventWrapper(document));
-			if (firstDocument.compareAndSet(true, false)) {
+			enqueue(shareCDCReaderEvents);
+			if (!shareCDCReaderEvents.isEmpty() && firstDocument.compareAndSet(true, false)) {
 				logger.info(logWrapper(++step, "Successfully read the first log data, will continue to read the log"));
 			}
 		}
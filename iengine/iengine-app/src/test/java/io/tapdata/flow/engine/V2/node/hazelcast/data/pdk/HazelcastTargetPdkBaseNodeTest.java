@@ -0,0 +1,85 @@
+package io.tapdata.flow.engine.V2.node.hazelcast.data.pdk;
+
+import com.tapdata.entity.SyncStage;
+import com.tapdata.entity.TapdataEvent;
+import com.tapdata.tm.commons.dag.Node;
+import com.tapdata.tm.commons.dag.nodes.DatabaseNode;
+import com.tapdata.tm.commons.dag.nodes.TableNode;
+import com.tapdata.tm.commons.dag.process.JsProcessorNode;
+import io.tapdata.entity.event.TapEvent;
+import io.tapdata.entity.event.dml.TapInsertRecordEvent;
+import io.tapdata.entity.event.dml.TapUpdateRecordEvent;
+import io.tapdata.flow.engine.V2.node.hazelcast.data.pdk.concurrent.partitioner.Murmur3KeysPartitioner;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class HazelcastTargetPdkBaseNodeTest {
+
+	private static final int PARTITIONS = 8;
+
+	@Test
+	public void testInitialSyncInsertOnly() {
+		Assert.assertTrue(HazelcastTargetPdkBaseNode.initialSyncInsertOnly(target(Mockito.mock(TableNode.class))));
+		Assert.assertTrue(HazelcastTargetPdkBaseNode.initialSyncInsertOnly(target(Mockito.mock(DatabaseNode.class))));
+		// a processor or a second source can write updates during the initial sync
+		Assert.assertFalse(HazelcastTargetPdkBaseNode.initialSyncInsertOnly(target(Mockito.mock(JsProcessorNode.class))));
+		Assert.assertFalse(HazelcastTargetPdkBaseNode.initialSyncInsertOnly(target(Mockito.mock(TableNode.class), Mockito.mock(TableNode.class))));
+		Assert.assertFalse(HazelcastTargetPdkBaseNode.initialSyncInsertOnly(target()));
+	}
+
+	@Test
+	public void testInitialInsertAndUpdateOfKeyInOnePartition() {
+		Node<?> target = target(Mockito.mock(JsProcessorNode.class));
+		Murmur3KeysPartitioner partitioner = new Murmur3KeysPartitioner(HazelcastTargetPdkBaseNode.initialSyncInsertOnly(target));
+		for (int id = 0; id < 100; id++) {
+			List<Object> key = Collections.singletonList(id);
+			int insertPartition = partitioner.partition(PARTITIONS, initialEvent(TapInsertRecordEvent.create().after(row(id))), key).getPartition();
+			int updatePartition = partitioner.partition(PARTITIONS, initialEvent(TapUpdateRecordEvent.create().before(row(id)).after(row(id))), key).getPartition();
+			Assert.assertEquals("insert and update of key " + id, insertPartition, updatePartition);
+		}
+	}
+
+	@Test
+	public void testInitialInsertsSpreadWhenInsertOnly() {
+		Node<?> target = target(Mockito.mock(TableNode.class));
+		Murmur3KeysPartitioner partitioner = new Murmur3KeysPartitioner(HazelcastTargetPdkBaseNode.initialSyncInsertOnly(target));
+		Set<Integer> partitions = new HashSet<>();
+		List<Object> hotKey = Collections.singletonList(1);
+		for (int i = 0; i < PARTITIONS; i++) {
+			partitions.add(partitioner.partition(PARTITIONS, initialEvent(TapInsertRecordEvent.create().after(row(1))), hotKey).getPartition());
+		}
+		Assert.assertEquals(PARTITIONS, partitions.size());
+	}
+
+	private static Node<?> target(Node<?>... predecessors) {
+		TableNode target = Mockito.mock(TableNode.class);
+		Mockito.doReturn(Arrays.asList(predecessors)).when(target).predecessors();
+		return target;
+	}
+
+	private static TapdataEvent initialEvent(TapEvent tapEvent) {
+		TapdataEvent tapdataEvent = new TapdataEvent();
+		tapdataEvent.setSyncStage(SyncStage.INITIAL_SYNC);
+		tapdataEvent.setTapEvent(tapEvent);
+		return tapdataEvent;
+	}
+
+	private static Map<String, Object> row(int id) {
+		Map<String, Object> row = new HashMap<>();
+		row.put("id", id);
+		return row;
+	}
+}
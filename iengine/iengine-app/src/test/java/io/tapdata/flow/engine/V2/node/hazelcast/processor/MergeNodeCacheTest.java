@@ -0,0 +1,237 @@
+package io.tapdata.flow.engine.V2.node.hazelcast.processor;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.tapdata.constant.HazelcastUtil;
+import com.tapdata.entity.hazelcast.HZLoggingType;
+import com.tapdata.tm.commons.task.dto.MergeTableProperties;
+import io.tapdata.constructImpl.ConstructIMap;
+import org.bson.Document;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class MergeNodeCacheTest {
+
+	private HazelcastInstance hazelcastInstance;
+	private final List<ConstructIMap<Document>> constructs = new ArrayList<>();
+
+	@Before
+	public void init() {
+		Config config = HazelcastUtil.getConfig("unit-test-" + System.currentTimeMillis(), HZLoggingType.NONE);
+		hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+	}
+
+	@After
+	public void after() throws Exception {
+		for (ConstructIMap<Document> construct : constructs) {
+			construct.clear();
+		}
+		if (hazelcastInstance != null) {
+			hazelcastInstance.shutdown();
+		}
+	}
+
+	@Test
+	public void testPrefetchByOneGetAll() throws Exception {
+		CountingIMap construct = construct("unit-test-merge-prefetch");
+		construct.upsert("a", new Document("1", row("id", 1)));
+		construct.upsert("b", new Document("2", row("id", 2)));
+		MergeNodeCache mergeCache = new MergeNodeCache(construct, 0);
+
+		mergeCache.prefetch(Arrays.asList("a", "b", "absent"));
+		Assert.assertEquals(Collections.singletonList(new HashSet<>(Arrays.asList("a", "b", "absent"))), construct.findAllKeys);
+		Assert.assertNotNull(mergeCache.find("a"));
+		Assert.assertNotNull(mergeCache.find("b"));
+		Assert.assertNull(mergeCache.find("absent"));
+		Assert.assertEquals(0, construct.findCount);
+
+		// keys of the batch are not fetched again
+		mergeCache.prefetch(Arrays.asList("a", "absent"));
+		Assert.assertEquals(1, construct.findAllKeys.size());
+
+		// without near-cache, nothing is kept after the batch
+		mergeCache.endBatch();
+		Assert.assertNull(mergeCache.find("absent"));
+		Assert.assertNotNull(mergeCache.find("a"));
+		Assert.assertEquals(2, construct.findCount);
+	}
+
+	@Test
+	public void testFindReturnsCopy() throws Exception {
+		CountingIMap construct = construct("unit-test-merge-copy");
+		MergeNodeCache mergeCache = new MergeNodeCache(construct, 10);
+		Document document = new Document("1", row("id", 1));
+		mergeCache.upsert("a", document);
+		document.put("2", row("id", 2));
+
+		Document found = mergeCache.find("a");
+		Assert.assertEquals(1, found.size());
+		found.put("3", row("id", 3));
+		Assert.assertEquals(1, mergeCache.find("a").size());
+		Assert.assertEquals(0, construct.findCount);
+	}
+
+	@Test
+	public void testNearCacheLeastRecentlyUsedOut() throws Exception {
+		CountingIMap construct = construct("unit-test-merge-near-cache");
+		MergeNodeCache mergeCache = new MergeNodeCache(construct, 2);
+		mergeCache.upsert("a", new Document("1", row("id", 1)));
+		mergeCache.upsert("b", new Document("2", row("id", 2)));
+		mergeCache.endBatch();
+		// a is used after b, so b is the one out
+		Assert.assertNotNull(mergeCache.find("a"));
+		mergeCache.upsert("c", new Document("3", row("id", 3)));
+		mergeCache.endBatch();
+
+		Assert.assertNotNull(mergeCache.find("a"));
+		Assert.assertNotNull(mergeCache.find("c"));
+		Assert.assertEquals(0, construct.findCount);
+		Assert.assertNotNull(mergeCache.find("b"));
+		Assert.assertEquals(1, construct.findCount);
+
+		// a delete drops the local copy
+		mergeCache.delete("c");
+		Assert.assertNull(mergeCache.find("c"));
+		Assert.assertEquals(2, construct.findCount);
+
+		// b was found again and pushed a out, near-cache keys are not fetched by prefetch
+		mergeCache.prefetch(Arrays.asList("a", "b"));
+		Assert.assertEquals(Collections.singletonList(Collections.singleton("a")), construct.findAllKeys);
+	}
+
+	@Test
+	public void testDeleteRowWritesBackRestRows() throws Exception {
+		CountingIMap construct = construct("unit-test-merge-delete-row");
+		MergeNodeCache mergeCache = new MergeNodeCache(construct, 10);
+		mergeCache.upsertRow("a", "1", row("id", 1));
+		mergeCache.upsertRow("a", "2", row("id", 2));
+
+		mergeCache.deleteRow("a", "1");
+		Document stored = new ConstructIMap<Document>(hazelcastInstance, "unit-test-merge-delete-row").find("a");
+		Assert.assertEquals(Collections.singleton("2"), stored.keySet());
+		Assert.assertEquals(Collections.singleton("2"), mergeCache.find("a").keySet());
+
+		// unknown row changes nothing
+		mergeCache.deleteRow("a", "3");
+		Assert.assertEquals(Collections.singleton("2"), mergeCache.find("a").keySet());
+
+		mergeCache.deleteRow("a", "2");
+		Assert.assertFalse(construct.exists("a"));
+		Assert.assertNull(mergeCache.find("a"));
+	}
+
+	@Test
+	public void testPrefetchByLevel() throws Exception {
+		MergeTableProperties grandchild = mergeProperty("g", "cid", "id", null);
+		MergeTableProperties child = mergeProperty("c", "pid", "id", Collections.singletonList(grandchild));
+		MergeTableProperties parent = mergeProperty("p", null, null, Collections.singletonList(child));
+
+		CountingIMap childConstruct = construct("unit-test-merge-level-child");
+		childConstruct.upsert(joinValueKey(1), new Document("11", row("id", 11, "pid", 1)).append("12", row("id", 12, "pid", 1)));
+		childConstruct.upsert(joinValueKey(2), new Document("21", row("id", 21, "pid", 2)));
+		CountingIMap grandchildConstruct = construct("unit-test-merge-level-grandchild");
+		for (int id : new int[]{11, 12, 21}) {
+			grandchildConstruct.upsert(joinValueKey(id), new Document(String.valueOf(id * 10), row("id", id * 10, "cid", id)));
+		}
+		Map<String, MergeNodeCache> mergeCaches = new HashMap<>();
+		mergeCaches.put("c", new MergeNodeCache(childConstruct, 0));
+		mergeCaches.put("g", new MergeNodeCache(grandchildConstruct, 0));
+
+		// a child event of the batch writes join value 3, parent events look up 1 and 2
+		Map<String, Set<String>> keysByNodeId = new HashMap<>();
+		keysByNodeId.put("c", new HashSet<>(Collections.singletonList(joinValueKey(3))));
+		List<HazelcastMergeNode.LookupRow> lookupRows = Arrays.asList(
+				new HazelcastMergeNode.LookupRow(parent, row("id", 1)),
+				new HazelcastMergeNode.LookupRow(parent, row("id", 2)));
+		HazelcastMergeNode.prefetchByLevel(keysByNodeId, lookupRows, mergeCaches);
+
+		Assert.assertEquals(Collections.singletonList(new HashSet<>(Arrays.asList(joinValueKey(1), joinValueKey(2), joinValueKey(3)))),
+				childConstruct.findAllKeys);
+		Assert.assertEquals(Collections.singletonList(new HashSet<>(Arrays.asList(joinValueKey(11), joinValueKey(12), joinValueKey(21)))),
+				grandchildConstruct.findAllKeys);
+		for (int id : new int[]{1, 2}) {
+			Assert.assertNotNull(mergeCaches.get("c").find(joinValueKey(id)));
+		}
+		for (int id : new int[]{11, 12, 21}) {
+			Assert.assertNotNull(mergeCaches.get("g").find(joinValueKey(id)));
+		}
+		Assert.assertNull(mergeCaches.get("c").find(joinValueKey(3)));
+		Assert.assertEquals(0, childConstruct.findCount);
+		Assert.assertEquals(0, grandchildConstruct.findCount);
+	}
+
+	private CountingIMap construct(String name) {
+		CountingIMap construct = new CountingIMap(hazelcastInstance, name);
+		constructs.add(construct);
+		return construct;
+	}
+
+	private static MergeTableProperties mergeProperty(String id, String source, String target, List<MergeTableProperties> children) {
+		MergeTableProperties mergeProperty = new MergeTableProperties();
+		mergeProperty.setId(id);
+		mergeProperty.setTableName(id);
+		mergeProperty.setMergeType(MergeTableProperties.MergeType.updateIntoArray);
+		if (null != source) {
+			Map<String, String> joinKey = new HashMap<>();
+			joinKey.put("source", source);
+			joinKey.put("target", target);
+			mergeProperty.setJoinKeys(Collections.singletonList(joinKey));
+		}
+		mergeProperty.setChildren(children);
+		return mergeProperty;
+	}
+
+	/**
+	 * Same form as the join value key of the merge node, for one join field
+	 */
+	private static String joinValueKey(Object value) {
+		return Base64.getEncoder().encodeToString(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static Map<String, Object> row(Object... keyValues) {
+		Map<String, Object> row = new HashMap<>();
+		for (int i = 0; i < keyValues.length; i += 2) {
+			row.put((String) keyValues[i], keyValues[i + 1]);
+		}
+		return row;
+	}
+
+	private static class CountingIMap extends ConstructIMap<Document> {
+		private final List<Set<String>> findAllKeys = new ArrayList<>();
+		private int findCount;
+
+		private CountingIMap(HazelcastInstance hazelcastInstance, String name) {
+			super(hazelcastInstance, name);
+		}
+
+		@Override
+		public Document find(String key) throws Exception {
+			findCount++;
+			return super.find(key);
+		}
+
+		@Override
+		public Map<String, Document> findAll(Set<String> keys) throws Exception {
+			findAllKeys.add(new HashSet<>(keys));
+			return super.findAll(keys);
+		}
+	}
+}
@@ -0,0 +1,218 @@
+package io.tapdata.flow.engine.V2.node.hazelcast.processor;
+
+import com.tapdata.entity.TapdataEvent;
+import io.tapdata.entity.event.ddl.table.TapCreateTableEvent;
+import io.tapdata.entity.event.dml.TapInsertRecordEvent;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class MergeNodePartitionerTest {
+
+	private static final ToIntFunction<TapdataEvent> PARTITION_OF = event -> (int) (key(event) % 2);
+
+	private ExecutorService executor;
+	private List<Map<String, MergeNodeCache>> partitionCaches;
+
+	@After
+	public void after() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testResultsOfferedInBatchOrder() {
+		MergeNodePartitioner partitioner = partitioner(2, 2);
+		List<TapdataEvent> events = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			events.add(dml(i));
+		}
+		Map<Integer, List<Long>> processedByPartition = new ConcurrentHashMap<>();
+		List<TapdataEvent> offered = new ArrayList<>();
+		partitioner.process(events, PARTITION_OF, new TestHandler() {
+			@Override
+			public List<TapdataEvent> process(TapdataEvent event) {
+				// partition 0 is slower, so partition 1 is done first
+				if (PARTITION_OF.applyAsInt(event) == 0) {
+					sleep();
+				}
+				processedByPartition.computeIfAbsent(PARTITION_OF.applyAsInt(event), k -> new CopyOnWriteArrayList<>()).add(key(event));
+				return Collections.singletonList(event);
+			}
+		}, offered::addAll);
+
+		Assert.assertEquals(events, offered);
+		for (Map.Entry<Integer, List<Long>> entry : processedByPartition.entrySet()) {
+			List<Long> keys = entry.getValue();
+			Assert.assertEquals(10, keys.size());
+			for (int i = 1; i < keys.size(); i++) {
+				Assert.assertTrue("events of partition " + entry.getKey() + " out of order: " + keys, keys.get(i - 1) < keys.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void testBarrierSplitsBatch() {
+		MergeNodePartitioner partitioner = partitioner(2, 2);
+		TapdataEvent ddl = barrier();
+		List<TapdataEvent> events = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			events.add(dml(i));
+		}
+		events.add(ddl);
+		for (int i = 4; i < 8; i++) {
+			events.add(dml(i));
+		}
+		Thread caller = Thread.currentThread();
+		List<Long> processed = new CopyOnWriteArrayList<>();
+		List<List<TapdataEvent>> begunPartitions = new CopyOnWriteArrayList<>();
+		List<TapdataEvent> offered = new ArrayList<>();
+		partitioner.process(events, PARTITION_OF, new TestHandler() {
+			@Override
+			public void beginPartition(List<TapdataEvent> events, Map<String, MergeNodeCache> mergeCaches) {
+				begunPartitions.add(new ArrayList<>(events));
+			}
+
+			@Override
+			public List<TapdataEvent> process(TapdataEvent event) {
+				if (event == ddl) {
+					// processed by the calling thread, after all events before it and before any event after it
+					Assert.assertSame(caller, Thread.currentThread());
+					Assert.assertNull(partitioner.currentCaches());
+					Assert.assertEquals(4, processed.size());
+					Assert.assertEquals(4, offered.size());
+					processed.add(-1L);
+				} else {
+					processed.add(key(event));
+				}
+				return Collections.singletonList(event);
+			}
+		}, offered::addAll);
+
+		Assert.assertEquals(events, offered);
+		Assert.assertEquals(-1L, (long) processed.get(4));
+		// each side of the barrier is one batch of partitions, so prefetch never mixes them
+		Assert.assertEquals(4, begunPartitions.size());
+		for (List<TapdataEvent> partitionEvents : begunPartitions) {
+			long before = partitionEvents.stream().filter(e -> key(e) < 4).count();
+			Assert.assertTrue(before == 0 || before == partitionEvents.size());
+		}
+	}
+
+	@Test
+	public void testPartitionCachesOfWorker() throws Exception {
+		// one worker runs both partitions, each must see its own caches only
+		MergeNodePartitioner partitioner = partitioner(2, 1);
+		List<TapdataEvent> events = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			events.add(dml(i));
+		}
+		List<TapdataEvent> offered = new ArrayList<>();
+		partitioner.process(events, PARTITION_OF, new TestHandler() {
+			@Override
+			public void beginPartition(List<TapdataEvent> events, Map<String, MergeNodeCache> mergeCaches) {
+				Assert.assertSame(mergeCaches, partitioner.currentCaches());
+			}
+
+			@Override
+			public List<TapdataEvent> process(TapdataEvent event) {
+				Assert.assertSame(partitionCaches.get(PARTITION_OF.applyAsInt(event)), partitioner.currentCaches());
+				return Collections.singletonList(event);
+			}
+		}, offered::addAll);
+
+		Assert.assertEquals(events, offered);
+		Assert.assertNull(partitioner.currentCaches());
+		// the worker thread is left without caches
+		Assert.assertNull(executor.submit(partitioner::currentCaches).get(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testNothingOfferedAfterPartitionError() {
+		MergeNodePartitioner partitioner = partitioner(2, 2);
+		List<TapdataEvent> events = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			events.add(dml(i));
+		}
+		List<TapdataEvent> offered = new ArrayList<>();
+		try {
+			partitioner.process(events, PARTITION_OF, new TestHandler() {
+				@Override
+				public List<TapdataEvent> process(TapdataEvent event) {
+					if (key(event) == 3) {
+						throw new IllegalStateException("process failed");
+					}
+					return Collections.singletonList(event);
+				}
+			}, offered::addAll);
+			Assert.fail("error of a partition is not thrown");
+		} catch (IllegalStateException e) {
+			Assert.assertEquals("process failed", e.getMessage());
+		}
+		Assert.assertTrue(offered.isEmpty());
+	}
+
+	private MergeNodePartitioner partitioner(int partitions, int threads) {
+		executor = Executors.newFixedThreadPool(threads);
+		partitionCaches = new ArrayList<>();
+		for (int i = 0; i < partitions; i++) {
+			Map<String, MergeNodeCache> mergeCaches = new HashMap<>();
+			mergeCaches.put("child", new MergeNodeCache(null, 0));
+			partitionCaches.add(mergeCaches);
+		}
+		return new MergeNodePartitioner(partitionCaches, executor);
+	}
+
+	private static TapdataEvent dml(long key) {
+		Map<String, Object> after = new HashMap<>();
+		after.put("id", key);
+		TapdataEvent tapdataEvent = new TapdataEvent();
+		tapdataEvent.setTapEvent(TapInsertRecordEvent.create().table("t").after(after));
+		return tapdataEvent;
+	}
+
+	private static TapdataEvent barrier() {
+		TapdataEvent tapdataEvent = new TapdataEvent();
+		tapdataEvent.setTapEvent(new TapCreateTableEvent());
+		return tapdataEvent;
+	}
+
+	private static long key(TapdataEvent tapdataEvent) {
+		return (Long) ((TapInsertRecordEvent) tapdataEvent.getTapEvent()).getAfter().get("id");
+	}
+
+	private static void sleep() {
+		try {
+			TimeUnit.MILLISECONDS.sleep(5);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private abstract static class TestHandler implements MergeNodePartitioner.Handler {
+		@Override
+		public void beginPartition(List<TapdataEvent> events, Map<String, MergeNodeCache> mergeCaches) {
+		}
+
+		@Override
+		public void endPartition() {
+		}
+	}
+}
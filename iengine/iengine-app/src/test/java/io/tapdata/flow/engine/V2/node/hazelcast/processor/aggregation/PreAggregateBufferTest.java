@@ -0,0 +1,184 @@
+package io.tapdata.flow.engine.V2.node.hazelcast.processor.aggregation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.tapdata.constant.HazelcastUtil;
+import com.tapdata.entity.TapdataEvent;
+import com.tapdata.entity.hazelcast.HZLoggingType;
+import io.tapdata.constructImpl.ConstructIMap;
+import io.tapdata.entity.event.dml.TapDeleteRecordEvent;
+import io.tapdata.entity.event.dml.TapInsertRecordEvent;
+import io.tapdata.entity.event.dml.TapRecordEvent;
+import io.tapdata.entity.event.dml.TapUpdateRecordEvent;
+import io.tapdata.flow.engine.V2.node.hazelcast.HazelcastBaseNode.TapValueTransform;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class PreAggregateBufferTest {
+
+	private HazelcastInstance hazelcastInstance;
+	private ConstructIMap<BigDecimal> cache;
+
+	@Before
+	public void init() {
+		Config config = HazelcastUtil.getConfig("unit-test-" + System.currentTimeMillis(), HZLoggingType.NONE);
+		hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+		cache = new ConstructIMap<>(hazelcastInstance, "unit-test-pre-aggregate");
+	}
+
+	@After
+	public void after() throws Exception {
+		if (cache != null) {
+			cache.clear();
+		}
+		if (hazelcastInstance != null) {
+			hazelcastInstance.shutdown();
+		}
+	}
+
+	@Test
+	public void testSumFoldAndFlush() throws Exception {
+		PreAggregateBuffer buffer = buffer("SUM");
+		Assert.assertTrue(fold(buffer, insert("A", 10, 1)));
+		Assert.assertTrue(fold(buffer, insert("B", 5, 2)));
+		Assert.assertTrue(fold(buffer, insert("A", 7, 3)));
+		Assert.assertTrue(fold(buffer, update("A", 7, "B", 8, 4)));
+
+		List<PreAggregateBuffer.Result> results = buffer.flush();
+		Assert.assertTrue(buffer.isEmpty());
+		Assert.assertEquals(2, results.size());
+		Assert.assertEquals(new BigDecimal("10"), cache.find("A"));
+		Assert.assertEquals(new BigDecimal("2"), cache.find("B#counter"));
+		Assert.assertEquals(new BigDecimal("13"), cache.find("B"));
+
+		// the next batch updates the existing groups
+		Assert.assertTrue(fold(buffer, delete("A", 10, 5)));
+		results = buffer.flush();
+		Assert.assertEquals(1, results.size());
+		Assert.assertTrue(results.get(0).getTapdataEvent().getTapEvent() instanceof TapDeleteRecordEvent);
+		Assert.assertNull(cache.find("A"));
+		Assert.assertNull(cache.find("A#counter"));
+	}
+
+	@Test
+	public void testResultsInOrderOfLastChange() throws Exception {
+		PreAggregateBuffer buffer = buffer("COUNT");
+		TapdataEvent e1 = insert("A", 1, 1);
+		TapdataEvent e2 = insert("B", 1, 2);
+		TapdataEvent e3 = insert("A", 1, 3);
+		fold(buffer, e1);
+		fold(buffer, e2);
+		fold(buffer, e3);
+
+		List<PreAggregateBuffer.Result> results = buffer.flush();
+		Assert.assertEquals(2, results.size());
+		// B@e2 then A@e3, the offset of the last event of the batch comes last
+		Assert.assertEquals(2L, results.get(0).getTapdataEvent().getStreamOffset());
+		Assert.assertEquals("B", after(results.get(0)).get("g"));
+		Assert.assertEquals(3L, results.get(1).getTapdataEvent().getStreamOffset());
+		Assert.assertEquals("A", after(results.get(1)).get("g"));
+		Assert.assertEquals(new BigDecimal("2"), after(results.get(1)).get("COUNT"));
+	}
+
+	@Test
+	public void testGroupNettingToZeroKeepsOffset() throws Exception {
+		PreAggregateBuffer buffer = buffer("COUNT");
+		fold(buffer, insert("A", 1, 1));
+		fold(buffer, insert("B", 1, 2));
+		fold(buffer, delete("B", 1, 3));
+
+		List<PreAggregateBuffer.Result> results = buffer.flush();
+		Assert.assertEquals(2, results.size());
+		TapdataEvent last = results.get(1).getTapdataEvent();
+		Assert.assertTrue(last.getTapEvent() instanceof TapDeleteRecordEvent);
+		Assert.assertEquals(3L, last.getStreamOffset());
+		Assert.assertNull(cache.find("B"));
+	}
+
+	@Test
+	public void testUnfoldableEventFlushesFirst() {
+		List<String> output = new ArrayList<>();
+		List<String> folded = new ArrayList<>();
+		PreAggregateBuffer.foldBatch(new ArrayList<>(Arrays.asList("f1", "f2", "x3", "f4", "x5")),
+				item -> {
+					if (((String) item).startsWith("f")) {
+						folded.add((String) item);
+						return true;
+					}
+					return false;
+				},
+				() -> {
+					if (!folded.isEmpty()) {
+						output.add(String.join("+", folded));
+						folded.clear();
+					}
+				},
+				item -> output.add((String) item));
+		Assert.assertEquals(Arrays.asList("f1+f2", "x3", "f4", "x5"), output);
+	}
+
+	@Test
+	public void testNotFoldable() throws Exception {
+		PreAggregateBuffer buffer = buffer("SUM");
+		Map<String, Object> row = new HashMap<>();
+		row.put("g", "A");
+		TapdataEvent event = event(TapInsertRecordEvent.create().table("t").after(row), 1);
+		// no value to sum
+		Assert.assertFalse(fold(buffer, event));
+		Assert.assertTrue(buffer.isEmpty());
+	}
+
+	private PreAggregateBuffer buffer(String op) {
+		return new PreAggregateBuffer(op, "v", Collections.singletonList("g"), data -> String.valueOf(data.get("g")), cache);
+	}
+
+	private static boolean fold(PreAggregateBuffer buffer, TapdataEvent event) {
+		return buffer.fold(event, TapValueTransform.create());
+	}
+
+	private static Map<String, Object> after(PreAggregateBuffer.Result result) {
+		TapRecordEvent tapRecordEvent = (TapRecordEvent) result.getTapdataEvent().getTapEvent();
+		return ((TapInsertRecordEvent) tapRecordEvent).getAfter();
+	}
+
+	private static TapdataEvent insert(String group, int value, long offset) {
+		return event(TapInsertRecordEvent.create().table("t").after(row(group, value)), offset);
+	}
+
+	private static TapdataEvent delete(String group, int value, long offset) {
+		return event(TapDeleteRecordEvent.create().table("t").before(row(group, value)), offset);
+	}
+
+	private static TapdataEvent update(String beforeGroup, int beforeValue, String afterGroup, int afterValue, long offset) {
+		return event(TapUpdateRecordEvent.create().table("t").before(row(beforeGroup, beforeValue)).after(row(afterGroup, afterValue)), offset);
+	}
+
+	private static TapdataEvent event(TapRecordEvent tapRecordEvent, long offset) {
+		TapdataEvent tapdataEvent = new TapdataEvent();
+		tapdataEvent.setTapEvent(tapRecordEvent);
+		tapdataEvent.setStreamOffset(offset);
+		return tapdataEvent;
+	}
+
+	private static Map<String, Object> row(String group, int value) {
+		Map<String, Object> row = new HashMap<>();
+		row.put("g", group);
+		row.put("v", value);
+		return row;
+	}
+}
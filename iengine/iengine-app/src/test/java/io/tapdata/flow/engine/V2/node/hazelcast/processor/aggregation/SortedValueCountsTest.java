@@ -0,0 +1,152 @@
+package io.tapdata.flow.engine.V2.node.hazelcast.processor.aggregation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.tapdata.constant.HazelcastUtil;
+import com.tapdata.entity.hazelcast.HZLoggingType;
+import io.tapdata.constructImpl.ConstructIMap;
+import io.tapdata.constructImpl.RowBucketIMap;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class SortedValueCountsTest {
+
+	private static final String NAME = "unit-test-value-counts";
+
+	private HazelcastInstance hazelcastInstance;
+	private SortedValueCounts valueCounts;
+
+	@Before
+	public void init() {
+		Config config = HazelcastUtil.getConfig("unit-test-" + System.currentTimeMillis(), HZLoggingType.NONE);
+		hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+		valueCounts = new SortedValueCounts(new RowBucketIMap<>(hazelcastInstance, NAME), 10);
+	}
+
+	@After
+	public void after() throws Exception {
+		if (valueCounts != null) {
+			valueCounts.getStore().destroy();
+		}
+		if (hazelcastInstance != null) {
+			hazelcastInstance.shutdown();
+		}
+	}
+
+	@Test
+	public void testAddAndRemove() throws Exception {
+		valueCounts.add("g1", new BigDecimal("3"));
+		valueCounts.add("g1", new BigDecimal("7"));
+		valueCounts.add("g1", new BigDecimal("7"));
+		valueCounts.add("g1", new BigDecimal("-2"));
+
+		Assert.assertEquals(0, new BigDecimal("7").compareTo(valueCounts.max("g1")));
+		Assert.assertEquals(0, new BigDecimal("-2").compareTo(valueCounts.min("g1")));
+
+		// a value added twice stays the max until both are retracted
+		Assert.assertTrue(valueCounts.remove("g1", new BigDecimal("7")));
+		Assert.assertEquals(0, new BigDecimal("7").compareTo(valueCounts.max("g1")));
+		Assert.assertTrue(valueCounts.remove("g1", new BigDecimal("7")));
+		Assert.assertEquals(0, new BigDecimal("3").compareTo(valueCounts.max("g1")));
+
+		Assert.assertFalse(valueCounts.remove("g1", new BigDecimal("100")));
+		Assert.assertTrue(valueCounts.remove("g1", new BigDecimal("3")));
+		Assert.assertTrue(valueCounts.remove("g1", new BigDecimal("-2")));
+		Assert.assertNull(valueCounts.max("g1"));
+		Assert.assertNull(valueCounts.min("g1"));
+		Assert.assertFalse(valueCounts.exists("g1"));
+	}
+
+	@Test
+	public void testNormalize() throws Exception {
+		valueCounts.add("g1", new BigDecimal("1.0"));
+		valueCounts.add("g1", new BigDecimal("1"));
+		valueCounts.add("g1", new BigDecimal("0.00"));
+
+		// 1.0 and 1 are one value counted twice, 0.00 is zero
+		Assert.assertEquals(2, valueCounts.getStore().find("g1").size());
+		Assert.assertEquals(Long.valueOf(2), valueCounts.getStore().findRow("g1", "1"));
+		Assert.assertEquals(Long.valueOf(1), valueCounts.getStore().findRow("g1", "0"));
+		Assert.assertTrue(valueCounts.remove("g1", new BigDecimal("1.00")));
+		Assert.assertTrue(valueCounts.remove("g1", BigDecimal.ONE));
+		Assert.assertEquals(0, BigDecimal.ZERO.compareTo(valueCounts.max("g1")));
+	}
+
+	@Test
+	public void testReloadFromStore() throws Exception {
+		valueCounts.add("g1", new BigDecimal("5"));
+		valueCounts.add("g1", new BigDecimal("9"));
+		valueCounts.add("g2", new BigDecimal("1"));
+
+		// a new instance over the same maps, as after an engine restart
+		SortedValueCounts reopened = new SortedValueCounts(new RowBucketIMap<>(hazelcastInstance, NAME), 10);
+		Assert.assertEquals(0, new BigDecimal("9").compareTo(reopened.max("g1")));
+		Assert.assertEquals(0, new BigDecimal("5").compareTo(reopened.min("g1")));
+		Assert.assertTrue(reopened.exists("g2"));
+		Assert.assertTrue(reopened.remove("g1", new BigDecimal("9")));
+		Assert.assertEquals(0, new BigDecimal("5").compareTo(reopened.max("g1")));
+	}
+
+	@Test
+	public void testWindowOfLargeGroup() throws Exception {
+		// 2 values of each side in memory, at most 4 after adding
+		SortedValueCounts windowed = new SortedValueCounts(valueCounts.getStore(), 10, 2);
+		for (int i = 1; i <= 20; i++) {
+			windowed.add("g1", BigDecimal.valueOf(i));
+		}
+		windowed.clearLocal();
+		Assert.assertEquals(0, new BigDecimal("20").compareTo(windowed.max("g1")));
+		Assert.assertEquals(0, BigDecimal.ONE.compareTo(windowed.min("g1")));
+
+		// values between both sides are counted from their rows
+		windowed.add("g1", new BigDecimal("10"));
+		Assert.assertEquals(Long.valueOf(2), valueCounts.getStore().findRow("g1", "10"));
+		Assert.assertTrue(windowed.remove("g1", new BigDecimal("10")));
+		Assert.assertEquals(Long.valueOf(1), valueCounts.getStore().findRow("g1", "10"));
+		Assert.assertFalse(windowed.remove("g1", new BigDecimal("10.5")));
+
+		// a new lowest value joins the head
+		windowed.add("g1", new BigDecimal("-1"));
+		Assert.assertEquals(0, new BigDecimal("-1").compareTo(windowed.min("g1")));
+		Assert.assertTrue(windowed.remove("g1", new BigDecimal("-1")));
+
+		// retracting the highest values goes past the tail, the group is read again
+		for (int i = 20; i > 1; i--) {
+			Assert.assertEquals(0, BigDecimal.valueOf(i).compareTo(windowed.max("g1")));
+			Assert.assertTrue(windowed.remove("g1", BigDecimal.valueOf(i)));
+			Assert.assertEquals(0, BigDecimal.ONE.compareTo(windowed.min("g1")));
+		}
+		Assert.assertEquals(0, BigDecimal.ONE.compareTo(windowed.max("g1")));
+		Assert.assertTrue(windowed.remove("g1", BigDecimal.ONE));
+		Assert.assertNull(windowed.max("g1"));
+		Assert.assertFalse(windowed.exists("g1"));
+	}
+
+	@Test
+	public void testMigrateFrom() throws Exception {
+		ConstructIMap<List<BigDecimal>> lists = new ConstructIMap<>(hazelcastInstance, "unit-test-value-lists");
+		lists.insert("g1", new ArrayList<>(Arrays.asList(new BigDecimal("4"), new BigDecimal("8.50"), new BigDecimal("2"))));
+		lists.insert("g2", new ArrayList<>(Arrays.asList(new BigDecimal("6"))));
+
+		Assert.assertEquals(2, valueCounts.migrateFrom(lists));
+		Assert.assertTrue(lists.isEmpty());
+		Assert.assertEquals(0, new BigDecimal("8.5").compareTo(valueCounts.max("g1")));
+		Assert.assertEquals(0, new BigDecimal("2").compareTo(valueCounts.min("g1")));
+		Assert.assertEquals(Long.valueOf(1), valueCounts.getStore().findRow("g1", "8.5"));
+		Assert.assertEquals(0, new BigDecimal("6").compareTo(valueCounts.max("g2")));
+		// nothing left to migrate
+		Assert.assertEquals(0, valueCounts.migrateFrom(lists));
+	}
+}
@@ -10,6 +10,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -50,6 +51,53 @@ public abstract class AbstractCacheGetter implements ICacheGetter {
     return result;
   }
 
+  @Override
+  public List<Map<String, Object>> getCaches(String cacheName, Boolean lookup, List<?> cacheKeys) throws InterruptedException {
+    List<Map<String, Object>> results = new ArrayList<>(cacheKeys.size());
+    // 未命中的键 -> 结果下标
+    Map<String, List<Integer>> missIndexes = new LinkedHashMap<>();
+    List<Object[]> missKeys = new ArrayList<>();
+    for (int i = 0; i < cacheKeys.size(); i++) {
+      Object[] keys = CacheUtil.keyValues(cacheKeys.get(i));
+      Map<String, Object> record = getRecord(cacheName, keys);
+      results.add(record);
+      if (record != null || !lookup) {
+        cacheStats.hitRateStats(cacheName, record != null);
+        continue;
+      }
+      String key = CacheUtil.cacheKey(keys);
+      List<Integer> indexes = missIndexes.get(key);
+      if (indexes == null) {
+        indexes = new ArrayList<>(1);
+        missIndexes.put(key, indexes);
+        missKeys.add(keys);
+      }
+      indexes.add(i);
+      cacheStats.hitRateStats(cacheName, false);
+    }
+    if (missKeys.isEmpty()) {
+      return results;
+    }
+    IDataSourceRowsGetter iDataSourceRowsGetter = getDataSourceRowsGetter();
+    if (iDataSourceRowsGetter == null) {
+      return results;
+    }
+    Map<String, List<Map<String, Object>>> rowsByKey = iDataSourceRowsGetter.getRows(missKeys);
+    int missIndex = 0;
+    for (Map.Entry<String, List<Integer>> entry : missIndexes.entrySet()) {
+      // 源库数据按规范化的键分组，缓存仍按原键存
+      List<Map<String, Object>> rows = rowsByKey.get(CacheUtil.normalizedCacheKey(missKeys.get(missIndex++)));
+      if (CollectionUtils.isEmpty(rows)) {
+        continue;
+      }
+      cacheStore.cacheRow(cacheName, entry.getKey(), rows);
+      for (Integer index : entry.getValue()) {
+        results.set(index, CacheUtil.returnCacheRow(rows.get(rows.size() - 1)));
+      }
+    }
+    return results;
+  }
+
   @Override
   public Object getCacheItem(String cacheName, String field, Object defaultValue, Object... cacheKeys) throws InterruptedException {
     Map<String, Object> row = getAndSetCache(cacheName, true, cacheKeys);
@@ -13,6 +13,7 @@ import org.voovan.tools.collection.CacheMap;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
@@ -131,6 +132,11 @@ public abstract class AbstractCacheService implements ICacheService {
     return getCacheGetter(cacheName).getCache(cacheName, lookup, cacheKeys);
   }
 
+  @Override
+  public List<Map<String, Object>> getCaches(String cacheName, Boolean lookup, List<?> cacheKeys) throws InterruptedException {
+    return getCacheGetter(cacheName).getCaches(cacheName, lookup, cacheKeys);
+  }
+
   @Override
   public Object getCacheItem(String cacheName, String field, Object defaultValue, Object... cacheKeys) throws InterruptedException {
     return getCacheGetter(cacheName).getCacheItem(cacheName, field, defaultValue, cacheKeys);
@@ -159,11 +165,21 @@ public abstract class AbstractCacheService implements ICacheService {
     getCacheStore(cacheName).cacheRow(cacheName, key, rows);
   }
 
+  @Override
+  public void cacheRows(String cacheName, Map<String, List<Map<String, Object>>> rowsByKey) {
+    getCacheStore(cacheName).cacheRows(cacheName, rowsByKey);
+  }
+
   @Override
   public void removeByKey(String cacheName, String cacheKey, String pkKey) {
     getCacheStore(cacheName).removeByKey(cacheName, cacheKey, pkKey);
   }
 
+  @Override
+  public void removeByKeys(String cacheName, Map<String, Set<String>> pkKeysByKey) {
+    getCacheStore(cacheName).removeByKeys(cacheName, pkKeysByKey);
+  }
+
   @Override
   public void updateCacheStatus(String cacheName, String status) {
     Lock lock = getCacheStatusLock(cacheName);
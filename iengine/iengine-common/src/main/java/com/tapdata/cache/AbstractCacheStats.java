@@ -4,6 +4,13 @@ public abstract class AbstractCacheStats implements ICacheStats {
 
   private long lastLogTs;
 
+  /**
+   * 近端缓存命中统计，仅当前进程
+   */
+  private long nearCacheHitCount;
+
+  private long nearCacheMissCount;
+
   /**
    * 当缓存命中率低于此数值时，打印日志
    */
@@ -25,6 +32,25 @@ public abstract class AbstractCacheStats implements ICacheStats {
     }
   }
 
+  @Override
+  public synchronized void nearCacheHitRateStats(String cacheName, boolean hitCache) {
+    if (hitCache) {
+      nearCacheHitCount++;
+    } else {
+      nearCacheMissCount++;
+    }
+  }
+
+  @Override
+  public long getNearCacheHitCount() {
+    return nearCacheHitCount;
+  }
+
+  @Override
+  public long getNearCacheMissCount() {
+    return nearCacheMissCount;
+  }
+
   @Override
   public long getLastLogTs() {
     return lastLogTs;
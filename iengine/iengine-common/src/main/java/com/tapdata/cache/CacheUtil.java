@@ -12,6 +12,7 @@ import com.tapdata.tm.commons.dag.nodes.CacheNode;
 import com.tapdata.tm.commons.dag.nodes.TableNode;
 import com.tapdata.tm.commons.task.dto.TaskDto;
 import io.tapdata.exception.DataFlowException;
+import jdk.nashorn.api.scripting.ScriptObjectMirror;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -61,6 +62,50 @@ public class CacheUtil {
     return sb.toString();
   }
 
+  /**
+   * 与 {@link #cacheKey(Object...)} 相同，但数字按规范形式拼接，1、1L 与 1.0 得到同一个键
+   * <p>
+   * 只用于把源库查出的数据对应到查询它的键，缓存本身仍按 {@link #cacheKey(Object...)} 存取
+   */
+  public static String normalizedCacheKey(Object... cacheKeys) {
+    StringBuilder sb = new StringBuilder();
+    if (cacheKeys != null) {
+      for (Object cacheKey : cacheKeys) {
+        sb.append(normalizeKeyValue(cacheKey)).append(CACHE_KEY_SEPERATE);
+      }
+    }
+
+    return sb.toString();
+  }
+
+  private static Object normalizeKeyValue(Object keyValue) {
+    if (!(keyValue instanceof Number)) {
+      return keyValue;
+    }
+    try {
+      return new BigDecimal(keyValue.toString()).stripTrailingZeros().toPlainString();
+    } catch (NumberFormatException e) {
+      // NaN, Infinity
+      return keyValue;
+    }
+  }
+
+  /**
+   * 批量查询中一组键的值：数组、List、脚本数组，或单个值
+   */
+  public static Object[] keyValues(Object cacheKey) {
+    if (cacheKey instanceof Object[]) {
+      return (Object[]) cacheKey;
+    }
+    if (cacheKey instanceof ScriptObjectMirror && ((ScriptObjectMirror) cacheKey).isArray()) {
+      return ((ScriptObjectMirror) cacheKey).to(List.class).toArray();
+    }
+    if (cacheKey instanceof Collection) {
+      return ((Collection<?>) cacheKey).toArray();
+    }
+    return new Object[]{cacheKey};
+  }
+
   public static Object[] getKeyValues(List<String> keys, Map<String, Object> row) {
     if (CollectionUtils.isEmpty(keys)) {
       return null;
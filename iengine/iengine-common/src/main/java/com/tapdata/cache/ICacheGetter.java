@@ -1,5 +1,6 @@
 package com.tapdata.cache;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -55,6 +56,35 @@ public interface ICacheGetter {
     return getCache(cacheName, true, cacheKeys);
   }
 
+  /**
+   * 根据 缓存名+多组键 批量取缓存，缓存中没有的键合并为一次源库查询
+   *
+   * @param cacheName 缓存名
+   * @param lookup    是否查源库
+   * @param cacheKeys 多组键，每组为数组、List、脚本数组，或单个键值，见 {@link CacheUtil#keyValues(Object)}
+   * @return 与键顺序一致的记录，未找到为 null
+   * @throws InterruptedException 线程中断异常
+   */
+  default List<Map<String, Object>> getCaches(String cacheName, Boolean lookup, List<?> cacheKeys) throws InterruptedException {
+    List<Map<String, Object>> results = new ArrayList<>(cacheKeys.size());
+    for (Object keys : cacheKeys) {
+      results.add(getCache(cacheName, lookup, CacheUtil.keyValues(keys)));
+    }
+    return results;
+  }
+
+  /**
+   * 根据 缓存名+多组键 批量取缓存，缓存中没有的键合并为一次源库查询
+   *
+   * @param cacheName 缓存名
+   * @param cacheKeys 多组键，每组为数组、List、脚本数组，或单个键值
+   * @return 与键顺序一致的记录，未找到为 null
+   * @throws InterruptedException 线程中断异常
+   */
+  default List<Map<String, Object>> getCaches(String cacheName, List<?> cacheKeys) throws InterruptedException {
+    return getCaches(cacheName, true, cacheKeys);
+  }
+
   /**
    * 获取字段值，为空返回默认值
    *
@@ -25,4 +25,19 @@ public interface ICacheStats {
   long addAndGetCacheDataSize(long dataSize);
 
   long getLastLogTs();
+
+  /**
+   * Count a lookup of the process local near-cache, on top of the lookups counted by {@link #hitRateStats}
+   */
+  default void nearCacheHitRateStats(String cacheName, boolean hitCache) {
+
+  }
+
+  default long getNearCacheHitCount() {
+    return 0;
+  }
+
+  default long getNearCacheMissCount() {
+    return 0;
+  }
 }
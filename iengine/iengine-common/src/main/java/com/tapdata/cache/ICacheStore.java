@@ -2,6 +2,7 @@ package com.tapdata.cache;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * cache store
@@ -10,8 +11,32 @@ public interface ICacheStore {
 
   void cacheRow(String cacheName, String key, List<Map<String, Object>> rows);
 
+  /**
+   * Cache the rows of many keys at once, same result as {@link #cacheRow} for each key
+   *
+   * @param rowsByKey rows by cache key
+   */
+  default void cacheRows(String cacheName, Map<String, List<Map<String, Object>>> rowsByKey) {
+    for (Map.Entry<String, List<Map<String, Object>>> entry : rowsByKey.entrySet()) {
+      cacheRow(cacheName, entry.getKey(), entry.getValue());
+    }
+  }
+
   void removeByKey(String cacheName, String cacheKey, String pkKey);
 
+  /**
+   * Remove the rows of many keys at once, same result as {@link #removeByKey} for each row
+   *
+   * @param pkKeysByKey primary keys of the rows by cache key
+   */
+  default void removeByKeys(String cacheName, Map<String, Set<String>> pkKeysByKey) {
+    for (Map.Entry<String, Set<String>> entry : pkKeysByKey.entrySet()) {
+      for (String pkKey : entry.getValue()) {
+        removeByKey(cacheName, entry.getKey(), pkKey);
+      }
+    }
+  }
+
   default void destroy() {
 
   }
@@ -1,5 +1,6 @@
 package com.tapdata.cache;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -10,6 +11,27 @@ public interface IDataSourceRowsGetter {
 
   List<Map<String, Object>> getRows(Object[] keys);
 
+  /**
+   * 批量查询多组键的数据
+   *
+   * @param keysList 多组键
+   * @return 按 {@link CacheUtil#normalizedCacheKey(Object...)} 分组的数据，没有数据的键不在其中
+   */
+  default Map<String, List<Map<String, Object>>> getRows(List<Object[]> keysList) {
+    Map<String, List<Map<String, Object>>> result = new HashMap<>();
+    for (Object[] keys : keysList) {
+      String cacheKey = CacheUtil.normalizedCacheKey(keys);
+      if (result.containsKey(cacheKey)) {
+        continue;
+      }
+      List<Map<String, Object>> rows = getRows(keys);
+      if (null != rows && !rows.isEmpty()) {
+        result.put(cacheKey, rows);
+      }
+    }
+    return result;
+  }
+
   default void close() {
   }
 
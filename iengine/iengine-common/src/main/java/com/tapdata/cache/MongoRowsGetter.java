@@ -11,6 +11,9 @@ import org.apache.commons.collections.MapUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -70,4 +73,32 @@ public class MongoRowsGetter implements IDataSourceRowsGetter {
 
     return results;
   }
+
+  /**
+   * 多组键合并为分批的查询，再按规范化的键分组，源库中的 1.0 与查询键 1 对应同一组
+   */
+  @Override
+  public Map<String, List<Map<String, Object>>> getRows(List<Object[]> keysList) {
+    Map<String, List<Map<String, Object>>> result = new HashMap<>();
+    if (scriptConnection == null || keysList.isEmpty()) {
+      return result;
+    }
+    String database = MongodbUtil.getDatabase(sourceConnection);
+    List<Map<String, Object>> rows = ScriptUtil.executeMongoBatchQuery(
+            scriptConnection,
+            database,
+            this.config.getTableName(),
+            this.config.getCacheKeys(),
+            keysList
+    );
+    if (rows == null) {
+      return result;
+    }
+    List<String> fields = Arrays.asList(this.config.getCacheKeys().split(","));
+    for (Map<String, Object> row : rows) {
+      String cacheKey = CacheUtil.normalizedCacheKey(CacheUtil.getKeyValues(fields, row));
+      result.computeIfAbsent(cacheKey, k -> new ArrayList<>()).add(row);
+    }
+    return result;
+  }
 }
@@ -15,10 +15,17 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 
+import java.util.List;
+import java.util.Map;
+
 public class HazelcastCacheGetter extends AbstractSerializerCacheGetter {
 
   private final HazelcastInstance hazelcastInstance;
 
+  /**
+   * 进程内近端缓存，未开启时为 null
+   */
+  private final HazelcastNearCache nearCache;
 
   public HazelcastCacheGetter(DataFlowCacheConfig cacheConfig, ICacheStore cacheStore, ICacheStats cacheStats,
                               ClientMongoOperator clientMongoOperator,
@@ -27,6 +34,31 @@ public class HazelcastCacheGetter extends AbstractSerializerCacheGetter {
             ((AbstractSerializerCacheStore) cacheStore).getIndexMap(),
             ((AbstractSerializerCacheStore) cacheStore).getDataMap(), clientMongoOperator);
     this.hazelcastInstance = hazelcastInstance;
+    this.nearCache = HazelcastNearCache.create(hazelcastInstance, cacheConfig.getCacheName());
+  }
+
+  @Override
+  protected List<Map<String, Object>> findRows(String cacheKey) {
+    if (nearCache == null) {
+      return super.findRows(cacheKey);
+    }
+    List<Map<String, Object>> rows = nearCache.get(cacheKey);
+    cacheStats.nearCacheHitRateStats(cacheConfig.getCacheName(), rows != null);
+    if (rows == null) {
+      long version = nearCache.version();
+      rows = super.findRows(cacheKey);
+      nearCache.put(cacheKey, rows, version);
+    }
+    return rows;
+  }
+
+  @Override
+  protected Map<String, Object> findFirstRow(String cacheKey) {
+    if (nearCache == null) {
+      return super.findFirstRow(cacheKey);
+    }
+    List<Map<String, Object>> rows = findRows(cacheKey);
+    return rows.isEmpty() ? null : rows.get(0);
   }
 
   @Override
@@ -49,4 +81,15 @@ public class HazelcastCacheGetter extends AbstractSerializerCacheGetter {
     }
     return dataSourceRowsGetter;
   }
+
+  @Override
+  public void close() {
+    try {
+      super.close();
+    } finally {
+      if (nearCache != null) {
+        nearCache.close();
+      }
+    }
+  }
 }
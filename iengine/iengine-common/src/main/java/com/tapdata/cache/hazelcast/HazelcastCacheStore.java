@@ -1,11 +1,14 @@
 package com.tapdata.cache.hazelcast;
 
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.EntryProcessor;
 import com.hazelcast.map.IMap;
 import com.tapdata.cache.CacheUtil;
 import com.tapdata.cache.serializer.AbstractSerializerCacheStore;
 import com.tapdata.entity.dataflow.DataFlowCacheConfig;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -15,12 +18,66 @@ public class HazelcastCacheStore extends AbstractSerializerCacheStore {
 
   private Map<String, Map<String, Integer>> stageFieldProjection;
 
+  /**
+   * 写入时是否通知近端缓存失效
+   */
+  private final boolean invalidateNearCache;
 
   public HazelcastCacheStore(HazelcastInstance hazelcastInstance, DataFlowCacheConfig cacheConfig) {
     super(cacheConfig,
             hazelcastInstance.getMap(CacheUtil.cacheDataKey(cacheConfig.getCacheName())),
             hazelcastInstance.getMap(CacheUtil.cacheIndexKey(cacheConfig.getCacheName())));
     this.hazelcastInstance = hazelcastInstance;
+    this.invalidateNearCache = HazelcastNearCache.enabled();
+  }
+
+  @Override
+  public void cacheRow(String cacheName, String cacheKeys, List<Map<String, Object>> rows) {
+    super.cacheRow(cacheName, cacheKeys, rows);
+    if (invalidateNearCache && rows != null && !rows.isEmpty()) {
+      HazelcastNearCache.invalidate(hazelcastInstance, cacheName, Collections.singletonList(cacheKeys));
+    }
+  }
+
+  @Override
+  public void cacheRows(String cacheName, Map<String, List<Map<String, Object>>> rowsByKey) {
+    super.cacheRows(cacheName, rowsByKey);
+    if (invalidateNearCache && rowsByKey != null) {
+      HazelcastNearCache.invalidate(hazelcastInstance, cacheName, rowsByKey.keySet());
+    }
+  }
+
+  @Override
+  protected Map<String, Set<String>> getPkSets(Set<String> cacheKeys) {
+    if (this.indexMap instanceof IMap) {
+      return ((IMap<String, Set<String>>) this.indexMap).getAll(cacheKeys);
+    }
+    return super.getPkSets(cacheKeys);
+  }
+
+  @Override
+  public void removeByKey(String cacheName, String cacheKey, String pkKey) {
+    super.removeByKey(cacheName, cacheKey, pkKey);
+    if (invalidateNearCache) {
+      HazelcastNearCache.invalidate(hazelcastInstance, cacheName, Collections.singletonList(cacheKey));
+    }
+  }
+
+  @Override
+  public void removeByKeys(String cacheName, Map<String, Set<String>> pkKeysByKey) {
+    super.removeByKeys(cacheName, pkKeysByKey);
+    if (invalidateNearCache && pkKeysByKey != null) {
+      HazelcastNearCache.invalidate(hazelcastInstance, cacheName, pkKeysByKey.keySet());
+    }
+  }
+
+  @Override
+  protected void removeData(Set<String> pks) {
+    if (this.dataMap instanceof IMap) {
+      ((IMap<String, Map<String, Object>>) this.dataMap).executeOnKeys(pks, new RemoveEntry());
+      return;
+    }
+    super.removeData(pks);
   }
 
 
@@ -33,4 +90,20 @@ public class HazelcastCacheStore extends AbstractSerializerCacheStore {
       ((IMap<String, Map<String, Object>>) this.dataMap).destroy();
     }
   }
+
+  /**
+   * 删除条目，多个键由一次 executeOnKeys 删除
+   */
+  private static class RemoveEntry implements EntryProcessor<String, Map<String, Object>, Boolean> {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Boolean process(Map.Entry<String, Map<String, Object>> entry) {
+      if (null == entry.getValue()) {
+        return false;
+      }
+      entry.setValue(null);
+      return true;
+    }
+  }
 }
@@ -0,0 +1,176 @@
+package com.tapdata.cache.hazelcast;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import io.tapdata.pdk.core.utils.CommonUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process local copy of the recently read rows of a shared cache, by cache key
+ * <p>
+ * Bounded by {@link #NEAR_CACHE_SIZE} keys, least recently used first out, and each key expires
+ * {@link #NEAR_CACHE_TTL_SECONDS} after it was read. A key known to be absent is kept as an empty list.
+ * <p>
+ * Writes of the cache store invalidate the written keys: synchronously for the near-caches of this engine, and through
+ * the topic "cache-&lt;name&gt;-invalidation" for other engines. Both readers and writers have to enable it.
+ *
+ * @author tapdata
+ * @date 2026/10/18
+ **/
+public class HazelcastNearCache {
+
+  /**
+   * Max count of cache keys kept per engine and cache, 0 to disable
+   */
+  public final static String NEAR_CACHE_SIZE = "CACHE_NEAR_CACHE_SIZE";
+
+  public final static String NEAR_CACHE_TTL_SECONDS = "CACHE_NEAR_CACHE_TTL_SECONDS";
+
+  private final static Map<String, Set<HazelcastNearCache>> localNearCaches = new ConcurrentHashMap<>();
+
+  private final HazelcastInstance hazelcastInstance;
+  private final String cacheName;
+  private final long ttlMillis;
+  private final Map<String, Entry> entries;
+  private final ITopic<List<String>> topic;
+  private final UUID listenerId;
+
+  /**
+   * Increased on each invalidation, a row read from the store is only kept when no invalidation happened meanwhile
+   */
+  private final AtomicLong version = new AtomicLong();
+
+  public HazelcastNearCache(HazelcastInstance hazelcastInstance, String cacheName, int size, long ttlMillis) {
+    this.hazelcastInstance = hazelcastInstance;
+    this.cacheName = cacheName;
+    this.ttlMillis = ttlMillis;
+    this.entries = new LinkedHashMap<String, Entry>(16, 0.75F, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > size;
+      }
+    };
+    localNearCaches.computeIfAbsent(registryKey(hazelcastInstance, cacheName), k -> new CopyOnWriteArraySet<>()).add(this);
+    this.topic = hazelcastInstance.getTopic(topicName(cacheName));
+    this.listenerId = topic.addMessageListener(this::onMessage);
+  }
+
+  public static boolean enabled() {
+    return CommonUtils.getPropertyInt(NEAR_CACHE_SIZE, 0) > 0;
+  }
+
+  /**
+   * @return null when disabled
+   */
+  public static HazelcastNearCache create(HazelcastInstance hazelcastInstance, String cacheName) {
+    int size = CommonUtils.getPropertyInt(NEAR_CACHE_SIZE, 0);
+    if (size <= 0) {
+      return null;
+    }
+    long ttlMillis = TimeUnit.SECONDS.toMillis(CommonUtils.getPropertyInt(NEAR_CACHE_TTL_SECONDS, 60));
+    return new HazelcastNearCache(hazelcastInstance, cacheName, size, ttlMillis);
+  }
+
+  /**
+   * Invalidate the keys in the near-caches of this engine, then in other engines
+   */
+  public static void invalidate(HazelcastInstance hazelcastInstance, String cacheName, Collection<String> cacheKeys) {
+    if (cacheKeys.isEmpty()) {
+      return;
+    }
+    Set<HazelcastNearCache> nearCaches = localNearCaches.get(registryKey(hazelcastInstance, cacheName));
+    if (nearCaches != null) {
+      for (HazelcastNearCache nearCache : nearCaches) {
+        nearCache.invalidate(cacheKeys);
+      }
+    }
+    hazelcastInstance.<List<String>>getTopic(topicName(cacheName)).publish(new ArrayList<>(cacheKeys));
+  }
+
+  /**
+   * @return rows of the key, empty when it is known to be absent, null when not cached
+   */
+  public synchronized List<Map<String, Object>> get(String cacheKey) {
+    Entry entry = entries.get(cacheKey);
+    if (entry != null && entry.expireAt < System.currentTimeMillis()) {
+      entries.remove(cacheKey);
+      entry = null;
+    }
+    return entry == null ? null : entry.rows;
+  }
+
+  public long version() {
+    return version.get();
+  }
+
+  /**
+   * Keep the rows read from the store, unless keys were invalidated since {@link #version()} was taken before reading
+   */
+  public synchronized void put(String cacheKey, List<Map<String, Object>> rows, long readVersion) {
+    if (version.get() != readVersion) {
+      return;
+    }
+    entries.put(cacheKey, new Entry(rows, System.currentTimeMillis() + ttlMillis));
+  }
+
+  public synchronized void invalidate(Collection<String> cacheKeys) {
+    version.incrementAndGet();
+    for (String cacheKey : cacheKeys) {
+      entries.remove(cacheKey);
+    }
+  }
+
+  public synchronized void clear() {
+    version.incrementAndGet();
+    entries.clear();
+  }
+
+  public void close() {
+    topic.removeMessageListener(listenerId);
+    Set<HazelcastNearCache> nearCaches = localNearCaches.get(registryKey(hazelcastInstance, cacheName));
+    if (nearCaches != null) {
+      nearCaches.remove(this);
+    }
+    clear();
+  }
+
+  private void onMessage(Message<List<String>> message) {
+    Member member = message.getPublishingMember();
+    // published by this engine, already invalidated
+    if (member != null && member.localMember()) {
+      return;
+    }
+    invalidate(message.getMessageObject());
+  }
+
+  private static String topicName(String cacheName) {
+    return "cache-" + cacheName + "-invalidation";
+  }
+
+  private static String registryKey(HazelcastInstance hazelcastInstance, String cacheName) {
+    return hazelcastInstance.getName() + "/" + cacheName;
+  }
+
+  private static class Entry {
+    private final List<Map<String, Object>> rows;
+    private final long expireAt;
+
+    private Entry(List<Map<String, Object>> rows, long expireAt) {
+      this.rows = rows;
+      this.expireAt = expireAt;
+    }
+  }
+}
@@ -78,6 +78,20 @@ public class JobCacheGetter implements ICacheGetter {
     throw new RuntimeException("Not found cache '" + cacheName + "', data flow id '" + dataFlowId + "'");
   }
 
+  @Override
+  public List<Map<String, Object>> getCaches(String cacheName, Boolean lookup, List<?> cacheKeys) throws InterruptedException {
+    if (whitelist.contains(cacheName)) {
+      while (true) {
+        try {
+          return cacheService.getCaches(cacheName, lookup, cacheKeys);
+        } catch (RuntimeException e) {
+          logger.warn("Waite cache {} recover: {}, stack: {}", cacheName, e.getMessage(), Log4jUtil.getStackString(e));
+        }
+      }
+    }
+    throw new RuntimeException("Not found cache '" + cacheName + "', data flow id '" + dataFlowId + "'");
+  }
+
   @Override
   public Object getCacheItem(String cacheName, String field, Object defaultValue, Object... cacheKeys) throws InterruptedException {
     if (whitelist.contains(cacheName)) {
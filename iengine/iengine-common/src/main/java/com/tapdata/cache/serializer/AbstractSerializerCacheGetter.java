@@ -26,9 +26,14 @@ public abstract class AbstractSerializerCacheGetter extends AbstractCacheGetter
     this.dateMap = dateMap;
   }
 
-  @Override
-  protected List<Map<String, Object>> getRecordList(String cacheName, Object... cacheKeys) throws InterruptedException {
-    Set<String> pkSet = indexMap.get(CacheUtil.cacheKey(cacheKeys));
+  /**
+   * 读取缓存键对应的所有记录，不存在时返回空列表
+   *
+   * @param cacheKey
+   * @return
+   */
+  protected List<Map<String, Object>> findRows(String cacheKey) {
+    Set<String> pkSet = indexMap.get(cacheKey);
     List<Map<String, Object>> resultList = new ArrayList<>();
 
     if (CollectionUtils.isNotEmpty(pkSet)) {
@@ -40,6 +45,30 @@ public abstract class AbstractSerializerCacheGetter extends AbstractCacheGetter
     return resultList;
   }
 
+  /**
+   * 读取缓存键对应的第一条记录
+   *
+   * @param cacheKey
+   * @return
+   */
+  protected Map<String, Object> findFirstRow(String cacheKey) {
+    Set<String> pkSet = indexMap.get(cacheKey);
+    if (CollectionUtils.isEmpty(pkSet)) {
+      return null;
+    }
+    return dateMap.get(pkSet.iterator().next());
+  }
+
+  @Override
+  protected List<Map<String, Object>> getRecordList(String cacheName, Object... cacheKeys) throws InterruptedException {
+    List<Map<String, Object>> rows = findRows(CacheUtil.cacheKey(cacheKeys));
+    List<Map<String, Object>> resultList = new ArrayList<>(rows.size());
+    for (Map<String, Object> row : rows) {
+      resultList.add(CacheUtil.returnCacheRow(row));
+    }
+    return resultList;
+  }
+
   /**
    * 从缓存中取出一条记录
    *
@@ -51,14 +80,8 @@ public abstract class AbstractSerializerCacheGetter extends AbstractCacheGetter
   @Override
   protected Map<String, Object> getRecord(String cacheName, Object... cacheKeys) throws InterruptedException {
     // 等待所有cache节点初始化完成
-    Set<String> pkSet = indexMap.get(CacheUtil.cacheKey(cacheKeys));
-    Map<String, Object> result = null;
-
-    if (CollectionUtils.isNotEmpty(pkSet)) {
-      final Map<String, Object> dataRow = dateMap.get(pkSet.iterator().next());
-      result = CacheUtil.returnCacheRow(dataRow);
-    }
-    return result;
+    final Map<String, Object> dataRow = findFirstRow(CacheUtil.cacheKey(cacheKeys));
+    return CacheUtil.returnCacheRow(dataRow);
   }
 
 }
@@ -5,7 +5,9 @@ import com.tapdata.cache.ICacheStore;
 import com.tapdata.constant.MapUtil;
 import com.tapdata.entity.dataflow.DataFlowCacheConfig;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -31,11 +33,7 @@ public abstract class AbstractSerializerCacheStore implements ICacheStore {
     }
     List<String> primaryKeys = dataFlowCacheConfig.getPrimaryKeys();
     for (Map<String, Object> row : rows) {
-      Object[] pkValues = new Object[primaryKeys.size()];
-      for (int i = 0; i < primaryKeys.size(); i++) {
-        pkValues[i] = MapUtil.getValueByKey(row, primaryKeys.get(i));
-      }
-      String pk = CacheUtil.cacheKey(cacheKeys, pkValues);
+      String pk = primaryKey(cacheKeys, primaryKeys, row);
       dataMap.put(pk, row);
       Set<String> pkSet = indexMap.get(cacheKeys);
       if (CollectionUtils.isEmpty(pkSet)) {
@@ -46,6 +44,68 @@ public abstract class AbstractSerializerCacheStore implements ICacheStore {
     }
   }
 
+  /**
+   * 批量写入，数据与索引各一次 putAll
+   */
+  @Override
+  public void cacheRows(String cacheName, Map<String, List<Map<String, Object>>> rowsByKey) {
+    if (MapUtils.isEmpty(rowsByKey)) {
+      return;
+    }
+    List<String> primaryKeys = dataFlowCacheConfig.getPrimaryKeys();
+    Map<String, Map<String, Object>> dataRows = new HashMap<>();
+    Map<String, Set<String>> pkSets = new HashMap<>();
+    for (Map.Entry<String, List<Map<String, Object>>> entry : rowsByKey.entrySet()) {
+      if (CollectionUtils.isEmpty(entry.getValue())) {
+        continue;
+      }
+      Set<String> pkSet = new HashSet<>();
+      for (Map<String, Object> row : entry.getValue()) {
+        String pk = primaryKey(entry.getKey(), primaryKeys, row);
+        dataRows.put(pk, row);
+        pkSet.add(pk);
+      }
+      pkSets.put(entry.getKey(), pkSet);
+    }
+    if (dataRows.isEmpty()) {
+      return;
+    }
+    dataMap.putAll(dataRows);
+    Map<String, Set<String>> existPkSets = getPkSets(pkSets.keySet());
+    for (Map.Entry<String, Set<String>> entry : pkSets.entrySet()) {
+      Set<String> existPkSet = existPkSets.get(entry.getKey());
+      if (CollectionUtils.isNotEmpty(existPkSet)) {
+        entry.getValue().addAll(existPkSet);
+      }
+    }
+    indexMap.putAll(pkSets);
+  }
+
+  /**
+   * 读取多个缓存键的索引
+   *
+   * @param cacheKeys
+   * @return
+   */
+  protected Map<String, Set<String>> getPkSets(Set<String> cacheKeys) {
+    Map<String, Set<String>> pkSets = new HashMap<>();
+    for (String cacheKey : cacheKeys) {
+      Set<String> pkSet = indexMap.get(cacheKey);
+      if (pkSet != null) {
+        pkSets.put(cacheKey, pkSet);
+      }
+    }
+    return pkSets;
+  }
+
+  private static String primaryKey(String cacheKeys, List<String> primaryKeys, Map<String, Object> row) {
+    Object[] pkValues = new Object[primaryKeys.size()];
+    for (int i = 0; i < primaryKeys.size(); i++) {
+      pkValues[i] = MapUtil.getValueByKey(row, primaryKeys.get(i));
+    }
+    return CacheUtil.cacheKey(cacheKeys, pkValues);
+  }
+
   @Override
   public void removeByKey(String cacheName, String cacheKey, String pkKey) {
     String pk = CacheUtil.cacheKey(cacheKey, pkKey);
@@ -58,6 +118,57 @@ public abstract class AbstractSerializerCacheStore implements ICacheStore {
 
   }
 
+  /**
+   * 批量删除，数据一次删除，索引一次读取、一次 putAll
+   */
+  @Override
+  public void removeByKeys(String cacheName, Map<String, Set<String>> pkKeysByKey) {
+    if (MapUtils.isEmpty(pkKeysByKey)) {
+      return;
+    }
+    Set<String> pks = new HashSet<>();
+    Map<String, Set<String>> removedPkSets = new HashMap<>();
+    for (Map.Entry<String, Set<String>> entry : pkKeysByKey.entrySet()) {
+      if (CollectionUtils.isEmpty(entry.getValue())) {
+        continue;
+      }
+      Set<String> removedPkSet = new HashSet<>();
+      for (String pkKey : entry.getValue()) {
+        removedPkSet.add(CacheUtil.cacheKey(entry.getKey(), pkKey));
+      }
+      pks.addAll(removedPkSet);
+      removedPkSets.put(entry.getKey(), removedPkSet);
+    }
+    if (pks.isEmpty()) {
+      return;
+    }
+    removeData(pks);
+    Map<String, Set<String>> pkSets = new HashMap<>();
+    for (Map.Entry<String, Set<String>> entry : getPkSets(removedPkSets.keySet()).entrySet()) {
+      if (CollectionUtils.isEmpty(entry.getValue())) {
+        continue;
+      }
+      Set<String> pkSet = new HashSet<>(entry.getValue());
+      if (pkSet.removeAll(removedPkSets.get(entry.getKey()))) {
+        pkSets.put(entry.getKey(), pkSet);
+      }
+    }
+    if (!pkSets.isEmpty()) {
+      indexMap.putAll(pkSets);
+    }
+  }
+
+  /**
+   * 删除多条数据
+   *
+   * @param pks
+   */
+  protected void removeData(Set<String> pks) {
+    for (String pk : pks) {
+      dataMap.remove(pk);
+    }
+  }
+
   public Map<String, Map<String, Object>> getDataMap() {
     return dataMap;
   }
@@ -11,6 +11,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author jackin
@@ -49,6 +50,20 @@ public class TapdataEvent implements Serializable, Cloneable {
 
 	private String fromNodeId;
 
+	/**
+	 * Event id is {@link #eventIdPrefix} + {@link #eventSerial}, the prefix is shared by all events of a source node,
+	 * so the id string is only built when {@link #getEventId()} is called
+	 */
+	private String eventIdPrefix;
+	private long eventSerial;
+
+	/**
+	 * Holders which may still read the shared {@link #tapEvent} and {@link #messageEntity}, null when they are owned by
+	 * this event, see {@link #shareClone(int)}
+	 */
+	private transient AtomicInteger sharedHolders;
+	private transient int sharedFanOut;
+
 	public SyncStage getSyncStage() {
 		return syncStage;
 	}
@@ -148,31 +163,107 @@ public class TapdataEvent implements Serializable, Cloneable {
 
 	@NotNull
 	protected TapdataEvent clone(TapdataEvent tapdataEvent) {
-		tapdataEvent.setSourceTime(this.getSourceTime());
+		cloneHeader(tapdataEvent);
+
+		if (messageEntity != null) {
+			final MessageEntity cloneMessage = (MessageEntity) messageEntity.clone();
+			tapdataEvent.setMessageEntity(cloneMessage);
+		}
+
+		if (tapEvent != null) {
+			tapdataEvent.setTapEvent(cloneTapEvent(tapEvent));
+		}
+		return tapdataEvent;
+	}
+
+	private void cloneHeader(TapdataEvent tapdataEvent) {
 		tapdataEvent.setSourceTime(sourceTime);
 		tapdataEvent.setSourceSerialNo(sourceSerialNo);
 		tapdataEvent.setSyncStage(syncStage);
+		tapdataEvent.setEventId(eventIdPrefix, eventSerial);
 		if (this.getNodeIds() != null) {
 			tapdataEvent.nodeIds = new ArrayList<>(this.getNodeIds());
 		}
+	}
 
-		if (messageEntity != null) {
-			final MessageEntity cloneMessage = (MessageEntity) messageEntity.clone();
-			tapdataEvent.setMessageEntity(cloneMessage);
+	private static TapEvent cloneTapEvent(TapEvent tapEvent) {
+		try {
+			TapEvent cloneTapEvent = tapEvent.getClass().newInstance();
+			tapEvent.clone(cloneTapEvent);
+			return cloneTapEvent;
+		} catch (InstantiationException | IllegalAccessException e) {
+			throw new RuntimeException("Clone tap event failed: " + e.getMessage(), e);
 		}
+	}
 
-		if (tapEvent != null) {
-			try {
-				TapEvent cloneTapEvent = tapEvent.getClass().newInstance();
-				tapEvent.clone(cloneTapEvent);
-				tapdataEvent.setTapEvent(cloneTapEvent);
-			} catch (InstantiationException | IllegalAccessException e) {
-				throw new RuntimeException("Clone tap event failed: " + e.getMessage(), e);
+	/**
+	 * Copy of this event for one of the {@code fanOut} downstream branches. Unlike {@link #clone()}, the copies share
+	 * TapEvent and MessageEntity, a branch which changes them calls {@link #ownTapEvent()} first.
+	 * <p>
+	 * Called again with the same fan out (retry of a full outbox), the copies keep sharing with the former ones.
+	 * Control events are rare and just cloned
+	 */
+	public TapdataEvent shareClone(int fanOut) {
+		if (getClass() != TapdataEvent.class) {
+			return (TapdataEvent) clone();
+		}
+		if (sharedFanOut != fanOut) {
+			if (null == sharedHolders) {
+				sharedHolders = new AtomicInteger(fanOut);
+			} else {
+				// this event was shared by upstream already, it is handed over to fanOut holders instead of one
+				sharedHolders.addAndGet(fanOut - 1);
 			}
+			sharedFanOut = fanOut;
 		}
+		TapdataEvent tapdataEvent = new TapdataEvent();
+		cloneHeader(tapdataEvent);
+		tapdataEvent.setMessageEntity(messageEntity);
+		tapdataEvent.setTapEvent(tapEvent);
+		tapdataEvent.sharedHolders = sharedHolders;
 		return tapdataEvent;
 	}
 
+	/**
+	 * Take a private copy of TapEvent and MessageEntity if they are shared with other branches, the last holder keeps
+	 * the originals
+	 */
+	public void ownTapEvent() {
+		AtomicInteger holders = sharedHolders;
+		if (null == holders) {
+			return;
+		}
+		if (holders.get() > 1) {
+			if (null != messageEntity) {
+				messageEntity = (MessageEntity) messageEntity.clone();
+			}
+			if (null != tapEvent) {
+				tapEvent = cloneTapEvent(tapEvent);
+			}
+			// only give up the originals after the copy is done, the last holder changes them in place
+			holders.decrementAndGet();
+		}
+		sharedHolders = null;
+		sharedFanOut = 0;
+	}
+
+	public void setEventId(String eventIdPrefix, long eventSerial) {
+		this.eventIdPrefix = eventIdPrefix;
+		this.eventSerial = eventSerial;
+	}
+
+	public String getEventId() {
+		return eventId(eventIdPrefix, eventSerial);
+	}
+
+	public long getEventSerial() {
+		return eventSerial;
+	}
+
+	public static String eventId(String eventIdPrefix, long eventSerial) {
+		return null == eventIdPrefix ? null : eventIdPrefix + eventSerial;
+	}
+
 	public String getFromNodeId() {
 		return fromNodeId;
 	}
@@ -167,6 +167,30 @@ public class LogContent implements Serializable {
 		return logContent;
 	}
 
+	/**
+	 * Same as converting by reflection, but without reflection
+	 */
+	public Document toDocument() {
+		Document document = new Document();
+		putIfNotNull(document, "fromTable", fromTable);
+		putIfNotNull(document, "data", data);
+		putIfNotNull(document, "offset", offset);
+		putIfNotNull(document, "connStr", connStr);
+		putIfNotNull(document, "timestamp", timestamp);
+		putIfNotNull(document, "date", date);
+		putIfNotNull(document, "before", before);
+		putIfNotNull(document, "after", after);
+		putIfNotNull(document, "op", op);
+		putIfNotNull(document, "offsetString", offsetString);
+		return document;
+	}
+
+	private static void putIfNotNull(Document document, String key, Object value) {
+		if (null != value) {
+			document.put(key, value);
+		}
+	}
+
 	@Override
 	public String toString() {
 		return "LogContent{\n" +
@@ -54,6 +54,10 @@ public class ScriptUtil {
 	public static final String FUNCTION_NAME = "process";
 
 	public static final String SCRIPT_FUNCTION_NAME = "validate";
+	/**
+	 * Max count of keys in one query of {@link #executeMongoBatchQuery(ScriptConnection, String, String, String, List)}
+	 */
+	public static final int MONGO_BATCH_QUERY_KEYS = 1000;
 
 	public static ScriptEngine getScriptEngine(String jsEngineName) {
 		return getScriptEngine(jsEngineName,
@@ -252,6 +256,49 @@ public class ScriptUtil {
 		return results;
 	}
 
+	/**
+	 * Query the rows of many key values, by $in for a single key field, or by $or of all key fields. Keys are queried
+	 * {@link #MONGO_BATCH_QUERY_KEYS} at a time, so the filter stays far below the BSON document size limit
+	 */
+	public static List<Map<String, Object>> executeMongoBatchQuery(ScriptConnection connection, String database, String table, String fieldsStr, List<Object[]> valuesList) {
+		List<Map<String, Object>> results = new ArrayList<>();
+		for (int from = 0; from < valuesList.size(); from += MONGO_BATCH_QUERY_KEYS) {
+			List<Object[]> chunk = valuesList.subList(from, Math.min(from + MONGO_BATCH_QUERY_KEYS, valuesList.size()));
+			List<Map<String, Object>> rows = executeMongoBatchQueryChunk(connection, database, table, fieldsStr, chunk);
+			if (rows != null) {
+				results.addAll(rows);
+			}
+		}
+		return results;
+	}
+
+	private static List<Map<String, Object>> executeMongoBatchQueryChunk(ScriptConnection connection, String database, String table, String fieldsStr, List<Object[]> valuesList) {
+		String[] fields = fieldsStr.split(",");
+		Document filter;
+		if (fields.length == 1) {
+			List<Object> values = new ArrayList<>(valuesList.size());
+			for (Object[] keyValues : valuesList) {
+				values.add(keyValues != null && keyValues.length > 0 ? keyValues[0] : null);
+			}
+			filter = new Document(fields[0], new Document("$in", values));
+		} else {
+			List<Document> or = new ArrayList<>(valuesList.size());
+			for (Object[] keyValues : valuesList) {
+				Document match = new Document();
+				for (int i = 0; i < fields.length; i++) {
+					match.append(fields[i], keyValues != null && i < keyValues.length ? keyValues[i] : null);
+				}
+				or.add(match);
+			}
+			filter = new Document("$or", or);
+		}
+		Document executeMap = new Document();
+		executeMap.append("database", database);
+		executeMap.append("collection", table);
+		executeMap.append("filter", filter);
+		return connection.executeQuery(executeMap);
+	}
+
 	public static void scriptSort(List<Map> list, String sortKey, int sort) {
 
 		if (CollectionUtils.isEmpty(list)) {
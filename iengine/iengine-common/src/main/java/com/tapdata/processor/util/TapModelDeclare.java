@@ -1,6 +1,7 @@
 package com.tapdata.processor.util;
 
 import com.tapdata.entity.schema.SchemaApplyResult;
+import io.tapdata.entity.codec.filter.TapCodecPlan;
 import io.tapdata.entity.schema.TapField;
 import io.tapdata.entity.schema.TapIndex;
 import io.tapdata.entity.schema.TapIndexField;
@@ -39,6 +40,7 @@ public class TapModelDeclare {
     }
     TapField tapField = getTapField(fieldName, tapType, dataType);
     tapTable.add(tapField);
+    TapCodecPlan.schemaChanged();
   }
 
   public static void addField(List<SchemaApplyResult> schemaApplyResultList, String fieldName, String tapType, String dataType) throws Throwable {
@@ -56,6 +58,7 @@ public class TapModelDeclare {
     }
 
     tapTable.add(getTapField(fieldName, tapType, dataType));
+    TapCodecPlan.schemaChanged();
   }
 
   public static void updateField(List<SchemaApplyResult> schemaApplyResultList, String fieldName, String tapType) throws Throwable {
@@ -68,9 +71,11 @@ public class TapModelDeclare {
 
   public static void upsertField(TapTable tapTable, String fieldName, String tapType) throws Throwable {
     tapTable.add(getTapField(fieldName, tapType, null));
+    TapCodecPlan.schemaChanged();
   }
   public static void upsertField(TapTable tapTable, String fieldName, String tapType, String dataType) throws Throwable {
     tapTable.add(getTapField(fieldName, tapType, dataType));
+    TapCodecPlan.schemaChanged();
   }
 
   public static void upsertField(List<SchemaApplyResult> schemaApplyResultList, String fieldName, String tapType) throws Throwable {
@@ -82,6 +87,7 @@ public class TapModelDeclare {
 
   public static void removeField(TapTable tapTable, String fieldName) {
     tapTable.getNameFieldMap().remove(fieldName);
+    TapCodecPlan.schemaChanged();
   }
 
   public static void removeField(List<SchemaApplyResult> schemaApplyResultList, String fieldName) {
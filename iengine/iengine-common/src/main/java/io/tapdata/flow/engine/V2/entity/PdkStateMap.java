@@ -8,10 +8,21 @@ import com.sun.jna.platform.win32.GL;
 import com.tapdata.constant.ConfigurationCenter;
 import io.tapdata.entity.utils.cache.KVMap;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.bson.Document;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * @author samuel
@@ -20,12 +31,38 @@ import java.util.List;
  **/
 public class PdkStateMap implements KVMap<Object> {
 	private static final String TAG = PdkStateMap.class.getSimpleName();
+	private static final Logger logger = LogManager.getLogger(PdkStateMap.class);
 	private static final String GLOBAL_MAP_NAME = "GlobalStateMap";
 	public static final int CONNECT_TIMEOUT_MS = 60 * 1000;
 	public static final int READ_TIMEOUT_MS = 60 * 1000;
 	private IMap<String, Document> imap;
 	private static final String KEY = PdkStateMap.class.getSimpleName();
 	private static volatile PdkStateMap globalStateMap;
+	/**
+	 * Marks removed or absent keys in the write behind cache
+	 */
+	private static final Document REMOVED = new Document();
+	private static volatile ScheduledExecutorService flushExecutor;
+	/**
+	 * Write behind maps by imap name by task id, see {@link #flushTask(String)}
+	 */
+	private static final Map<String, Map<String, PdkStateMap>> writeBehindMaps = new ConcurrentHashMap<>();
+
+	/**
+	 * Write behind cache, only for maps with one writer, see {@link #writeBehind(long, Consumer)}
+	 */
+	private volatile boolean writeBehind;
+	private final Map<String, Document> cache = new ConcurrentHashMap<>();
+	private final Map<String, Document> dirty = new ConcurrentHashMap<>();
+	private final Object flushLock = new Object();
+	private ScheduledFuture<?> flushFuture;
+	private String taskId;
+	private Consumer<PdkStateMap> flushListener;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong flushes = new AtomicLong();
+	private final AtomicLong flushedEntries = new AtomicLong();
+	private volatile long lastFlushCostMs;
 
 	private PdkStateMap() {
 	}
@@ -109,6 +146,137 @@ public class PdkStateMap implements KVMap<Object> {
 		return globalStateMap;
 	}
 
+	/**
+	 * Serve reads locally and write to the imap by batch every interval, and on {@link #flush()}. Only for maps written
+	 * by one node, never for the global state map
+	 *
+	 * @param taskId        task of the node, its write behind maps are flushed together by {@link #flushTask(String)}
+	 * @param flushListener called after every flush on the flush thread, nullable
+	 */
+	public PdkStateMap writeBehind(String taskId, long flushIntervalMs, Consumer<PdkStateMap> flushListener) {
+		if (flushIntervalMs <= 0 || this == globalStateMap) {
+			return this;
+		}
+		synchronized (flushLock) {
+			if (writeBehind) {
+				return this;
+			}
+			this.flushListener = flushListener;
+			this.writeBehind = true;
+			this.taskId = taskId;
+			// an instance left by a former run of the node must not flush its entries over the new state
+			PdkStateMap former = writeBehindMaps.computeIfAbsent(taskId, k -> new ConcurrentHashMap<>()).put(imap.getName(), this);
+			if (null != former && former != this) {
+				former.stopWriteBehind();
+			}
+			this.flushFuture = getFlushExecutor().scheduleWithFixedDelay(() -> {
+				try {
+					flush();
+				} catch (Throwable throwable) {
+					logger.warn("Flush state map {} failed, will retry in next interval: {}", imap.getName(), throwable.getMessage(), throwable);
+				}
+			}, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+		}
+		return this;
+	}
+
+	private static ScheduledExecutorService getFlushExecutor() {
+		if (flushExecutor == null) {
+			synchronized (PdkStateMap.class) {
+				if (flushExecutor == null) {
+					flushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+						Thread thread = new Thread(r, "PdkStateMap-Flusher");
+						thread.setDaemon(true);
+						return thread;
+					});
+				}
+			}
+		}
+		return flushExecutor;
+	}
+
+	/**
+	 * Flush every write behind map of the task, so the state of all its nodes is written before the offsets of the task
+	 */
+	public static void flushTask(String taskId) {
+		Map<String, PdkStateMap> stateMaps = writeBehindMaps.get(taskId);
+		if (null == stateMaps) {
+			return;
+		}
+		for (PdkStateMap stateMap : stateMaps.values()) {
+			stateMap.flush();
+		}
+	}
+
+	/**
+	 * Write dirty entries to the imap, the last value of a key wins
+	 */
+	public void flush() {
+		if (!writeBehind) {
+			return;
+		}
+		synchronized (flushLock) {
+			if (dirty.isEmpty()) {
+				return;
+			}
+			long start = System.currentTimeMillis();
+			Map<String, Document> snapshot = new HashMap<>(dirty);
+			Map<String, Document> puts = new HashMap<>(snapshot.size());
+			for (Map.Entry<String, Document> entry : snapshot.entrySet()) {
+				if (entry.getValue() == REMOVED) {
+					imap.delete(entry.getKey());
+				} else {
+					puts.put(entry.getKey(), entry.getValue());
+				}
+			}
+			if (!puts.isEmpty()) {
+				imap.putAll(puts);
+			}
+			// entries changed during the flush stay dirty
+			snapshot.forEach(dirty::remove);
+			flushes.incrementAndGet();
+			flushedEntries.addAndGet(snapshot.size());
+			lastFlushCostMs = System.currentTimeMillis() - start;
+		}
+		if (null != flushListener) {
+			flushListener.accept(this);
+		}
+	}
+
+	/**
+	 * Stop write behind after a last flush. The map is unregistered from {@link #flushTask(String)} even when the flush
+	 * fails, the error is thrown and the entries not flushed are dropped, the task is failed and restarts from the state
+	 * flushed with its last offsets
+	 */
+	public void close() {
+		if (!writeBehind) {
+			return;
+		}
+		try {
+			flush();
+		} finally {
+			stopWriteBehind();
+			Map<String, PdkStateMap> stateMaps = writeBehindMaps.get(taskId);
+			if (null != stateMaps) {
+				stateMaps.remove(imap.getName(), this);
+				if (stateMaps.isEmpty()) {
+					writeBehindMaps.remove(taskId, stateMaps);
+				}
+			}
+		}
+	}
+
+	private void stopWriteBehind() {
+		synchronized (flushLock) {
+			if (null != flushFuture) {
+				flushFuture.cancel(false);
+			}
+			writeBehind = false;
+			dirty.clear();
+			cache.clear();
+		}
+	}
+
 	@Override
 	public void init(String mapKey, Class<Object> valueClass) {
 
@@ -116,27 +284,74 @@ public class PdkStateMap implements KVMap<Object> {
 
 	@Override
 	public void put(String key, Object o) {
+		if (writeBehind) {
+			Document document = new Document(KEY, o);
+			cache.put(key, document);
+			dirty.put(key, document);
+			return;
+		}
 		imap.put(key, new Document(KEY, o));
 	}
 
 	@Override
 	public Object putIfAbsent(String key, Object o) {
+		if (writeBehind) {
+			synchronized (this) {
+				Document existing = getDocument(key);
+				if (null != existing) {
+					return existing;
+				}
+				put(key, o);
+				return null;
+			}
+		}
 		return imap.putIfAbsent(key, new Document(KEY, o));
 	}
 
 	@Override
 	public Object remove(String key) {
+		if (writeBehind) {
+			synchronized (this) {
+				Document existing = getDocument(key);
+				cache.put(key, REMOVED);
+				dirty.put(key, REMOVED);
+				return existing;
+			}
+		}
 		return imap.remove(key);
 	}
 
 	@Override
 	public void clear() {
-		imap.clear();
+		synchronized (flushLock) {
+			dirty.clear();
+			cache.clear();
+			imap.clear();
+		}
 	}
 
 	@Override
 	public void reset() {
-		imap.clear();
+		clear();
+	}
+
+	/**
+	 * @return document in imap format, null if absent
+	 */
+	private Document getDocument(String key) {
+		Document document = cache.get(key);
+		if (null != document) {
+			hits.incrementAndGet();
+			return document == REMOVED ? null : document;
+		}
+		misses.incrementAndGet();
+		document = imap.getOrDefault(key, null);
+		// a value put meanwhile wins
+		Document cached = cache.putIfAbsent(key, null == document ? REMOVED : document);
+		if (null != cached) {
+			return cached == REMOVED ? null : cached;
+		}
+		return document;
 	}
 
 //  @Override
@@ -148,7 +363,7 @@ public class PdkStateMap implements KVMap<Object> {
 
 	@Override
 	public Object get(String key) {
-		Object value = imap.getOrDefault(key, null);
+		Object value = writeBehind ? getDocument(key) : imap.getOrDefault(key, null);
 		if (null == value) return null;
 		try {
 			return ((Document) value).get(KEY);
@@ -166,6 +381,26 @@ public class PdkStateMap implements KVMap<Object> {
 		return imap;
 	}
 
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getFlushes() {
+		return flushes.get();
+	}
+
+	public long getFlushedEntries() {
+		return flushedEntries.get();
+	}
+
+	public long getLastFlushCostMs() {
+		return lastFlushCostMs;
+	}
+
 	public enum StateMapMode {
 		DEFAULT,
 		HTTP_TM,
@@ -6,8 +6,11 @@ import com.hazelcast.core.HazelcastInstance;
 import com.tapdata.cache.CacheUtil;
 import com.tapdata.constant.HazelcastUtil;
 import com.tapdata.entity.dataflow.DataFlowCacheConfig;
+import com.tapdata.processor.ScriptUtil;
+import com.tapdata.processor.constant.JSEngineEnum;
 import junit.framework.TestCase;
 
+import javax.script.ScriptEngine;
 import java.util.*;
 
 public class HazelcastCacheServiceTest extends TestCase {
@@ -65,6 +68,252 @@ public class HazelcastCacheServiceTest extends TestCase {
 
 	}
 
+	public void testGetCaches() throws InterruptedException {
+
+		HazelcastCacheService hazelcastCacheService = getHazelcastCacheService();
+
+		String cacheName = "cacheName2";
+		String cacheKeys = "k1";
+		DataFlowCacheConfig dataFlowCacheConfig = new DataFlowCacheConfig(cacheKeys,
+				cacheName,
+				"all",
+				1000L,
+				1000L,
+				10L,
+				new HashSet<>(Arrays.asList("k1", "v1")),
+				null,
+				null,
+				"",
+				null,
+				Collections.singletonList("id")
+		);
+		hazelcastCacheService.registerCache(dataFlowCacheConfig);
+
+		for (int i = 1; i <= 2; i++) {
+			Map<String, Object> row = new HashMap<>();
+			row.put("k1", "key" + i);
+			row.put("v1", "value" + i);
+			row.put("id", i);
+			hazelcastCacheService.cacheRow(cacheName, CacheUtil.cacheKey("key" + i), Collections.singletonList(row));
+		}
+
+		List<Map<String, Object>> cacheValues = hazelcastCacheService.getCaches(cacheName, false,
+				Arrays.asList(new Object[]{"key2"}, new Object[]{"key3"}, new Object[]{"key1"}));
+
+		assertEquals(3, cacheValues.size());
+		assertEquals("value2", cacheValues.get(0).get("v1"));
+		assertNull(cacheValues.get(1));
+		assertEquals("value1", cacheValues.get(2).get("v1"));
+
+		hazelcastCacheService.destroy(cacheName);
+	}
+
+	public void testGetCachesFromScript() throws Exception {
+
+		HazelcastCacheService hazelcastCacheService = getHazelcastCacheService();
+
+		String cacheName = "cacheName5";
+		String cacheKeys = "k1,k2";
+		DataFlowCacheConfig dataFlowCacheConfig = new DataFlowCacheConfig(cacheKeys,
+				cacheName,
+				"all",
+				1000L,
+				1000L,
+				10L,
+				new HashSet<>(Arrays.asList("k1", "k2", "v1")),
+				null,
+				null,
+				"",
+				null,
+				Collections.singletonList("id")
+		);
+		hazelcastCacheService.registerCache(dataFlowCacheConfig);
+
+		for (int i = 1; i <= 2; i++) {
+			Map<String, Object> row = new HashMap<>();
+			row.put("k1", "key" + i);
+			row.put("k2", "sub" + i);
+			row.put("v1", "value" + i);
+			row.put("id", i);
+			hazelcastCacheService.cacheRow(cacheName, CacheUtil.cacheKey("key" + i, "sub" + i), Collections.singletonList(row));
+		}
+
+		// nashorn passes the outer array as a List of ScriptObjectMirror
+		ScriptEngine scriptEngine = ScriptUtil.getScriptEngine(JSEngineEnum.NASHORN.getEngineName());
+		scriptEngine.put("CacheService", hazelcastCacheService);
+		List<Map<String, Object>> cacheValues = (List<Map<String, Object>>) scriptEngine.eval(
+				"CacheService.getCaches('" + cacheName + "', false, [['key2', 'sub2'], ['key3', 'sub3'], ['key1', 'sub1']])");
+
+		assertEquals(3, cacheValues.size());
+		assertEquals("value2", cacheValues.get(0).get("v1"));
+		assertNull(cacheValues.get(1));
+		assertEquals("value1", cacheValues.get(2).get("v1"));
+
+		hazelcastCacheService.destroy(cacheName);
+	}
+
+	public void testKeyValues() {
+		assertTrue(Arrays.equals(new Object[]{"a", 1}, CacheUtil.keyValues(new Object[]{"a", 1})));
+		assertTrue(Arrays.equals(new Object[]{"a", 1}, CacheUtil.keyValues(Arrays.asList("a", 1))));
+		assertTrue(Arrays.equals(new Object[]{"a"}, CacheUtil.keyValues("a")));
+		assertTrue(Arrays.equals(new Object[]{null}, CacheUtil.keyValues(null)));
+	}
+
+	public void testNormalizedCacheKey() {
+		assertEquals(CacheUtil.normalizedCacheKey(1), CacheUtil.normalizedCacheKey(1.0D));
+		assertEquals(CacheUtil.normalizedCacheKey(1L), CacheUtil.normalizedCacheKey(new java.math.BigDecimal("1.00")));
+		assertEquals(CacheUtil.normalizedCacheKey("a", 10), CacheUtil.normalizedCacheKey("a", 10.0F));
+		assertFalse(CacheUtil.normalizedCacheKey(1).equals(CacheUtil.normalizedCacheKey(1.5D)));
+		assertEquals(CacheUtil.cacheKey(new Object[]{"a", null}), CacheUtil.normalizedCacheKey(new Object[]{"a", null}));
+	}
+
+	public void testCacheRows() throws InterruptedException {
+
+		HazelcastCacheService hazelcastCacheService = getHazelcastCacheService();
+
+		String cacheName = "cacheName4";
+		String cacheKeys = "k1";
+		DataFlowCacheConfig dataFlowCacheConfig = new DataFlowCacheConfig(cacheKeys,
+				cacheName,
+				"all",
+				1000L,
+				1000L,
+				10L,
+				new HashSet<>(Arrays.asList("k1", "v1")),
+				null,
+				null,
+				"",
+				null,
+				Collections.singletonList("id")
+		);
+		hazelcastCacheService.registerCache(dataFlowCacheConfig);
+
+		Map<String, Object> row1 = new HashMap<>();
+		row1.put("k1", "key1");
+		row1.put("v1", "value1");
+		row1.put("id", 1);
+		hazelcastCacheService.cacheRow(cacheName, CacheUtil.cacheKey("key1"), Collections.singletonList(row1));
+
+		Map<String, List<Map<String, Object>>> rowsByKey = new HashMap<>();
+		Map<String, Object> row2 = new HashMap<>(row1);
+		row2.put("v1", "value2");
+		row2.put("id", 2);
+		rowsByKey.put(CacheUtil.cacheKey("key1"), Collections.singletonList(row2));
+		Map<String, Object> row3 = new HashMap<>();
+		row3.put("k1", "key3");
+		row3.put("v1", "value3");
+		row3.put("id", 3);
+		rowsByKey.put(CacheUtil.cacheKey("key3"), Collections.singletonList(row3));
+		hazelcastCacheService.cacheRows(cacheName, rowsByKey);
+
+		// rows of a key already cached are added to it
+		assertEquals(2, hazelcastCacheService.getAndSetCacheArray(cacheName, false, "key1").size());
+		assertEquals("value3", hazelcastCacheService.getCache(cacheName, false, "key3").get("v1"));
+
+		hazelcastCacheService.destroy(cacheName);
+	}
+
+	public void testRemoveByKeys() throws InterruptedException {
+
+		HazelcastCacheService hazelcastCacheService = getHazelcastCacheService();
+
+		String cacheName = "cacheName5";
+		String cacheKeys = "k1";
+		DataFlowCacheConfig dataFlowCacheConfig = new DataFlowCacheConfig(cacheKeys,
+				cacheName,
+				"all",
+				1000L,
+				1000L,
+				10L,
+				new HashSet<>(Arrays.asList("k1", "v1")),
+				null,
+				null,
+				"",
+				null,
+				Collections.singletonList("id")
+		);
+		hazelcastCacheService.registerCache(dataFlowCacheConfig);
+
+		Map<String, List<Map<String, Object>>> rowsByKey = new HashMap<>();
+		List<Map<String, Object>> key1Rows = new ArrayList<>();
+		for (int id = 1; id <= 3; id++) {
+			Map<String, Object> row = new HashMap<>();
+			row.put("k1", "key1");
+			row.put("v1", "value" + id);
+			row.put("id", id);
+			key1Rows.add(row);
+		}
+		rowsByKey.put(CacheUtil.cacheKey("key1"), key1Rows);
+		Map<String, Object> row4 = new HashMap<>();
+		row4.put("k1", "key2");
+		row4.put("v1", "value4");
+		row4.put("id", 4);
+		rowsByKey.put(CacheUtil.cacheKey("key2"), Collections.singletonList(row4));
+		hazelcastCacheService.cacheRows(cacheName, rowsByKey);
+
+		Map<String, Set<String>> pkKeysByKey = new HashMap<>();
+		pkKeysByKey.put(CacheUtil.cacheKey("key1"), new HashSet<>(Arrays.asList("1", "3")));
+		pkKeysByKey.put(CacheUtil.cacheKey("key2"), Collections.singleton("4"));
+		// unknown keys are ignored
+		pkKeysByKey.put(CacheUtil.cacheKey("key3"), Collections.singleton("5"));
+		hazelcastCacheService.removeByKeys(cacheName, pkKeysByKey);
+
+		List<Map<String, Object>> rows = hazelcastCacheService.getAndSetCacheArray(cacheName, false, "key1");
+		assertEquals(1, rows.size());
+		assertEquals("value2", rows.get(0).get("v1"));
+		assertNull(hazelcastCacheService.getCache(cacheName, false, "key2"));
+
+		hazelcastCacheService.destroy(cacheName);
+	}
+
+	public void testNearCache() throws InterruptedException {
+		System.setProperty(HazelcastNearCache.NEAR_CACHE_SIZE, "100");
+		try {
+			HazelcastCacheService hazelcastCacheService = getHazelcastCacheService();
+
+			String cacheName = "cacheName3";
+			String cacheKeys = "k1";
+			DataFlowCacheConfig dataFlowCacheConfig = new DataFlowCacheConfig(cacheKeys,
+					cacheName,
+					"all",
+					1000L,
+					1000L,
+					10L,
+					new HashSet<>(Arrays.asList("k1", "v1")),
+					null,
+					null,
+					"",
+					null,
+					Collections.singletonList("id")
+			);
+			hazelcastCacheService.registerCache(dataFlowCacheConfig);
+
+			// absent key is kept as absent, then invalidated by the write
+			assertNull(hazelcastCacheService.getCache(cacheName, false, "key1"));
+			Map<String, Object> row = new HashMap<>();
+			row.put("k1", "key1");
+			row.put("v1", "value1");
+			row.put("id", 1);
+			hazelcastCacheService.cacheRow(cacheName, CacheUtil.cacheKey("key1"), Collections.singletonList(row));
+			assertEquals("value1", hazelcastCacheService.getCache(cacheName, false, "key1").get("v1"));
+
+			// cached rows are copied, changes of the caller are not kept
+			hazelcastCacheService.getCache(cacheName, false, "key1").put("v1", "changed");
+			assertEquals("value1", hazelcastCacheService.getCache(cacheName, false, "key1").get("v1"));
+
+			row.put("v1", "value2");
+			hazelcastCacheService.cacheRow(cacheName, CacheUtil.cacheKey("key1"), Collections.singletonList(row));
+			assertEquals("value2", hazelcastCacheService.getCache(cacheName, false, "key1").get("v1"));
+
+			hazelcastCacheService.removeByKey(cacheName, CacheUtil.cacheKey("key1"), "1");
+			assertNull(hazelcastCacheService.getCache(cacheName, false, "key1"));
+
+			hazelcastCacheService.destroy(cacheName);
+		} finally {
+			System.clearProperty(HazelcastNearCache.NEAR_CACHE_SIZE);
+		}
+	}
+
 	public void testDestroy() {
 	}
 }
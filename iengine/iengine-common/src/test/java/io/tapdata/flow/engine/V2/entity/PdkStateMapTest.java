@@ -0,0 +1,155 @@
+package io.tapdata.flow.engine.V2.entity;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.tapdata.constant.HazelcastUtil;
+import junit.framework.TestCase;
+import org.bson.Document;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PdkStateMapTest extends TestCase {
+
+	private static final String KEY = PdkStateMap.class.getSimpleName();
+	private static final long NO_INTERVAL_FLUSH = 3600 * 1000L;
+
+	private HazelcastInstance hazelcastInstance;
+
+	@Override
+	protected void setUp() throws Exception {
+		Config config = HazelcastUtil.getConfig("agentId-" + System.currentTimeMillis());
+		hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		if (null != hazelcastInstance) {
+			hazelcastInstance.shutdown();
+		}
+	}
+
+	private PdkStateMap writeBehindMap(String taskId, String mapName) {
+		return new PdkStateMap(hazelcastInstance, mapName, PdkStateMap.StateMapMode.DEFAULT)
+				.writeBehind(taskId, NO_INTERVAL_FLUSH, null);
+	}
+
+	public void testCoalescing() {
+		PdkStateMap stateMap = writeBehindMap("task1", "stateMap1");
+		IMap<String, Document> imap = stateMap.getImap();
+
+		stateMap.put("k1", "v1");
+		stateMap.put("k1", "v2");
+		stateMap.put("k2", "v1");
+		assertEquals("v2", stateMap.get("k1"));
+		assertTrue(imap.isEmpty());
+
+		stateMap.flush();
+		assertEquals("v2", imap.get("k1").get(KEY));
+		assertEquals("v1", imap.get("k2").get(KEY));
+		assertEquals(1, stateMap.getFlushes());
+		assertEquals(2, stateMap.getFlushedEntries());
+
+		// nothing dirty, nothing written
+		stateMap.flush();
+		assertEquals(1, stateMap.getFlushes());
+		stateMap.close();
+	}
+
+	public void testRemovedSentinel() {
+		PdkStateMap stateMap = writeBehindMap("task2", "stateMap2");
+		IMap<String, Document> imap = stateMap.getImap();
+
+		stateMap.put("k1", "v1");
+		stateMap.flush();
+		assertNotNull(stateMap.remove("k1"));
+		assertNull(stateMap.get("k1"));
+		assertNull(stateMap.putIfAbsent("k1", "v2"));
+		assertEquals("v2", stateMap.get("k1"));
+		assertNotNull(stateMap.remove("k1"));
+		assertTrue(imap.containsKey("k1"));
+
+		stateMap.flush();
+		assertFalse(imap.containsKey("k1"));
+
+		// an absent key is cached as removed, read once from the imap
+		assertNull(stateMap.get("absent"));
+		long misses = stateMap.getMisses();
+		assertNull(stateMap.get("absent"));
+		assertEquals(misses, stateMap.getMisses());
+		stateMap.flush();
+		assertFalse(imap.containsKey("absent"));
+		stateMap.close();
+	}
+
+	public void testFlushOnClose() {
+		PdkStateMap stateMap = writeBehindMap("task3", "stateMap3");
+		IMap<String, Document> imap = stateMap.getImap();
+
+		stateMap.put("k1", "v1");
+		stateMap.remove("k2");
+		stateMap.close();
+		assertEquals("v1", imap.get("k1").get(KEY));
+
+		// written through once closed
+		stateMap.put("k2", "v2");
+		assertEquals("v2", imap.get("k2").get(KEY));
+	}
+
+	public void testUnregisteredWhenCloseFails() {
+		AtomicInteger flushes = new AtomicInteger();
+		PdkStateMap stateMap = new PdkStateMap(hazelcastInstance, "failingStateMap", PdkStateMap.StateMapMode.DEFAULT)
+				.writeBehind("task6", NO_INTERVAL_FLUSH, map -> {
+					flushes.incrementAndGet();
+					throw new IllegalStateException("flush failed");
+				});
+		stateMap.put("k1", "v1");
+		try {
+			stateMap.close();
+			fail("error of the last flush is not thrown");
+		} catch (IllegalStateException e) {
+			assertEquals("flush failed", e.getMessage());
+		}
+		assertEquals(1, flushes.get());
+
+		// a flush of the task after the close does not go through the closed map
+		stateMap.put("k2", "v2");
+		PdkStateMap.flushTask("task6");
+		assertEquals(1, flushes.get());
+	}
+
+	public void testFormerInstanceReplaced() {
+		PdkStateMap former = writeBehindMap("task7", "restartedStateMap");
+		former.put("k1", "stale");
+
+		// the node runs again without the former instance being closed
+		PdkStateMap stateMap = writeBehindMap("task7", "restartedStateMap");
+		stateMap.put("k2", "v2");
+		PdkStateMap.flushTask("task7");
+		IMap<String, Document> imap = stateMap.getImap();
+		assertFalse(imap.containsKey("k1"));
+		assertEquals("v2", imap.get("k2").get(KEY));
+		assertEquals(0, former.getFlushes());
+		stateMap.close();
+	}
+
+	public void testFlushTask() {
+		PdkStateMap sourceStateMap = writeBehindMap("task4", "sourceStateMap");
+		PdkStateMap targetStateMap = writeBehindMap("task4", "targetStateMap");
+		PdkStateMap otherStateMap = writeBehindMap("task5", "otherStateMap");
+
+		sourceStateMap.put("k1", "v1");
+		targetStateMap.put("k1", "v1");
+		otherStateMap.put("k1", "v1");
+		PdkStateMap.flushTask("task4");
+		assertTrue(sourceStateMap.getImap().containsKey("k1"));
+		assertTrue(targetStateMap.getImap().containsKey("k1"));
+		assertFalse(otherStateMap.getImap().containsKey("k1"));
+
+		sourceStateMap.close();
+		targetStateMap.close();
+		otherStateMap.close();
+		PdkStateMap.flushTask("task4");
+	}
+}
@@ -1,5 +1,6 @@
 package io.tapdata.observable.logging;
 
+import com.tapdata.entity.TapdataEvent;
 import com.tapdata.tm.commons.dag.Node;
 import com.tapdata.tm.commons.dag.nodes.DataParentNode;
 import io.tapdata.entity.event.TapEvent;
@@ -88,6 +89,25 @@ public class LogEventData {
             return this;
         }
 
+        /**
+         * Same as {@link #withTapEvent(TapEvent, Collection)}, with the event id kept by the tapdata event
+         */
+        public LogEventDataBuilder withTapdataEvent(TapdataEvent tapdataEvent, Collection<String> fields) {
+            if (null == tapdataEvent) {
+                return this;
+            }
+            withTapEvent(tapdataEvent.getTapEvent(), fields);
+            String eventId = tapdataEvent.getEventId();
+            if (null != eventId) {
+                this.eventId(eventId);
+            }
+            return this;
+        }
+
+        /**
+         * The event id is only in the info of events read by a source node while the task logs at debug level, prefer
+         * {@link #withTapdataEvent(TapdataEvent, Collection)} when the tapdata event is at hand
+         */
         public LogEventDataBuilder withTapEvent(TapEvent event, Collection<String> fields) {
             if (null == event) {
                 return this;
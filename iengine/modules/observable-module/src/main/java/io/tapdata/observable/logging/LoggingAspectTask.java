@@ -23,7 +23,6 @@ import java.lang.reflect.Method;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @AspectTaskSession(includeTypes = {TaskDto.SYNC_TYPE_MIGRATE, TaskDto.SYNC_TYPE_SYNC})
 public class LoggingAspectTask extends AspectTask {
@@ -285,13 +284,45 @@ public class LoggingAspectTask extends AspectTask {
 				.time(System.currentTimeMillis())
 				.cost(cost)
 				.withNode(node)
-				.withTapEvent(baseEvent, pkFields)
+				.withTapdataEvent(event, pkFields)
 				.build().toMap());
 
 		ObsLogger obsLogger = getObsLogger(node);
 		obsLogger.debug(() -> obsLogger.logBaseBuilderWithLogTag(tag).data(data), logEventType);
 	}
 
+	private void debugTapdataEvents(String logEventType, Long cost, LogTag tag, ProcessorBaseContext context, List<TapdataEvent> events) {
+		if (noNeedLog(LogLevel.DEBUG.getLevel())) {
+			return;
+		}
+
+		if (null == events || events.isEmpty()) {
+			debug(logEventType, cost, tag, context);
+			return;
+		}
+
+		Node<?> node = context.getNode();
+		List<Map<String, Object>> data = new ArrayList<>();
+		for (TapdataEvent event : events) {
+			if (null == event || !(event.getTapEvent() instanceof TapBaseEvent)) {
+				continue;
+			}
+			TapBaseEvent baseEvent = (TapBaseEvent) event.getTapEvent();
+			Collection<String> pkFields = getPkFields(context, baseEvent.getTableId());
+			data.add(LogEventData.builder()
+					.eventType(logEventType)
+					.status(LogEventData.LOG_EVENT_STATUS_OK)
+					.time(System.currentTimeMillis())
+					.cost(cost)
+					.withNode(node)
+					.withTapdataEvent(event, pkFields)
+					.build().toMap());
+		}
+
+		ObsLogger obsLogger = getObsLogger(node);
+		obsLogger.debug(() -> obsLogger.logBaseBuilderWithLogTag(tag).data(data), logEventType);
+	}
+
 	private void debug(String logEventType, Long cost, LogTag tag, ProcessorBaseContext context, TapEvent event) {
 		debug(logEventType, cost, tag, context, Collections.singletonList(event));
 	}
@@ -383,9 +414,8 @@ public class LoggingAspectTask extends AspectTask {
 					if  (null == batchEnqueuedLastTs.get(nodeId)) {
 						batchEnqueuedLastTs.put(nodeId, now);
 					}
-					debug(LogEventData.LOG_EVENT_TYPE_SEND, now - batchEnqueuedLastTs.get(nodeId),
-							SourceNodeTag.NODE_SOURCE_INITIAL_SYNC, context,
-							events.stream().map(TapdataEvent::getTapEvent).collect(Collectors.toList()));
+					debugTapdataEvents(LogEventData.LOG_EVENT_TYPE_SEND, now - batchEnqueuedLastTs.get(nodeId),
+							SourceNodeTag.NODE_SOURCE_INITIAL_SYNC, context, events);
 				});
 				break;
 			default:
@@ -414,9 +444,8 @@ public class LoggingAspectTask extends AspectTask {
 					if (null == streamEnqueuedLastTs.get(nodeId)) {
 						streamEnqueuedLastTs.put(nodeId, now);
 					}
-					debug(LogEventData.LOG_EVENT_TYPE_SEND, now - streamEnqueuedLastTs.get(nodeId),
-							SourceNodeTag.NODE_SOURCE_INCREMENTAL_SYNC, context,
-							events.stream().map(TapdataEvent::getTapEvent).collect(Collectors.toList()));
+					debugTapdataEvents(LogEventData.LOG_EVENT_TYPE_SEND, now - streamEnqueuedLastTs.get(nodeId),
+							SourceNodeTag.NODE_SOURCE_INCREMENTAL_SYNC, context, events);
 				});
 				break;
 			default:
@@ -16,6 +16,13 @@ public abstract class ObsLogger {
 	public abstract void error(Callable<MonitoringLogsDto.MonitoringLogsDtoBuilder> callable, Throwable throwable, String message, Object... params);
 	public abstract void fatal(Callable<MonitoringLogsDto.MonitoringLogsDtoBuilder> callable, Throwable throwable, String message, Object... params);
 
+	/**
+	 * Let callers skip preparing data which is only logged at debug level
+	 */
+	public boolean isDebugEnabled() {
+		return true;
+	}
+
 	// debug level public logger api
 
 	public void debug(String message, Object... params) {
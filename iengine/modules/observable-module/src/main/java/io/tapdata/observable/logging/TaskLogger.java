@@ -105,6 +105,10 @@ class TaskLogger extends ObsLogger implements Serializable {
 		return (new ParameterizedMessage(message, params)).getFormattedMessage();
 	}
 
+	public boolean isDebugEnabled() {
+		return null != this.level && this.level.isDebug();
+	}
+
 	public boolean noNeedLog(String level) {
 		if (!this.level.isDebug()) {
 			return !this.level.shouldLog(level);
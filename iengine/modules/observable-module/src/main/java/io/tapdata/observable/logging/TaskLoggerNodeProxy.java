@@ -48,6 +48,11 @@ class TaskLoggerNodeProxy extends ObsLogger implements Serializable {
 		taskLogger.fatal(callable, throwable, message, params);
 	}
 
+	@Override
+	public boolean isDebugEnabled() {
+		return taskLogger.isDebugEnabled();
+	}
+
 	@NotNull
 	public MonitoringLogsDto.MonitoringLogsDtoBuilder logBaseBuilder() {
 		Date date = new Date();
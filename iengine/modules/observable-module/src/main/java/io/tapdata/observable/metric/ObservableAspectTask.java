@@ -45,6 +45,8 @@ public class ObservableAspectTask extends AspectTask {
 		observerClassHandlers.register(DropFieldFuncAspect.class, this::handleDropFieldFunc);
 		observerClassHandlers.register(CreateTableFuncAspect.class, this::handleCreateTableFunc);
 		observerClassHandlers.register(DropTableFuncAspect.class, this::handleDropTableFunc);
+		observerClassHandlers.register(ConcurrentWriteStatsAspect.class, this::handleConcurrentWriteStats);
+		observerClassHandlers.register(StateMapStatsAspect.class, this::handleStateMapStats);
 
 		// processor node aspects
 		observerClassHandlers.register(ProcessorNodeInitAspect.class, this::handleProcessorNodeInit);
@@ -151,7 +153,10 @@ public class ObservableAspectTask extends AspectTask {
 
 		switch (aspect.getState()) {
 			case BatchReadFuncAspect.STATE_START:
-				Optional.ofNullable(dataNodeSampleHandlers.get(nodeId)).ifPresent(handler -> handler.handleBatchReadFuncStart(table, aspect.getTime()));
+				Optional.ofNullable(dataNodeSampleHandlers.get(nodeId)).ifPresent(handler -> {
+					handler.handleBatchReadFuncStart(table, aspect.getTime());
+					handler.handleReadBatchSize(aspect.getEventBatchSize());
+				});
 				taskSampleHandler.addTable(table);
 				Optional.ofNullable(dataNodeSampleHandlers.get(nodeId)).ifPresent(
 						dataNodeSampleHandler -> dataNodeSampleHandler.addTable(table)
@@ -202,9 +207,10 @@ public class ObservableAspectTask extends AspectTask {
 			case StreamReadFuncAspect.STATE_START:
 				List<String> tables = aspect.getTables();
 				taskSampleHandler.handleStreamReadStart(tables);
-				Optional.ofNullable(dataNodeSampleHandlers.get(nodeId)).ifPresent(
-						handler -> handler.handleStreamReadStreamStart(tables, aspect.getStreamStartedTime())
-				);
+				Optional.ofNullable(dataNodeSampleHandlers.get(nodeId)).ifPresent(handler -> {
+					handler.handleStreamReadStreamStart(tables, aspect.getStreamStartedTime());
+					handler.handleReadBatchSize(aspect.getEventBatchSize());
+				});
 
 				aspect.streamingReadCompleteConsumers(events -> {
 					if (null == events || events.size() == 0) {
@@ -305,6 +311,22 @@ public class ObservableAspectTask extends AspectTask {
 		return null;
 	}
 
+	public Void handleConcurrentWriteStats(ConcurrentWriteStatsAspect aspect) {
+		String nodeId = aspect.getDataProcessorContext().getNode().getId();
+		Optional.ofNullable(dataNodeSampleHandlers.get(nodeId)).ifPresent(handler -> handler.handleTargetConcurrentWrite(
+				aspect.getSkew(), aspect.getFullBarriers(), aspect.getPartitionBarriers(), aspect.getBarrierWaitMs()));
+
+		return null;
+	}
+
+	public Void handleStateMapStats(StateMapStatsAspect aspect) {
+		String nodeId = aspect.getDataProcessorContext().getNode().getId();
+		Optional.ofNullable(dataNodeSampleHandlers.get(nodeId)).ifPresent(handler -> handler.handleStateMapStats(
+				aspect.getHits(), aspect.getMisses(), aspect.getFlushes(), aspect.getFlushedEntries(), aspect.getFlushCostMs()));
+
+		return null;
+	}
+
 	public Void handleDropTableFunc(DropTableFuncAspect aspect) {
 		String nodeId = aspect.getDataProcessorContext().getNode().getId();
 		switch (aspect.getState()) {
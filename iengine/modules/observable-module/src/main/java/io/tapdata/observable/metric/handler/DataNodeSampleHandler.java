@@ -45,6 +45,16 @@ public class DataNodeSampleHandler extends AbstractNodeSampleHandler {
     static final String SNAPSHOT_SOURCE_READ_TIME_COST_AVG = "snapshotSourceReadTimeCostAvg";
     static final String INCR_SOURCE_READ_TIME_COST_AVG     = "incrementalSourceReadTimeCostAvg";
     static final String TARGET_WRITE_TIME_COST_AVG         = "targetWriteTimeCostAvg";
+    static final String READ_BATCH_SIZE                    = "readBatchSize";
+    static final String TARGET_WRITE_SKEW                  = "targetWriteSkew";
+    static final String TARGET_WRITE_ROWS_PER_CALL_AVG     = "targetWriteRowsPerCallAvg";
+    static final String TARGET_WRITE_FULL_BARRIERS         = "targetWriteFullBarriers";
+    static final String TARGET_WRITE_PARTITION_BARRIERS    = "targetWritePartitionBarriers";
+    static final String TARGET_WRITE_BARRIER_WAIT_MS       = "targetWriteBarrierWaitMs";
+    static final String STATE_MAP_HIT_RATE                 = "stateMapHitRate";
+    static final String STATE_MAP_FLUSHES                  = "stateMapFlushes";
+    static final String STATE_MAP_FLUSHED_ENTRIES          = "stateMapFlushedEntries";
+    static final String STATE_MAP_FLUSH_COST_MS            = "stateMapFlushCostMs";
 
     static final String CURR_SNAPSHOT_TABLE                   = "currentSnapshotTable";
     static final String CURR_SNAPSHOT_TABLE_ROW_TOTAL         = "currentSnapshotTableRowTotal";
@@ -60,6 +70,7 @@ public class DataNodeSampleHandler extends AbstractNodeSampleHandler {
     private AverageSampler snapshotSourceReadTimeCostAvg;
     private AverageSampler incrementalSourceReadTimeCostAvg;
     private WriteCostAvgSampler targetWriteTimeCostAvg;
+    private AverageSampler targetWriteRowsPerCallAvg;
 
     private final Set<String> nodeTables = new HashSet<>();
 
@@ -69,6 +80,15 @@ public class DataNodeSampleHandler extends AbstractNodeSampleHandler {
 
     private Long snapshotStartAt = null;
     private Long snapshotDoneAt = null;
+    private Integer readBatchSize = null;
+    private Double targetWriteSkew = null;
+    private Long targetWriteFullBarriers = null;
+    private Long targetWritePartitionBarriers = null;
+    private Long targetWriteBarrierWaitMs = null;
+    private Double stateMapHitRate = null;
+    private Long stateMapFlushes = null;
+    private Long stateMapFlushedEntries = null;
+    private Long stateMapFlushCostMs = null;
 
     @Override
     List<String> samples() {
@@ -97,6 +117,8 @@ public class DataNodeSampleHandler extends AbstractNodeSampleHandler {
         snapshotInsertRowCounter = getCounterSampler(values, SNAPSHOT_INSERT_ROW_TOTAL);
         snapshotSourceReadTimeCostAvg = collector.getAverageSampler(SNAPSHOT_SOURCE_READ_TIME_COST_AVG);
         targetWriteTimeCostAvg = collector.getWriteCostAvgSampler(TARGET_WRITE_TIME_COST_AVG);
+        // record events given to each write record call of the target
+        targetWriteRowsPerCallAvg = collector.getAverageSampler(TARGET_WRITE_ROWS_PER_CALL_AVG);
 
         Number retrieveSnapshotStartAt = values.getOrDefault(SNAPSHOT_START_AT, null);
         if (retrieveSnapshotStartAt != null) {
@@ -117,6 +139,18 @@ public class DataNodeSampleHandler extends AbstractNodeSampleHandler {
             return currentSnapshotTableRowTotalMap.get(currentSnapshotTable);
         });
         collector.addSampler(CURR_SNAPSHOT_TABLE_INSERT_ROW_TOTAL, () -> currentSnapshotTableInsertRowTotal);
+        // batch size chosen by the source node for the latest read call
+        collector.addSampler(READ_BATCH_SIZE, () -> readBatchSize);
+        // busiest writer thread load / average load of the concurrent target writer
+        collector.addSampler(TARGET_WRITE_SKEW, () -> targetWriteSkew);
+        // barriers of the concurrent target writer and the time writer threads waited for them
+        collector.addSampler(TARGET_WRITE_FULL_BARRIERS, () -> targetWriteFullBarriers);
+        collector.addSampler(TARGET_WRITE_PARTITION_BARRIERS, () -> targetWritePartitionBarriers);
+        collector.addSampler(TARGET_WRITE_BARRIER_WAIT_MS, () -> targetWriteBarrierWaitMs);
+        collector.addSampler(STATE_MAP_HIT_RATE, () -> stateMapHitRate);
+        collector.addSampler(STATE_MAP_FLUSHES, () -> stateMapFlushes);
+        collector.addSampler(STATE_MAP_FLUSHED_ENTRIES, () -> stateMapFlushedEntries);
+        collector.addSampler(STATE_MAP_FLUSH_COST_MS, () -> stateMapFlushCostMs);
     }
 
     public void addTable(String... tables) {
@@ -165,6 +199,28 @@ public class DataNodeSampleHandler extends AbstractNodeSampleHandler {
         Optional.ofNullable(snapshotInsertRowCounter).ifPresent(counter -> counter.inc(size));
     }
 
+    public void handleReadBatchSize(int batchSize) {
+        readBatchSize = batchSize;
+    }
+
+    public void handleTargetConcurrentWrite(Double skew, long fullBarriers, long partitionBarriers, long barrierWaitMs) {
+        if (null != skew) {
+            targetWriteSkew = skew;
+        }
+        targetWriteFullBarriers = fullBarriers;
+        targetWritePartitionBarriers = partitionBarriers;
+        targetWriteBarrierWaitMs = barrierWaitMs;
+    }
+
+    public void handleStateMapStats(long hits, long misses, long flushes, long flushedEntries, long flushCostMs) {
+        if (hits + misses > 0) {
+            stateMapHitRate = hits * 100D / (hits + misses);
+        }
+        stateMapFlushes = flushes;
+        stateMapFlushedEntries = flushedEntries;
+        stateMapFlushCostMs = flushCostMs;
+    }
+
     public void handleBatchReadEnqueued(Long enqueuedTime) {
         batchAcceptLastTs = enqueuedTime;
     }
@@ -307,6 +363,7 @@ public class DataNodeSampleHandler extends AbstractNodeSampleHandler {
 
     public void handleWriteRecordStart(Long startAt, HandlerUtil.EventTypeRecorder recorder) {
         Optional.ofNullable(targetWriteTimeCostAvg).ifPresent(average -> average.setWriteRecordAcceptLastTs(startAt));
+        Optional.ofNullable(targetWriteRowsPerCallAvg).ifPresent(average -> average.add(recorder.getTotal()));
         Optional.ofNullable(inputDdlCounter).ifPresent(counter -> counter.inc(recorder.getDdlTotal()));
         Optional.ofNullable(inputInsertCounter).ifPresent(counter -> counter.inc(recorder.getInsertTotal()));
         Optional.ofNullable(inputUpdateCounter).ifPresent(counter -> counter.inc(recorder.getUpdateTotal()));
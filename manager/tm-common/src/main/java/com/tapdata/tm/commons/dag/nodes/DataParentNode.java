@@ -70,6 +70,16 @@ public abstract class DataParentNode<S> extends Node<S> {
 	private Boolean cdcConcurrent;
 	/** 增量写入线程数*/
 	private Integer cdcConcurrentWriteNum;
+	/** 是否开启全量多表并发读取*/
+	private Boolean initialConcurrentRead;
+	/** 全量同时读取的表数*/
+	private Integer initialConcurrentReadNum;
+	/** 是否开启大表分段并发读取*/
+	private Boolean initialPartitionRead;
+	/** 每个分段的行数*/
+	private Long initialPartitionReadSize;
+	/** 单表分段读取线程数*/
+	private Integer initialPartitionReadNum;
     /**
      * constructor for node
      *
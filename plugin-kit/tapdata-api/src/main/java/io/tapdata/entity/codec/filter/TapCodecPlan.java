@@ -0,0 +1,123 @@
+package io.tapdata.entity.codec.filter;
+
+import io.tapdata.entity.codec.ToTapValueCodec;
+import io.tapdata.entity.schema.TapField;
+import io.tapdata.entity.schema.type.TapType;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Codec of every field of a table, built once per schema, so converting a row does not look up the type and codec of
+ * each field again.
+ * <p>
+ * Fields are addressed by index. Rows mostly list their fields in schema order, so the field after the last matched
+ * one is tried before looking the name up.
+ * <p>
+ * Plans are built at a schema version, DDL handling calls {@link #schemaChanged()} once fields of a schema are added,
+ * removed, renamed or replaced, so every plan built before is stale, see {@link #isStale(Map)}. A field whose type is
+ * changed in place is resolved again on the fly.
+ */
+public class TapCodecPlan {
+    private static final AtomicLong SCHEMA_VERSION = new AtomicLong();
+
+    private final Map<String, TapField> nameFieldMap;
+    private final long schemaVersion;
+    private final int fieldCount;
+    private final FieldCodec[] fieldCodecs;
+    private final Map<String, Integer> indexes;
+    private final Function<TapType, ToTapValueCodec<?>> schemaCodecFunction;
+
+    public TapCodecPlan(Map<String, TapField> nameFieldMap, Function<TapType, ToTapValueCodec<?>> schemaCodecFunction) {
+        this.nameFieldMap = nameFieldMap;
+        this.schemaVersion = SCHEMA_VERSION.get();
+        this.schemaCodecFunction = schemaCodecFunction;
+        this.fieldCount = nameFieldMap.size();
+        this.fieldCodecs = new FieldCodec[fieldCount];
+        this.indexes = new HashMap<>(fieldCount * 4 / 3 + 1);
+        int index = 0;
+        for (Map.Entry<String, TapField> entry : nameFieldMap.entrySet()) {
+            if (index >= fieldCount) {
+                break;
+            }
+            fieldCodecs[index] = entry.getValue() == null ? null : new FieldCodec(entry.getKey(), entry.getValue(), schemaCodecFunction);
+            indexes.put(entry.getKey(), index);
+            index++;
+        }
+    }
+
+    /**
+     * Called after fields of a schema are added, removed, renamed or replaced in place of its name field map
+     */
+    public static void schemaChanged() {
+        SCHEMA_VERSION.incrementAndGet();
+    }
+
+    /**
+     * @return true when the plan is of another map, or the schema changed since it was built
+     */
+    public boolean isStale(Map<String, TapField> nameFieldMap) {
+        return this.nameFieldMap != nameFieldMap || schemaVersion != SCHEMA_VERSION.get();
+    }
+
+    /**
+     * @param position index to try first, moved after the matched field, only for top level fields of one row
+     * @return null for fields not in the schema
+     */
+    public FieldCodec field(String fieldName, int[] position) {
+        int index = position[0];
+        FieldCodec fieldCodec = index < fieldCount ? fieldCodecs[index] : null;
+        if (null == fieldCodec || !fieldCodec.name.equals(fieldName)) {
+            Integer found = indexes.get(fieldName);
+            if (null == found) {
+                return null;
+            }
+            index = found;
+            fieldCodec = fieldCodecs[index];
+        }
+        position[0] = index + 1;
+        return fieldCodec;
+    }
+
+    public FieldCodec field(String fieldName) {
+        Integer index = indexes.get(fieldName);
+        return null == index ? null : fieldCodecs[index];
+    }
+
+    public static class FieldCodec {
+        private final String name;
+        private final TapField field;
+        private final TapType tapType;
+        private final ToTapValueCodec<?> schemaCodec;
+        private final Function<TapType, ToTapValueCodec<?>> schemaCodecFunction;
+
+        FieldCodec(String name, TapField field, Function<TapType, ToTapValueCodec<?>> schemaCodecFunction) {
+            this.name = name;
+            this.field = field;
+            this.tapType = field.getTapType();
+            this.schemaCodecFunction = schemaCodecFunction;
+            this.schemaCodec = null == tapType ? null : schemaCodecFunction.apply(tapType);
+        }
+
+        public String getDataType() {
+            return field.getDataType();
+        }
+
+        public TapType getTapType() {
+            return field.getTapType();
+        }
+
+        /**
+         * @return codec decided by the schema type, null if the codec should be decided by the value
+         */
+        public ToTapValueCodec<?> getSchemaCodec() {
+            TapType currentTapType = field.getTapType();
+            if (currentTapType == tapType) {
+                return schemaCodec;
+            }
+            return null == currentTapType ? null : schemaCodecFunction.apply(currentTapType);
+        }
+    }
+}
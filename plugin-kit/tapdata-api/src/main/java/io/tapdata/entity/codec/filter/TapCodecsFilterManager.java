@@ -21,16 +21,20 @@ import io.tapdata.entity.utils.InstanceFactory;
 import io.tapdata.entity.utils.JavaTypesToTapTypes;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicReference;
 
 import static io.tapdata.entity.simplify.TapSimplify.*;
 
 public class TapCodecsFilterManager {
     private static final String TAG = TapCodecsFilterManager.class.getSimpleName();
+    private static final int MAX_CODEC_PLANS = 1024;
     private MapIteratorEx mapIteratorToTapValue;
     private MapIteratorEx mapIteratorFromTapValue;
     private final TapCodecsRegistry codecsRegistry;
+    /**
+     * Codec plans by name field map instance, see {@link #getCodecPlan(Map)}
+     */
+    private final Map<Map<String, TapField>, TapCodecPlan> codecPlans = Collections.synchronizedMap(new IdentityHashMap<>());
+    private volatile TapCodecPlan lastCodecPlan;
 
     public TapCodecsFilterManager(TapCodecsRegistry codecsRegistry) {
         this.codecsRegistry = codecsRegistry;
@@ -56,7 +60,9 @@ public class TapCodecsFilterManager {
                 }
             }
         }
-        AtomicReference<NewFieldDetector> newFieldDetectorRef = new AtomicReference<>(newFieldDetector);
+        final NewFieldDetector finalNewFieldDetector = newFieldDetector;
+        final TapCodecPlan codecPlan = nameFieldMap != null ? getCodecPlan(nameFieldMap) : null;
+        final int[] position = new int[1];
         mapIteratorToTapValue.iterate(value, (name, entry, recursive) -> {
             Object theValue = entry;
             String fieldName = name;
@@ -78,12 +84,12 @@ public class TapCodecsFilterManager {
                 if(nameFieldMap != null) {
                     valueCodec = this.codecsRegistry.getCustomToTapValueCodec(theValue.getClass());
 
-                    TapField field = nameFieldMap.get(fieldName);
-                    if(field != null) {
-                        dataType = field.getDataType();
-                        typeFromSchema = field.getTapType();
+                    TapCodecPlan.FieldCodec fieldCodec = recursive ? codecPlan.field(fieldName) : codecPlan.field(fieldName, position);
+                    if(fieldCodec != null) {
+                        dataType = fieldCodec.getDataType();
+                        typeFromSchema = fieldCodec.getTapType();
                         if(typeFromSchema != null && valueCodec == null) {
-                            valueCodec = getValueCodec(typeFromSchema);
+                            valueCodec = fieldCodec.getSchemaCodec();
                         }
                     } else {
                         newField = true;
@@ -127,8 +133,8 @@ public class TapCodecsFilterManager {
 
                     if(newField) {
                         //Means new field.
-                        if(!recursive && newFieldDetectorRef.get() != null) {
-                            newFieldDetectorRef.get().detected(field(fieldName, typeFromSchema.getClass().getSimpleName()).tapType(typeFromSchema));
+                        if(!recursive && finalNewFieldDetector != null) {
+                            finalNewFieldDetector.detected(field(fieldName, typeFromSchema.getClass().getSimpleName()).tapType(typeFromSchema));
                         }
                     }
                     if(originTapValue != null) {
@@ -142,8 +148,8 @@ public class TapCodecsFilterManager {
                     return tapValue;
                 }
                 //Means new field.
-                if(newField && !recursive && newFieldDetectorRef.get() != null && typeFromSchema != null) {
-                    newFieldDetectorRef.get().detected(field(fieldName, typeFromSchema.getClass().getSimpleName()).tapType(typeFromSchema));
+                if(newField && !recursive && finalNewFieldDetector != null && typeFromSchema != null) {
+                    finalNewFieldDetector.detected(field(fieldName, typeFromSchema.getClass().getSimpleName()).tapType(typeFromSchema));
                 }
             }
             if(originTapValue != null && originTapValue.getValue().equals(entry)) {
@@ -153,6 +159,26 @@ public class TapCodecsFilterManager {
         });
     }
 
+    /**
+     * @return codec plan of the schema, rebuilt after {@link TapCodecPlan#schemaChanged()}
+     */
+    public TapCodecPlan getCodecPlan(Map<String, TapField> nameFieldMap) {
+        TapCodecPlan codecPlan = lastCodecPlan;
+        if(codecPlan != null && !codecPlan.isStale(nameFieldMap)) {
+            return codecPlan;
+        }
+        codecPlan = codecPlans.get(nameFieldMap);
+        if(codecPlan == null || codecPlan.isStale(nameFieldMap)) {
+            if(codecPlans.size() >= MAX_CODEC_PLANS) {
+                codecPlans.clear();
+            }
+            codecPlan = new TapCodecPlan(nameFieldMap, this::getValueCodec);
+            codecPlans.put(nameFieldMap, codecPlan);
+        }
+        lastCodecPlan = codecPlan;
+        return codecPlan;
+    }
+
     private ToTapValueCodec<?> getTapValueCodec(Object theValue) {
         return this.codecsRegistry.getToTapValueCodec(theValue.getClass());
     }
@@ -175,7 +201,8 @@ public class TapCodecsFilterManager {
     }
 
     public Map<String, TapValue<?, ?>> transformFromTapValueMap(Map<String, Object> tapValueMap, Map<String, TapField> sourceNameFieldMap) {
-        Map<String, TapValue<?, ?>> valueMap = new ConcurrentHashMap<>();
+        // only filled by this thread, and mostly left empty
+        Map<String, TapValue<?, ?>> valueMap = new HashMap<>();
         mapIteratorFromTapValue.iterate(tapValueMap, (fieldName, object, recursive) -> {
 //            Object object = stringTapValueEntry.getValue();
             if(object instanceof TapValue) {
@@ -199,6 +226,7 @@ public class TapCodecsFilterManager {
                     if(sourceNameFieldMap != null && !sourceNameFieldMap.containsKey(fieldName)) {
                         //Handle inserted new field
                         sourceNameFieldMap.put(fieldName, field(fieldName, theValue.getOriginType()).tapType(theValue.getTapType()));
+                        TapCodecPlan.schemaChanged();
                     }
                     //TODO Handle updated tapType field?
                     //TODO Handle deleted field?
@@ -244,6 +272,7 @@ public class TapCodecsFilterManager {
                     if(!nameFieldMap.containsKey(fieldName)) {
                         //Handle inserted new field
                         nameFieldMap.put(fieldName, field(fieldName, theValue.getOriginType()).tapType(theValue.getTapType()));
+                        TapCodecPlan.schemaChanged();
                     }
                     //TODO Handle updated tapType field?
                     //TODO Handle deleted field?
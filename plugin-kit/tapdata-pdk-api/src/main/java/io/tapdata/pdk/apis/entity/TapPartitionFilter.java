@@ -0,0 +1,59 @@
+package io.tapdata.pdk.apis.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A key range of a table, [leftBoundary, rightBoundary)
+ * Null boundary means the range is open on that side.
+ */
+public class TapPartitionFilter extends TapFilter {
+    private QueryOperator leftBoundary;
+    private QueryOperator rightBoundary;
+
+    public static TapPartitionFilter create() {
+        return new TapPartitionFilter();
+    }
+
+    public TapPartitionFilter leftBoundary(QueryOperator leftBoundary) {
+        this.leftBoundary = leftBoundary;
+        return this;
+    }
+
+    public TapPartitionFilter rightBoundary(QueryOperator rightBoundary) {
+        this.rightBoundary = rightBoundary;
+        return this;
+    }
+
+    /**
+     * @return boundaries of this range as query operators, can be put into {@link TapAdvanceFilter#setOperators(List)} directly
+     */
+    public List<QueryOperator> operators() {
+        List<QueryOperator> operators = new ArrayList<>();
+        if(leftBoundary != null)
+            operators.add(leftBoundary);
+        if(rightBoundary != null)
+            operators.add(rightBoundary);
+        return operators;
+    }
+
+    public QueryOperator getLeftBoundary() {
+        return leftBoundary;
+    }
+
+    public void setLeftBoundary(QueryOperator leftBoundary) {
+        this.leftBoundary = leftBoundary;
+    }
+
+    public QueryOperator getRightBoundary() {
+        return rightBoundary;
+    }
+
+    public void setRightBoundary(QueryOperator rightBoundary) {
+        this.rightBoundary = rightBoundary;
+    }
+
+    public String toString() {
+        return "TapPartitionFilter leftBoundary " + leftBoundary + " rightBoundary " + rightBoundary + " match " + match;
+    }
+}
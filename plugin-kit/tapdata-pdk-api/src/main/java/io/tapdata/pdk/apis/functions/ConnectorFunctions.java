@@ -19,6 +19,7 @@ import java.util.function.Consumer;
 public class  ConnectorFunctions extends ConnectionFunctions<ConnectorFunctions> {
     protected ReleaseExternalFunction releaseExternalFunction;
     protected BatchReadFunction batchReadFunction;
+    protected BatchReadPartitionFunction batchReadPartitionFunction;
     protected StreamReadFunction streamReadFunction;
     protected BatchCountFunction batchCountFunction;
     protected TimestampToStreamOffsetFunction timestampToStreamOffsetFunction;
@@ -188,6 +189,18 @@ public class  ConnectorFunctions extends ConnectionFunctions<ConnectorFunctions>
         return this;
     }
 
+    /**
+     * Flow engine will cut a big table into key ranges and call this method for every range concurrently.
+     * Engine still uses batch read function for small tables, or tables without primary key.
+     *
+     * @param function
+     * @return
+     */
+    public ConnectorFunctions supportBatchReadPartition(BatchReadPartitionFunction function) {
+        batchReadPartitionFunction = function;
+        return this;
+    }
+
     /**
      *
      */
@@ -259,6 +272,10 @@ public class  ConnectorFunctions extends ConnectionFunctions<ConnectorFunctions>
         return batchReadFunction;
     }
 
+    public BatchReadPartitionFunction getBatchReadPartitionFunction() {
+        return batchReadPartitionFunction;
+    }
+
     public StreamReadFunction getStreamReadFunction() {
         return streamReadFunction;
     }
@@ -22,6 +22,7 @@ public enum PDKMethod {
     SOURCE_BATCH_COUNT,
 
     SOURCE_BATCH_READ,
+    SOURCE_BATCH_READ_PARTITION,
     SOURCE_BATCH_OFFSET,
     SOURCE_QUERY_BY_FILTER,
     SOURCE_QUERY_BY_ADVANCE_FILTER,
@@ -0,0 +1,25 @@
+package io.tapdata.pdk.apis.functions.connector.source;
+
+import io.tapdata.entity.event.TapEvent;
+import io.tapdata.entity.schema.TapTable;
+import io.tapdata.pdk.apis.context.TapConnectorContext;
+import io.tapdata.pdk.apis.entity.TapPartitionFilter;
+import io.tapdata.pdk.apis.functions.connector.TapConnectorFunction;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Read one key range of a table, flow engine cuts a big table into ranges and read them concurrently.
+ * Engine may call this method from several threads at the same time for the same table.
+ */
+public interface BatchReadPartitionFunction extends TapConnectorFunction {
+    /**
+     * @param connectorContext the node context in a DAG
+     * @param table the table to batch read from
+     * @param partitionFilter the key range to read, only records in this range should be accepted
+     * @param eventBatchSize the batch size for the max record list size when consumer#accept a batch
+     * @param eventsConsumer accept the records
+     */
+    void batchReadPartition(TapConnectorContext connectorContext, TapTable table, TapPartitionFilter partitionFilter, int eventBatchSize, Consumer<List<TapEvent>> eventsConsumer) throws Throwable;
+}
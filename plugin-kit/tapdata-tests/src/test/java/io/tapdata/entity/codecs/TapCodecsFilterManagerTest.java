@@ -4,6 +4,7 @@ import io.tapdata.entity.codec.FromTapValueCodec;
 import io.tapdata.entity.codec.TapCodecsRegistry;
 import io.tapdata.entity.codec.ToTapValueCodec;
 import io.tapdata.entity.codec.detector.impl.NewFieldDetector;
+import io.tapdata.entity.codec.filter.TapCodecPlan;
 import io.tapdata.entity.codec.filter.TapCodecsFilterManager;
 import io.tapdata.entity.conversion.TableFieldTypesGenerator;
 import io.tapdata.entity.conversion.TargetTypesGenerator;
@@ -505,4 +506,69 @@ public class TapCodecsFilterManagerTest {
         assertTrue(map.get("map") instanceof Map);
         assertTrue(((Map<?, ?>)((Map<?, ?>) map.get("map")).get("map")).get("a") instanceof DateTime);
     }
+
+    @Test
+    public void testCodecPlanKeptUntilSchemaChanged() {
+        TapCodecsFilterManager codecsFilterManager = TapCodecsFilterManager.create(TapCodecsRegistry.create());
+        Map<String, TapField> nameFieldMap = new LinkedHashMap<>();
+        nameFieldMap.put("id", field("id", "varchar").tapType(tapString().bytes(50L)));
+        Map<String, TapField> otherNameFieldMap = new LinkedHashMap<>(nameFieldMap);
+
+        TapCodecPlan codecPlan = codecsFilterManager.getCodecPlan(nameFieldMap);
+        TapCodecPlan otherCodecPlan = codecsFilterManager.getCodecPlan(otherNameFieldMap);
+        assertNotSame(codecPlan, otherCodecPlan);
+        assertSame(codecPlan, codecsFilterManager.getCodecPlan(nameFieldMap));
+        assertSame(otherCodecPlan, codecsFilterManager.getCodecPlan(otherNameFieldMap));
+
+        TapCodecPlan.schemaChanged();
+        assertTrue(codecPlan.isStale(nameFieldMap));
+        TapCodecPlan rebuilt = codecsFilterManager.getCodecPlan(nameFieldMap);
+        assertNotSame(codecPlan, rebuilt);
+        assertSame(rebuilt, codecsFilterManager.getCodecPlan(nameFieldMap));
+    }
+
+    @Test
+    public void testCodecPlanAfterFieldRenamed() {
+        TapCodecsFilterManager codecsFilterManager = TapCodecsFilterManager.create(TapCodecsRegistry.create());
+        Map<String, TapField> nameFieldMap = new LinkedHashMap<>();
+        nameFieldMap.put("id", field("id", "varchar").tapType(tapString().bytes(50L)));
+        nameFieldMap.put("a", field("a", "varchar").tapType(tapString().bytes(50L)));
+
+        Map<String, Object> map = map(entry("id", "1"), entry("a", "aaa"));
+        codecsFilterManager.transformToTapValueMap(map, nameFieldMap);
+        assertEquals("varchar", ((TapValue<?, ?>) map.get("a")).getOriginType());
+
+        //Rename a to b, same count of fields
+        nameFieldMap.remove("a");
+        nameFieldMap.put("b", field("b", "number(32)").tapType(tapNumber().bit(32)));
+        TapCodecPlan.schemaChanged();
+
+        map = map(entry("id", "1"), entry("b", 5));
+        codecsFilterManager.transformToTapValueMap(map, nameFieldMap);
+        TapValue<?, ?> tapValue = (TapValue<?, ?>) map.get("b");
+        assertTrue(tapValue instanceof TapNumberValue);
+        assertEquals("number(32)", tapValue.getOriginType());
+    }
+
+    @Test
+    public void testCodecPlanAfterFieldTypeAltered() {
+        TapCodecsFilterManager codecsFilterManager = TapCodecsFilterManager.create(TapCodecsRegistry.create());
+        Map<String, TapField> nameFieldMap = new LinkedHashMap<>();
+        nameFieldMap.put("id", field("id", "varchar").tapType(tapString().bytes(50L)));
+        nameFieldMap.put("a", field("a", "varchar").tapType(tapString().bytes(50L)));
+
+        Map<String, Object> map = map(entry("id", "1"), entry("a", "aaa"));
+        codecsFilterManager.transformToTapValueMap(map, nameFieldMap);
+        assertTrue(map.get("a") instanceof TapStringValue);
+
+        //Alter type of a, the field is put again
+        nameFieldMap.put("a", field("a", "int").tapType(tapNumber().bit(32)));
+        TapCodecPlan.schemaChanged();
+
+        map = map(entry("id", "1"), entry("a", 5));
+        codecsFilterManager.transformToTapValueMap(map, nameFieldMap);
+        TapValue<?, ?> tapValue = (TapValue<?, ?>) map.get("a");
+        assertTrue(tapValue instanceof TapNumberValue);
+        assertEquals("int", tapValue.getOriginType());
+    }
 }